@@ -0,0 +1,104 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks building and scoring a game from its rolls, with new objects
+ * or with objects recycled by a {@link GamePool}. Run with
+ * {@code -prof gc} to see the bytes allocated per game
+ * ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AllocationBenchmark
+{
+	/**
+	 * The games being built
+	 */
+	@Param({Workload.PERFECT, Workload.RANDOM})
+	public String m_workload;
+
+	/**
+	 * The rolls of each game
+	 */
+	protected int[][] m_rolls;
+
+	/**
+	 * The pool recycling the games
+	 */
+	protected GamePool m_pool;
+
+	/**
+	 * The index of the next game to use
+	 */
+	protected int m_next = 0;
+
+	@Setup
+	public void setup()
+	{
+		m_rolls = Workload.games(m_workload);
+		m_pool = GamePool.get();
+	}
+
+	/**
+	 * Gets the rolls of the next game, cycling through the workload
+	 * @return The rolls
+	 */
+	protected int[] next()
+	{
+		int i = m_next;
+		m_next = i + 1 == m_rolls.length ? 0 : i + 1;
+		return m_rolls[i];
+	}
+
+	@Benchmark
+	public int newGame()
+	{
+		int[] rolls = next();
+		return RollScorer.toGame(rolls, 0, rolls.length).getCumulativeScore(10);
+	}
+
+	@Benchmark
+	public int pooledGame()
+	{
+		int[] rolls = next();
+		ReusableGame g = m_pool.toGame(rolls, 0, rolls.length);
+		int score = g.getCumulativeScore(10);
+		m_pool.release(g);
+		return score;
+	}
+}
@@ -0,0 +1,131 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the creation, the validation and the counting methods of
+ * frames.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FrameBenchmark
+{
+	/**
+	 * The games whose frames are used
+	 */
+	@Param({Workload.PERFECT, Workload.GUTTERS, Workload.SPARES, Workload.RANDOM})
+	public String m_workload;
+
+	/**
+	 * The rolls of each game
+	 */
+	protected int[][] m_rolls;
+
+	/**
+	 * The games
+	 */
+	protected Game[] m_games;
+
+	/**
+	 * The index of the next game to use
+	 */
+	protected int m_next = 0;
+
+	@Setup
+	public void setup()
+	{
+		m_rolls = Workload.games(m_workload);
+		m_games = Workload.toGames(m_rolls);
+	}
+
+	/**
+	 * Gets the index of the next game, cycling through the workload
+	 * @return The index
+	 */
+	protected int next()
+	{
+		int i = m_next;
+		m_next = i + 1 == m_games.length ? 0 : i + 1;
+		return i;
+	}
+
+	/**
+	 * Creates the ten frames of a game through
+	 * {@link NormalFrame#setPinsDown(int, int)} and
+	 * {@link LastFrame#setPinsDown(int, int)}, which validate each roll
+	 */
+	@Benchmark
+	public void setPinsDown(Blackhole bh)
+	{
+		int[] rolls = m_rolls[next()];
+		int p = 0;
+		for (int frame = 1; frame < 10; frame++)
+		{
+			NormalFrame f = new NormalFrame(frame).setPinsDown(1, rolls[p++]);
+			if (rolls[p - 1] != 10)
+			{
+				f.setPinsDown(2, rolls[p++]);
+			}
+			bh.consume(f);
+		}
+		LastFrame f = new LastFrame(10);
+		for (int roll = 1; p < rolls.length; roll++)
+		{
+			f.setPinsDown(roll, rolls[p++]);
+		}
+		bh.consume(f);
+	}
+
+	@Benchmark
+	public void countPinsDown(Blackhole bh)
+	{
+		for (Frame f : m_games[next()].m_frames)
+		{
+			bh.consume(f.countPinsDown());
+		}
+	}
+
+	@Benchmark
+	public void countRolls(Blackhole bh)
+	{
+		for (Frame f : m_games[next()].m_frames)
+		{
+			bh.consume(f.countRolls());
+		}
+	}
+}
@@ -0,0 +1,175 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the scoring and the rendering of complete games.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark
+{
+	/**
+	 * The games being scored
+	 */
+	@Param({Workload.PERFECT, Workload.GUTTERS, Workload.SPARES, Workload.RANDOM})
+	public String m_workload;
+
+	/**
+	 * The rolls of each game
+	 */
+	protected int[][] m_rolls;
+
+	/**
+	 * The games
+	 */
+	protected Game[] m_games;
+
+	/**
+	 * The same games, with a cache of the frame totals
+	 */
+	protected CachedGame[] m_cachedGames;
+
+	/**
+	 * The array receiving the totals computed by {@link RollScorer}
+	 */
+	protected final int[] m_totals = new int[RollScorer.FRAMES];
+
+	/**
+	 * The renderer writing the scoreboards without creating objects
+	 */
+	protected final ScoreboardRenderer m_renderer = new ScoreboardRenderer();
+
+	/**
+	 * The buffer receiving the scoreboards written by {@link #m_renderer}
+	 */
+	protected final ByteBuffer m_board = ByteBuffer.allocateDirect(1024);
+
+	/**
+	 * The index of the next game to use
+	 */
+	protected int m_next = 0;
+
+	@Setup
+	public void setup()
+	{
+		m_rolls = Workload.games(m_workload);
+		m_games = Workload.toGames(m_rolls);
+		m_cachedGames = new CachedGame[m_games.length];
+		for (int i = 0; i < m_games.length; i++)
+		{
+			m_cachedGames[i] = new CachedGame();
+			for (Frame f : m_games[i].m_frames)
+			{
+				m_cachedGames[i].addFrame(f);
+			}
+		}
+	}
+
+	/**
+	 * Gets the index of the next game, cycling through the workload
+	 * @return The index
+	 */
+	protected int next()
+	{
+		int i = m_next;
+		m_next = i + 1 == m_games.length ? 0 : i + 1;
+		return i;
+	}
+
+	@Benchmark
+	public int finalScore()
+	{
+		return m_games[next()].getCumulativeScore(10);
+	}
+
+	@Benchmark
+	public void allCumulativeScores(Blackhole bh)
+	{
+		Game g = m_games[next()];
+		for (int i = 1; i <= 10; i++)
+		{
+			bh.consume(g.getCumulativeScore(i));
+		}
+	}
+
+	@Benchmark
+	public void allCumulativeScoresCached(Blackhole bh)
+	{
+		Game g = m_cachedGames[next()];
+		for (int i = 1; i <= 10; i++)
+		{
+			bh.consume(g.getCumulativeScore(i));
+		}
+	}
+
+	@Benchmark
+	public String render()
+	{
+		return m_games[next()].toString();
+	}
+
+	@Benchmark
+	public String renderCached()
+	{
+		return m_cachedGames[next()].toString();
+	}
+
+	@Benchmark
+	public int renderToBuffer()
+	{
+		m_board.clear();
+		return m_renderer.renderTo(m_games[next()], m_board).position();
+	}
+
+	@Benchmark
+	public int tableScorer()
+	{
+		TableScorer.score(m_games[next()], m_totals, 0);
+		return m_totals[RollScorer.FRAMES - 1];
+	}
+
+	@Benchmark
+	public int rollScorer()
+	{
+		int[] rolls = m_rolls[next()];
+		RollScorer.score(rolls, 0, rolls.length, m_totals, 0);
+		return m_totals[RollScorer.FRAMES - 1];
+	}
+}
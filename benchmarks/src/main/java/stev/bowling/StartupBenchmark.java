@@ -0,0 +1,118 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ProcessBuilder.Redirect;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the time taken by the command line program of
+ * {@link GameDemo} to score a small file of games in a new JVM, from the
+ * start of the process to its end, without class data sharing, with the
+ * default archive of the JDK, and with the archive built by the
+ * {@code appcds} profile of the main project. Build that profile first:
+ * <pre>cd .. &amp;&amp; mvn -B -P appcds -DskipTests package</pre>
+ * The main project is looked for in the parent directory, or in the one
+ * given by the system property {@value #HOME_PROPERTY}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 20)
+@Fork(1)
+public class StartupBenchmark
+{
+	/**
+	 * The name of the system property giving the directory of the main
+	 * project
+	 */
+	public static final String HOME_PROPERTY = "bowling.home";
+
+	/**
+	 * The class data sharing used by the new JVM
+	 */
+	@Param({"off", "default", "appcds"})
+	public String m_sharing;
+
+	/**
+	 * The command starting the program
+	 */
+	protected List<String> m_command;
+
+	/**
+	 * The file receiving the output of the program
+	 */
+	protected File m_output;
+
+	@Setup
+	public void setup() throws IOException
+	{
+		File home = new File(System.getProperty(HOME_PROPERTY, ".."));
+		File jar = new File(home, "target/bowling-test-1.0-SNAPSHOT.jar");
+		File archive = new File(home, "target/bowling.jsa");
+		if (!jar.exists() || (m_sharing.equals("appcds") && !archive.exists()))
+		{
+			throw new IllegalStateException("Build the main project with: mvn -B -P appcds -DskipTests package");
+		}
+		m_command = new ArrayList<String>();
+		m_command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+		if (m_sharing.equals("off"))
+		{
+			m_command.add("-Xshare:off");
+		}
+		else if (m_sharing.equals("appcds"))
+		{
+			m_command.add("-XX:SharedArchiveFile=" + archive.getPath());
+		}
+		m_command.add("-jar");
+		m_command.add(jar.getPath());
+		m_command.add(new File(home, "src/cds/training.txt").getPath());
+		m_output = File.createTempFile("startup", ".txt");
+		m_output.deleteOnExit();
+	}
+
+	@Benchmark
+	public int scoreFile() throws IOException, InterruptedException
+	{
+		Process p = new ProcessBuilder(m_command).redirectOutput(Redirect.to(m_output)).redirectErrorStream(true).start();
+		int status = p.waitFor();
+		if (status != 0)
+		{
+			throw new IllegalStateException("The program ended with status " + status);
+		}
+		return status;
+	}
+}
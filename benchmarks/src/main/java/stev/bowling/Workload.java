@@ -0,0 +1,143 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+import java.util.Random;
+
+/**
+ * The games used by the benchmarks, as sequences of rolls in the format of
+ * {@link RollScorer}.
+ */
+public class Workload
+{
+	/**
+	 * The number of games generated for the random workload
+	 */
+	public static final int RANDOM_GAMES = 1024;
+
+	/**
+	 * The name of the workload made of strikes only
+	 */
+	public static final String PERFECT = "perfect";
+
+	/**
+	 * The name of the workload made of gutters only
+	 */
+	public static final String GUTTERS = "gutters";
+
+	/**
+	 * The name of the workload made of spares only
+	 */
+	public static final String SPARES = "spares";
+
+	/**
+	 * The name of the workload made of random legal games
+	 */
+	public static final String RANDOM = "random";
+
+	private Workload()
+	{
+		super();
+	}
+
+	/**
+	 * Gets the games of a workload
+	 * @param name The name of the workload
+	 * @return An array of games, each one an array of rolls
+	 */
+	public static int[][] games(String name)
+	{
+		if (PERFECT.equals(name))
+		{
+			// LastFrame only accepts a third roll when the first two
+			// knock down exactly ten pins, hence the gutter in frame 10
+			return new int[][] {{10, 10, 10, 10, 10, 10, 10, 10, 10, 10, 0, 10}};
+		}
+		if (GUTTERS.equals(name))
+		{
+			return new int[][] {new int[20]};
+		}
+		if (SPARES.equals(name))
+		{
+			int[] rolls = new int[21];
+			for (int i = 0; i < 20; i += 2)
+			{
+				rolls[i] = 5;
+				rolls[i + 1] = 5;
+			}
+			rolls[20] = 5;
+			return new int[][] {rolls};
+		}
+		if (RANDOM.equals(name))
+		{
+			Random random = new Random(0);
+			int[][] games = new int[RANDOM_GAMES][];
+			for (int i = 0; i < games.length; i++)
+			{
+				games[i] = randomGame(random);
+			}
+			return games;
+		}
+		throw new IllegalArgumentException("No such workload: " + name);
+	}
+
+	/**
+	 * Builds a {@link Game} for each game of a workload
+	 * @param games The games, each one an array of rolls
+	 * @return The games
+	 */
+	public static Game[] toGames(int[][] games)
+	{
+		Game[] out = new Game[games.length];
+		for (int i = 0; i < games.length; i++)
+		{
+			out[i] = RollScorer.toGame(games[i], 0, games[i].length);
+		}
+		return out;
+	}
+
+	/**
+	 * Generates a random legal game
+	 * @param random The source of randomness
+	 * @return The rolls of the game
+	 */
+	protected static int[] randomGame(Random random)
+	{
+		int[] rolls = new int[RollScorer.MAX_ROLLS];
+		int p = 0;
+		for (int frame = 1; frame <= RollScorer.FRAMES; frame++)
+		{
+			int first = random.nextInt(3) == 0 ? 10 : random.nextInt(11);
+			rolls[p++] = first;
+			if (first == 10 && frame < RollScorer.FRAMES)
+			{
+				continue;
+			}
+			int second = random.nextInt(11 - first);
+			rolls[p++] = second;
+			if (frame == RollScorer.FRAMES && first + second == 10)
+			{
+				rolls[p++] = random.nextInt(11);
+			}
+		}
+		int[] game = new int[p];
+		System.arraycopy(rolls, 0, game, 0, p);
+		return game;
+	}
+}
@@ -0,0 +1,48 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+import java.util.SplittableRandom;
+
+/**
+ * Decides the pins knocked down by each roll of a simulated bowler, for
+ * the {@link GameSimulator}.
+ * <p>
+ * A model is called from several threads at once, each with its own source
+ * of randomness, and must therefore not keep any mutable state.
+ */
+public interface BowlerModel
+{
+	/**
+	 * Gets the pins knocked down by a roll on a full rack
+	 * @param frame The frame number, starting at 1
+	 * @param random The source of randomness
+	 * @return The number of pins, from 0 to 10
+	 */
+	public int firstRoll(int frame, SplittableRandom random);
+
+	/**
+	 * Gets the pins knocked down by a roll on the pins left by a first roll
+	 * @param frame The frame number, starting at 1
+	 * @param first The pins knocked down by the first roll, from 0 to 9
+	 * @param random The source of randomness
+	 * @return The number of pins, from 0 to {@code 10 - first}
+	 */
+	public int secondRoll(int frame, int first, SplittableRandom random);
+}
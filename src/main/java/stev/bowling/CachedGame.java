@@ -0,0 +1,394 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+/**
+ * A {@link Game} that remembers the cumulative score of each frame instead
+ * of recomputing it from the first frame on every call to
+ * {@link #getCumulativeScore(int)}.
+ * <p>
+ * The total of a frame depends on the pins of that frame and of the frame
+ * that follows it. The game keeps a copy of the pins of every frame it has
+ * used; when a frame is modified through {@link Frame#setPinsDown(int, int)}
+ * or {@link Frame#reset()}, or when a frame is added, only the totals from
+ * the changed frame onward are computed again. Since frames do not notify
+ * the game when they change, a lookup compares the pins of the frames it
+ * depends on with that copy; this costs a few integer comparisons per frame
+ * but no call to the frames themselves. Frames that are
+ * {@link TrackedFrame}s do notify the game: it listens to those it is
+ * given through {@link #addFrame(Frame)}, does not compare their pins, and
+ * computes their totals from their {@link FrameSummary}. Since a frame
+ * then holds a reference to the game, {@link #detachFrames()} stops
+ * listening to them once the game is no longer used.
+ * <p>
+ * The values returned are always the same as those of {@link Game}.
+ */
+public class CachedGame extends Game
+{
+	/**
+	 * The maximum number of rolls kept for each frame
+	 */
+	protected static final int ROLLS_PER_FRAME = 3;
+
+	/**
+	 * The value stored in the pin copy for a roll a frame does not have
+	 */
+	protected static final int NO_ROLL = Integer.MIN_VALUE;
+
+	/**
+	 * The cumulative score of each frame, valid for the first
+	 * {@link #m_validTotals} frames
+	 */
+	protected final int[] m_totals = new int[10];
+
+	/**
+	 * Whether the score of each frame, or of a frame before it, is still
+	 * waiting for a bonus roll
+	 */
+	protected final boolean[] m_pending = new boolean[10];
+
+	/**
+	 * The frames used to compute the cached totals
+	 */
+	protected final Frame[] m_seenFrames = new Frame[10];
+
+	/**
+	 * A copy of the pins of each frame in {@link #m_seenFrames}, at the time
+	 * the totals were computed
+	 */
+	protected final int[] m_seenPins = new int[10 * ROLLS_PER_FRAME];
+
+	/**
+	 * The tracked frames the game listens to, at their position in the game
+	 */
+	protected final Frame[] m_trackedFrames = new Frame[10];
+
+	/**
+	 * Discards the totals that depend on a tracked frame when it changes
+	 */
+	protected final FrameListener m_listener = new FrameListener()
+	{
+		@Override
+		public void frameChanged(Frame f)
+		{
+			for (int i = 0; i < m_trackedFrames.length; i++)
+			{
+				if (m_trackedFrames[i] == f)
+				{
+					invalidateFrom(i + 1);
+				}
+			}
+		}
+	};
+
+	/**
+	 * The number of frames in the game at the time the totals were computed
+	 */
+	protected int m_seenSize = 0;
+
+	/**
+	 * The number of frames, counted from the first, whose total is cached
+	 */
+	protected int m_validTotals = 0;
+
+	/**
+	 * Whether lookups can skip the comparison with the pin copy; only set
+	 * while rendering the game in {@link #toString()}
+	 */
+	protected boolean m_checked = false;
+
+	/**
+	 * The number of calls to {@link #getCumulativeScore(int)} answered
+	 * from the cache
+	 */
+	protected long m_hits = 0;
+
+	/**
+	 * The number of calls to {@link #getCumulativeScore(int)} that required
+	 * computing at least one total
+	 */
+	protected long m_misses = 0;
+
+	@Override
+	public CachedGame addFrame(Frame f) throws BowlingException
+	{
+		super.addFrame(f);
+		int index = m_frames.size() - 1;
+		if (index < 10 && m_trackedFrames[index] != f)
+		{
+			// The list of frames was emptied directly; the frame that was at
+			// this position is no longer part of the game
+			detachFrame(index);
+			if (f instanceof TrackedFrame)
+			{
+				((TrackedFrame) f).addListener(m_listener);
+				m_trackedFrames[index] = f;
+			}
+		}
+		// The previous last frame now has a successor to take its bonus from
+		invalidateFrom(m_frames.size());
+		return this;
+	}
+
+	@Override
+	public int getCumulativeScore(int frame) throws BowlingException
+	{
+		int size = m_frames.size();
+		if (frame < 1 || frame > size || frame > 10)
+		{
+			return super.getCumulativeScore(frame);
+		}
+		if (!m_checked)
+		{
+			checkFrames(Math.min(frame, size - 1));
+		}
+		if (frame <= m_validTotals)
+		{
+			m_hits++;
+			return m_totals[frame - 1];
+		}
+		m_misses++;
+		computeTotals(Math.min(size, 10));
+		return m_totals[frame - 1];
+	}
+
+	@Override
+	public String toString()
+	{
+		int size = m_frames.size();
+		if (size > 0)
+		{
+			checkFrames(Math.min(10, size) - 1);
+		}
+		m_checked = true;
+		try
+		{
+			return super.toString();
+		}
+		finally
+		{
+			m_checked = false;
+		}
+	}
+
+	/**
+	 * Discards the cached totals of a frame and of all the frames after it.
+	 * This also discards the total of the frame before it, since that total
+	 * may take a bonus from the given frame.
+	 * @param frame The frame number, starting at 1
+	 */
+	public void invalidateFrom(int frame)
+	{
+		int valid = Math.max(0, frame - 2);
+		if (valid < m_validTotals)
+		{
+			m_validTotals = valid;
+		}
+	}
+
+	/**
+	 * Stops listening to the tracked frames of the game. The game remains
+	 * usable, and compares the pins of these frames like those of any other
+	 * frame.
+	 */
+	public void detachFrames()
+	{
+		for (int i = 0; i < m_trackedFrames.length; i++)
+		{
+			detachFrame(i);
+		}
+	}
+
+	/**
+	 * Gets the number of calls to {@link #getCumulativeScore(int)} that were
+	 * answered from the cache
+	 * @return The number of hits
+	 */
+	public long getCacheHits()
+	{
+		return m_hits;
+	}
+
+	/**
+	 * Gets the number of calls to {@link #getCumulativeScore(int)} that
+	 * required computing at least one frame total
+	 * @return The number of misses
+	 */
+	public long getCacheMisses()
+	{
+		return m_misses;
+	}
+
+	/**
+	 * Stops listening to the tracked frame at a position of the game, if
+	 * any
+	 * @param index The index of the frame, starting at 0
+	 */
+	protected void detachFrame(int index)
+	{
+		Frame f = m_trackedFrames[index];
+		if (f != null)
+		{
+			((TrackedFrame) f).removeListener(m_listener);
+			m_trackedFrames[index] = null;
+		}
+	}
+
+	/**
+	 * Compares the frames up to a given index with the copy taken when the
+	 * totals were computed, and discards the totals that depend on a frame
+	 * that has changed.
+	 * @param last The index of the last frame to compare, starting at 0
+	 */
+	protected void checkFrames(int last)
+	{
+		int size = m_frames.size();
+		if (size != m_seenSize)
+		{
+			invalidateFrom(Math.min(size, m_seenSize) + 1);
+			m_seenSize = size;
+		}
+		int limit = Math.min(last, m_validTotals);
+		for (int i = 0; i <= limit; i++)
+		{
+			Frame f = m_frames.get(i);
+			if (f != m_seenFrames[i] || (f != m_trackedFrames[i] && !samePins(f.m_scores, i * ROLLS_PER_FRAME)))
+			{
+				invalidateFrom(i + 1);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Computes the totals of the frames after the last valid one, up to a
+	 * given frame, following the same rules as
+	 * {@link Game#getCumulativeScore(int)}. The pins and the strike of a
+	 * {@link TrackedFrame} are read from its summary.
+	 * @param frame The last frame to compute, starting at 1
+	 */
+	protected void computeTotals(int frame)
+	{
+		int size = m_frames.size();
+		int total = m_validTotals == 0 ? 0 : m_totals[m_validTotals - 1];
+		boolean pending = m_validTotals > 0 && m_pending[m_validTotals - 1];
+		for (int i = m_validTotals; i < frame; i++)
+		{
+			Frame f = m_frames.get(i);
+			remember(i, f);
+			m_pending[i] = pending;
+			if (pending)
+			{
+				m_totals[i] = -1;
+				continue;
+			}
+			FrameSummary summary = f instanceof TrackedFrame ? ((TrackedFrame) f).getSummary() : null;
+			boolean strike = summary != null ? summary.isStrike() : f.getPinsDown(1) == 10;
+			if (i == 9)
+			{
+				if (strike)
+				{
+					total += 10 + f.getPinsDown(2) + f.getPinsDown(3);
+				}
+				else if (f.getPinsDown(1) + f.getPinsDown(2) == 10)
+				{
+					total += 10 + f.getPinsDown(3);
+				}
+				else
+				{
+					total += f.getPinsDown(1) + f.getPinsDown(2);
+				}
+				m_totals[i] = total;
+				continue;
+			}
+			int pins = summary != null ? summary.getPinsDown() : f.countPinsDown();
+			if (pins < 10)
+			{
+				total += pins;
+			}
+			else if (i == size - 1)
+			{
+				pending = true;
+			}
+			else
+			{
+				Frame next = m_frames.get(i + 1);
+				remember(i + 1, next);
+				int first = next.getPinsDown(1);
+				total += 10 + first;
+				if (strike && first != 10)
+				{
+					int second = next.getPinsDown(2);
+					if (second < 0)
+					{
+						pending = true;
+					}
+					total += second;
+				}
+			}
+			m_pending[i] = pending;
+			m_totals[i] = pending ? -1 : total;
+		}
+		if (frame < size)
+		{
+			remember(frame, m_frames.get(frame));
+		}
+		m_validTotals = frame;
+		m_seenSize = size;
+	}
+
+	/**
+	 * Takes a copy of the pins of a frame
+	 * @param index The index of the frame, starting at 0
+	 * @param f The frame
+	 */
+	protected void remember(int index, Frame f)
+	{
+		if (index >= 10)
+		{
+			return;
+		}
+		m_seenFrames[index] = f;
+		int[] scores = f.m_scores;
+		int base = index * ROLLS_PER_FRAME;
+		for (int j = 0; j < ROLLS_PER_FRAME; j++)
+		{
+			m_seenPins[base + j] = j < scores.length ? scores[j] : NO_ROLL;
+		}
+	}
+
+	/**
+	 * Checks whether the pins of a frame are the same as in the copy
+	 * @param scores The pins of the frame
+	 * @param base The position of the frame in the copy
+	 * @return {@code true} if the pins are unchanged
+	 */
+	protected boolean samePins(int[] scores, int base)
+	{
+		for (int j = 0; j < ROLLS_PER_FRAME; j++)
+		{
+			int v = j < scores.length ? scores[j] : NO_ROLL;
+			if (v != m_seenPins[base + j])
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,356 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A game that can be written by several threads and read by many others
+ * without locks.
+ * <p>
+ * The state of the game is an immutable {@link Snapshot}. A writer copies
+ * the current snapshot, applies its change and publishes the copy with a
+ * compare-and-set, starting over if another writer got there first.
+ * Readers never wait: they get the snapshot published last, whose pins and
+ * scores always belong together. Since a snapshot computes its scores when
+ * it is created, reading a score takes constant time.
+ * <p>
+ * Each change is checked by applying it to a {@link NormalFrame} or
+ * {@link LastFrame} holding the same pins, so writers get the same
+ * exceptions as with {@link Game}; a rejected change leaves the game as it
+ * was. The scores are the same as those of
+ * {@link Game#getCumulativeScore(int)}.
+ */
+public class ConcurrentGame
+{
+	/**
+	 * The last published state of the game
+	 */
+	protected final AtomicReference<Snapshot> m_state = new AtomicReference<Snapshot>(Snapshot.EMPTY);
+
+	/**
+	 * Gets the current state of the game
+	 * @return The state
+	 */
+	public Snapshot snapshot()
+	{
+		return m_state.get();
+	}
+
+	/**
+	 * Gets the cumulative score of a frame in the current state of the game
+	 * @param frame The frame number, starting at 1
+	 * @return The score, as returned by {@link Game#getCumulativeScore(int)}
+	 * @throws BowlingException If there is no such frame
+	 */
+	public int getCumulativeScore(int frame) throws BowlingException
+	{
+		return m_state.get().getCumulativeScore(frame);
+	}
+
+	/**
+	 * Adds an empty frame after the last one
+	 * @return The number of the frame added, starting at 1
+	 * @throws BowlingException If the game already has 10 frames
+	 */
+	public int addFrame() throws BowlingException
+	{
+		while (true)
+		{
+			Snapshot current = m_state.get();
+			if (current.m_size == RollScorer.FRAMES)
+			{
+				throw new BowlingException("There is no frame " + (current.m_size + 1));
+			}
+			Snapshot next = new Snapshot(current.m_pins, current.m_size + 1);
+			if (m_state.compareAndSet(current, next))
+			{
+				return next.m_size;
+			}
+		}
+	}
+
+	/**
+	 * Sets the number of pins knocked down by a roll, with the same checks
+	 * as {@link Frame#setPinsDown(int, int)}
+	 * @param frame The frame number, starting at 1
+	 * @param roll The roll number in the frame, starting at 1
+	 * @param pins The number of pins
+	 * @return This game
+	 * @throws BowlingException If there is no such frame, or if the frame
+	 * rejects the roll
+	 */
+	public ConcurrentGame setPinsDown(int frame, int roll, int pins) throws BowlingException
+	{
+		while (true)
+		{
+			Snapshot current = m_state.get();
+			Frame f = current.toFrame(frame);
+			f.setPinsDown(roll, pins);
+			if (m_state.compareAndSet(current, current.with(frame, f)))
+			{
+				return this;
+			}
+		}
+	}
+
+	/**
+	 * Erases the pins of a frame, like {@link Frame#reset()}
+	 * @param frame The frame number, starting at 1
+	 * @return This game
+	 * @throws BowlingException If there is no such frame
+	 */
+	public ConcurrentGame resetFrame(int frame) throws BowlingException
+	{
+		while (true)
+		{
+			Snapshot current = m_state.get();
+			Frame f = current.toFrame(frame);
+			f.reset();
+			if (m_state.compareAndSet(current, current.with(frame, f)))
+			{
+				return this;
+			}
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return m_state.get().toString();
+	}
+
+	/**
+	 * The state of a {@link ConcurrentGame} at some point in time. A
+	 * snapshot never changes once created.
+	 */
+	public static class Snapshot
+	{
+		/**
+		 * The maximum number of rolls kept for each frame
+		 */
+		protected static final int ROLLS_PER_FRAME = 3;
+
+		/**
+		 * The state of a game with no frame
+		 */
+		protected static final Snapshot EMPTY = new Snapshot(emptyPins(), 0);
+
+		/**
+		 * The pins of each roll, {@link #ROLLS_PER_FRAME} per frame, or -1
+		 * for a roll that has not been played
+		 */
+		protected final int[] m_pins;
+
+		/**
+		 * The number of frames in the game
+		 */
+		protected final int m_size;
+
+		/**
+		 * The cumulative score of each frame
+		 */
+		protected final int[] m_totals = new int[RollScorer.FRAMES];
+
+		/**
+		 * Creates a snapshot and computes its scores
+		 * @param pins The pins of each roll; the array is kept and must not
+		 * be modified afterwards
+		 * @param size The number of frames
+		 */
+		protected Snapshot(int[] pins, int size)
+		{
+			super();
+			m_pins = pins;
+			m_size = size;
+			computeTotals();
+		}
+
+		/**
+		 * Gets the number of frames in the game
+		 * @return The number of frames
+		 */
+		public int size()
+		{
+			return m_size;
+		}
+
+		/**
+		 * Gets the number of pins knocked down by a roll
+		 * @param frame The frame number, starting at 1
+		 * @param roll The roll number in the frame, starting at 1
+		 * @return The number of pins, or -1 if the roll has not been played
+		 * @throws BowlingException If there is no such frame or roll
+		 */
+		public int getPinsDown(int frame, int roll) throws BowlingException
+		{
+			checkFrame(frame);
+			if (roll < 1 || roll > (frame == RollScorer.FRAMES ? 3 : 2))
+			{
+				throw new BowlingException("No such roll in this frame");
+			}
+			return m_pins[(frame - 1) * ROLLS_PER_FRAME + roll - 1];
+		}
+
+		/**
+		 * Gets the cumulative score of a frame
+		 * @param frame The frame number, starting at 1
+		 * @return The score, as returned by
+		 * {@link Game#getCumulativeScore(int)}
+		 * @throws BowlingException If there is no such frame
+		 */
+		public int getCumulativeScore(int frame) throws BowlingException
+		{
+			checkFrame(frame);
+			return m_totals[frame - 1];
+		}
+
+		/**
+		 * Creates a {@link Game} with the frames of this snapshot
+		 * @return The game
+		 */
+		public Game toGame()
+		{
+			Game g = new Game();
+			for (int frame = 1; frame <= m_size; frame++)
+			{
+				g.addFrame(toFrame(frame));
+			}
+			return g;
+		}
+
+		@Override
+		public String toString()
+		{
+			return toGame().toString();
+		}
+
+		/**
+		 * Creates a frame holding the pins of a frame of this snapshot
+		 * @param frame The frame number, starting at 1
+		 * @return The frame
+		 * @throws BowlingException If there is no such frame
+		 */
+		protected Frame toFrame(int frame) throws BowlingException
+		{
+			checkFrame(frame);
+			Frame f = frame == RollScorer.FRAMES ? new LastFrame(frame) : new NormalFrame(frame);
+			System.arraycopy(m_pins, (frame - 1) * ROLLS_PER_FRAME, f.m_scores, 0, f.m_scores.length);
+			return f;
+		}
+
+		/**
+		 * Creates a copy of this snapshot where a frame has the pins of
+		 * another frame
+		 * @param frame The frame number, starting at 1
+		 * @param f The frame whose pins are copied
+		 * @return The new snapshot
+		 */
+		protected Snapshot with(int frame, Frame f)
+		{
+			int[] pins = m_pins.clone();
+			System.arraycopy(f.m_scores, 0, pins, (frame - 1) * ROLLS_PER_FRAME, f.m_scores.length);
+			return new Snapshot(pins, m_size);
+		}
+
+		/**
+		 * Checks that a frame exists in this snapshot
+		 * @param frame The frame number, starting at 1
+		 * @throws BowlingException If there is no such frame
+		 */
+		protected void checkFrame(int frame) throws BowlingException
+		{
+			if (frame < 1 || frame > m_size)
+			{
+				throw new BowlingException("Frame #" + frame + " does not exist in this game");
+			}
+		}
+
+		/**
+		 * Computes the cumulative score of every frame, following the same
+		 * rules as {@link Game#getCumulativeScore(int)}, including for
+		 * frames that are not complete
+		 */
+		protected void computeTotals()
+		{
+			int total = 0;
+			boolean pending = false;
+			for (int i = 0; i < m_size; i++)
+			{
+				if (pending)
+				{
+					m_totals[i] = -1;
+					continue;
+				}
+				int base = i * ROLLS_PER_FRAME;
+				int first = m_pins[base];
+				int second = m_pins[base + 1];
+				if (i == RollScorer.FRAMES - 1)
+				{
+					if (first == 10 || first + second == 10)
+					{
+						total += first + second + m_pins[base + 2];
+					}
+					else
+					{
+						total += first + second;
+					}
+					m_totals[i] = total;
+					continue;
+				}
+				int count = first < 0 ? 0 : first + second;
+				if (count < 10)
+				{
+					total += count;
+				}
+				else if (i == m_size - 1)
+				{
+					pending = true;
+				}
+				else
+				{
+					int next = m_pins[base + ROLLS_PER_FRAME];
+					total += 10 + next;
+					if (first == 10 && next != 10)
+					{
+						int after = m_pins[base + ROLLS_PER_FRAME + 1];
+						if (after < 0)
+						{
+							pending = true;
+						}
+						total += after;
+					}
+				}
+				m_totals[i] = pending ? -1 : total;
+			}
+		}
+
+		/**
+		 * Creates the pins of a game where no roll has been played
+		 * @return The pins
+		 */
+		protected static int[] emptyPins()
+		{
+			int[] pins = new int[RollScorer.FRAMES * ROLLS_PER_FRAME];
+			Arrays.fill(pins, -1);
+			return pins;
+		}
+	}
+}
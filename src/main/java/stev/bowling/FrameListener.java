@@ -0,0 +1,32 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+/**
+ * Receives a notice whenever the pins of a {@link TrackedFrame} change.
+ */
+public interface FrameListener
+{
+	/**
+	 * Called after a roll is entered in a frame, or after the frame is
+	 * reset
+	 * @param f The frame
+	 */
+	public void frameChanged(Frame f);
+}
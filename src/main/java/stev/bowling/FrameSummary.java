@@ -0,0 +1,217 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+import java.util.Arrays;
+
+/**
+ * The values derived from the pins of a frame, computed once instead of on
+ * every call: the pins knocked down, the number of rolls, whether the
+ * frame is a strike or a spare, and how many bonus rolls it takes from the
+ * next frames.
+ * <p>
+ * The pins and the rolls are the values returned by
+ * {@link Frame#countPinsDown()} and {@link Frame#countRolls()}, including
+ * for frames that are not complete. A summary belongs to a single
+ * {@link TrackedFrame}, which also keeps the listeners of the frame here.
+ */
+public class FrameSummary
+{
+	/**
+	 * The listeners of the frame, copied on every change so that a
+	 * notification can run while listeners are added or removed
+	 */
+	protected FrameListener[] m_listeners = new FrameListener[0];
+
+	/**
+	 * Whether the values below match the pins of the frame
+	 */
+	protected boolean m_valid = false;
+
+	/**
+	 * The value of {@link Frame#countPinsDown()}
+	 */
+	protected int m_pinsDown;
+
+	/**
+	 * The value of {@link Frame#countRolls()}
+	 */
+	protected int m_rolls;
+
+	/**
+	 * Whether the first roll is a strike
+	 */
+	protected boolean m_strike;
+
+	/**
+	 * Whether the first two rolls are a spare
+	 */
+	protected boolean m_spare;
+
+	/**
+	 * The number of rolls of the next frames counted in the score of the
+	 * frame
+	 */
+	protected int m_bonusRolls;
+
+	/**
+	 * Creates an empty summary
+	 */
+	public FrameSummary()
+	{
+		super();
+	}
+
+	/**
+	 * Gets the number of pins knocked down in the frame
+	 * @return The value of {@link Frame#countPinsDown()}
+	 */
+	public int getPinsDown()
+	{
+		return m_pinsDown;
+	}
+
+	/**
+	 * Gets the number of rolls of the frame
+	 * @return The value of {@link Frame#countRolls()}
+	 */
+	public int getRolls()
+	{
+		return m_rolls;
+	}
+
+	/**
+	 * Determines whether the first roll of the frame is a strike
+	 * @return {@code true} if it is
+	 */
+	public boolean isStrike()
+	{
+		return m_strike;
+	}
+
+	/**
+	 * Determines whether the first two rolls of the frame are a spare
+	 * @return {@code true} if they are
+	 */
+	public boolean isSpare()
+	{
+		return m_spare;
+	}
+
+	/**
+	 * Gets the number of rolls of the next frames counted in the score of
+	 * the frame: 2 after a strike, 1 after a spare, and 0 otherwise and for
+	 * frame 10
+	 * @return The number of rolls
+	 */
+	public int getBonusRolls()
+	{
+		return m_bonusRolls;
+	}
+
+	/**
+	 * Computes the summary from the pins of a frame, unless it is still
+	 * valid
+	 * @param f The frame
+	 * @return This summary
+	 */
+	protected FrameSummary update(Frame f)
+	{
+		if (m_valid)
+		{
+			return this;
+		}
+		int[] scores = f.m_scores;
+		boolean last = f instanceof LastFrame;
+		int first = scores[0];
+		int second = scores[1];
+		// The same arithmetic as the frames, pins not played included
+		int pins = 0;
+		if (first >= 0)
+		{
+			for (int s : scores)
+			{
+				pins += s;
+			}
+		}
+		m_pinsDown = pins;
+		if (last)
+		{
+			m_rolls = first + second < 10 ? 2 : 3;
+		}
+		else
+		{
+			int rolls = 0;
+			while (rolls < scores.length && scores[rolls] > 0)
+			{
+				rolls++;
+			}
+			m_rolls = rolls;
+		}
+		m_strike = first == 10;
+		m_spare = !m_strike && first >= 0 && second >= 0 && first + second == 10;
+		m_bonusRolls = last ? 0 : m_strike ? 2 : m_spare ? 1 : 0;
+		m_valid = true;
+		return this;
+	}
+
+	/**
+	 * Marks the summary as out of date and tells the listeners of the
+	 * frame
+	 * @param f The frame that changed
+	 */
+	protected void invalidate(Frame f)
+	{
+		m_valid = false;
+		for (FrameListener l : m_listeners)
+		{
+			l.frameChanged(f);
+		}
+	}
+
+	/**
+	 * Adds a listener of the frame
+	 * @param listener The listener
+	 */
+	protected void addListener(FrameListener listener)
+	{
+		FrameListener[] listeners = Arrays.copyOf(m_listeners, m_listeners.length + 1);
+		listeners[m_listeners.length] = listener;
+		m_listeners = listeners;
+	}
+
+	/**
+	 * Removes a listener of the frame
+	 * @param listener The listener
+	 */
+	protected void removeListener(FrameListener listener)
+	{
+		for (int i = 0; i < m_listeners.length; i++)
+		{
+			if (m_listeners[i] == listener)
+			{
+				FrameListener[] listeners = new FrameListener[m_listeners.length - 1];
+				System.arraycopy(m_listeners, 0, listeners, 0, i);
+				System.arraycopy(m_listeners, i + 1, listeners, i, listeners.length - i);
+				m_listeners = listeners;
+				return;
+			}
+		}
+	}
+}
@@ -0,0 +1,319 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+/**
+ * Provides one shared, immutable instance for every complete frame.
+ * <p>
+ * A complete frame can only take one of 66 shapes in frames 1 to 9 and one
+ * of 176 shapes in frame 10 (see {@link GameCodec}), so all of them are
+ * created once, for each frame number. The instances are subclasses of
+ * {@link NormalFrame} and {@link LastFrame}, and can therefore be added to
+ * a {@link Game} like any other frame; since many games share them, a game
+ * built from these frames only costs a reference per frame. Any attempt to
+ * modify them throws a {@link BowlingException}.
+ */
+public class Frames
+{
+	/**
+	 * The frames 1 to 9, at index {@code (frame - 1) * 66 + shape}
+	 */
+	protected static final NormalFrame[] s_normal = new NormalFrame[(RollScorer.FRAMES - 1) * GameCodec.NORMAL_SHAPES];
+
+	/**
+	 * The frames 10, at the index of their shape
+	 */
+	protected static final LastFrame[] s_last = new LastFrame[GameCodec.LAST_SHAPES];
+
+	static
+	{
+		for (int frame = 1; frame < RollScorer.FRAMES; frame++)
+		{
+			for (int shape = 0; shape < GameCodec.NORMAL_SHAPES; shape++)
+			{
+				s_normal[(frame - 1) * GameCodec.NORMAL_SHAPES + shape] = new ImmutableNormalFrame(frame,
+						GameCodec.s_shapeFirst[shape], GameCodec.s_shapeSecond[shape]);
+			}
+		}
+		for (int first = 0; first <= 10; first++)
+		{
+			for (int second = 0; first + second <= 10; second++)
+			{
+				if (first + second < 10)
+				{
+					s_last[lastShape(first, second, -1)] = new ImmutableLastFrame(first, second, -1);
+					continue;
+				}
+				for (int third = 0; third <= 10; third++)
+				{
+					s_last[lastShape(first, second, third)] = new ImmutableLastFrame(first, second, third);
+				}
+			}
+		}
+	}
+
+	private Frames()
+	{
+		super();
+	}
+
+	/**
+	 * Gets a strike
+	 * @param frame The frame number, from 1 to 9
+	 * @return The frame
+	 * @throws BowlingException If there is no such frame
+	 */
+	public static NormalFrame strike(int frame) throws BowlingException
+	{
+		return of(frame, 10, 0);
+	}
+
+	/**
+	 * Gets a complete frame with two rolls. A strike in frames 1 to 9 is
+	 * written with 0 as its second roll, the way {@link NormalFrame} stores
+	 * it.
+	 * @param frame The frame number, from 1 to 9
+	 * @param first The pins of the first roll
+	 * @param second The pins of the second roll
+	 * @return The frame
+	 * @throws BowlingException If the frame does not exist or the rolls are
+	 * not possible
+	 */
+	public static NormalFrame of(int frame, int first, int second) throws BowlingException
+	{
+		checkFrameNumber(frame, RollScorer.FRAMES - 1);
+		RollScorer.checkPins(first);
+		RollScorer.checkFrame(first, second);
+		return s_normal[(frame - 1) * GameCodec.NORMAL_SHAPES + GameCodec.s_shapeIndex[first * 11 + second]];
+	}
+
+	/**
+	 * Gets a complete frame 10
+	 * @param first The pins of the first roll
+	 * @param second The pins of the second roll
+	 * @param third The pins of the third roll, or -1 if the first two rolls
+	 * knock down less than 10 pins
+	 * @return The frame
+	 * @throws BowlingException If the rolls are not possible or do not form
+	 * a complete frame
+	 */
+	public static LastFrame last(int first, int second, int third) throws BowlingException
+	{
+		RollScorer.checkPins(first);
+		RollScorer.checkFrame(first, second);
+		if (first + second < 10)
+		{
+			if (third >= 0)
+			{
+				throw new BowlingException("No third roll is allowed");
+			}
+		}
+		else
+		{
+			RollScorer.checkPins(third);
+		}
+		return s_last[lastShape(first, second, third)];
+	}
+
+	/**
+	 * Gets the shared instance of a frame, if the frame is complete
+	 * @param f The frame
+	 * @return The shared frame with the same number and pins, or the frame
+	 * itself if it is not complete or not valid
+	 */
+	public static Frame intern(Frame f)
+	{
+		int[] scores = f.m_scores;
+		try
+		{
+			if (f instanceof LastFrame && f.m_frameNumber == RollScorer.FRAMES)
+			{
+				return last(scores[0], scores[1], scores[2]);
+			}
+			if (f instanceof NormalFrame && f.m_frameNumber < RollScorer.FRAMES)
+			{
+				return of(f.m_frameNumber, scores[0], scores[1]);
+			}
+		}
+		catch (BowlingException e)
+		{
+			// Not complete: keep the frame as it is
+		}
+		return f;
+	}
+
+	/**
+	 * Creates a game made of shared frames
+	 * @param rolls An array containing the rolls of a complete game, in the
+	 * format of {@link RollScorer}
+	 * @param offset The position of the first roll in the array
+	 * @param length The number of rolls in the game
+	 * @return The game
+	 * @throws BowlingException If the rolls do not form a complete, valid
+	 * game
+	 */
+	public static Game toGame(int[] rolls, int offset, int length) throws BowlingException
+	{
+		Game g = new Game();
+		int end = offset + length;
+		int p = offset;
+		for (int frame = 1; frame < RollScorer.FRAMES; frame++)
+		{
+			GameCodec.checkRemaining(p, end, 1);
+			int first = rolls[p++];
+			int second = 0;
+			if (first != 10)
+			{
+				GameCodec.checkRemaining(p, end, 1);
+				second = rolls[p++];
+			}
+			g.addFrame(of(frame, first, second));
+		}
+		GameCodec.checkRemaining(p, end, 2);
+		int first = rolls[p++];
+		int second = rolls[p++];
+		int third = -1;
+		if (first + second == 10)
+		{
+			GameCodec.checkRemaining(p, end, 1);
+			third = rolls[p++];
+		}
+		if (p != end)
+		{
+			throw new BowlingException("There are " + (end - p) + " rolls after frame #10");
+		}
+		return g.addFrame(last(first, second, third));
+	}
+
+	/**
+	 * Gets the shape of a frame 10, numbered the same way as in
+	 * {@link GameCodec}
+	 * @param first The pins of the first roll
+	 * @param second The pins of the second roll
+	 * @param third The pins of the third roll
+	 * @return The shape
+	 */
+	protected static int lastShape(int first, int second, int third)
+	{
+		if (first + second < 10)
+		{
+			return GameCodec.s_shapeIndex[first * 11 + second] - first;
+		}
+		return GameCodec.OPEN_SHAPES + first * 11 + third;
+	}
+
+	/**
+	 * Checks a frame number
+	 * @param frame The frame number
+	 * @param max The largest frame number allowed
+	 * @throws BowlingException If the frame number is not allowed
+	 */
+	protected static void checkFrameNumber(int frame, int max) throws BowlingException
+	{
+		if (frame < 1 || frame > max)
+		{
+			throw new BowlingException("There is no frame " + frame);
+		}
+	}
+
+	/**
+	 * A {@link NormalFrame} whose pins cannot be changed
+	 */
+	protected static class ImmutableNormalFrame extends NormalFrame
+	{
+		/**
+		 * Whether the frame is complete; the constructor of {@link Frame}
+		 * resets the frame before it is
+		 */
+		protected final boolean m_immutable;
+
+		/**
+		 * Creates a frame
+		 * @param frame The frame number
+		 * @param first The pins of the first roll
+		 * @param second The pins of the second roll
+		 */
+		protected ImmutableNormalFrame(int frame, int first, int second)
+		{
+			super(frame);
+			m_scores[0] = first;
+			m_scores[1] = second;
+			m_immutable = true;
+		}
+
+		@Override
+		public NormalFrame setPinsDown(int roll, int pins) throws BowlingException
+		{
+			throw new BowlingException("This frame cannot be modified");
+		}
+
+		@Override
+		public Frame reset()
+		{
+			if (m_immutable)
+			{
+				throw new BowlingException("This frame cannot be modified");
+			}
+			return super.reset();
+		}
+	}
+
+	/**
+	 * A {@link LastFrame} whose pins cannot be changed
+	 */
+	protected static class ImmutableLastFrame extends LastFrame
+	{
+		/**
+		 * Whether the frame is complete; the constructor of {@link Frame}
+		 * resets the frame before it is
+		 */
+		protected final boolean m_immutable;
+
+		/**
+		 * Creates a frame 10
+		 * @param first The pins of the first roll
+		 * @param second The pins of the second roll
+		 * @param third The pins of the third roll, or -1 for none
+		 */
+		protected ImmutableLastFrame(int first, int second, int third)
+		{
+			super(RollScorer.FRAMES);
+			m_scores[0] = first;
+			m_scores[1] = second;
+			m_scores[2] = third;
+			m_immutable = true;
+		}
+
+		@Override
+		public LastFrame setPinsDown(int roll, int pins) throws BowlingException
+		{
+			throw new BowlingException("This frame cannot be modified");
+		}
+
+		@Override
+		public Frame reset()
+		{
+			if (m_immutable)
+			{
+				throw new BowlingException("This frame cannot be modified");
+			}
+			return super.reset();
+		}
+	}
+}
@@ -0,0 +1,201 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the games of an archive written by {@link GameArchiveWriter}.
+ * <p>
+ * The file is mapped in memory, in segments of at most
+ * {@link #SEGMENT_GAMES} games so that archives larger than 2 GB can be
+ * read. Games are decoded into arrays of rolls and scored with
+ * {@link RollScorer}; no {@link Game} or {@link Frame} is ever created.
+ */
+public class GameArchiveReader implements Closeable
+{
+	/**
+	 * The maximum number of games in a mapped segment
+	 */
+	public static final int SEGMENT_GAMES = 1 << 27;
+
+	/**
+	 * Receives the games of an archive, one at a time
+	 */
+	public interface GameVisitor
+	{
+		/**
+		 * Called for each game of the archive
+		 * @param index The position of the game in the archive, starting
+		 * at 0
+		 * @param rolls The rolls of the game; the array is reused for the
+		 * next game
+		 * @param length The number of rolls
+		 * @param totals The cumulative score of each frame; the array is
+		 * reused for the next game
+		 */
+		public void visit(long index, int[] rolls, int length, int[] totals);
+	}
+
+	/**
+	 * The channel reading the file
+	 */
+	protected final FileChannel m_channel;
+
+	/**
+	 * The mapped segments of the file
+	 */
+	protected final MappedByteBuffer[] m_segments;
+
+	/**
+	 * The number of games in the archive
+	 */
+	protected final long m_size;
+
+	/**
+	 * Opens an archive for reading. Games appended after this call are not
+	 * seen by this reader.
+	 * @param file The path of the archive
+	 * @throws IOException If the file cannot be opened, or is not an
+	 * archive
+	 */
+	public GameArchiveReader(Path file) throws IOException
+	{
+		super();
+		m_channel = FileChannel.open(file, StandardOpenOption.READ);
+		try
+		{
+			checkHeader(m_channel);
+			m_size = (m_channel.size() - GameArchiveWriter.HEADER_SIZE) / GameCodec.BYTES;
+			int segments = (int) ((m_size + SEGMENT_GAMES - 1) / SEGMENT_GAMES);
+			m_segments = new MappedByteBuffer[segments];
+			for (int i = 0; i < segments; i++)
+			{
+				long first = (long) i * SEGMENT_GAMES;
+				long games = Math.min(SEGMENT_GAMES, m_size - first);
+				m_segments[i] = m_channel.map(FileChannel.MapMode.READ_ONLY,
+						GameArchiveWriter.HEADER_SIZE + first * GameCodec.BYTES, games * GameCodec.BYTES);
+			}
+		}
+		catch (IOException e)
+		{
+			m_channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Gets the number of games in the archive
+	 * @return The number of games
+	 */
+	public long size()
+	{
+		return m_size;
+	}
+
+	/**
+	 * Gets the code of a game
+	 * @param index The position of the game in the archive, starting at 0
+	 * @return The code of the game, as produced by {@link GameCodec}
+	 */
+	public long getCode(long index)
+	{
+		if (index < 0 || index >= m_size)
+		{
+			throw new IndexOutOfBoundsException("No game #" + index + " in this archive");
+		}
+		return m_segments[(int) (index / SEGMENT_GAMES)].getLong((int) (index % SEGMENT_GAMES) * GameCodec.BYTES);
+	}
+
+	/**
+	 * Decodes a game and computes the cumulative score of its frames
+	 * @param index The position of the game in the archive, starting at 0
+	 * @param totals An array receiving the ten cumulative scores
+	 * @param scratch An array of at least {@link RollScorer#MAX_ROLLS}
+	 * elements receiving the rolls of the game
+	 * @return The final score of the game
+	 */
+	public int score(long index, int[] totals, int[] scratch)
+	{
+		int length = GameCodec.decode(getCode(index), scratch, 0);
+		RollScorer.score(scratch, 0, length, totals, 0);
+		return totals[RollScorer.FRAMES - 1];
+	}
+
+	/**
+	 * Decodes and scores every game of the archive, in order
+	 * @param visitor The visitor receiving each game
+	 */
+	public void scan(GameVisitor visitor)
+	{
+		int[] rolls = new int[RollScorer.MAX_ROLLS];
+		int[] totals = new int[RollScorer.FRAMES];
+		long index = 0;
+		for (MappedByteBuffer segment : m_segments)
+		{
+			ByteBuffer view = segment.duplicate();
+			while (view.hasRemaining())
+			{
+				int length = GameCodec.decode(view.getLong(), rolls, 0);
+				RollScorer.score(rolls, 0, length, totals, 0);
+				visitor.visit(index++, rolls, length, totals);
+			}
+		}
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		m_channel.close();
+	}
+
+	/**
+	 * Checks the header of an archive
+	 * @param channel A channel on the archive
+	 * @throws IOException If the file is not an archive, or its version is
+	 * not supported
+	 */
+	static void checkHeader(FileChannel channel) throws IOException
+	{
+		ByteBuffer header = ByteBuffer.allocate(GameArchiveWriter.HEADER_SIZE);
+		while (header.hasRemaining())
+		{
+			if (channel.read(header, header.position()) < 0)
+			{
+				throw new IOException("The file is not a game archive");
+			}
+		}
+		header.flip();
+		if (header.getInt() != GameArchiveWriter.MAGIC)
+		{
+			throw new IOException("The file is not a game archive");
+		}
+		int version = header.getInt();
+		if (version != GameArchiveWriter.VERSION)
+		{
+			throw new IOException("Unsupported archive version " + version);
+		}
+	}
+}
@@ -0,0 +1,183 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends games to an archive file.
+ * <p>
+ * An archive starts with an 8-byte header: the magic number
+ * {@link #MAGIC} and the format {@link #VERSION}. It is followed by one
+ * 8-byte record per game, holding the code produced by {@link GameCodec}.
+ * All values are big-endian. Games are never modified once written, so
+ * opening an existing archive simply adds games after the last one.
+ */
+public class GameArchiveWriter implements Closeable
+{
+	/**
+	 * The first four bytes of an archive
+	 */
+	public static final int MAGIC = 0x42574C41;
+
+	/**
+	 * The version of the archive format
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * The size of the header, in bytes
+	 */
+	public static final int HEADER_SIZE = 8;
+
+	/**
+	 * The number of games buffered before they are written to the file
+	 */
+	protected static final int BUFFERED_GAMES = 8192;
+
+	/**
+	 * The channel writing to the file
+	 */
+	protected final FileChannel m_channel;
+
+	/**
+	 * The games not written to the file yet
+	 */
+	protected final ByteBuffer m_buffer;
+
+	/**
+	 * A scratch array holding the rolls of a game
+	 */
+	protected final int[] m_rolls = new int[RollScorer.MAX_ROLLS];
+
+	/**
+	 * Opens an archive for writing, creating it if it does not exist
+	 * @param file The path of the archive
+	 * @throws IOException If the file cannot be opened, or is not an
+	 * archive
+	 */
+	public GameArchiveWriter(Path file) throws IOException
+	{
+		super();
+		m_channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.READ);
+		m_buffer = ByteBuffer.allocateDirect(BUFFERED_GAMES * GameCodec.BYTES);
+		try
+		{
+			if (m_channel.size() == 0)
+			{
+				ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+				header.putInt(MAGIC).putInt(VERSION).flip();
+				while (header.hasRemaining())
+				{
+					m_channel.write(header);
+				}
+			}
+			else
+			{
+				GameArchiveReader.checkHeader(m_channel);
+				if ((m_channel.size() - HEADER_SIZE) % GameCodec.BYTES != 0)
+				{
+					throw new IOException("The archive ends with a partial record");
+				}
+			}
+			m_channel.position(m_channel.size());
+		}
+		catch (IOException e)
+		{
+			m_channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Appends a game to the archive
+	 * @param code The code of the game, produced by {@link GameCodec}
+	 * @return This writer
+	 * @throws IOException If the game cannot be written
+	 */
+	public GameArchiveWriter write(long code) throws IOException
+	{
+		if (!m_buffer.hasRemaining())
+		{
+			flush();
+		}
+		m_buffer.putLong(code);
+		return this;
+	}
+
+	/**
+	 * Appends a complete game to the archive
+	 * @param rolls An array containing the rolls of the game, in the format
+	 * of {@link RollScorer}
+	 * @param offset The position of the first roll in the array
+	 * @param length The number of rolls in the game
+	 * @return This writer
+	 * @throws IOException If the game cannot be written
+	 * @throws BowlingException If the rolls do not form a complete, valid
+	 * game
+	 */
+	public GameArchiveWriter write(int[] rolls, int offset, int length) throws IOException, BowlingException
+	{
+		return write(GameCodec.encode(rolls, offset, length));
+	}
+
+	/**
+	 * Appends a complete game to the archive
+	 * @param g The game
+	 * @return This writer
+	 * @throws IOException If the game cannot be written
+	 * @throws BowlingException If the game is not complete or not valid
+	 */
+	public GameArchiveWriter write(Game g) throws IOException, BowlingException
+	{
+		return write(m_rolls, 0, RollScorer.toRolls(g, m_rolls, 0));
+	}
+
+	/**
+	 * Writes the buffered games to the file
+	 * @throws IOException If the games cannot be written
+	 */
+	public void flush() throws IOException
+	{
+		m_buffer.flip();
+		while (m_buffer.hasRemaining())
+		{
+			m_channel.write(m_buffer);
+		}
+		m_buffer.clear();
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		try
+		{
+			flush();
+		}
+		finally
+		{
+			m_channel.close();
+		}
+	}
+}
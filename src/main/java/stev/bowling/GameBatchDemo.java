@@ -0,0 +1,111 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures the throughput of the {@link GameBatchScorer} on random games,
+ * for an increasing number of threads.
+ */
+public class GameBatchDemo
+{
+	/**
+	 * The main method of the program
+	 * @param args Command line arguments: the number of games to score
+	 * (optional, 2,000,000 by default) and the number of times each
+	 * measurement is repeated (optional, 5 by default)
+	 */
+	public static void main(String[] args)
+	{
+		int games = args.length > 0 ? Integer.parseInt(args[0]) : 2000000;
+		int repetitions = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+		int[] offsets = new int[games + 1];
+		int[] rolls = randomGames(new Random(0), offsets);
+		int cores = Runtime.getRuntime().availableProcessors();
+		System.out.println("Scoring " + games + " games, " + cores + " cores available");
+		for (int threads = 1; threads <= cores; threads = nextLevel(threads, cores))
+		{
+			ForkJoinPool pool = new ForkJoinPool(threads);
+			GameBatchScorer scorer = new GameBatchScorer(pool);
+			// The first run lets the JIT compile the scoring loop
+			scorer.scoreAll(rolls, offsets);
+			long best = Long.MAX_VALUE;
+			for (int i = 0; i < repetitions; i++)
+			{
+				long start = System.nanoTime();
+				scorer.scoreAll(rolls, offsets);
+				best = Math.min(best, System.nanoTime() - start);
+			}
+			pool.shutdown();
+			System.out.printf("%3d threads: %,15.0f games/s%n", threads, games * 1e9 / best);
+		}
+	}
+
+	/**
+	 * Gets the next number of threads to measure
+	 * @param threads The current number of threads
+	 * @param cores The number of cores
+	 * @return The next number of threads
+	 */
+	protected static int nextLevel(int threads, int cores)
+	{
+		if (threads < cores && threads * 2 > cores)
+		{
+			return cores;
+		}
+		return threads * 2;
+	}
+
+	/**
+	 * Generates random games, stored one after the other
+	 * @param random The source of randomness
+	 * @param offsets An array receiving the position of the first roll of
+	 * each game, plus the position after the last game
+	 * @return The rolls of all the games
+	 */
+	protected static int[] randomGames(Random random, int[] offsets)
+	{
+		int games = offsets.length - 1;
+		int[] rolls = new int[games * RollScorer.MAX_ROLLS];
+		int p = 0;
+		for (int g = 0; g < games; g++)
+		{
+			offsets[g] = p;
+			for (int frame = 1; frame <= RollScorer.FRAMES; frame++)
+			{
+				int first = random.nextInt(3) == 0 ? 10 : random.nextInt(11);
+				rolls[p++] = first;
+				if (first == 10 && frame < RollScorer.FRAMES)
+				{
+					continue;
+				}
+				int second = random.nextInt(11 - first);
+				rolls[p++] = second;
+				if (frame == RollScorer.FRAMES && first + second == 10)
+				{
+					rolls[p++] = random.nextInt(11);
+				}
+			}
+		}
+		offsets[games] = p;
+		return rolls;
+	}
+}
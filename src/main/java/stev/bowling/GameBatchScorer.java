@@ -0,0 +1,284 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Scores many games at once, splitting the work among the threads of a
+ * {@link ForkJoinPool}.
+ * <p>
+ * The results are returned in a single array organized by columns: the
+ * cumulative score of frame <i>f</i> (starting at 1) of game <i>g</i>
+ * (starting at 0) is at position {@code (f - 1) * n + g}, where <i>n</i> is
+ * the number of games. The last column therefore holds the final score of
+ * every game. Frames whose score is not known yet are
+ * {@link RollScorer#PENDING}.
+ */
+public class GameBatchScorer
+{
+	/**
+	 * The number of games below which a task is not split any further
+	 */
+	protected static final int THRESHOLD = 4096;
+
+	/**
+	 * The pool running the scoring tasks
+	 */
+	protected final ForkJoinPool m_pool;
+
+	/**
+	 * Creates a batch scorer using the common fork-join pool
+	 */
+	public GameBatchScorer()
+	{
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Creates a batch scorer
+	 * @param pool The pool running the scoring tasks
+	 */
+	public GameBatchScorer(ForkJoinPool pool)
+	{
+		super();
+		m_pool = pool;
+	}
+
+	/**
+	 * Scores games stored one after the other in an array of rolls
+	 * @param rolls The rolls of all the games, in the format of
+	 * {@link RollScorer}
+	 * @param offsets The position of the first roll of each game; game
+	 * <i>g</i> spans from {@code offsets[g]} to {@code offsets[g + 1]}, so
+	 * this array has one more element than there are games
+	 * @return The cumulative scores, organized by columns
+	 * @throws BowlingException If one of the games is not valid
+	 */
+	public int[] scoreAll(int[] rolls, int[] offsets) throws BowlingException
+	{
+		int games = offsets.length - 1;
+		int[] columns = new int[games * RollScorer.FRAMES];
+		m_pool.invoke(new RollTask(rolls, null, offsets, columns, 0, games));
+		return columns;
+	}
+
+	/**
+	 * Scores games stored one after the other in an array of rolls
+	 * @param rolls The rolls of all the games, in the format of
+	 * {@link RollScorer}
+	 * @param offsets The position of the first roll of each game; game
+	 * <i>g</i> spans from {@code offsets[g]} to {@code offsets[g + 1]}, so
+	 * this array has one more element than there are games
+	 * @return The cumulative scores, organized by columns
+	 * @throws BowlingException If one of the games is not valid
+	 */
+	public int[] scoreAll(byte[] rolls, int[] offsets) throws BowlingException
+	{
+		int games = offsets.length - 1;
+		int[] columns = new int[games * RollScorer.FRAMES];
+		m_pool.invoke(new RollTask(null, rolls, offsets, columns, 0, games));
+		return columns;
+	}
+
+	/**
+	 * Scores a list of games. The games must not be modified while they
+	 * are being scored.
+	 * <p>
+	 * The games are scored with {@link RollScorer}: a frame whose score is
+	 * not known yet is {@link RollScorer#PENDING}, where
+	 * {@link Game#getCumulativeScore(int)} counts the missing rolls as -1,
+	 * and a game that {@link RollScorer} rejects, such as one whose frame 10
+	 * is a strike followed by 5, throws an exception although
+	 * {@link LastFrame} accepts it.
+	 * @param games The games
+	 * @return The cumulative scores, organized by columns
+	 * @throws BowlingException If one of the games is not valid
+	 */
+	public int[] scoreAll(List<? extends Game> games) throws BowlingException
+	{
+		int[] columns = new int[games.size() * RollScorer.FRAMES];
+		m_pool.invoke(new GameTask(games, columns, 0, games.size()));
+		return columns;
+	}
+
+	/**
+	 * Gets the cumulative score of a frame in an array returned by one of
+	 * the {@code scoreAll} methods
+	 * @param columns The array of scores
+	 * @param game The game, starting at 0
+	 * @param frame The frame, starting at 1
+	 * @return The cumulative score
+	 */
+	public static int getCumulativeScore(int[] columns, int game, int frame)
+	{
+		int games = columns.length / RollScorer.FRAMES;
+		return columns[(frame - 1) * games + game];
+	}
+
+	/**
+	 * Copies the totals of a game into the columns of the result
+	 * @param totals The ten totals of the game
+	 * @param columns The result
+	 * @param game The game, starting at 0
+	 */
+	protected static void scatter(int[] totals, int[] columns, int game)
+	{
+		int games = columns.length / RollScorer.FRAMES;
+		for (int i = 0; i < RollScorer.FRAMES; i++)
+		{
+			columns[i * games + game] = totals[i];
+		}
+	}
+
+	/**
+	 * Scores a range of games stored in an array of rolls
+	 */
+	protected static class RollTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * The rolls, if stored as integers
+		 */
+		protected final int[] m_ints;
+
+		/**
+		 * The rolls, if stored as bytes
+		 */
+		protected final byte[] m_bytes;
+
+		/**
+		 * The position of the first roll of each game
+		 */
+		protected final int[] m_offsets;
+
+		/**
+		 * The result
+		 */
+		protected final int[] m_columns;
+
+		/**
+		 * The first game of the range
+		 */
+		protected final int m_from;
+
+		/**
+		 * The game after the last game of the range
+		 */
+		protected final int m_to;
+
+		RollTask(int[] ints, byte[] bytes, int[] offsets, int[] columns, int from, int to)
+		{
+			super();
+			m_ints = ints;
+			m_bytes = bytes;
+			m_offsets = offsets;
+			m_columns = columns;
+			m_from = from;
+			m_to = to;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if (m_to - m_from > THRESHOLD)
+			{
+				int middle = (m_from + m_to) >>> 1;
+				invokeAll(new RollTask(m_ints, m_bytes, m_offsets, m_columns, m_from, middle),
+						new RollTask(m_ints, m_bytes, m_offsets, m_columns, middle, m_to));
+				return;
+			}
+			int[] totals = new int[RollScorer.FRAMES];
+			for (int g = m_from; g < m_to; g++)
+			{
+				int offset = m_offsets[g];
+				int length = m_offsets[g + 1] - offset;
+				if (m_ints != null)
+				{
+					RollScorer.score(m_ints, offset, length, totals, 0);
+				}
+				else
+				{
+					RollScorer.score(m_bytes, offset, length, totals, 0);
+				}
+				scatter(totals, m_columns, g);
+			}
+		}
+	}
+
+	/**
+	 * Scores a range of games in a list
+	 */
+	protected static class GameTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * The games
+		 */
+		protected final List<? extends Game> m_games;
+
+		/**
+		 * The result
+		 */
+		protected final int[] m_columns;
+
+		/**
+		 * The first game of the range
+		 */
+		protected final int m_from;
+
+		/**
+		 * The game after the last game of the range
+		 */
+		protected final int m_to;
+
+		GameTask(List<? extends Game> games, int[] columns, int from, int to)
+		{
+			super();
+			m_games = games;
+			m_columns = columns;
+			m_from = from;
+			m_to = to;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if (m_to - m_from > THRESHOLD)
+			{
+				int middle = (m_from + m_to) >>> 1;
+				invokeAll(new GameTask(m_games, m_columns, m_from, middle),
+						new GameTask(m_games, m_columns, middle, m_to));
+				return;
+			}
+			int[] rolls = new int[RollScorer.MAX_ROLLS];
+			int[] totals = new int[RollScorer.FRAMES];
+			for (int g = m_from; g < m_to; g++)
+			{
+				int length = RollScorer.toRolls(m_games.get(g), rolls, 0);
+				RollScorer.score(rolls, 0, length, totals, 0);
+				scatter(totals, m_columns, g);
+			}
+		}
+	}
+}
@@ -0,0 +1,229 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+/**
+ * Encodes a complete game into a single {@code long}.
+ * <p>
+ * Frames 1 to 9 can each take one of 66 shapes: a strike, or two rolls
+ * knocking down at most 10 pins. Frame 10 can take one of 176 shapes: 55
+ * open frames, plus 11 ways of knocking down ten pins with the first two
+ * rolls times 11 possible third rolls. The code of a game is the number
+ * written with these shapes as digits, the first frame being the most
+ * significant; since 66<sup>9</sup> &times; 176 is less than
+ * 2<sup>63</sup>, every game fits in 8 bytes.
+ */
+public class GameCodec
+{
+	/**
+	 * The number of bytes taken by an encoded game
+	 */
+	public static final int BYTES = 8;
+
+	/**
+	 * The number of possible shapes of frames 1 to 9
+	 */
+	public static final int NORMAL_SHAPES = 66;
+
+	/**
+	 * The number of possible shapes of frame 10
+	 */
+	public static final int LAST_SHAPES = 176;
+
+	/**
+	 * The number of open shapes of frame 10
+	 */
+	protected static final int OPEN_SHAPES = 55;
+
+	/**
+	 * The first roll of each shape of frames 1 to 9
+	 */
+	protected static final byte[] s_shapeFirst = new byte[NORMAL_SHAPES];
+
+	/**
+	 * The second roll of each shape of frames 1 to 9
+	 */
+	protected static final byte[] s_shapeSecond = new byte[NORMAL_SHAPES];
+
+	/**
+	 * The shape of frames 1 to 9 for each pair of rolls, at index
+	 * {@code first * 11 + second}
+	 */
+	protected static final byte[] s_shapeIndex = new byte[11 * 11];
+
+	static
+	{
+		int shape = 0;
+		for (int first = 0; first <= 10; first++)
+		{
+			for (int second = 0; first + second <= 10; second++)
+			{
+				s_shapeFirst[shape] = (byte) first;
+				s_shapeSecond[shape] = (byte) second;
+				s_shapeIndex[first * 11 + second] = (byte) shape;
+				shape++;
+			}
+		}
+	}
+
+	private GameCodec()
+	{
+		super();
+	}
+
+	/**
+	 * Encodes a complete game
+	 * @param rolls An array containing the rolls of the game, in the format
+	 * of {@link RollScorer}
+	 * @param offset The position of the first roll in the array
+	 * @param length The number of rolls in the game
+	 * @return The code of the game
+	 * @throws BowlingException If the rolls do not form a complete, valid
+	 * game
+	 */
+	public static long encode(int[] rolls, int offset, int length) throws BowlingException
+	{
+		int end = offset + length;
+		int p = offset;
+		long code = 0;
+		for (int frame = 1; frame < RollScorer.FRAMES; frame++)
+		{
+			checkRemaining(p, end, 1);
+			int first = RollScorer.checkPins(rolls[p++]);
+			int second = 0;
+			if (first < 10)
+			{
+				checkRemaining(p, end, 1);
+				second = RollScorer.checkFrame(first, rolls[p++]);
+			}
+			code = code * NORMAL_SHAPES + s_shapeIndex[first * 11 + second];
+		}
+		checkRemaining(p, end, 2);
+		int first = RollScorer.checkPins(rolls[p++]);
+		int second = RollScorer.checkFrame(first, rolls[p++]);
+		int last;
+		if (first + second < 10)
+		{
+			last = s_shapeIndex[first * 11 + second] - first;
+		}
+		else
+		{
+			checkRemaining(p, end, 1);
+			last = OPEN_SHAPES + first * 11 + RollScorer.checkPins(rolls[p++]);
+		}
+		if (p != end)
+		{
+			throw new BowlingException("There are " + (end - p) + " rolls after frame #10");
+		}
+		return code * LAST_SHAPES + last;
+	}
+
+	/**
+	 * Encodes a complete game
+	 * @param g The game
+	 * @return The code of the game
+	 * @throws BowlingException If the game is not complete or not valid
+	 */
+	public static long encode(Game g) throws BowlingException
+	{
+		int[] rolls = new int[RollScorer.MAX_ROLLS];
+		return encode(rolls, 0, RollScorer.toRolls(g, rolls, 0));
+	}
+
+	/**
+	 * Decodes a game
+	 * @param code The code of the game
+	 * @param rolls The array receiving the rolls, in the format of
+	 * {@link RollScorer}; it must have room for {@link RollScorer#MAX_ROLLS}
+	 * rolls after the offset
+	 * @param offset The position of the first roll in the array
+	 * @return The number of rolls of the game
+	 * @throws BowlingException If the value is not the code of a game
+	 */
+	public static int decode(long code, int[] rolls, int offset) throws BowlingException
+	{
+		if (code < 0)
+		{
+			throw new BowlingException("Invalid game code: " + code);
+		}
+		int last = (int) (code % LAST_SHAPES);
+		code /= LAST_SHAPES;
+		// The frames come out last first: write them at the end of the
+		// largest possible game, then move them in place
+		int p = offset + RollScorer.MAX_ROLLS - 3;
+		for (int frame = RollScorer.FRAMES - 1; frame >= 1; frame--)
+		{
+			int shape = (int) (code % NORMAL_SHAPES);
+			code /= NORMAL_SHAPES;
+			if (shape == NORMAL_SHAPES - 1)
+			{
+				rolls[--p] = 10;
+			}
+			else
+			{
+				rolls[--p] = s_shapeSecond[shape];
+				rolls[--p] = s_shapeFirst[shape];
+			}
+		}
+		if (code != 0)
+		{
+			throw new BowlingException("Invalid game code");
+		}
+		int length = offset + RollScorer.MAX_ROLLS - 3 - p;
+		System.arraycopy(rolls, p, rolls, offset, length);
+		p = offset + length;
+		if (last < OPEN_SHAPES)
+		{
+			// Open shapes are numbered like the shapes of frames 1 to 9,
+			// less the one spare of each first roll before them
+			int first = 0;
+			while (last >= 10 - first)
+			{
+				last -= 10 - first;
+				first++;
+			}
+			rolls[p++] = first;
+			rolls[p++] = last;
+		}
+		else
+		{
+			last -= OPEN_SHAPES;
+			int first = last / 11;
+			rolls[p++] = first;
+			rolls[p++] = 10 - first;
+			rolls[p++] = last % 11;
+		}
+		return p - offset;
+	}
+
+	/**
+	 * Checks that enough rolls remain to complete a frame
+	 * @param p The position of the next roll
+	 * @param end The position after the last roll
+	 * @param needed The number of rolls needed
+	 * @throws BowlingException If there are not enough rolls
+	 */
+	protected static void checkRemaining(int p, int end, int needed) throws BowlingException
+	{
+		if (end - p < needed)
+		{
+			throw new BowlingException("The game is not complete");
+		}
+	}
+}
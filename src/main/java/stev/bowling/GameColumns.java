@@ -0,0 +1,590 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Stores a large number of complete games outside of the Java heap, one
+ * column per value, and computes statistics over all of them in parallel.
+ * <p>
+ * The games are kept in chunks of direct {@link ByteBuffer}s. In each
+ * chunk, the pins of a roll position are stored one byte per game, in the
+ * order of {@link PackedGame}: the first and second rolls of frames 1 to
+ * 9, then the three rolls of frame 10, with -1 for a roll not played and
+ * 0 for the second roll of a strike, like {@link NormalFrame}. Next
+ * come the cumulative score of each frame, computed once when the game is
+ * added, two bytes per game and frame, and the number of the bowler, four
+ * bytes per game. A game therefore takes 45 bytes.
+ * <p>
+ * A query reads only the columns it needs, and splits the chunks among the
+ * threads of a {@link ForkJoinPool}; no {@link Game} or {@link Frame} is
+ * ever created. Queries can run at the same time, but not at the same time
+ * as {@link #add(int, int[], int, int)}. The memory of the store is freed
+ * when the store is garbage collected.
+ */
+public class GameColumns
+{
+	/**
+	 * The default number of games in a chunk, as a power of 2
+	 */
+	public static final int DEFAULT_CHUNK_BITS = 16;
+
+	/**
+	 * The value of {@code bowler} selecting the games of all bowlers
+	 */
+	public static final int ALL_BOWLERS = -1;
+
+	/**
+	 * The number of roll positions in a game
+	 */
+	protected static final int ROLLS = RollScorer.MAX_ROLLS;
+
+	/**
+	 * The number of bytes taken by a game in a chunk
+	 */
+	protected static final int GAME_BYTES = ROLLS + 2 * RollScorer.FRAMES + 4;
+
+	/**
+	 * The chunks holding the games
+	 */
+	protected final List<ByteBuffer> m_chunks = new ArrayList<ByteBuffer>();
+
+	/**
+	 * The number of games in a chunk, as a power of 2
+	 */
+	protected final int m_chunkBits;
+
+	/**
+	 * The number of games in a chunk
+	 */
+	protected final int m_chunkGames;
+
+	/**
+	 * The pool running the queries
+	 */
+	protected final ForkJoinPool m_pool;
+
+	/**
+	 * The number of games in the store
+	 */
+	protected long m_size = 0;
+
+	/**
+	 * Creates an empty store using the common fork-join pool
+	 */
+	public GameColumns()
+	{
+		this(DEFAULT_CHUNK_BITS, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Creates an empty store
+	 * @param chunk_bits The number of games in a chunk, as a power of 2;
+	 * a chunk is also the smallest unit of work of a query
+	 * @param pool The pool running the queries
+	 */
+	public GameColumns(int chunk_bits, ForkJoinPool pool)
+	{
+		super();
+		if (chunk_bits < 0 || chunk_bits > 24)
+		{
+			throw new IllegalArgumentException("Invalid chunk size: " + chunk_bits);
+		}
+		m_chunkBits = chunk_bits;
+		m_chunkGames = 1 << chunk_bits;
+		m_pool = pool;
+	}
+
+	/**
+	 * Adds a game to the store
+	 * @param bowler The number of the bowler, 0 or more
+	 * @param rolls An array containing the rolls of the game, in the format
+	 * of {@link RollScorer}
+	 * @param offset The position of the first roll in the array
+	 * @param length The number of rolls in the game
+	 * @return The position of the game in the store, starting at 0
+	 * @throws BowlingException If the rolls do not form a complete game
+	 */
+	public long add(int bowler, int[] rolls, int offset, int length) throws BowlingException
+	{
+		if (bowler < 0)
+		{
+			throw new BowlingException("Invalid bowler: " + bowler);
+		}
+		int[] totals = new int[RollScorer.FRAMES];
+		if (RollScorer.score(rolls, offset, length, totals, 0) != RollScorer.FRAMES)
+		{
+			throw new BowlingException("The game is not complete");
+		}
+		int row = (int) (m_size & (m_chunkGames - 1));
+		if (row == 0)
+		{
+			m_chunks.add(ByteBuffer.allocateDirect(m_chunkGames * GAME_BYTES).order(ByteOrder.nativeOrder()));
+		}
+		ByteBuffer chunk = m_chunks.get(m_chunks.size() - 1);
+		for (int i = 0; i < ROLLS; i++)
+		{
+			chunk.put(rollColumn(i) + row, (byte) -1);
+		}
+		int p = offset;
+		int end = offset + length;
+		for (int frame = 1; frame < RollScorer.FRAMES; frame++)
+		{
+			int first = rolls[p++];
+			chunk.put(rollColumn(PackedGame.slot(frame, 1)) + row, (byte) first);
+			// As in NormalFrame, the second roll of a strike is a gutter
+			int second = first == 10 ? 0 : rolls[p++];
+			chunk.put(rollColumn(PackedGame.slot(frame, 2)) + row, (byte) second);
+		}
+		for (int roll = 1; p < end; roll++)
+		{
+			chunk.put(rollColumn(PackedGame.slot(RollScorer.FRAMES, roll)) + row, (byte) rolls[p++]);
+		}
+		for (int i = 0; i < RollScorer.FRAMES; i++)
+		{
+			chunk.putShort(totalColumn(i) + 2 * row, (short) totals[i]);
+		}
+		chunk.putInt(bowlerColumn() + 4 * row, bowler);
+		return m_size++;
+	}
+
+	/**
+	 * Gets the number of games in the store
+	 * @return The number of games
+	 */
+	public long size()
+	{
+		return m_size;
+	}
+
+	/**
+	 * Gets the number of pins knocked down by a roll of a game
+	 * @param game The position of the game, starting at 0
+	 * @param frame The frame number, starting at 1
+	 * @param roll The roll number in the frame, starting at 1
+	 * @return The number of pins, or -1 if the roll was not played
+	 */
+	public int getPinsDown(long game, int frame, int roll)
+	{
+		return chunkOf(game).get(rollColumn(PackedGame.slot(frame, roll)) + rowOf(game));
+	}
+
+	/**
+	 * Gets the cumulative score of a frame of a game
+	 * @param game The position of the game, starting at 0
+	 * @param frame The frame number, starting at 1
+	 * @return The score
+	 */
+	public int getCumulativeScore(long game, int frame)
+	{
+		return chunkOf(game).getShort(totalColumn(frame - 1) + 2 * rowOf(game));
+	}
+
+	/**
+	 * Gets the bowler of a game
+	 * @param game The position of the game, starting at 0
+	 * @return The number of the bowler
+	 */
+	public int getBowler(long game)
+	{
+		return chunkOf(game).getInt(bowlerColumn() + 4 * rowOf(game));
+	}
+
+	/**
+	 * Counts the strikes and spares of each frame over all the games
+	 * @return The counts
+	 */
+	public FrameStatistics getFrameStatistics()
+	{
+		return m_pool.invoke(new ScanTask<FrameStatistics>(0, m_chunks.size(), new ChunkScan<FrameStatistics>()
+		{
+			@Override
+			public FrameStatistics scan(ByteBuffer chunk, int rows)
+			{
+				FrameStatistics stats = new FrameStatistics();
+				for (int i = 0; i < RollScorer.FRAMES; i++)
+				{
+					int firsts = rollColumn(2 * i);
+					int seconds = firsts + m_chunkGames;
+					long strikes = 0;
+					long tens = 0;
+					for (int row = 0; row < rows; row++)
+					{
+						int first = chunk.get(firsts + row);
+						int second = chunk.get(seconds + row);
+						// 1 when the value is 10, 0 otherwise, without a branch;
+						// the second roll of a strike is 0, so a strike also
+						// counts as ten pins in two rolls
+						strikes += ((first ^ 10) - 1) >>> 31;
+						tens += (((first + second) ^ 10) - 1) >>> 31;
+					}
+					long chances = rows - strikes;
+					long spares = tens - strikes;
+					stats.m_games[i] += rows;
+					stats.m_strikes[i] += strikes;
+					stats.m_spareChances[i] += chances;
+					stats.m_spares[i] += spares;
+				}
+				return stats;
+			}
+
+			@Override
+			public FrameStatistics merge(FrameStatistics left, FrameStatistics right)
+			{
+				return left.merge(right);
+			}
+		}));
+	}
+
+	/**
+	 * Counts the final scores of the games of a bowler
+	 * @param bowler The number of the bowler, or {@link #ALL_BOWLERS}
+	 * @return The histogram of the scores
+	 */
+	public ScoreHistogram getScores(int bowler)
+	{
+		return m_pool.invoke(new ScanTask<ScoreHistogram>(0, m_chunks.size(), new ChunkScan<ScoreHistogram>()
+		{
+			@Override
+			public ScoreHistogram scan(ByteBuffer chunk, int rows)
+			{
+				ScoreHistogram h = new ScoreHistogram();
+				int scores = totalColumn(RollScorer.FRAMES - 1);
+				int bowlers = bowlerColumn();
+				for (int row = 0; row < rows; row++)
+				{
+					if (bowler == ALL_BOWLERS || chunk.getInt(bowlers + 4 * row) == bowler)
+					{
+						h.m_counts[chunk.getShort(scores + 2 * row)]++;
+						h.m_games++;
+					}
+				}
+				return h;
+			}
+
+			@Override
+			public ScoreHistogram merge(ScoreHistogram left, ScoreHistogram right)
+			{
+				return left.merge(right);
+			}
+		}));
+	}
+
+	/**
+	 * Computes the average final score of each bowler
+	 * @param bowlers The number of bowlers; games of bowlers with a higher
+	 * number are ignored
+	 * @return The average score of each bowler, or {@code NaN} for a
+	 * bowler with no games
+	 */
+	public double[] getMeanScores(int bowlers)
+	{
+		long[] sums = m_pool.invoke(new ScanTask<long[]>(0, m_chunks.size(), new ChunkScan<long[]>()
+		{
+			@Override
+			public long[] scan(ByteBuffer chunk, int rows)
+			{
+				// The sums of the scores, then the numbers of games
+				long[] sums = new long[2 * bowlers];
+				int scores = totalColumn(RollScorer.FRAMES - 1);
+				int column = bowlerColumn();
+				for (int row = 0; row < rows; row++)
+				{
+					int b = chunk.getInt(column + 4 * row);
+					if (b < bowlers)
+					{
+						sums[b] += chunk.getShort(scores + 2 * row);
+						sums[bowlers + b]++;
+					}
+				}
+				return sums;
+			}
+
+			@Override
+			public long[] merge(long[] left, long[] right)
+			{
+				for (int i = 0; i < left.length; i++)
+				{
+					left[i] += right[i];
+				}
+				return left;
+			}
+		}));
+		double[] means = new double[bowlers];
+		for (int b = 0; b < bowlers; b++)
+		{
+			means[b] = sums[bowlers + b] == 0 ? Double.NaN : (double) sums[b] / sums[bowlers + b];
+		}
+		return means;
+	}
+
+	/**
+	 * Gets the position of the column of a roll in a chunk
+	 * @param slot The position of the roll, as given by
+	 * {@link PackedGame#slot(int, int)}
+	 * @return The position of the column
+	 */
+	protected int rollColumn(int slot)
+	{
+		return slot * m_chunkGames;
+	}
+
+	/**
+	 * Gets the position of the column of the cumulative score of a frame in
+	 * a chunk
+	 * @param index The frame, starting at 0
+	 * @return The position of the column
+	 */
+	protected int totalColumn(int index)
+	{
+		return (ROLLS + 2 * index) * m_chunkGames;
+	}
+
+	/**
+	 * Gets the position of the column of the bowlers in a chunk
+	 * @return The position of the column
+	 */
+	protected int bowlerColumn()
+	{
+		return (ROLLS + 2 * RollScorer.FRAMES) * m_chunkGames;
+	}
+
+	/**
+	 * Gets the chunk holding a game
+	 * @param game The position of the game
+	 * @return The chunk
+	 */
+	protected ByteBuffer chunkOf(long game)
+	{
+		if (game < 0 || game >= m_size)
+		{
+			throw new IndexOutOfBoundsException("Game: " + game + ", Size: " + m_size);
+		}
+		return m_chunks.get((int) (game >>> m_chunkBits));
+	}
+
+	/**
+	 * Gets the position of a game in its chunk
+	 * @param game The position of the game
+	 * @return The position in the chunk
+	 */
+	protected int rowOf(long game)
+	{
+		return (int) (game & (m_chunkGames - 1));
+	}
+
+	/**
+	 * The number of strikes and spares in each frame of a set of games
+	 */
+	public static class FrameStatistics
+	{
+		/**
+		 * The number of games
+		 */
+		protected final long[] m_games = new long[RollScorer.FRAMES];
+
+		/**
+		 * The number of strikes
+		 */
+		protected final long[] m_strikes = new long[RollScorer.FRAMES];
+
+		/**
+		 * The number of first rolls that are not strikes
+		 */
+		protected final long[] m_spareChances = new long[RollScorer.FRAMES];
+
+		/**
+		 * The number of spares
+		 */
+		protected final long[] m_spares = new long[RollScorer.FRAMES];
+
+		/**
+		 * Creates empty statistics
+		 */
+		public FrameStatistics()
+		{
+			super();
+		}
+
+		/**
+		 * Gets the number of strikes on the first roll of a frame
+		 * @param frame The frame number, starting at 1
+		 * @return The number of strikes
+		 */
+		public long getStrikes(int frame)
+		{
+			return m_strikes[frame - 1];
+		}
+
+		/**
+		 * Gets the number of spares in a frame
+		 * @param frame The frame number, starting at 1
+		 * @return The number of spares
+		 */
+		public long getSpares(int frame)
+		{
+			return m_spares[frame - 1];
+		}
+
+		/**
+		 * Gets the proportion of games with a strike on the first roll of a
+		 * frame
+		 * @param frame The frame number, starting at 1
+		 * @return The proportion, from 0 to 1, or {@code NaN} if there are
+		 * no games
+		 */
+		public double getStrikeRate(int frame)
+		{
+			return (double) m_strikes[frame - 1] / m_games[frame - 1];
+		}
+
+		/**
+		 * Gets the proportion of first rolls other than strikes that are
+		 * followed by a spare in a frame
+		 * @param frame The frame number, starting at 1
+		 * @return The proportion, from 0 to 1, or {@code NaN} if there are
+		 * no such rolls
+		 */
+		public double getSpareConversionRate(int frame)
+		{
+			return (double) m_spares[frame - 1] / m_spareChances[frame - 1];
+		}
+
+		/**
+		 * Gets the proportion of first rolls other than strikes that are
+		 * followed by a spare, over all the frames
+		 * @return The proportion, from 0 to 1, or {@code NaN} if there are
+		 * no such rolls
+		 */
+		public double getSpareConversionRate()
+		{
+			long spares = 0;
+			long chances = 0;
+			for (int i = 0; i < RollScorer.FRAMES; i++)
+			{
+				spares += m_spares[i];
+				chances += m_spareChances[i];
+			}
+			return (double) spares / chances;
+		}
+
+		/**
+		 * Adds the counts of other statistics to these ones
+		 * @param s The other statistics
+		 * @return These statistics
+		 */
+		public FrameStatistics merge(FrameStatistics s)
+		{
+			for (int i = 0; i < RollScorer.FRAMES; i++)
+			{
+				m_games[i] += s.m_games[i];
+				m_strikes[i] += s.m_strikes[i];
+				m_spareChances[i] += s.m_spareChances[i];
+				m_spares[i] += s.m_spares[i];
+			}
+			return this;
+		}
+	}
+
+	/**
+	 * Computes the result of a query over one chunk at a time
+	 * @param <T> The type of the result
+	 */
+	protected interface ChunkScan<T>
+	{
+		/**
+		 * Computes the result of a chunk
+		 * @param chunk The chunk, or {@code null} if the store is empty
+		 * @param rows The number of games in the chunk
+		 * @return The result
+		 */
+		public T scan(ByteBuffer chunk, int rows);
+
+		/**
+		 * Combines the results of two ranges of chunks
+		 * @param left The result of the first range
+		 * @param right The result of the second range
+		 * @return The combined result
+		 */
+		public T merge(T left, T right);
+	}
+
+	/**
+	 * Runs a query over a range of chunks
+	 * @param <T> The type of the result
+	 */
+	protected class ScanTask<T> extends RecursiveTask<T>
+	{
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * The first chunk of the range
+		 */
+		protected final int m_from;
+
+		/**
+		 * The chunk after the last chunk of the range
+		 */
+		protected final int m_to;
+
+		/**
+		 * The query
+		 */
+		protected final ChunkScan<T> m_scan;
+
+		/**
+		 * Creates a task
+		 * @param from The first chunk of the range
+		 * @param to The chunk after the last chunk of the range
+		 * @param scan The query
+		 */
+		ScanTask(int from, int to, ChunkScan<T> scan)
+		{
+			super();
+			m_from = from;
+			m_to = to;
+			m_scan = scan;
+		}
+
+		@Override
+		protected T compute()
+		{
+			if (m_to == m_from)
+			{
+				return m_scan.scan(null, 0);
+			}
+			if (m_to - m_from == 1)
+			{
+				long rows = Math.min(m_size - ((long) m_from << m_chunkBits), m_chunkGames);
+				return m_scan.scan(m_chunks.get(m_from), (int) rows);
+			}
+			int middle = (m_from + m_to) >>> 1;
+			ScanTask<T> right = new ScanTask<T>(middle, m_to, m_scan);
+			right.fork();
+			T left = new ScanTask<T>(m_from, middle, m_scan).compute();
+			return m_scan.merge(left, right.join());
+		}
+	}
+}
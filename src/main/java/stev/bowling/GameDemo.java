@@ -1,46 +1,546 @@
 /*
     A simple bowling score calculator
-    
+
     Copyright (C) 2020 Sylvain Hallé
-    
+
     This program is free software: you can redistribute it and/or modify
     it under the terms of the GNU General Public License as published
     by the Free Software Foundation, either version 3 of the License, or
     (at your option) any later version.
-    
+
     This program is distributed in the hope that it will be useful,
     but WITHOUT ANY WARRANTY; without even the implied warranty of
     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
     GNU Lesser General Public License for more details.
-    
+
     You should have received a copy of the GNU Lesser General Public License
     along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 package stev.bowling;
 
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
 /**
- * Simple file showing the usage of the {@link Game} and {@link Frame} objects
- * to calculate and display the score in a bowling game. 
+ * Scores games read from files or from the standard input, and writes one
+ * result per game on the standard output.
+ * <p>
+ * Each input is either text, with one game per line in the notation read
+ * by {@link NotationParser}, or an archive written by
+ * {@link GameArchiveWriter}; archives are recognized by their first bytes.
+ * The result of a game is its final score, the cumulative score of its ten
+ * frames, or its scoreboard, with {@code -} for a score that is not known.
+ * Games that cannot be read are reported on the standard error, with their
+ * line or position, and skipped. Run with {@code --help} for the options.
+ * <p>
+ * The program is meant to be started once per batch of games. Inputs are
+ * read through a fixed buffer and results written through another, so the
+ * memory used does not depend on the number of games; games are scored
+ * with {@link RollScorer}, and only built for their scoreboard. The classes
+ * loaded are kept few: no lambda, format string or regular expression is
+ * used on the way of a game.
  */
 public class GameDemo
 {
+	/**
+	 * The exit status when all the games were scored
+	 */
+	public static final int EXIT_OK = 0;
+
+	/**
+	 * The exit status when some games could not be read
+	 */
+	public static final int EXIT_INVALID = 1;
+
+	/**
+	 * The exit status when the arguments are wrong, or an input cannot be
+	 * read
+	 */
+	public static final int EXIT_ERROR = 2;
+
+	/**
+	 * Writes the final score of each game
+	 */
+	public static final int SCORES = 0;
+
+	/**
+	 * Writes the cumulative score of each frame of each game
+	 */
+	public static final int TOTALS = 1;
+
+	/**
+	 * Writes the scoreboard of each game
+	 */
+	public static final int BOARDS = 2;
+
+	/**
+	 * The default size of the input and output buffers, in bytes
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+	/**
+	 * The text shown by {@code --help}
+	 */
+	protected static final String USAGE = "Usage: java stev.bowling.GameDemo [--scores | --totals | --boards] [file ...]\n"
+			+ "Scores games read from the files, or from the standard input if there are\n"
+			+ "none or for a file named -. Each file holds one game per line in bowling\n"
+			+ "notation (e.g. X 7/ 9- X -8 8/ -6 X X X-8), or is a game archive.\n"
+			+ "  --scores  Write the final score of each game (default)\n"
+			+ "  --totals  Write the cumulative score of each frame\n"
+			+ "  --boards  Write the scoreboard of each game\n"
+			+ "Exit status: 0 if all games were scored, 1 if some were invalid, 2 on error.\n";
+
+	/**
+	 * The room kept in the output buffer for the result of one game
+	 */
+	protected static final int MAX_RESULT = 1024;
+
+	/**
+	 * The number of bytes in a record of an archive
+	 */
+	protected static final int RECORD_SIZE = GameCodec.BYTES;
+
+	/**
+	 * What is written for each game
+	 */
+	protected final int m_mode;
+
+	/**
+	 * The bytes read from the current input and not processed yet
+	 */
+	protected final ByteBuffer m_in;
+
+	/**
+	 * The results not written to the output yet
+	 */
+	protected final ByteBuffer m_out;
+
+	/**
+	 * The channel receiving the results
+	 */
+	protected final WritableByteChannel m_output;
+
+	/**
+	 * The stream receiving the errors
+	 */
+	protected final PrintStream m_err;
+
+	/**
+	 * The parser of the text inputs
+	 */
+	protected final NotationParser m_parser = new NotationParser();
+
+	/**
+	 * The renderer of the scoreboards
+	 */
+	protected final ScoreboardRenderer m_renderer = new ScoreboardRenderer();
+
+	/**
+	 * The rolls of the current game
+	 */
+	protected final int[] m_rolls = new int[RollScorer.MAX_ROLLS];
+
+	/**
+	 * The cumulative scores of the current game
+	 */
+	protected final int[] m_totals = new int[RollScorer.FRAMES];
+
+	/**
+	 * Whether the current input has no more bytes to read
+	 */
+	protected boolean m_eof;
+
+	/**
+	 * The number of games that could not be read
+	 */
+	protected long m_invalid = 0;
+
+	/**
+	 * Creates a scorer
+	 * @param mode What is written for each game: {@link #SCORES},
+	 * {@link #TOTALS} or {@link #BOARDS}
+	 * @param buffer_size The size of the input and output buffers, in bytes;
+	 * no line of text can be longer
+	 * @param out The stream receiving the results
+	 * @param err The stream receiving the errors
+	 */
+	public GameDemo(int mode, int buffer_size, OutputStream out, PrintStream err)
+	{
+		super();
+		m_mode = mode;
+		m_in = ByteBuffer.allocate(buffer_size);
+		m_out = ByteBuffer.allocate(Math.max(buffer_size, 2 * MAX_RESULT));
+		m_output = Channels.newChannel(out);
+		m_err = err;
+	}
+
 	/**
 	 * The main method of the program
-	 * @param args Command line arguments (ignored)
+	 * @param args The options and files
 	 */
 	public static void main(String[] args)
 	{
-		Game g = new Game();
-		g.addFrame(new NormalFrame(1).setPinsDown(1, 3).setPinsDown(2, 6));
-		g.addFrame(new NormalFrame(2).setPinsDown(1, 10));
-		g.addFrame(new NormalFrame(3).setPinsDown(1, 5).setPinsDown(2, 0));
-		g.addFrame(new NormalFrame(4).setPinsDown(1, 1).setPinsDown(2, 9));
-		g.addFrame(new NormalFrame(5).setPinsDown(1, 10));
-		g.addFrame(new NormalFrame(6).setPinsDown(1, 0).setPinsDown(2, 0));
-		g.addFrame(new NormalFrame(7).setPinsDown(1, 0).setPinsDown(2, 6));
-		g.addFrame(new NormalFrame(8).setPinsDown(1, 10));
-		g.addFrame(new NormalFrame(9).setPinsDown(1, 2).setPinsDown(2, 8));
-		g.addFrame(new LastFrame(10).setPinsDown(1, 1).setPinsDown(2, 9).setPinsDown(3, 3));
-		System.out.println(g);
+		int status = run(args, System.in, System.out, System.err);
+		System.out.flush();
+		if (status != EXIT_OK)
+		{
+			System.exit(status);
+		}
+	}
+
+	/**
+	 * Runs the program
+	 * @param args The options and files
+	 * @param in The standard input
+	 * @param out The standard output
+	 * @param err The standard error
+	 * @return The exit status
+	 */
+	public static int run(String[] args, InputStream in, OutputStream out, PrintStream err)
+	{
+		int mode = SCORES;
+		int files = 0;
+		for (String arg : args)
+		{
+			if (arg.equals("--scores"))
+			{
+				mode = SCORES;
+			}
+			else if (arg.equals("--totals"))
+			{
+				mode = TOTALS;
+			}
+			else if (arg.equals("--boards"))
+			{
+				mode = BOARDS;
+			}
+			else if (arg.equals("--help") || arg.equals("-h"))
+			{
+				new PrintStream(out, true).print(USAGE);
+				return EXIT_OK;
+			}
+			else if (arg.startsWith("--"))
+			{
+				err.print("Unknown option " + arg + "\n" + USAGE);
+				return EXIT_ERROR;
+			}
+			else
+			{
+				files++;
+			}
+		}
+		GameDemo demo = new GameDemo(mode, DEFAULT_BUFFER_SIZE, out, err);
+		try
+		{
+			if (files == 0)
+			{
+				demo.process("-", Channels.newChannel(in));
+			}
+			for (String arg : args)
+			{
+				if (arg.startsWith("--"))
+				{
+					continue;
+				}
+				if (arg.equals("-"))
+				{
+					demo.process(arg, Channels.newChannel(in));
+					continue;
+				}
+				try (FileInputStream file = new FileInputStream(arg))
+				{
+					demo.process(arg, file.getChannel());
+				}
+			}
+			demo.flush();
+		}
+		catch (IOException e)
+		{
+			// The results of the inputs read before the error are still written
+			try
+			{
+				demo.flush();
+			}
+			catch (IOException f)
+			{
+				// The output itself cannot be written
+			}
+			err.println(e.getMessage());
+			return EXIT_ERROR;
+		}
+		return demo.getInvalidGames() == 0 ? EXIT_OK : EXIT_INVALID;
+	}
+
+	/**
+	 * Scores the games of an input
+	 * @param name The name of the input, used in error messages
+	 * @param channel The input
+	 * @throws IOException If the input cannot be read, is an archive with
+	 * an unknown version, or the output cannot be written
+	 */
+	public void process(String name, ReadableByteChannel channel) throws IOException
+	{
+		m_in.clear().flip();
+		m_eof = false;
+		while (m_in.remaining() < GameArchiveWriter.HEADER_SIZE && fill(channel))
+		{
+			// Read enough bytes to recognize an archive
+		}
+		if (m_in.remaining() >= 4 && m_in.getInt(m_in.position()) == GameArchiveWriter.MAGIC)
+		{
+			processArchive(name, channel);
+		}
+		else
+		{
+			processText(name, channel);
+		}
+	}
+
+	/**
+	 * Writes the results not written yet to the output. If the output
+	 * fails, the results it did not receive are kept for the next call.
+	 * @throws IOException If the output cannot be written
+	 */
+	public void flush() throws IOException
+	{
+		m_out.flip();
+		try
+		{
+			while (m_out.hasRemaining())
+			{
+				m_output.write(m_out);
+			}
+		}
+		finally
+		{
+			m_out.compact();
+		}
+	}
+
+	/**
+	 * Gets the number of games that could not be read so far
+	 * @return The number of games
+	 */
+	public long getInvalidGames()
+	{
+		return m_invalid;
+	}
+
+	/**
+	 * Scores the games of a text input, one per line
+	 * @param name The name of the input
+	 * @param channel The input
+	 * @throws IOException If the input cannot be read, or the output
+	 * cannot be written
+	 */
+	protected void processText(String name, ReadableByteChannel channel) throws IOException
+	{
+		long line = 0;
+		boolean skipping = false;
+		while (true)
+		{
+			int start = m_in.position();
+			int limit = m_in.limit();
+			int end = start;
+			while (end < limit && m_in.get(end) != '\n')
+			{
+				end++;
+			}
+			if (end == limit && !m_eof)
+			{
+				if (start == 0 && limit == m_in.capacity())
+				{
+					// The line does not fit in the buffer: drop what was read
+					if (!skipping)
+					{
+						invalid(name + ":" + (line + 1) + ": Line too long");
+						skipping = true;
+					}
+					m_in.position(limit);
+				}
+				fill(channel);
+				continue;
+			}
+			if (end == limit && start == end)
+			{
+				return;
+			}
+			line++;
+			if (skipping)
+			{
+				skipping = false;
+				m_in.position(Math.min(end + 1, limit));
+				continue;
+			}
+			int content = end > start && m_in.get(end - 1) == '\r' ? end - 1 : end;
+			if (content > start)
+			{
+				m_in.limit(content);
+				try
+				{
+					int length = m_parser.parse(m_in, m_rolls, 0);
+					write(length);
+				}
+				catch (NotationException e)
+				{
+					// The position is counted from the start of the buffer
+					String message = e.getMessage();
+					message = message.substring(0, message.lastIndexOf(" at position "));
+					invalid(name + ":" + line + ":" + (e.getPosition() - start + 1) + ": " + message);
+				}
+				catch (BowlingException e)
+				{
+					invalid(name + ":" + line + ": " + e.getMessage());
+				}
+				m_in.limit(limit);
+			}
+			m_in.position(Math.min(end + 1, limit));
+		}
+	}
+
+	/**
+	 * Scores the games of an archive
+	 * @param name The name of the input
+	 * @param channel The input
+	 * @throws IOException If the input cannot be read, has an unknown
+	 * version, or the output cannot be written
+	 */
+	protected void processArchive(String name, ReadableByteChannel channel) throws IOException
+	{
+		if (m_in.remaining() < GameArchiveWriter.HEADER_SIZE)
+		{
+			throw new IOException(name + ": The file is not a game archive");
+		}
+		m_in.getInt();
+		int version = m_in.getInt();
+		if (version != GameArchiveWriter.VERSION)
+		{
+			throw new IOException(name + ": Unsupported archive version " + version);
+		}
+		long game = 0;
+		while (true)
+		{
+			while (m_in.remaining() >= RECORD_SIZE)
+			{
+				long code = m_in.getLong();
+				try
+				{
+					write(GameCodec.decode(code, m_rolls, 0));
+				}
+				catch (BowlingException e)
+				{
+					invalid(name + ": game " + game + ": " + e.getMessage());
+				}
+				game++;
+			}
+			if (!fill(channel))
+			{
+				break;
+			}
+		}
+		if (m_in.hasRemaining())
+		{
+			invalid(name + ": game " + game + ": Incomplete record");
+		}
+	}
+
+	/**
+	 * Moves the bytes not processed to the start of the input buffer, and
+	 * reads more bytes after them
+	 * @param channel The input
+	 * @return {@code false} if the input has no more bytes
+	 * @throws IOException If the input cannot be read
+	 */
+	protected boolean fill(ReadableByteChannel channel) throws IOException
+	{
+		if (m_eof)
+		{
+			return false;
+		}
+		m_in.compact();
+		int read = channel.read(m_in);
+		m_in.flip();
+		if (read < 0)
+		{
+			m_eof = true;
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Writes the result of the current game
+	 * @param length The number of rolls of the game
+	 * @throws IOException If the output cannot be written
+	 */
+	protected void write(int length) throws IOException
+	{
+		int known = RollScorer.score(m_rolls, 0, length, m_totals, 0);
+		if (m_out.remaining() < MAX_RESULT)
+		{
+			flush();
+		}
+		if (m_mode == BOARDS)
+		{
+			GamePool pool = GamePool.get();
+			ReusableGame g = pool.toGame(m_rolls, 0, length);
+			m_renderer.renderTo(g, m_out);
+			pool.release(g);
+		}
+		else if (m_mode == TOTALS)
+		{
+			for (int i = 0; i < RollScorer.FRAMES; i++)
+			{
+				if (i > 0)
+				{
+					m_out.put((byte) ' ');
+				}
+				putScore(i < known ? m_totals[i] : RollScorer.PENDING);
+			}
+		}
+		else
+		{
+			putScore(known == RollScorer.FRAMES ? m_totals[RollScorer.FRAMES - 1] : RollScorer.PENDING);
+		}
+		m_out.put((byte) '\n');
+	}
+
+	/**
+	 * Writes a score in decimal, or a dash for {@link RollScorer#PENDING}
+	 * @param score The score, from 0 to {@link GameSpace#MAX_SCORE}
+	 */
+	protected void putScore(int score)
+	{
+		if (score == RollScorer.PENDING)
+		{
+			m_out.put((byte) '-');
+			return;
+		}
+		if (score >= 100)
+		{
+			m_out.put((byte) ('0' + score / 100));
+		}
+		if (score >= 10)
+		{
+			m_out.put((byte) ('0' + score / 10 % 10));
+		}
+		m_out.put((byte) ('0' + score % 10));
+	}
+
+	/**
+	 * Reports a game that could not be read
+	 * @param message The message
+	 */
+	protected void invalid(String message)
+	{
+		m_invalid++;
+		m_err.println(message);
 	}
 }
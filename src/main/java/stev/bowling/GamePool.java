@@ -0,0 +1,491 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+/**
+ * Recycles games and frames instead of creating new ones for every game.
+ * <p>
+ * Each thread has its own pool, obtained with {@link #get()}, so that
+ * acquiring and releasing objects needs no synchronization. A game or a
+ * frame is taken with one of the {@code acquire} methods and given back
+ * with {@link #release(ReusableGame)} or {@link #release(Frame)}; releasing
+ * a game also releases the pooled frames it contains. A pool keeps a
+ * bounded number of objects: when it is empty, new objects are created,
+ * and when it is full, released objects are left to the garbage collector.
+ * Objects that do not come from a pool are never kept.
+ * <p>
+ * An object must not be used after it has been released. When the system
+ * property {@value #DEBUG_PROPERTY} is set to {@code true}, or when a pool
+ * is created in debug mode, every method of a released object throws a
+ * {@link BowlingException} whose cause shows where the object was
+ * released. This costs an exception object per release, and is meant for
+ * tests.
+ */
+public class GamePool
+{
+	/**
+	 * The number of games kept by the pool of each thread
+	 */
+	public static final int DEFAULT_CAPACITY = 16;
+
+	/**
+	 * The name of the system property enabling the debug mode of the pool
+	 * of each thread
+	 */
+	public static final String DEBUG_PROPERTY = "stev.bowling.pool.debug";
+
+	/**
+	 * The pool of each thread
+	 */
+	protected static final ThreadLocal<GamePool> s_pools = new ThreadLocal<GamePool>()
+	{
+		@Override
+		protected GamePool initialValue()
+		{
+			return new GamePool(DEFAULT_CAPACITY, Boolean.getBoolean(DEBUG_PROPERTY));
+		}
+	};
+
+	/**
+	 * The games available
+	 */
+	protected final PooledGame[] m_games;
+
+	/**
+	 * The number of games available
+	 */
+	protected int m_gameCount = 0;
+
+	/**
+	 * The frames 1 to 9 available
+	 */
+	protected final PooledNormalFrame[] m_normalFrames;
+
+	/**
+	 * The number of frames 1 to 9 available
+	 */
+	protected int m_normalCount = 0;
+
+	/**
+	 * The frames 10 available
+	 */
+	protected final PooledLastFrame[] m_lastFrames;
+
+	/**
+	 * The number of frames 10 available
+	 */
+	protected int m_lastCount = 0;
+
+	/**
+	 * Whether released objects detect their use
+	 */
+	protected final boolean m_debug;
+
+	/**
+	 * Creates a pool. Most callers use the pool of their thread instead.
+	 * @param capacity The number of games kept by the pool, along with
+	 * enough frames to fill them
+	 * @param debug Whether released objects detect their use
+	 */
+	public GamePool(int capacity, boolean debug)
+	{
+		super();
+		m_games = new PooledGame[capacity];
+		m_normalFrames = new PooledNormalFrame[capacity * (RollScorer.FRAMES - 1)];
+		m_lastFrames = new PooledLastFrame[capacity];
+		m_debug = debug;
+	}
+
+	/**
+	 * Gets the pool of the current thread
+	 * @return The pool
+	 */
+	public static GamePool get()
+	{
+		return s_pools.get();
+	}
+
+	/**
+	 * Takes an empty game from the pool
+	 * @return The game
+	 */
+	public ReusableGame acquireGame()
+	{
+		if (m_gameCount == 0)
+		{
+			return new PooledGame();
+		}
+		PooledGame g = m_games[--m_gameCount];
+		m_games[m_gameCount] = null;
+		g.m_releasedAt = null;
+		return g;
+	}
+
+	/**
+	 * Takes an empty frame from the pool
+	 * @param frame The frame number, from 1 to 9
+	 * @return The frame
+	 * @throws BowlingException If there is no such frame
+	 */
+	public NormalFrame acquireNormalFrame(int frame) throws BowlingException
+	{
+		Frames.checkFrameNumber(frame, RollScorer.FRAMES - 1);
+		if (m_normalCount == 0)
+		{
+			return new PooledNormalFrame(frame);
+		}
+		PooledNormalFrame f = m_normalFrames[--m_normalCount];
+		m_normalFrames[m_normalCount] = null;
+		f.m_releasedAt = null;
+		f.m_frameNumber = frame;
+		return f;
+	}
+
+	/**
+	 * Takes an empty frame 10 from the pool
+	 * @return The frame
+	 */
+	public LastFrame acquireLastFrame()
+	{
+		if (m_lastCount == 0)
+		{
+			return new PooledLastFrame();
+		}
+		PooledLastFrame f = m_lastFrames[--m_lastCount];
+		m_lastFrames[m_lastCount] = null;
+		f.m_releasedAt = null;
+		return f;
+	}
+
+	/**
+	 * Builds a game out of a sequence of rolls, like
+	 * {@link RollScorer#toGame(int[], int, int)}, with a game and frames
+	 * taken from the pool
+	 * @param rolls An array containing the rolls of the game
+	 * @param offset The position of the first roll in the array
+	 * @param length The number of rolls in the game
+	 * @return The game
+	 * @throws BowlingException If the rolls do not form a valid game
+	 */
+	public ReusableGame toGame(int[] rolls, int offset, int length) throws BowlingException
+	{
+		ReusableGame g = acquireGame();
+		int end = offset + length;
+		int p = offset;
+		try
+		{
+			for (int frame = 1; frame <= RollScorer.FRAMES && p < end; frame++)
+			{
+				if (frame == RollScorer.FRAMES)
+				{
+					LastFrame f = acquireLastFrame();
+					g.addFrame(f);
+					for (int roll = 1; roll <= 3 && p < end; roll++)
+					{
+						f.setPinsDown(roll, rolls[p++]);
+					}
+				}
+				else
+				{
+					NormalFrame f = acquireNormalFrame(frame);
+					g.addFrame(f);
+					f.setPinsDown(1, rolls[p++]);
+					if (rolls[p - 1] != 10 && p < end)
+					{
+						f.setPinsDown(2, rolls[p++]);
+					}
+				}
+			}
+		}
+		catch (BowlingException e)
+		{
+			release(g);
+			throw e;
+		}
+		return g;
+	}
+
+	/**
+	 * Gives a game back to the pool, along with the frames of the pool it
+	 * contains
+	 * @param g The game, which must not be used afterwards
+	 * @throws BowlingException In debug mode, if the game was already
+	 * released
+	 */
+	public void release(ReusableGame g) throws BowlingException
+	{
+		for (Frame f : g.m_frames)
+		{
+			release(f);
+		}
+		g.reset();
+		if (!(g instanceof PooledGame))
+		{
+			return;
+		}
+		PooledGame pg = (PooledGame) g;
+		if (m_debug)
+		{
+			pg.m_releasedAt = new Throwable("Released here");
+		}
+		if (m_gameCount < m_games.length)
+		{
+			m_games[m_gameCount++] = pg;
+		}
+	}
+
+	/**
+	 * Gives a frame back to the pool
+	 * @param f The frame, which must not be used afterwards
+	 * @throws BowlingException In debug mode, if the frame was already
+	 * released
+	 */
+	public void release(Frame f) throws BowlingException
+	{
+		if (f instanceof PooledNormalFrame)
+		{
+			PooledNormalFrame nf = (PooledNormalFrame) f;
+			nf.reset();
+			if (m_debug)
+			{
+				nf.m_releasedAt = new Throwable("Released here");
+			}
+			if (m_normalCount < m_normalFrames.length)
+			{
+				m_normalFrames[m_normalCount++] = nf;
+			}
+		}
+		else if (f instanceof PooledLastFrame)
+		{
+			PooledLastFrame lf = (PooledLastFrame) f;
+			lf.reset();
+			if (m_debug)
+			{
+				lf.m_releasedAt = new Throwable("Released here");
+			}
+			if (m_lastCount < m_lastFrames.length)
+			{
+				m_lastFrames[m_lastCount++] = lf;
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of games the pool can hand out without creating new
+	 * ones
+	 * @return The number of games
+	 */
+	public int getAvailableGames()
+	{
+		return m_gameCount;
+	}
+
+	/**
+	 * Checks that an object has not been released
+	 * @param released Where the object was released, or {@code null}
+	 * @throws BowlingException If the object was released
+	 */
+	protected static void checkNotReleased(Throwable released) throws BowlingException
+	{
+		if (released != null)
+		{
+			BowlingException e = new BowlingException("This object was released to its pool");
+			e.initCause(released);
+			throw e;
+		}
+	}
+
+	/**
+	 * A game that comes from a pool
+	 */
+	protected static class PooledGame extends ReusableGame
+	{
+		/**
+		 * Where the game was released, if it was released in debug mode
+		 */
+		protected Throwable m_releasedAt;
+
+		@Override
+		public PooledGame addFrame(Frame f)
+		{
+			checkNotReleased(m_releasedAt);
+			super.addFrame(f);
+			return this;
+		}
+
+		@Override
+		public int getCumulativeScore(int frame)
+		{
+			checkNotReleased(m_releasedAt);
+			return super.getCumulativeScore(frame);
+		}
+
+		@Override
+		public String toString()
+		{
+			checkNotReleased(m_releasedAt);
+			return super.toString();
+		}
+
+		@Override
+		public PooledGame reset()
+		{
+			checkNotReleased(m_releasedAt);
+			super.reset();
+			return this;
+		}
+	}
+
+	/**
+	 * A frame 1 to 9 that comes from a pool
+	 */
+	protected static class PooledNormalFrame extends NormalFrame
+	{
+		/**
+		 * Where the frame was released, if it was released in debug mode
+		 */
+		protected Throwable m_releasedAt;
+
+		/**
+		 * Creates a frame
+		 * @param frame The frame number
+		 */
+		PooledNormalFrame(int frame)
+		{
+			super(frame);
+		}
+
+		@Override
+		public int getFrameNumber()
+		{
+			checkNotReleased(m_releasedAt);
+			return super.getFrameNumber();
+		}
+
+		@Override
+		public int countPinsDown()
+		{
+			checkNotReleased(m_releasedAt);
+			return super.countPinsDown();
+		}
+
+		@Override
+		public int getPinsDown(int roll)
+		{
+			checkNotReleased(m_releasedAt);
+			return super.getPinsDown(roll);
+		}
+
+		@Override
+		public int countRolls()
+		{
+			checkNotReleased(m_releasedAt);
+			return super.countRolls();
+		}
+
+		@Override
+		public Frame reset()
+		{
+			checkNotReleased(m_releasedAt);
+			return super.reset();
+		}
+
+		@Override
+		public NormalFrame setPinsDown(int roll, int pins)
+		{
+			checkNotReleased(m_releasedAt);
+			return super.setPinsDown(roll, pins);
+		}
+
+		@Override
+		public String toString()
+		{
+			checkNotReleased(m_releasedAt);
+			return super.toString();
+		}
+	}
+
+	/**
+	 * A frame 10 that comes from a pool
+	 */
+	protected static class PooledLastFrame extends LastFrame
+	{
+		/**
+		 * Where the frame was released, if it was released in debug mode
+		 */
+		protected Throwable m_releasedAt;
+
+		/**
+		 * Creates a frame
+		 */
+		PooledLastFrame()
+		{
+			super(RollScorer.FRAMES);
+		}
+
+		@Override
+		public int getFrameNumber()
+		{
+			checkNotReleased(m_releasedAt);
+			return super.getFrameNumber();
+		}
+
+		@Override
+		public int countPinsDown()
+		{
+			checkNotReleased(m_releasedAt);
+			return super.countPinsDown();
+		}
+
+		@Override
+		public int getPinsDown(int roll)
+		{
+			checkNotReleased(m_releasedAt);
+			return super.getPinsDown(roll);
+		}
+
+		@Override
+		public int countRolls()
+		{
+			checkNotReleased(m_releasedAt);
+			return super.countRolls();
+		}
+
+		@Override
+		public Frame reset()
+		{
+			checkNotReleased(m_releasedAt);
+			return super.reset();
+		}
+
+		@Override
+		public LastFrame setPinsDown(int roll, int pins)
+		{
+			checkNotReleased(m_releasedAt);
+			return super.setPinsDown(roll, pins);
+		}
+
+		@Override
+		public String toString()
+		{
+			checkNotReleased(m_releasedAt);
+			return super.toString();
+		}
+	}
+}
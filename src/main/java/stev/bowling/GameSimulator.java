@@ -0,0 +1,171 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Plays random games according to a {@link BowlerModel}, and counts their
+ * final scores.
+ * <p>
+ * The games are generated as sequences of rolls in the format of
+ * {@link RollScorer} and scored with
+ * {@link RollScorer#finalScore(int[], int, int, int[])}, which rejects any
+ * sequence that {@link NormalFrame} and {@link LastFrame} would not
+ * accept, and a few they would; no frame object is ever created. The work is split among the
+ * threads of a {@link ForkJoinPool}, each range of games with its own
+ * {@link SplittableRandom} split from the one of the range containing it.
+ * Since the ranges only depend on the number of games, a simulation gives
+ * the same histogram for the same seed, whatever the number of threads.
+ * <p>
+ * In the tenth frame, a strike is followed by a roll of 0 pins, and the
+ * third roll is played on a full rack, the way {@link RollScorer} expects
+ * the rolls of that frame.
+ */
+public class GameSimulator
+{
+	/**
+	 * The number of games below which a task is not split any further
+	 */
+	protected static final long THRESHOLD = 1 << 15;
+
+	/**
+	 * The pool running the simulation
+	 */
+	protected final ForkJoinPool m_pool;
+
+	/**
+	 * Creates a simulator using the common fork-join pool
+	 */
+	public GameSimulator()
+	{
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Creates a simulator
+	 * @param pool The pool running the simulation
+	 */
+	public GameSimulator(ForkJoinPool pool)
+	{
+		super();
+		m_pool = pool;
+	}
+
+	/**
+	 * Plays random games
+	 * @param model The bowler playing the games
+	 * @param games The number of games
+	 * @param seed The seed of the random numbers
+	 * @return The final scores of the games
+	 * @throws BowlingException If the model produces a roll that is not
+	 * possible
+	 */
+	public ScoreHistogram simulate(BowlerModel model, long games, long seed) throws BowlingException
+	{
+		return m_pool.invoke(new SimulationTask(model, games, new SplittableRandom(seed)));
+	}
+
+	/**
+	 * Generates the rolls of a random game
+	 * @param model The bowler playing the game
+	 * @param random The source of randomness
+	 * @param rolls An array of at least {@link RollScorer#MAX_ROLLS}
+	 * elements receiving the rolls
+	 * @return The number of rolls
+	 */
+	public static int play(BowlerModel model, SplittableRandom random, int[] rolls)
+	{
+		int p = 0;
+		for (int frame = 1; frame < RollScorer.FRAMES; frame++)
+		{
+			int first = model.firstRoll(frame, random);
+			rolls[p++] = first;
+			if (first != 10)
+			{
+				rolls[p++] = model.secondRoll(frame, first, random);
+			}
+		}
+		int first = model.firstRoll(RollScorer.FRAMES, random);
+		int second = first == 10 ? 0 : model.secondRoll(RollScorer.FRAMES, first, random);
+		rolls[p++] = first;
+		rolls[p++] = second;
+		if (first + second == 10)
+		{
+			rolls[p++] = model.firstRoll(RollScorer.FRAMES, random);
+		}
+		return p;
+	}
+
+	/**
+	 * Plays a range of games
+	 */
+	protected static class SimulationTask extends RecursiveTask<ScoreHistogram>
+	{
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * The bowler playing the games
+		 */
+		protected final BowlerModel m_model;
+
+		/**
+		 * The number of games
+		 */
+		protected final long m_games;
+
+		/**
+		 * The source of randomness of this range
+		 */
+		protected final SplittableRandom m_random;
+
+		SimulationTask(BowlerModel model, long games, SplittableRandom random)
+		{
+			super();
+			m_model = model;
+			m_games = games;
+			m_random = random;
+		}
+
+		@Override
+		protected ScoreHistogram compute()
+		{
+			if (m_games > THRESHOLD)
+			{
+				long half = m_games >>> 1;
+				SimulationTask left = new SimulationTask(m_model, half, m_random.split());
+				SimulationTask right = new SimulationTask(m_model, m_games - half, m_random);
+				left.fork();
+				ScoreHistogram h = right.compute();
+				return h.merge(left.join());
+			}
+			ScoreHistogram h = new ScoreHistogram();
+			int[] rolls = new int[RollScorer.MAX_ROLLS];
+			int[] totals = new int[RollScorer.FRAMES];
+			for (long g = 0; g < m_games; g++)
+			{
+				int length = play(m_model, m_random, rolls);
+				h.add(RollScorer.finalScore(rolls, 0, length, totals));
+			}
+			return h;
+		}
+	}
+}
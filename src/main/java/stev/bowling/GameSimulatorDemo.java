@@ -0,0 +1,57 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures the throughput of the {@link GameSimulator}, for an increasing
+ * number of threads.
+ */
+public class GameSimulatorDemo
+{
+	/**
+	 * The main method of the program
+	 * @param args Command line arguments: the number of games to simulate
+	 * (optional, 20,000,000 by default), the probability of a strike and of
+	 * a spare (optional, 0.3 and 0.5 by default)
+	 */
+	public static void main(String[] args)
+	{
+		long games = args.length > 0 ? Long.parseLong(args[0]) : 20000000L;
+		double strike = args.length > 1 ? Double.parseDouble(args[1]) : 0.3;
+		double spare = args.length > 2 ? Double.parseDouble(args[2]) : 0.5;
+		BowlerModel model = new ProfileBowler(strike, spare);
+		int cores = Runtime.getRuntime().availableProcessors();
+		System.out.println("Simulating " + games + " games, " + cores + " cores available");
+		for (int threads = 1; threads <= cores; threads = GameBatchDemo.nextLevel(threads, cores))
+		{
+			ForkJoinPool pool = new ForkJoinPool(threads);
+			GameSimulator simulator = new GameSimulator(pool);
+			// The first run lets the JIT compile the simulation loop
+			simulator.simulate(model, games / 10, 0);
+			long start = System.nanoTime();
+			ScoreHistogram h = simulator.simulate(model, games, 0);
+			long elapsed = System.nanoTime() - start;
+			pool.shutdown();
+			System.out.printf("%3d threads: %,15.0f games/s, mean %.2f, median %d, p99 %d%n", threads,
+					games * 1e9 / elapsed, h.getMean(), h.getPercentile(50), h.getPercentile(99));
+		}
+	}
+}
@@ -0,0 +1,506 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Describes the set of all the games that can still be played from any
+ * point of a game.
+ * <p>
+ * What remains of a game only depends on a small state: the frame and the
+ * roll reached, the pins of the first roll of the current frame, and the
+ * bonus still owed to a previous spare or strike (at most one frame waits
+ * for a bonus at any time, see {@link LiveGame}). Each roll adds its pins
+ * to the score, twice if a previous frame takes it as a bonus. There are
+ * about a thousand such states; for each of them, the number of ways of
+ * finishing the game with every number of points, and the largest and
+ * smallest number of points, are computed once by dynamic programming.
+ * <p>
+ * The final score that can still be reached from a partial game is then
+ * the points already earned plus a table lookup. The games follow the
+ * rules of {@link RollScorer} and are scored like
+ * {@link Game#getCumulativeScore(int)}; there are
+ * 66<sup>9</sup> &times; 176 of them (see {@link GameCodec}).
+ */
+public class GameSpace
+{
+	/**
+	 * The highest number of points a game can be given
+	 */
+	public static final int MAX_SCORE = 300;
+
+	/**
+	 * No bonus is owed
+	 */
+	protected static final int OWES_NOTHING = 0;
+
+	/**
+	 * A spare, or a strike that got its first bonus roll, takes the next
+	 * roll as a bonus
+	 */
+	protected static final int OWES_ONE = 1;
+
+	/**
+	 * A strike takes the next roll as a bonus and, unless that roll is a
+	 * strike, the roll after it
+	 */
+	protected static final int OWES_STRIKE = 2;
+
+	/**
+	 * The position reached once the game is over
+	 */
+	protected static final int END = RollScorer.FRAMES * 3;
+
+	/**
+	 * The number of ways of finishing the game with each number of points,
+	 * for each state; {@code null} for states that cannot be reached
+	 */
+	protected static final long[][] s_counts = new long[(END + 1) * 3 * 11][];
+
+	/**
+	 * The most points that can still be earned from each state
+	 */
+	protected static final short[] s_max = new short[s_counts.length];
+
+	/**
+	 * The fewest points that can still be earned from each state
+	 */
+	protected static final short[] s_min = new short[s_counts.length];
+
+	static
+	{
+		compute(0, OWES_NOTHING, 0);
+	}
+
+	private GameSpace()
+	{
+		super();
+	}
+
+	/**
+	 * Gets the number of complete games giving each final score
+	 * @return An array whose element at index {@code s} is the number of
+	 * games scoring {@code s}
+	 */
+	public static long[] getDistribution()
+	{
+		return s_counts[stateOf(0, OWES_NOTHING, 0)].clone();
+	}
+
+	/**
+	 * Gets the number of ways of finishing a partial game with each final
+	 * score
+	 * @param rolls An array containing the rolls played so far, in the
+	 * format of {@link RollScorer}
+	 * @param offset The position of the first roll in the array
+	 * @param length The number of rolls played
+	 * @return An array whose element at index {@code s} is the number of
+	 * ways of finishing the game with a final score of {@code s}
+	 * @throws BowlingException If the rolls are not valid
+	 */
+	public static long[] getDistribution(int[] rolls, int offset, int length) throws BowlingException
+	{
+		long position = walk(rolls, offset, length);
+		long[] remaining = s_counts[(int) position];
+		int earned = (int) (position >>> 32);
+		long[] counts = new long[MAX_SCORE + 1];
+		System.arraycopy(remaining, 0, counts, earned, MAX_SCORE + 1 - earned);
+		return counts;
+	}
+
+	/**
+	 * Gets the number of ways of finishing a partial game
+	 * @param rolls An array containing the rolls played so far
+	 * @param offset The position of the first roll in the array
+	 * @param length The number of rolls played
+	 * @return The number of ways, 1 if the game is over
+	 * @throws BowlingException If the rolls are not valid
+	 */
+	public static long countCompletions(int[] rolls, int offset, int length) throws BowlingException
+	{
+		long count = 0;
+		for (long c : s_counts[(int) walk(rolls, offset, length)])
+		{
+			count += c;
+		}
+		return count;
+	}
+
+	/**
+	 * Gets the highest final score a partial game can still reach
+	 * @param rolls An array containing the rolls played so far
+	 * @param offset The position of the first roll in the array
+	 * @param length The number of rolls played
+	 * @return The score
+	 * @throws BowlingException If the rolls are not valid
+	 */
+	public static int getMaxFinalScore(int[] rolls, int offset, int length) throws BowlingException
+	{
+		long position = walk(rolls, offset, length);
+		return (int) (position >>> 32) + s_max[(int) position];
+	}
+
+	/**
+	 * Gets the final score a partial game is guaranteed to reach
+	 * @param rolls An array containing the rolls played so far
+	 * @param offset The position of the first roll in the array
+	 * @param length The number of rolls played
+	 * @return The score
+	 * @throws BowlingException If the rolls are not valid
+	 */
+	public static int getMinFinalScore(int[] rolls, int offset, int length) throws BowlingException
+	{
+		long position = walk(rolls, offset, length);
+		return (int) (position >>> 32) + s_min[(int) position];
+	}
+
+	/**
+	 * Calls a visitor with every way of finishing a partial game. The
+	 * completions are split among the threads of a pool by their next
+	 * rolls; each task only keeps the rolls of the game it is building, so
+	 * the memory used does not depend on the number of completions.
+	 * @param rolls An array containing the rolls played so far
+	 * @param offset The position of the first roll in the array
+	 * @param length The number of rolls played
+	 * @param visitor The visitor, called from the threads of the pool
+	 * @param pool The pool running the enumeration
+	 * @throws BowlingException If the rolls are not valid
+	 */
+	public static void enumerate(int[] rolls, int offset, int length, CompletionVisitor visitor, ForkJoinPool pool) throws BowlingException
+	{
+		long position = walk(rolls, offset, length);
+		int[] prefix = new int[RollScorer.MAX_ROLLS];
+		System.arraycopy(rolls, offset, prefix, 0, length);
+		int state = (int) position;
+		pool.invoke(new EnumerationTask(prefix, length, (int) (position >>> 32), state / 33, state / 11 % 3, state % 11, visitor));
+	}
+
+	/**
+	 * Receives the games built by
+	 * {@link GameSpace#enumerate(int[], int, int, CompletionVisitor, ForkJoinPool)}
+	 */
+	public interface CompletionVisitor
+	{
+		/**
+		 * Visits a complete game
+		 * @param rolls An array containing the rolls of the game, in the
+		 * format of {@link RollScorer}; it is reused after the call
+		 * @param length The number of rolls
+		 * @param score The final score of the game
+		 */
+		public void visit(int[] rolls, int length, int score);
+	}
+
+	/**
+	 * Follows a partial game from its first roll
+	 * @param rolls An array containing the rolls played so far
+	 * @param offset The position of the first roll in the array
+	 * @param length The number of rolls played
+	 * @return The points earned by these rolls in the upper 32 bits, and the
+	 * state reached in the lower 32 bits
+	 * @throws BowlingException If the rolls are not valid
+	 */
+	protected static long walk(int[] rolls, int offset, int length) throws BowlingException
+	{
+		int position = 0;
+		int owed = OWES_NOTHING;
+		int first = 0;
+		int earned = 0;
+		for (int i = offset; i < offset + length; i++)
+		{
+			if (position == END)
+			{
+				throw new BowlingException("There are " + (offset + length - i) + " rolls after frame #10");
+			}
+			int pins = RollScorer.checkPins(rolls[i]);
+			if (position % 3 == 1)
+			{
+				RollScorer.checkFrame(first, pins);
+			}
+			earned += points(owed, pins);
+			int next = nextPosition(position, first, pins);
+			owed = nextOwed(position, first, pins, owed);
+			first = nextFirst(position, first, pins, next);
+			position = next;
+		}
+		return ((long) earned << 32) | stateOf(position, owed, first);
+	}
+
+	/**
+	 * Computes the tables of a state and of every state reachable from it
+	 * @param position The position of the next roll, {@code frame * 3 + roll}
+	 * with both numbers starting at 0, or {@link #END}
+	 * @param owed The bonus owed to a previous frame
+	 * @param first The pins of the first roll of the current frame, if the
+	 * next roll is not the first
+	 */
+	protected static void compute(int position, int owed, int first)
+	{
+		int state = stateOf(position, owed, first);
+		if (s_counts[state] != null)
+		{
+			return;
+		}
+		long[] counts = new long[MAX_SCORE + 1];
+		if (position == END)
+		{
+			counts[0] = 1;
+			s_counts[state] = counts;
+			return;
+		}
+		int max = Integer.MIN_VALUE;
+		int min = Integer.MAX_VALUE;
+		int most = maxPins(position, first);
+		for (int pins = 0; pins <= most; pins++)
+		{
+			int next = nextPosition(position, first, pins);
+			int next_owed = nextOwed(position, first, pins, owed);
+			int next_first = nextFirst(position, first, pins, next);
+			compute(next, next_owed, next_first);
+			int next_state = stateOf(next, next_owed, next_first);
+			int points = points(owed, pins);
+			long[] after = s_counts[next_state];
+			for (int s = 0; s + points <= MAX_SCORE; s++)
+			{
+				counts[s + points] += after[s];
+			}
+			max = Math.max(max, points + s_max[next_state]);
+			min = Math.min(min, points + s_min[next_state]);
+		}
+		s_counts[state] = counts;
+		s_max[state] = (short) max;
+		s_min[state] = (short) min;
+	}
+
+	/**
+	 * Gets the index of a state in the tables
+	 * @param position The position of the next roll
+	 * @param owed The bonus owed to a previous frame
+	 * @param first The pins of the first roll of the current frame
+	 * @return The index
+	 */
+	protected static int stateOf(int position, int owed, int first)
+	{
+		return (position * 3 + owed) * 11 + first;
+	}
+
+	/**
+	 * Gets the most pins the next roll can knock down
+	 * @param position The position of the roll
+	 * @param first The pins of the first roll of the current frame
+	 * @return The number of pins
+	 */
+	protected static int maxPins(int position, int first)
+	{
+		return position % 3 == 1 ? 10 - first : 10;
+	}
+
+	/**
+	 * Gets the position of the roll following a roll
+	 * @param position The position of the roll
+	 * @param first The pins of the first roll of the current frame
+	 * @param pins The pins of the roll
+	 * @return The position of the next roll
+	 */
+	protected static int nextPosition(int position, int first, int pins)
+	{
+		int roll = position % 3;
+		if (position < END - 3)
+		{
+			return roll == 0 && pins < 10 ? position + 1 : position - roll + 3;
+		}
+		if (roll == 0 || (roll == 1 && first + pins == 10))
+		{
+			return position + 1;
+		}
+		return END;
+	}
+
+	/**
+	 * Gets the pins of the first roll of the current frame after a roll
+	 * @param position The position of the roll
+	 * @param first The pins of the first roll of the current frame
+	 * @param pins The pins of the roll
+	 * @param next The position of the next roll
+	 * @return The pins of the first roll of the frame of the next roll, or
+	 * 0 if the next roll is the first of its frame
+	 */
+	protected static int nextFirst(int position, int first, int pins, int next)
+	{
+		if (next == END || next % 3 == 0)
+		{
+			return 0;
+		}
+		return position % 3 == 0 ? pins : first;
+	}
+
+	/**
+	 * Gets the bonus owed after a roll
+	 * @param position The position of the roll
+	 * @param first The pins of the first roll of the current frame
+	 * @param pins The pins of the roll
+	 * @param owed The bonus owed before the roll
+	 * @return The bonus owed after the roll
+	 */
+	protected static int nextOwed(int position, int first, int pins, int owed)
+	{
+		// A strike followed by a strike takes no further bonus
+		int next = owed == OWES_STRIKE && pins != 10 ? OWES_ONE : OWES_NOTHING;
+		if (position < END - 3)
+		{
+			int roll = position % 3;
+			if (roll == 0 && pins == 10)
+			{
+				next = OWES_STRIKE;
+			}
+			else if (roll == 1 && first + pins == 10)
+			{
+				next = OWES_ONE;
+			}
+		}
+		return next;
+	}
+
+	/**
+	 * Gets the points earned by a roll
+	 * @param owed The bonus owed before the roll
+	 * @param pins The pins of the roll
+	 * @return The points
+	 */
+	protected static int points(int owed, int pins)
+	{
+		return owed == OWES_NOTHING ? pins : 2 * pins;
+	}
+
+	/**
+	 * Builds the completions of a partial game, splitting the work when
+	 * there are many of them
+	 */
+	protected static class EnumerationTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * The number of completions below which a task builds them all
+		 * itself
+		 */
+		protected static final long THRESHOLD = 1 << 16;
+
+		/**
+		 * The rolls played so far
+		 */
+		protected final int[] m_rolls;
+
+		/**
+		 * The number of rolls played so far
+		 */
+		protected final int m_length;
+
+		/**
+		 * The points earned so far
+		 */
+		protected final int m_earned;
+
+		/**
+		 * The position of the next roll
+		 */
+		protected final int m_position;
+
+		/**
+		 * The bonus owed to a previous frame
+		 */
+		protected final int m_owed;
+
+		/**
+		 * The pins of the first roll of the current frame
+		 */
+		protected final int m_first;
+
+		/**
+		 * The visitor of the complete games
+		 */
+		protected final CompletionVisitor m_visitor;
+
+		EnumerationTask(int[] rolls, int length, int earned, int position, int owed, int first, CompletionVisitor visitor)
+		{
+			super();
+			m_rolls = rolls;
+			m_length = length;
+			m_earned = earned;
+			m_position = position;
+			m_owed = owed;
+			m_first = first;
+			m_visitor = visitor;
+		}
+
+		@Override
+		protected void compute()
+		{
+			long count = 0;
+			for (long c : s_counts[stateOf(m_position, m_owed, m_first)])
+			{
+				count += c;
+			}
+			if (count <= THRESHOLD || m_position == END)
+			{
+				visit(m_rolls.clone(), m_length, m_earned, m_position, m_owed, m_first);
+				return;
+			}
+			int most = maxPins(m_position, m_first);
+			EnumerationTask[] tasks = new EnumerationTask[most + 1];
+			for (int pins = 0; pins <= most; pins++)
+			{
+				int[] rolls = m_rolls.clone();
+				rolls[m_length] = pins;
+				int next = nextPosition(m_position, m_first, pins);
+				tasks[pins] = new EnumerationTask(rolls, m_length + 1, m_earned + points(m_owed, pins), next,
+						nextOwed(m_position, m_first, pins, m_owed), nextFirst(m_position, m_first, pins, next), m_visitor);
+			}
+			invokeAll(tasks);
+		}
+
+		/**
+		 * Builds the completions of a partial game on the current thread
+		 * @param rolls The rolls played so far, and room for the others
+		 * @param length The number of rolls played so far
+		 * @param earned The points earned so far
+		 * @param position The position of the next roll
+		 * @param owed The bonus owed to a previous frame
+		 * @param first The pins of the first roll of the current frame
+		 */
+		protected void visit(int[] rolls, int length, int earned, int position, int owed, int first)
+		{
+			if (position == END)
+			{
+				m_visitor.visit(rolls, length, earned);
+				return;
+			}
+			int most = maxPins(position, first);
+			for (int pins = 0; pins <= most; pins++)
+			{
+				rolls[length] = pins;
+				int next = nextPosition(position, first, pins);
+				visit(rolls, length + 1, earned + points(owed, pins), next, nextOwed(position, first, pins, owed),
+						nextFirst(position, first, pins, next));
+			}
+		}
+	}
+}
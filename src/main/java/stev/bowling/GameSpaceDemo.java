@@ -0,0 +1,55 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+import java.io.PrintStream;
+
+/**
+ * Prints the number of games giving each final score, as CSV lines written
+ * one at a time.
+ */
+public class GameSpaceDemo
+{
+	/**
+	 * The main method of the program
+	 * @param args Command line arguments: the rolls played so far (optional,
+	 * an empty game by default)
+	 */
+	public static void main(String[] args)
+	{
+		int[] rolls = new int[args.length];
+		for (int i = 0; i < args.length; i++)
+		{
+			rolls[i] = Integer.parseInt(args[i]);
+		}
+		PrintStream out = System.out;
+		out.println("# Final score between " + GameSpace.getMinFinalScore(rolls, 0, rolls.length) + " and "
+				+ GameSpace.getMaxFinalScore(rolls, 0, rolls.length) + ", "
+				+ GameSpace.countCompletions(rolls, 0, rolls.length) + " ways of finishing");
+		out.println("score,games");
+		long[] counts = GameSpace.getDistribution(rolls, 0, rolls.length);
+		for (int s = 0; s < counts.length; s++)
+		{
+			if (counts[s] != 0)
+			{
+				out.println(s + "," + counts[s]);
+			}
+		}
+	}
+}
@@ -0,0 +1,203 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+import stev.bowling.MetricsSink.Operation;
+
+/**
+ * A {@link Game} that reports its calls, their durations and their
+ * failures to a {@link MetricsSink}.
+ * <p>
+ * Frames do not know the game they belong to, so rolls entered directly in
+ * a frame cannot be seen; enter them with
+ * {@link #setPinsDown(int, int, int)} to have them measured. With
+ * {@link MetricsSink#NONE}, which is the default, every method goes
+ * straight to {@link Game} and nothing is measured.
+ */
+public class InstrumentedGame extends Game
+{
+	/**
+	 * The sink receiving the measurements
+	 */
+	protected MetricsSink m_sink;
+
+	/**
+	 * Whether the game is rendering itself; the scores it asks for while
+	 * doing so are part of the call to {@link #toString()}
+	 */
+	protected boolean m_rendering = false;
+
+	/**
+	 * Whether the completion of the game has been reported
+	 */
+	protected boolean m_completed = false;
+
+	/**
+	 * Creates a game that measures nothing
+	 */
+	public InstrumentedGame()
+	{
+		this(MetricsSink.NONE);
+	}
+
+	/**
+	 * Creates a game
+	 * @param sink The sink receiving the measurements
+	 */
+	public InstrumentedGame(MetricsSink sink)
+	{
+		super();
+		m_sink = sink;
+	}
+
+	/**
+	 * Sets the sink receiving the measurements
+	 * @param sink The sink, or {@link MetricsSink#NONE} to measure nothing
+	 * @return This game
+	 */
+	public InstrumentedGame setSink(MetricsSink sink)
+	{
+		m_sink = sink;
+		return this;
+	}
+
+	@Override
+	public InstrumentedGame addFrame(Frame f) throws BowlingException
+	{
+		if (m_sink == MetricsSink.NONE)
+		{
+			super.addFrame(f);
+			return this;
+		}
+		long start = System.nanoTime();
+		try
+		{
+			super.addFrame(f);
+		}
+		catch (BowlingException e)
+		{
+			m_sink.failed(Operation.ADD_FRAME, e);
+			throw e;
+		}
+		m_sink.called(Operation.ADD_FRAME, System.nanoTime() - start);
+		checkCompleted();
+		return this;
+	}
+
+	@Override
+	public int getCumulativeScore(int frame) throws BowlingException
+	{
+		if (m_sink == MetricsSink.NONE || m_rendering)
+		{
+			return super.getCumulativeScore(frame);
+		}
+		long start = System.nanoTime();
+		int score;
+		try
+		{
+			score = super.getCumulativeScore(frame);
+		}
+		catch (BowlingException e)
+		{
+			m_sink.failed(Operation.GET_CUMULATIVE_SCORE, e);
+			throw e;
+		}
+		m_sink.called(Operation.GET_CUMULATIVE_SCORE, System.nanoTime() - start);
+		return score;
+	}
+
+	@Override
+	public String toString()
+	{
+		if (m_sink == MetricsSink.NONE)
+		{
+			return super.toString();
+		}
+		long start = System.nanoTime();
+		m_rendering = true;
+		String s;
+		try
+		{
+			s = super.toString();
+		}
+		catch (BowlingException e)
+		{
+			m_sink.failed(Operation.TO_STRING, e);
+			throw e;
+		}
+		finally
+		{
+			m_rendering = false;
+		}
+		m_sink.called(Operation.TO_STRING, System.nanoTime() - start);
+		return s;
+	}
+
+	/**
+	 * Sets the number of pins knocked down by a roll of a frame of this game
+	 * @param frame The frame number, starting at 1
+	 * @param roll The roll number in the frame, starting at 1
+	 * @param pins The number of pins
+	 * @return This game
+	 * @throws BowlingException If there is no such frame, or if the frame
+	 * rejects the roll
+	 */
+	public InstrumentedGame setPinsDown(int frame, int roll, int pins) throws BowlingException
+	{
+		long start = m_sink == MetricsSink.NONE ? 0 : System.nanoTime();
+		try
+		{
+			if (frame < 1 || frame > m_frames.size())
+			{
+				throw new BowlingException("Frame #" + frame + " does not exist in this game");
+			}
+			m_frames.get(frame - 1).setPinsDown(roll, pins);
+		}
+		catch (BowlingException e)
+		{
+			m_sink.failed(Operation.SET_PINS_DOWN, e);
+			throw e;
+		}
+		if (m_sink != MetricsSink.NONE)
+		{
+			m_sink.called(Operation.SET_PINS_DOWN, System.nanoTime() - start);
+			checkCompleted();
+		}
+		return this;
+	}
+
+	/**
+	 * Reports the completion of the game, the first time frame 10 has all
+	 * its rolls
+	 */
+	protected void checkCompleted()
+	{
+		if (m_completed || m_frames.size() < RollScorer.FRAMES)
+		{
+			return;
+		}
+		int[] scores = m_frames.get(RollScorer.FRAMES - 1).m_scores;
+		if (scores[0] < 0 || scores[1] < 0 || (scores[0] + scores[1] == 10 && scores[2] < 0))
+		{
+			return;
+		}
+		m_completed = true;
+		m_sink.gameCompleted(super.getCumulativeScore(RollScorer.FRAMES));
+	}
+}
@@ -0,0 +1,82 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+import java.util.SplittableRandom;
+
+/**
+ * Simulates many lanes sending rolls to a {@link LaneServer}, and reports
+ * the time between each roll and the publication of its score.
+ */
+public class LaneLoadGenerator
+{
+	/**
+	 * The main method of the program
+	 * @param args Command line arguments: the number of lanes (optional,
+	 * 5,000 by default), the number of rolls per second on each lane
+	 * (optional, 10 by default), the duration in seconds (optional, 10 by
+	 * default) and the period of publication in milliseconds (optional, 50
+	 * by default)
+	 * @throws InterruptedException If the program is interrupted
+	 */
+	public static void main(String[] args) throws InterruptedException
+	{
+		int lanes = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+		double rate = args.length > 1 ? Double.parseDouble(args[1]) : 10;
+		int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+		long tick = args.length > 3 ? Long.parseLong(args[3]) : LaneServer.DEFAULT_TICK_MILLIS;
+		LaneServer server = new LaneServer(updates -> {
+			// The updates are dropped; only their latency is measured
+		}, tick);
+		System.out.println("Simulating " + lanes + " lanes at " + rate + " rolls/s each for " + seconds + " s, "
+				+ (server.usesVirtualThreads() ? "virtual" : "platform") + " threads, " + tick + " ms ticks");
+		BowlerModel model = new ProfileBowler(0.3, 0.5);
+		SplittableRandom random = new SplittableRandom(0);
+		int[][] games = new int[lanes][RollScorer.MAX_ROLLS];
+		int[] lengths = new int[lanes];
+		int[] next = new int[lanes];
+		long start = System.nanoTime();
+		long end = start + seconds * 1000000000L;
+		long submitted = 0;
+		for (long now = start; now < end; now = System.nanoTime())
+		{
+			// Submit the rolls due by now, spread evenly over the lanes
+			long due = (long) ((now - start) * 1e-9 * rate * lanes);
+			for (; submitted < due; submitted++)
+			{
+				int lane = (int) (submitted % lanes);
+				if (next[lane] == lengths[lane])
+				{
+					lengths[lane] = GameSimulator.play(model, random, games[lane]);
+					next[lane] = 0;
+				}
+				server.submit(lane, games[lane][next[lane]++]);
+			}
+			Thread.sleep(1);
+		}
+		server.close();
+		System.out.printf("%,d rolls submitted in %.1f s%n", submitted, (System.nanoTime() - start) * 1e-9);
+		LatencyHistogram h = server.getLatencies();
+		System.out.printf("%,d rolls played, %,d rejected%n", server.getRolls(), server.getRejected());
+		System.out.printf("%,d batches, %,d updates (%.1f rolls per update)%n", server.getBatches(), server.getUpdates(),
+				(double) server.getRolls() / Math.max(1, server.getUpdates()));
+		System.out.printf("Roll to publish: p50 %.2f ms, p99 %.2f ms, max %.2f ms%n", h.getValueAtPercentile(50) / 1e6,
+				h.getValueAtPercentile(99) / 1e6, h.getMax() / 1e6);
+	}
+}
@@ -0,0 +1,35 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+import java.util.List;
+
+/**
+ * Receives the batches of score updates sent by a {@link LaneServer}.
+ */
+public interface LanePublisher
+{
+	/**
+	 * Sends a batch of updates. This is called from a single thread, once
+	 * per tick of the server, and only when at least one lane has changed.
+	 * @param updates The updates, one per lane that changed (two if a game
+	 * ended and the next one started since the previous batch)
+	 */
+	public void publish(List<LaneUpdate> updates);
+}
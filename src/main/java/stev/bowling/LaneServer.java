@@ -0,0 +1,483 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+import java.io.Closeable;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Receives the rolls of many lanes and publishes their scores in batches.
+ * <p>
+ * Rolls are submitted with {@link #submit(int, int)} and queued for their
+ * lane. Each lane has a session that takes its rolls one at a time and
+ * plays them in the {@link LiveGame} of the lane; the first roll after the
+ * end of a game starts a new one. Sessions run on virtual threads when the
+ * JVM has them (Java 21 and later), and on a pool of platform threads
+ * otherwise.
+ * <p>
+ * The rolls are not published one by one. On every tick of a fixed
+ * period, the lanes that changed since the previous tick are gathered in a
+ * single batch with one {@link LaneUpdate} per lane, however many rolls it
+ * received (two if a game ended and the next one started in between), and
+ * the batch is given to a {@link LanePublisher}. The time between the
+ * submission of each roll and the publication of its batch is recorded in
+ * a {@link LatencyHistogram}.
+ */
+public class LaneServer implements Closeable
+{
+	/**
+	 * The default period of publication, in milliseconds
+	 */
+	public static final long DEFAULT_TICK_MILLIS = 50;
+
+	/**
+	 * The event telling a session to stop
+	 */
+	protected static final RollEvent STOP = new RollEvent(-1, 0);
+
+	/**
+	 * The receiver of the batches
+	 */
+	protected final LanePublisher m_publisher;
+
+	/**
+	 * The executor running the session of each lane
+	 */
+	protected final ExecutorService m_sessions;
+
+	/**
+	 * Whether the sessions run on virtual threads
+	 */
+	protected final boolean m_virtual;
+
+	/**
+	 * The thread publishing the batches
+	 */
+	protected final ScheduledExecutorService m_ticker;
+
+	/**
+	 * The lanes, by number
+	 */
+	protected final ConcurrentHashMap<Integer, Lane> m_lanes = new ConcurrentHashMap<Integer, Lane>();
+
+	/**
+	 * The lanes that changed since the last batch
+	 */
+	protected final ConcurrentLinkedQueue<Lane> m_changed = new ConcurrentLinkedQueue<Lane>();
+
+	/**
+	 * The time between the submission of a roll and the publication of its
+	 * batch, in nanoseconds
+	 */
+	protected final LatencyHistogram m_latencies = new LatencyHistogram();
+
+	/**
+	 * The number of rolls played
+	 */
+	protected final LongAdder m_rolls = new LongAdder();
+
+	/**
+	 * The number of rolls rejected
+	 */
+	protected final LongAdder m_rejected = new LongAdder();
+
+	/**
+	 * The number of batches published
+	 */
+	protected final LongAdder m_batches = new LongAdder();
+
+	/**
+	 * The number of updates published
+	 */
+	protected final LongAdder m_updates = new LongAdder();
+
+	/**
+	 * Whether the server is closed
+	 */
+	protected volatile boolean m_closed = false;
+
+	/**
+	 * Creates a server publishing every {@link #DEFAULT_TICK_MILLIS}
+	 * milliseconds
+	 * @param publisher The receiver of the batches
+	 */
+	public LaneServer(LanePublisher publisher)
+	{
+		this(publisher, DEFAULT_TICK_MILLIS);
+	}
+
+	/**
+	 * Creates a server
+	 * @param publisher The receiver of the batches
+	 * @param tick_millis The period of publication, in milliseconds
+	 */
+	public LaneServer(LanePublisher publisher, long tick_millis)
+	{
+		super();
+		m_publisher = publisher;
+		ExecutorService virtual = newVirtualExecutor();
+		m_virtual = virtual != null;
+		m_sessions = m_virtual ? virtual : Executors.newCachedThreadPool(r -> daemon(r, "lane-session"));
+		m_ticker = Executors.newSingleThreadScheduledExecutor(r -> daemon(r, "lane-publisher"));
+		m_ticker.scheduleAtFixedRate(this::tick, tick_millis, tick_millis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Submits a roll. It is played later by the session of the lane.
+	 * @param lane The lane
+	 * @param pins The number of pins knocked down
+	 * @throws BowlingException If the server is closed
+	 */
+	public void submit(int lane, int pins) throws BowlingException
+	{
+		if (m_closed)
+		{
+			throw new BowlingException("The server is closed");
+		}
+		Lane l = m_lanes.get(lane);
+		if (l == null)
+		{
+			l = m_lanes.computeIfAbsent(lane, n -> {
+				Lane created = new Lane(n);
+				m_sessions.execute(created);
+				return created;
+			});
+		}
+		l.m_events.add(new RollEvent(pins, System.nanoTime()));
+	}
+
+	/**
+	 * Gets the time between the submission of the rolls and the
+	 * publication of their batch
+	 * @return The histogram of the times, in nanoseconds
+	 */
+	public LatencyHistogram getLatencies()
+	{
+		return m_latencies;
+	}
+
+	/**
+	 * Gets the number of rolls played
+	 * @return The number of rolls
+	 */
+	public long getRolls()
+	{
+		return m_rolls.sum();
+	}
+
+	/**
+	 * Gets the number of rolls rejected because they were not possible
+	 * @return The number of rolls
+	 */
+	public long getRejected()
+	{
+		return m_rejected.sum();
+	}
+
+	/**
+	 * Gets the number of batches published
+	 * @return The number of batches
+	 */
+	public long getBatches()
+	{
+		return m_batches.sum();
+	}
+
+	/**
+	 * Gets the number of updates published
+	 * @return The number of updates
+	 */
+	public long getUpdates()
+	{
+		return m_updates.sum();
+	}
+
+	/**
+	 * Determines whether the sessions run on virtual threads
+	 * @return {@code true} if they do
+	 */
+	public boolean usesVirtualThreads()
+	{
+		return m_virtual;
+	}
+
+	/**
+	 * Stops the server. The rolls submitted before this call are played
+	 * and published.
+	 */
+	@Override
+	public void close()
+	{
+		m_closed = true;
+		for (Lane l : m_lanes.values())
+		{
+			l.m_events.add(STOP);
+		}
+		m_sessions.shutdown();
+		m_ticker.shutdown();
+		try
+		{
+			m_sessions.awaitTermination(1, TimeUnit.MINUTES);
+			m_ticker.awaitTermination(1, TimeUnit.MINUTES);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		tick();
+	}
+
+	/**
+	 * Publishes the lanes that changed since the last batch
+	 */
+	protected void tick()
+	{
+		List<LaneUpdate> updates = new ArrayList<LaneUpdate>();
+		long now = System.nanoTime();
+		for (Lane l = m_changed.poll(); l != null; l = m_changed.poll())
+		{
+			l.publish(now, updates);
+		}
+		if (updates.isEmpty())
+		{
+			return;
+		}
+		m_batches.increment();
+		m_updates.add(updates.size());
+		try
+		{
+			m_publisher.publish(updates);
+		}
+		catch (RuntimeException e)
+		{
+			// A failing publisher must not stop the following ticks
+			Thread t = Thread.currentThread();
+			t.getUncaughtExceptionHandler().uncaughtException(t, e);
+		}
+	}
+
+	/**
+	 * Creates an executor starting a virtual thread per task, if the JVM
+	 * has virtual threads
+	 * @return The executor, or {@code null}
+	 */
+	protected static ExecutorService newVirtualExecutor()
+	{
+		try
+		{
+			Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) m.invoke(null);
+		}
+		catch (ReflectiveOperationException e)
+		{
+			return null;
+		}
+	}
+
+	/**
+	 * Creates a daemon thread
+	 * @param r The task of the thread
+	 * @param name The name of the thread
+	 * @return The thread
+	 */
+	protected static Thread daemon(Runnable r, String name)
+	{
+		Thread t = new Thread(r, name);
+		t.setDaemon(true);
+		return t;
+	}
+
+	/**
+	 * A roll waiting to be played
+	 */
+	protected static class RollEvent
+	{
+		/**
+		 * The number of pins knocked down
+		 */
+		protected final int m_pins;
+
+		/**
+		 * The time the roll was submitted, from {@link System#nanoTime()}
+		 */
+		protected final long m_submitted;
+
+		/**
+		 * Creates an event
+		 * @param pins The number of pins knocked down
+		 * @param submitted The time the roll was submitted
+		 */
+		protected RollEvent(int pins, long submitted)
+		{
+			super();
+			m_pins = pins;
+			m_submitted = submitted;
+		}
+	}
+
+	/**
+	 * A lane and its session
+	 */
+	protected class Lane implements Runnable
+	{
+		/**
+		 * The number of the lane
+		 */
+		protected final int m_number;
+
+		/**
+		 * The rolls submitted and not played yet
+		 */
+		protected final BlockingQueue<RollEvent> m_events = new LinkedBlockingQueue<RollEvent>();
+
+		/**
+		 * The game being played
+		 */
+		protected final LiveGame m_game = new LiveGame();
+
+		/**
+		 * The number of the game being played, starting at 1
+		 */
+		protected int m_gameNumber = 1;
+
+		/**
+		 * The submission times of the rolls played since the last batch
+		 */
+		protected long[] m_waiting = new long[RollScorer.MAX_ROLLS];
+
+		/**
+		 * The number of rolls played since the last batch
+		 */
+		protected int m_waitingCount = 0;
+
+		/**
+		 * The last update of each game that ended after the last batch, in
+		 * the order they ended
+		 */
+		protected final List<LaneUpdate> m_finished = new ArrayList<LaneUpdate>();
+
+		/**
+		 * A scratch array holding the rolls of the game
+		 */
+		protected final int[] m_scratch = new int[RollScorer.MAX_ROLLS];
+
+		/**
+		 * Creates a lane
+		 * @param number The number of the lane
+		 */
+		protected Lane(int number)
+		{
+			super();
+			m_number = number;
+		}
+
+		@Override
+		public void run()
+		{
+			try
+			{
+				for (RollEvent e = m_events.take(); e != STOP; e = m_events.take())
+				{
+					play(e);
+				}
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		/**
+		 * Plays a roll
+		 * @param e The roll
+		 */
+		protected synchronized void play(RollEvent e)
+		{
+			if (m_game.isOver())
+			{
+				if (m_waitingCount > 0)
+				{
+					// The end of the previous game is published with the next batch
+					m_finished.add(toUpdate());
+				}
+				m_game.reset();
+				m_gameNumber++;
+			}
+			if (m_game.tryRoll(e.m_pins) != Validation.OK)
+			{
+				m_rejected.increment();
+				return;
+			}
+			m_rolls.increment();
+			if (m_waitingCount == m_waiting.length)
+			{
+				long[] waiting = new long[m_waiting.length * 2];
+				System.arraycopy(m_waiting, 0, waiting, 0, m_waitingCount);
+				m_waiting = waiting;
+			}
+			m_waiting[m_waitingCount++] = e.m_submitted;
+			if (m_waitingCount == 1)
+			{
+				m_changed.add(this);
+			}
+		}
+
+		/**
+		 * Adds the updates of the lane to a batch, and records the latency
+		 * of the rolls they contain
+		 * @param now The time of the publication, from
+		 * {@link System#nanoTime()}
+		 * @param updates The batch
+		 */
+		protected synchronized void publish(long now, List<LaneUpdate> updates)
+		{
+			for (int i = 0; i < m_waitingCount; i++)
+			{
+				m_latencies.record(now - m_waiting[i]);
+			}
+			m_waitingCount = 0;
+			updates.addAll(m_finished);
+			m_finished.clear();
+			updates.add(toUpdate());
+		}
+
+		/**
+		 * Creates the update of the game being played
+		 * @return The update
+		 */
+		protected LaneUpdate toUpdate()
+		{
+			int length = m_game.toRolls(m_scratch, 0);
+			int[] rolls = new int[length];
+			System.arraycopy(m_scratch, 0, rolls, 0, length);
+			return new LaneUpdate(m_number, m_gameNumber, rolls, m_game.getProvisionalScore(), m_game.isOver());
+		}
+	}
+}
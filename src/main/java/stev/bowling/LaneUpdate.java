@@ -0,0 +1,130 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+/**
+ * The state of the game of a lane, as sent by a {@link LaneServer}. An
+ * update never changes once created.
+ */
+public class LaneUpdate
+{
+	/**
+	 * The lane
+	 */
+	protected final int m_lane;
+
+	/**
+	 * The number of the game on the lane, starting at 1
+	 */
+	protected final int m_game;
+
+	/**
+	 * The rolls of the game so far
+	 */
+	protected final int[] m_rolls;
+
+	/**
+	 * The score of the game so far, counting the frames that are not final
+	 */
+	protected final int m_score;
+
+	/**
+	 * Whether the game is over
+	 */
+	protected final boolean m_over;
+
+	/**
+	 * Creates an update
+	 * @param lane The lane
+	 * @param game The number of the game on the lane
+	 * @param rolls The rolls of the game so far
+	 * @param score The score of the game so far
+	 * @param over Whether the game is over
+	 */
+	protected LaneUpdate(int lane, int game, int[] rolls, int score, boolean over)
+	{
+		super();
+		m_lane = lane;
+		m_game = game;
+		m_rolls = rolls;
+		m_score = score;
+		m_over = over;
+	}
+
+	/**
+	 * Gets the lane
+	 * @return The lane
+	 */
+	public int getLane()
+	{
+		return m_lane;
+	}
+
+	/**
+	 * Gets the number of the game on the lane
+	 * @return The number, starting at 1
+	 */
+	public int getGame()
+	{
+		return m_game;
+	}
+
+	/**
+	 * Gets the number of rolls played so far
+	 * @return The number of rolls
+	 */
+	public int getRollCount()
+	{
+		return m_rolls.length;
+	}
+
+	/**
+	 * Gets the score of the game so far, counting the frames that are not
+	 * final
+	 * @return The score
+	 */
+	public int getScore()
+	{
+		return m_score;
+	}
+
+	/**
+	 * Determines whether the game is over
+	 * @return {@code true} if the game is over
+	 */
+	public boolean isOver()
+	{
+		return m_over;
+	}
+
+	/**
+	 * Renders the scoreboard of the game, like {@link Game#toString()}
+	 * @return The scoreboard
+	 */
+	public String getBoard()
+	{
+		return RollScorer.toGame(m_rolls, 0, m_rolls.length).toString();
+	}
+
+	@Override
+	public String toString()
+	{
+		return "Lane " + m_lane + ", game " + m_game + ": " + m_score + (m_over ? " (over)" : "");
+	}
+}
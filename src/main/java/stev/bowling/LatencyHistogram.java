@@ -0,0 +1,177 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of non-negative values, such as durations in nanoseconds,
+ * that any number of threads can record into without locks.
+ * <p>
+ * As in HdrHistogram, the buckets are log-linear: values below 64 have a
+ * bucket each, and every range from 2<sup>k</sup> to 2<sup>k+1</sup> above
+ * is split into 32 buckets of equal width. A value is therefore known
+ * within about 3% of its magnitude, for any magnitude, with a fixed array
+ * of counters. Recording a value increments one counter.
+ */
+public class LatencyHistogram
+{
+	/**
+	 * The number of bits of a value kept below its highest bit
+	 */
+	protected static final int SUB_BITS = 5;
+
+	/**
+	 * The number of buckets in each range of a power of two
+	 */
+	protected static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+	/**
+	 * The number of buckets, enough for any positive {@code long}
+	 */
+	protected static final int BUCKETS = (63 - SUB_BITS) * SUB_BUCKETS + 2 * SUB_BUCKETS;
+
+	/**
+	 * The number of values recorded in each bucket
+	 */
+	protected final AtomicLongArray m_counts = new AtomicLongArray(BUCKETS);
+
+	/**
+	 * The largest value recorded
+	 */
+	protected final AtomicLong m_max = new AtomicLong();
+
+	/**
+	 * Records a value
+	 * @param value The value; negative values are recorded as 0
+	 */
+	public void record(long value)
+	{
+		if (value < 0)
+		{
+			value = 0;
+		}
+		m_counts.incrementAndGet(bucketOf(value));
+		long max = m_max.get();
+		while (value > max && !m_max.compareAndSet(max, value))
+		{
+			max = m_max.get();
+		}
+	}
+
+	/**
+	 * Gets the number of values recorded
+	 * @return The number of values
+	 */
+	public long getCount()
+	{
+		long count = 0;
+		for (int i = 0; i < BUCKETS; i++)
+		{
+			count += m_counts.get(i);
+		}
+		return count;
+	}
+
+	/**
+	 * Gets the largest value recorded
+	 * @return The value, or 0 if no value was recorded
+	 */
+	public long getMax()
+	{
+		return m_max.get();
+	}
+
+	/**
+	 * Gets the value below which a given percentage of the values fall
+	 * @param percentile The percentage, between 0 and 100
+	 * @return The highest value of the bucket holding that value, and no
+	 * more than the largest value recorded; 0 if no value was recorded
+	 */
+	public long getValueAtPercentile(double percentile)
+	{
+		long[] counts = new long[BUCKETS];
+		long total = 0;
+		for (int i = 0; i < BUCKETS; i++)
+		{
+			counts[i] = m_counts.get(i);
+			total += counts[i];
+		}
+		if (total == 0)
+		{
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(total * Math.min(100, Math.max(0, percentile)) / 100));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++)
+		{
+			seen += counts[i];
+			if (seen >= rank)
+			{
+				return Math.min(highestValueOf(i), m_max.get());
+			}
+		}
+		return m_max.get();
+	}
+
+	/**
+	 * Discards all the values recorded. Values recorded during the call may
+	 * or may not be kept.
+	 */
+	public void reset()
+	{
+		for (int i = 0; i < BUCKETS; i++)
+		{
+			m_counts.set(i, 0);
+		}
+		m_max.set(0);
+	}
+
+	/**
+	 * Gets the bucket of a value
+	 * @param value The value, not negative
+	 * @return The index of the bucket
+	 */
+	protected static int bucketOf(long value)
+	{
+		if (value < 2 * SUB_BUCKETS)
+		{
+			return (int) value;
+		}
+		int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+		return shift * SUB_BUCKETS + (int) (value >>> shift);
+	}
+
+	/**
+	 * Gets the highest value that falls in a bucket
+	 * @param bucket The index of the bucket
+	 * @return The value
+	 */
+	protected static long highestValueOf(int bucket)
+	{
+		if (bucket < 2 * SUB_BUCKETS)
+		{
+			return bucket;
+		}
+		int shift = bucket / SUB_BUCKETS - 1;
+		long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+}
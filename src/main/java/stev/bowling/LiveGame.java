@@ -0,0 +1,401 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+/**
+ * A game that is played one roll at a time. Each call to
+ * {@link #roll(int)} takes the number of pins knocked down by the next
+ * ball, finds on its own which frame and roll it belongs to, and notifies
+ * a {@link ScoreListener} of every frame whose score becomes final.
+ * <p>
+ * The rolls are checked against the rules of {@link RollScorer}, which are
+ * stricter than those of {@link NormalFrame} and {@link LastFrame}, and the
+ * scores are the same as those of {@link Game#getCumulativeScore(int)}.
+ * A roll takes constant time and allocates no object, unless it is
+ * rejected.
+ */
+public class LiveGame
+{
+	/**
+	 * The rolls played so far, in the format of {@link RollScorer}
+	 */
+	protected final int[] m_rolls = new int[RollScorer.MAX_ROLLS];
+
+	/**
+	 * The cumulative score of the frames whose score is final
+	 */
+	protected final int[] m_totals = new int[RollScorer.FRAMES];
+
+	/**
+	 * The number of rolls played so far
+	 */
+	protected int m_rollCount;
+
+	/**
+	 * The number of frames, counted from the first, whose score is final
+	 */
+	protected int m_scored;
+
+	/**
+	 * The cumulative score of the last frame whose score is final
+	 */
+	protected int m_total;
+
+	/**
+	 * The frame the next roll belongs to, starting at 1
+	 */
+	protected int m_frame;
+
+	/**
+	 * The number of the next roll in the current frame, starting at 1
+	 */
+	protected int m_roll;
+
+	/**
+	 * The pins of the first roll of the current frame
+	 */
+	protected int m_first;
+
+	/**
+	 * The pins of the second roll of the current frame
+	 */
+	protected int m_second;
+
+	/**
+	 * The frame waiting for bonus rolls, or 0 if there is none. Since a
+	 * strike followed by a strike takes no further bonus, at most one frame
+	 * is waiting at any time.
+	 */
+	protected int m_pendingFrame;
+
+	/**
+	 * The points of the waiting frame so far
+	 */
+	protected int m_pendingScore;
+
+	/**
+	 * The number of bonus rolls the waiting frame still needs
+	 */
+	protected int m_pendingRolls;
+
+	/**
+	 * Whether the game is over
+	 */
+	protected boolean m_over;
+
+	/**
+	 * The listener notified of the final score of each frame
+	 */
+	protected ScoreListener m_listener;
+
+	/**
+	 * Creates a new game
+	 */
+	public LiveGame()
+	{
+		super();
+		reset();
+	}
+
+	/**
+	 * Sets the listener notified of the final score of each frame
+	 * @param listener The listener, or {@code null} for none
+	 * @return This game
+	 */
+	public LiveGame setListener(ScoreListener listener)
+	{
+		m_listener = listener;
+		return this;
+	}
+
+	/**
+	 * Plays the next roll of the game
+	 * @param pins The number of pins knocked down
+	 * @return This game
+	 * @throws BowlingException If the game is over or if the roll is not
+	 * possible at this point of the game
+	 */
+	public LiveGame roll(int pins) throws BowlingException
+	{
+		if (m_over)
+		{
+			throw new BowlingException("The game is over");
+		}
+		RollScorer.checkPins(pins);
+		if (m_roll == 2)
+		{
+			RollScorer.checkFrame(m_first, pins);
+		}
+		m_rolls[m_rollCount++] = pins;
+		if (m_pendingFrame != 0)
+		{
+			m_pendingScore += pins;
+			m_pendingRolls--;
+			// A strike followed by a strike takes no further bonus
+			if (m_pendingRolls == 0 || (m_pendingRolls == 1 && pins == 10))
+			{
+				scored(m_pendingFrame, m_pendingScore);
+				m_pendingFrame = 0;
+			}
+		}
+		if (m_frame < RollScorer.FRAMES)
+		{
+			if (m_roll == 1)
+			{
+				m_first = pins;
+				if (pins == 10)
+				{
+					waitForBonus(2);
+				}
+				else
+				{
+					m_roll = 2;
+				}
+			}
+			else
+			{
+				m_second = pins;
+				if (m_first + pins == 10)
+				{
+					waitForBonus(1);
+				}
+				else
+				{
+					scored(m_frame, m_first + pins);
+					nextFrame();
+				}
+			}
+		}
+		else if (m_roll == 1)
+		{
+			m_first = pins;
+			m_roll = 2;
+		}
+		else if (m_roll == 2)
+		{
+			m_second = pins;
+			if (m_first + pins == 10)
+			{
+				m_roll = 3;
+			}
+			else
+			{
+				scored(m_frame, m_first + pins);
+				m_over = true;
+			}
+		}
+		else
+		{
+			scored(m_frame, 10 + pins);
+			m_over = true;
+		}
+		return this;
+	}
+
+	/**
+	 * Plays the next roll of the game, if it is possible. This makes the
+	 * same checks as {@link #roll(int)}, but returns a status code instead
+	 * of throwing an exception.
+	 * @param pins The number of pins knocked down
+	 * @return The status code of {@link Validation}
+	 */
+	public int tryRoll(int pins)
+	{
+		if (m_over)
+		{
+			return Validation.GAME_OVER;
+		}
+		if (pins < 0 || pins > 10)
+		{
+			return Validation.INVALID_PINS;
+		}
+		if (m_roll == 2 && m_first + pins > 10)
+		{
+			return Validation.TOO_MANY_PINS;
+		}
+		roll(pins);
+		return Validation.OK;
+	}
+
+	/**
+	 * Gets the cumulative score of a frame
+	 * @param frame The frame number, starting at 1
+	 * @return The score, or {@link RollScorer#PENDING} if the score of the
+	 * frame is not final yet
+	 * @throws BowlingException If there is no such frame
+	 */
+	public int getCumulativeScore(int frame) throws BowlingException
+	{
+		if (frame < 1 || frame > RollScorer.FRAMES)
+		{
+			throw new BowlingException("Frame #" + frame + " does not exist in this game");
+		}
+		return frame <= m_scored ? m_totals[frame - 1] : RollScorer.PENDING;
+	}
+
+	/**
+	 * Gets the score of the game so far, counting the pins of the frames
+	 * that are not final and the bonus rolls already played
+	 * @return The score
+	 */
+	public int getProvisionalScore()
+	{
+		int score = m_total;
+		if (m_pendingFrame != 0)
+		{
+			score += m_pendingScore;
+		}
+		if (!m_over && m_roll >= 2)
+		{
+			score += m_first;
+		}
+		if (!m_over && m_roll == 3)
+		{
+			score += m_second;
+		}
+		return score;
+	}
+
+	/**
+	 * Gets the number of frames, counted from the first, whose score is
+	 * final
+	 * @return The number of frames
+	 */
+	public int getScoredFrames()
+	{
+		return m_scored;
+	}
+
+	/**
+	 * Gets the frame the next roll belongs to
+	 * @return The frame number, starting at 1
+	 */
+	public int getFrame()
+	{
+		return m_frame;
+	}
+
+	/**
+	 * Gets the number of the next roll in the current frame
+	 * @return The roll number, starting at 1
+	 */
+	public int getRoll()
+	{
+		return m_roll;
+	}
+
+	/**
+	 * Determines whether all the rolls of the game have been played
+	 * @return {@code true} if the game is over
+	 */
+	public boolean isOver()
+	{
+		return m_over;
+	}
+
+	/**
+	 * Gets the number of rolls played so far
+	 * @return The number of rolls
+	 */
+	public int getRollCount()
+	{
+		return m_rollCount;
+	}
+
+	/**
+	 * Copies the rolls played so far, in the format of {@link RollScorer}
+	 * @param rolls The array receiving the rolls
+	 * @param offset The position of the first roll in the array
+	 * @return The number of rolls copied
+	 */
+	public int toRolls(int[] rolls, int offset)
+	{
+		System.arraycopy(m_rolls, 0, rolls, offset, m_rollCount);
+		return m_rollCount;
+	}
+
+	/**
+	 * Creates a {@link Game} with the rolls played so far
+	 * @return The game
+	 */
+	public Game toGame()
+	{
+		return RollScorer.toGame(m_rolls, 0, m_rollCount);
+	}
+
+	/**
+	 * Brings the game back to its first roll. The listener is kept.
+	 * @return This game
+	 */
+	public LiveGame reset()
+	{
+		m_rollCount = 0;
+		m_scored = 0;
+		m_total = 0;
+		m_frame = 1;
+		m_roll = 1;
+		m_first = 0;
+		m_second = 0;
+		m_pendingFrame = 0;
+		m_pendingScore = 0;
+		m_pendingRolls = 0;
+		m_over = false;
+		return this;
+	}
+
+	/**
+	 * Makes the current frame wait for bonus rolls and moves to the next
+	 * frame
+	 * @param rolls The number of bonus rolls
+	 */
+	protected void waitForBonus(int rolls)
+	{
+		m_pendingFrame = m_frame;
+		m_pendingScore = 10;
+		m_pendingRolls = rolls;
+		nextFrame();
+	}
+
+	/**
+	 * Moves to the first roll of the next frame
+	 */
+	protected void nextFrame()
+	{
+		m_frame++;
+		m_roll = 1;
+		m_first = 0;
+		m_second = 0;
+	}
+
+	/**
+	 * Records the final score of a frame and notifies the listener
+	 * @param frame The frame number, starting at 1
+	 * @param score The points of the frame, bonus included
+	 */
+	protected void scored(int frame, int score)
+	{
+		m_total += score;
+		m_totals[frame - 1] = m_total;
+		m_scored = frame;
+		if (m_listener != null)
+		{
+			m_listener.frameScored(frame, score, m_total);
+		}
+	}
+}
@@ -0,0 +1,132 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import stev.bowling.MetricsSink.Operation;
+
+/**
+ * Exposes a {@link RecordingMetricsSink} as an MBean, so that it can be
+ * read with JConsole or any other JMX client.
+ */
+public class MetricsJmx implements MetricsMXBean
+{
+	/**
+	 * The sink being exposed
+	 */
+	protected final RecordingMetricsSink m_sink;
+
+	/**
+	 * Creates an adapter
+	 * @param sink The sink being exposed
+	 */
+	public MetricsJmx(RecordingMetricsSink sink)
+	{
+		super();
+		m_sink = sink;
+	}
+
+	/**
+	 * Registers a sink with the platform MBean server, under the name
+	 * {@code stev.bowling:type=Metrics,name=<name>}
+	 * @param sink The sink
+	 * @param name The name given to the sink
+	 * @return The name of the MBean
+	 * @throws JMException If the MBean cannot be registered
+	 */
+	public static ObjectName register(RecordingMetricsSink sink, String name) throws JMException
+	{
+		ObjectName object_name = new ObjectName("stev.bowling:type=Metrics,name=" + ObjectName.quote(name));
+		ManagementFactory.getPlatformMBeanServer().registerMBean(new MetricsJmx(sink), object_name);
+		return object_name;
+	}
+
+	@Override
+	public Map<String, Long> getCalls()
+	{
+		Map<String, Long> values = new TreeMap<String, Long>();
+		for (Operation op : Operation.values())
+		{
+			values.put(op.name(), m_sink.getCalls(op));
+		}
+		return values;
+	}
+
+	@Override
+	public Map<String, Long> getLatencyP50()
+	{
+		return getPercentiles(50);
+	}
+
+	@Override
+	public Map<String, Long> getLatencyP99()
+	{
+		return getPercentiles(99);
+	}
+
+	@Override
+	public Map<String, Long> getLatencyMax()
+	{
+		Map<String, Long> values = new TreeMap<String, Long>();
+		for (Operation op : Operation.values())
+		{
+			values.put(op.name(), m_sink.getLatencies(op).getMax());
+		}
+		return values;
+	}
+
+	@Override
+	public Map<String, Long> getFailures()
+	{
+		return m_sink.getFailures();
+	}
+
+	@Override
+	public long getGamesCompleted()
+	{
+		return m_sink.getGamesCompleted();
+	}
+
+	@Override
+	public void reset()
+	{
+		m_sink.reset();
+	}
+
+	/**
+	 * Gets a percentile of the duration of each operation
+	 * @param percentile The percentile
+	 * @return The durations
+	 */
+	protected Map<String, Long> getPercentiles(double percentile)
+	{
+		Map<String, Long> values = new TreeMap<String, Long>();
+		for (Operation op : Operation.values())
+		{
+			values.put(op.name(), m_sink.getLatencies(op).getValueAtPercentile(percentile));
+		}
+		return values;
+	}
+}
@@ -0,0 +1,70 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+import java.util.Map;
+
+/**
+ * The attributes of a {@link RecordingMetricsSink} exposed through JMX.
+ * Maps are keyed by the name of the {@link MetricsSink.Operation}, and
+ * durations are in nanoseconds.
+ */
+public interface MetricsMXBean
+{
+	/**
+	 * Gets the number of successful calls to each operation
+	 * @return The numbers of calls
+	 */
+	public Map<String, Long> getCalls();
+
+	/**
+	 * Gets the median duration of each operation
+	 * @return The durations
+	 */
+	public Map<String, Long> getLatencyP50();
+
+	/**
+	 * Gets the 99th percentile of the duration of each operation
+	 * @return The durations
+	 */
+	public Map<String, Long> getLatencyP99();
+
+	/**
+	 * Gets the longest duration of each operation
+	 * @return The durations
+	 */
+	public Map<String, Long> getLatencyMax();
+
+	/**
+	 * Gets the number of failures of each kind
+	 * @return The numbers of failures
+	 */
+	public Map<String, Long> getFailures();
+
+	/**
+	 * Gets the number of games completed
+	 * @return The number of games
+	 */
+	public long getGamesCompleted();
+
+	/**
+	 * Discards everything recorded so far
+	 */
+	public void reset();
+}
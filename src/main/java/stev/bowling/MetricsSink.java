@@ -0,0 +1,99 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+/**
+ * Receives the measurements taken by an {@link InstrumentedGame}. The
+ * methods are called on the thread using the game and should return
+ * quickly; an implementation shared by several games must be thread-safe.
+ */
+public interface MetricsSink
+{
+	/**
+	 * The operations that are measured
+	 */
+	public enum Operation
+	{
+		/**
+		 * {@link Game#addFrame(Frame)}
+		 */
+		ADD_FRAME,
+
+		/**
+		 * {@link Game#getCumulativeScore(int)}
+		 */
+		GET_CUMULATIVE_SCORE,
+
+		/**
+		 * {@link Game#toString()}
+		 */
+		TO_STRING,
+
+		/**
+		 * {@link Frame#setPinsDown(int, int)}
+		 */
+		SET_PINS_DOWN
+	}
+
+	/**
+	 * A sink that ignores everything. A game using it skips the
+	 * measurements altogether.
+	 */
+	public static final MetricsSink NONE = new MetricsSink()
+	{
+		@Override
+		public void called(Operation operation, long nanos)
+		{
+			// Nothing to do
+		}
+
+		@Override
+		public void failed(Operation operation, BowlingException e)
+		{
+			// Nothing to do
+		}
+
+		@Override
+		public void gameCompleted(int score)
+		{
+			// Nothing to do
+		}
+	};
+
+	/**
+	 * Records a call to an operation that succeeded
+	 * @param operation The operation
+	 * @param nanos The duration of the call, in nanoseconds
+	 */
+	public void called(Operation operation, long nanos);
+
+	/**
+	 * Records a call to an operation that threw an exception
+	 * @param operation The operation
+	 * @param e The exception
+	 */
+	public void failed(Operation operation, BowlingException e);
+
+	/**
+	 * Records the completion of a game, that is, the last roll of its
+	 * frame 10
+	 * @param score The final score of the game
+	 */
+	public void gameCompleted(int score);
+}
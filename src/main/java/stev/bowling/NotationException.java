@@ -0,0 +1,53 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+/**
+ * Exception thrown when a game written in bowling notation cannot be read.
+ */
+public class NotationException extends BowlingException
+{
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The position of the character where the error was found
+	 */
+	protected final long m_position;
+
+	/**
+	 * Creates a new exception
+	 * @param message The description of the error
+	 * @param position The position of the character where the error was
+	 * found
+	 */
+	public NotationException(String message, long position)
+	{
+		super(message + " at position " + position);
+		m_position = position;
+	}
+
+	/**
+	 * Gets the position of the character where the error was found
+	 * @return The position, starting at 0
+	 */
+	public long getPosition()
+	{
+		return m_position;
+	}
+}
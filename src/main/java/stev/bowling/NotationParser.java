@@ -0,0 +1,295 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reads games written in the notation used by {@link NormalFrame#toString()}
+ * and {@link LastFrame#toString()}: {@code X} for a strike, {@code /} for a
+ * spare, {@code -} (or {@code 0}) for a gutter, and a digit for any other
+ * number of pins. For example:
+ * <pre>X 7/ 9- X -8 8/ -6 X X X-8</pre>
+ * Spaces between frames are optional, since the rolls alone determine where
+ * each frame ends. As in {@link LastFrame}, frame 10 only has a third roll
+ * after a spare or a strike followed by a gutter.
+ * <p>
+ * The rolls are checked with the rules of {@link RollScorer}, which are
+ * stricter than those of the frames: the first two rolls of frame 10, like
+ * those of the other frames, knock down at most 10 pins, so {@code XX} is
+ * rejected in frame 10 although {@link LastFrame} accepts it. The notation
+ * itself is read leniently: a spare may also be written with two digits,
+ * or a gutter and a strike, such as {@code 55} or {@code -X}.
+ * <p>
+ * The input is read in a single pass, without creating any intermediate
+ * string. A parser is not thread-safe, but can be reused for any number of
+ * games.
+ */
+public class NotationParser
+{
+	/**
+	 * The value of the spare symbol, before it is converted into pins
+	 */
+	protected static final int SPARE = -2;
+
+	/**
+	 * The value of a character that is not a roll
+	 */
+	protected static final int INVALID = -3;
+
+	/**
+	 * The value of a separator between frames
+	 */
+	protected static final int SEPARATOR = -4;
+
+	/**
+	 * The array receiving the rolls of the current game
+	 */
+	protected int[] m_rolls;
+
+	/**
+	 * The position in {@link #m_rolls} of the next roll
+	 */
+	protected int m_position;
+
+	/**
+	 * The current frame, starting at 1, or 11 once the game is over
+	 */
+	protected int m_frame;
+
+	/**
+	 * The number of the next roll in the current frame, starting at 1
+	 */
+	protected int m_roll;
+
+	/**
+	 * The pins of the first roll of the current frame
+	 */
+	protected int m_first;
+
+	/**
+	 * Reads a game
+	 * @param s The text of the game
+	 * @param start The position of the first character to read
+	 * @param end The position after the last character to read
+	 * @param rolls The array receiving the rolls, in the format of
+	 * {@link RollScorer}
+	 * @param offset The position of the first roll in the array
+	 * @return The number of rolls read
+	 * @throws NotationException If the text is not a valid game
+	 */
+	public int parse(CharSequence s, int start, int end, int[] rolls, int offset) throws NotationException
+	{
+		begin(rolls, offset);
+		for (int i = start; i < end; i++)
+		{
+			accept(s.charAt(i), i);
+		}
+		return m_position - offset;
+	}
+
+	/**
+	 * Reads a game
+	 * @param s The text of the game
+	 * @param rolls The array receiving the rolls, in the format of
+	 * {@link RollScorer}
+	 * @param offset The position of the first roll in the array
+	 * @return The number of rolls read
+	 * @throws NotationException If the text is not a valid game
+	 */
+	public int parse(CharSequence s, int[] rolls, int offset) throws NotationException
+	{
+		return parse(s, 0, s.length(), rolls, offset);
+	}
+
+	/**
+	 * Reads the next line of a buffer of ASCII text as a game. The position
+	 * of the buffer is moved after the end of the line, including when the
+	 * line is not a valid game.
+	 * @param buffer The buffer
+	 * @param rolls The array receiving the rolls, in the format of
+	 * {@link RollScorer}
+	 * @param offset The position of the first roll in the array
+	 * @return The number of rolls read, or -1 if the buffer has no
+	 * remaining line
+	 * @throws NotationException If the line is not a valid game; the
+	 * position of the error is relative to the start of the buffer
+	 */
+	public int parse(ByteBuffer buffer, int[] rolls, int offset) throws NotationException
+	{
+		if (!buffer.hasRemaining())
+		{
+			return -1;
+		}
+		begin(rolls, offset);
+		int i = buffer.position();
+		int limit = buffer.limit();
+		try
+		{
+			for (; i < limit; i++)
+			{
+				byte c = buffer.get(i);
+				if (c == '\n')
+				{
+					i++;
+					break;
+				}
+				accept(c, i);
+			}
+		}
+		catch (NotationException e)
+		{
+			// Skip the rest of the line, so that the next call reads the next one
+			while (i < limit && buffer.get(i++) != '\n')
+			{
+				// Nothing else to do
+			}
+			throw e;
+		}
+		finally
+		{
+			buffer.position(i);
+		}
+		return m_position - offset;
+	}
+
+	/**
+	 * Reads a game and creates the corresponding {@link Game}
+	 * @param s The text of the game
+	 * @return The game
+	 * @throws NotationException If the text is not a valid game
+	 */
+	public Game parseGame(CharSequence s) throws NotationException
+	{
+		int[] rolls = new int[RollScorer.MAX_ROLLS];
+		return RollScorer.toGame(rolls, 0, parse(s, rolls, 0));
+	}
+
+	/**
+	 * Prepares the parser for a new game
+	 * @param rolls The array receiving the rolls
+	 * @param offset The position of the first roll in the array
+	 */
+	protected void begin(int[] rolls, int offset)
+	{
+		m_rolls = rolls;
+		m_position = offset;
+		m_frame = 1;
+		m_roll = 1;
+		m_first = 0;
+	}
+
+	/**
+	 * Reads one character of a game
+	 * @param c The character
+	 * @param position The position of the character, used in error messages
+	 * @throws NotationException If the character is not valid at this point
+	 * of the game
+	 */
+	protected void accept(int c, long position) throws NotationException
+	{
+		int pins = valueOf(c);
+		if (pins == SEPARATOR)
+		{
+			return;
+		}
+		if (pins == INVALID)
+		{
+			throw new NotationException("Unexpected character '" + (char) c + "'", position);
+		}
+		if (m_frame > RollScorer.FRAMES)
+		{
+			throw new NotationException("Roll after the end of the game", position);
+		}
+		if (pins == SPARE)
+		{
+			if (m_roll != 2 || m_first == 10)
+			{
+				throw new NotationException("A spare must be the second roll of a frame", position);
+			}
+			pins = 10 - m_first;
+		}
+		if (m_roll == 2 && m_first + pins > 10)
+		{
+			throw new NotationException("The total score exceeds 10", position);
+		}
+		m_rolls[m_position++] = pins;
+		if (m_roll == 1)
+		{
+			m_first = pins;
+			if (pins == 10 && m_frame < RollScorer.FRAMES)
+			{
+				nextFrame();
+			}
+			else
+			{
+				m_roll = 2;
+			}
+		}
+		else if (m_roll == 2 && m_frame == RollScorer.FRAMES && m_first + pins == 10)
+		{
+			m_roll = 3;
+		}
+		else
+		{
+			nextFrame();
+		}
+	}
+
+	/**
+	 * Moves to the first roll of the next frame
+	 */
+	protected void nextFrame()
+	{
+		m_frame++;
+		m_roll = 1;
+		m_first = 0;
+	}
+
+	/**
+	 * Gets the value of a character
+	 * @param c The character
+	 * @return The number of pins, or one of {@link #SPARE},
+	 * {@link #SEPARATOR} or {@link #INVALID}
+	 */
+	protected static int valueOf(int c)
+	{
+		if (c >= '0' && c <= '9')
+		{
+			return c - '0';
+		}
+		switch (c)
+		{
+		case 'X':
+		case 'x':
+			return 10;
+		case '-':
+			return 0;
+		case '/':
+			return SPARE;
+		case ' ':
+		case '\t':
+		case '\r':
+		case '|':
+			return SEPARATOR;
+		default:
+			return INVALID;
+		}
+	}
+}
@@ -0,0 +1,409 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+
+/**
+ * A {@link Game} that keeps the pins of all its rolls in a single array of
+ * 21 integers, instead of a list of frame objects.
+ * <p>
+ * A game with ten frames otherwise holds an {@code ArrayList}, its backing
+ * array, and ten frames with an array each, about 580 bytes in all; this
+ * game holds about 150. {@link #m_frames} is replaced by a list of views:
+ * the frames it returns are created on demand, read and write the array
+ * of the game, and behave like {@link NormalFrame} and {@link LastFrame}.
+ * <p>
+ * {@link #addFrame(Frame)} copies the pins of the frame it is given; later
+ * changes to that frame are not seen by the game. Rolls are entered with
+ * {@link #setPinsDown(int, int, int)}, or through the frames of
+ * {@link #m_frames}. The frames are numbered by their position in the
+ * game, and a game cannot have more than 10 frames. The scores are always
+ * the same as those of {@link Game}.
+ */
+public class PackedGame extends ReusableGame
+{
+	/**
+	 * The pins of each roll, at the index given by {@link #slot(int, int)},
+	 * or -1 for a roll not played
+	 */
+	protected final int[] m_pins = new int[RollScorer.MAX_ROLLS];
+
+	/**
+	 * The number of frames in the game
+	 */
+	protected int m_size = 0;
+
+	/**
+	 * Creates an empty game
+	 */
+	public PackedGame()
+	{
+		super();
+		Arrays.fill(m_pins, -1);
+		m_frames = new FrameList();
+	}
+
+	@Override
+	public PackedGame addFrame(Frame f) throws BowlingException
+	{
+		if (m_size == RollScorer.FRAMES - 1 && !(f instanceof LastFrame))
+		{
+			throw new BowlingException("Frame #10 must be an instance of LastFrame");
+		}
+		if (m_size != RollScorer.FRAMES - 1 && !(f instanceof NormalFrame))
+		{
+			throw new BowlingException("Frame #" + (m_size + 1) + " must be an instance of NormalFrame");
+		}
+		if (m_size == RollScorer.FRAMES)
+		{
+			throw new BowlingException("There is no frame " + (m_size + 1));
+		}
+		m_size++;
+		int base = slot(m_size, 1);
+		// Through getPinsDown, in case the frame is itself a view
+		for (int i = 0; i < f.m_scores.length; i++)
+		{
+			m_pins[base + i] = f.getPinsDown(i + 1);
+		}
+		return this;
+	}
+
+	/**
+	 * Enters a roll in a frame of the game, like
+	 * {@link Frame#setPinsDown(int, int)} on that frame
+	 * @param frame The frame number, starting at 1
+	 * @param roll The roll number in the frame, starting at 1
+	 * @param pins The number of pins knocked down
+	 * @return This game
+	 * @throws BowlingException If there is no such frame, or if the roll is
+	 * not possible
+	 */
+	public PackedGame setPinsDown(int frame, int roll, int pins) throws BowlingException
+	{
+		checkFrame(frame);
+		m_frames.get(frame - 1).setPinsDown(roll, pins);
+		return this;
+	}
+
+	/**
+	 * Gets the number of pins knocked down by a roll
+	 * @param frame The frame number, starting at 1
+	 * @param roll The roll number in the frame, starting at 1
+	 * @return The number of pins, or -1 if the roll has not been played
+	 * @throws BowlingException If there is no such frame or roll
+	 */
+	public int getPinsDown(int frame, int roll) throws BowlingException
+	{
+		checkFrame(frame);
+		if (roll < 1 || roll > (frame == RollScorer.FRAMES ? 3 : 2))
+		{
+			throw new BowlingException("There is no such roll " + roll);
+		}
+		return m_pins[slot(frame, roll)];
+	}
+
+	@Override
+	public int getCumulativeScore(int frame) throws BowlingException
+	{
+		checkFrame(frame);
+		int total = 0;
+		for (int i = 1; i <= frame; i++)
+		{
+			int base = slot(i, 1);
+			int first = m_pins[base];
+			int second = m_pins[base + 1];
+			if (i == RollScorer.FRAMES)
+			{
+				total += first + second;
+				if (first == 10 || first + second == 10)
+				{
+					total += m_pins[base + 2];
+				}
+				continue;
+			}
+			int count = first < 0 ? 0 : first + second;
+			if (count < 10)
+			{
+				total += count;
+				continue;
+			}
+			if (i == m_size)
+			{
+				return -1;
+			}
+			int next = m_pins[base + 2];
+			total += 10 + next;
+			if (first == 10 && next != 10)
+			{
+				int after = m_pins[base + 3];
+				if (after < 0)
+				{
+					return -1;
+				}
+				total += after;
+			}
+		}
+		return total;
+	}
+
+	@Override
+	public PackedGame reset()
+	{
+		Arrays.fill(m_pins, -1);
+		m_size = 0;
+		return this;
+	}
+
+	/**
+	 * Gets the position of a roll in {@link #m_pins}
+	 * @param frame The frame number, starting at 1
+	 * @param roll The roll number in the frame, starting at 1
+	 * @return The position
+	 */
+	protected static int slot(int frame, int roll)
+	{
+		return (frame - 1) * 2 + roll - 1;
+	}
+
+	/**
+	 * Checks that a frame exists in the game
+	 * @param frame The frame number, starting at 1
+	 * @throws BowlingException If there is no such frame
+	 */
+	protected void checkFrame(int frame) throws BowlingException
+	{
+		if (frame < 1 || frame > m_size)
+		{
+			throw new BowlingException("Frame #" + frame + " does not exist in this game");
+		}
+	}
+
+	/**
+	 * The frames of the game, as views created on each call to
+	 * {@link #get(int)}
+	 */
+	protected class FrameList extends AbstractList<Frame>
+	{
+		@Override
+		public Frame get(int index)
+		{
+			if (index < 0 || index >= m_size)
+			{
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + m_size);
+			}
+			int frame = index + 1;
+			return frame == RollScorer.FRAMES ? new LastFrameView() : new NormalFrameView(frame);
+		}
+
+		@Override
+		public boolean add(Frame f)
+		{
+			addFrame(f);
+			return true;
+		}
+
+		@Override
+		public void clear()
+		{
+			reset();
+		}
+
+		@Override
+		public int size()
+		{
+			return m_size;
+		}
+	}
+
+	/**
+	 * A frame 1 to 9 of the game. Its array is loaded from the game before
+	 * each call, and written back after each change.
+	 */
+	protected class NormalFrameView extends NormalFrame
+	{
+		/**
+		 * Whether the frame is linked to the game; it is not while the
+		 * constructor of {@link NormalFrame} runs
+		 */
+		protected final boolean m_attached;
+
+		/**
+		 * Creates a view
+		 * @param frame The frame number
+		 */
+		NormalFrameView(int frame)
+		{
+			super(frame);
+			m_attached = true;
+			load(m_scores, frame);
+		}
+
+		@Override
+		public int countPinsDown()
+		{
+			load(m_scores, m_frameNumber);
+			return super.countPinsDown();
+		}
+
+		@Override
+		public int getPinsDown(int roll)
+		{
+			load(m_scores, m_frameNumber);
+			return super.getPinsDown(roll);
+		}
+
+		@Override
+		public int countRolls()
+		{
+			load(m_scores, m_frameNumber);
+			return super.countRolls();
+		}
+
+		@Override
+		public Frame reset()
+		{
+			super.reset();
+			if (m_attached)
+			{
+				store(m_scores, m_frameNumber);
+			}
+			return this;
+		}
+
+		@Override
+		public NormalFrame setPinsDown(int roll, int pins)
+		{
+			load(m_scores, m_frameNumber);
+			try
+			{
+				return super.setPinsDown(roll, pins);
+			}
+			finally
+			{
+				// NormalFrame may keep a value even when it throws
+				store(m_scores, m_frameNumber);
+			}
+		}
+
+		@Override
+		public String toString()
+		{
+			load(m_scores, m_frameNumber);
+			return super.toString();
+		}
+	}
+
+	/**
+	 * The frame 10 of the game. Its array is loaded from the game before
+	 * each call, and written back after each change.
+	 */
+	protected class LastFrameView extends LastFrame
+	{
+		/**
+		 * Whether the frame is linked to the game; it is not while the
+		 * constructor of {@link LastFrame} runs
+		 */
+		protected final boolean m_attached;
+
+		/**
+		 * Creates a view
+		 */
+		LastFrameView()
+		{
+			super(RollScorer.FRAMES);
+			m_attached = true;
+			load(m_scores, RollScorer.FRAMES);
+		}
+
+		@Override
+		public int countPinsDown()
+		{
+			load(m_scores, RollScorer.FRAMES);
+			return super.countPinsDown();
+		}
+
+		@Override
+		public int getPinsDown(int roll)
+		{
+			load(m_scores, RollScorer.FRAMES);
+			return super.getPinsDown(roll);
+		}
+
+		@Override
+		public int countRolls()
+		{
+			load(m_scores, RollScorer.FRAMES);
+			return super.countRolls();
+		}
+
+		@Override
+		public Frame reset()
+		{
+			super.reset();
+			if (m_attached)
+			{
+				store(m_scores, RollScorer.FRAMES);
+			}
+			return this;
+		}
+
+		@Override
+		public LastFrame setPinsDown(int roll, int pins)
+		{
+			load(m_scores, RollScorer.FRAMES);
+			try
+			{
+				return super.setPinsDown(roll, pins);
+			}
+			finally
+			{
+				store(m_scores, RollScorer.FRAMES);
+			}
+		}
+
+		@Override
+		public String toString()
+		{
+			load(m_scores, RollScorer.FRAMES);
+			return super.toString();
+		}
+	}
+
+	/**
+	 * Copies the pins of a frame of the game into the array of a view
+	 * @param scores The array of the view
+	 * @param frame The frame number
+	 */
+	protected void load(int[] scores, int frame)
+	{
+		System.arraycopy(m_pins, slot(frame, 1), scores, 0, scores.length);
+	}
+
+	/**
+	 * Copies the array of a view into the pins of a frame of the game
+	 * @param scores The array of the view
+	 * @param frame The frame number
+	 */
+	protected void store(int[] scores, int frame)
+	{
+		System.arraycopy(scores, 0, m_pins, slot(frame, 1), scores.length);
+	}
+}
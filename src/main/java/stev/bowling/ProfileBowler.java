@@ -0,0 +1,121 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * A {@link BowlerModel} given by the probability of a strike and of a
+ * spare in each frame. A roll that is not a strike knocks down a uniform
+ * number of the pins, and so does a second roll that is not a spare.
+ */
+public class ProfileBowler implements BowlerModel
+{
+	/**
+	 * The probability of a strike in each frame
+	 */
+	protected final double[] m_strike;
+
+	/**
+	 * The probability of converting a spare in each frame
+	 */
+	protected final double[] m_spare;
+
+	/**
+	 * Creates a bowler with the same probabilities in every frame
+	 * @param strike The probability of a strike
+	 * @param spare The probability of converting a spare
+	 */
+	public ProfileBowler(double strike, double spare)
+	{
+		this(filled(strike), filled(spare));
+	}
+
+	/**
+	 * Creates a bowler
+	 * @param strike The probability of a strike in each of the 10 frames
+	 * @param spare The probability of converting a spare in each of the 10
+	 * frames
+	 * @throws IllegalArgumentException If an array does not have 10
+	 * probabilities between 0 and 1
+	 */
+	public ProfileBowler(double[] strike, double[] spare)
+	{
+		super();
+		m_strike = check(strike);
+		m_spare = check(spare);
+	}
+
+	@Override
+	public int firstRoll(int frame, SplittableRandom random)
+	{
+		if (random.nextDouble() < m_strike[frame - 1])
+		{
+			return 10;
+		}
+		return random.nextInt(10);
+	}
+
+	@Override
+	public int secondRoll(int frame, int first, SplittableRandom random)
+	{
+		int left = 10 - first;
+		if (random.nextDouble() < m_spare[frame - 1])
+		{
+			return left;
+		}
+		return random.nextInt(left);
+	}
+
+	/**
+	 * Creates an array with the same probability for every frame
+	 * @param p The probability
+	 * @return The array
+	 */
+	protected static double[] filled(double p)
+	{
+		double[] values = new double[RollScorer.FRAMES];
+		Arrays.fill(values, p);
+		return values;
+	}
+
+	/**
+	 * Checks an array of probabilities
+	 * @param values The probabilities
+	 * @return A copy of the array
+	 * @throws IllegalArgumentException If the array does not have 10
+	 * probabilities between 0 and 1
+	 */
+	protected static double[] check(double[] values)
+	{
+		if (values.length != RollScorer.FRAMES)
+		{
+			throw new IllegalArgumentException("Expected " + RollScorer.FRAMES + " probabilities, got " + values.length);
+		}
+		for (double p : values)
+		{
+			if (!(p >= 0 && p <= 1))
+			{
+				throw new IllegalArgumentException("Invalid probability: " + p);
+			}
+		}
+		return values.clone();
+	}
+}
@@ -0,0 +1,175 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link MetricsSink} that keeps, for each operation, the number of
+ * successful calls and a {@link LatencyHistogram} of their durations, the
+ * number of failures for each kind of {@link BowlingException}, and the
+ * number of games completed. It can be shared by any number of games and
+ * threads; recording takes no lock.
+ */
+public class RecordingMetricsSink implements MetricsSink
+{
+	/**
+	 * The number of successful calls to each operation
+	 */
+	protected final LongAdder[] m_calls = new LongAdder[Operation.values().length];
+
+	/**
+	 * The durations of the successful calls to each operation
+	 */
+	protected final LatencyHistogram[] m_latencies = new LatencyHistogram[Operation.values().length];
+
+	/**
+	 * The number of failures of each kind
+	 */
+	protected final ConcurrentHashMap<String, LongAdder> m_failures = new ConcurrentHashMap<String, LongAdder>();
+
+	/**
+	 * The number of games completed
+	 */
+	protected final LongAdder m_completed = new LongAdder();
+
+	/**
+	 * Creates a new sink
+	 */
+	public RecordingMetricsSink()
+	{
+		super();
+		for (int i = 0; i < m_calls.length; i++)
+		{
+			m_calls[i] = new LongAdder();
+			m_latencies[i] = new LatencyHistogram();
+		}
+	}
+
+	@Override
+	public void called(Operation operation, long nanos)
+	{
+		m_calls[operation.ordinal()].increment();
+		m_latencies[operation.ordinal()].record(nanos);
+	}
+
+	@Override
+	public void failed(Operation operation, BowlingException e)
+	{
+		m_failures.computeIfAbsent(operation + ": " + kindOf(e), k -> new LongAdder()).increment();
+	}
+
+	@Override
+	public void gameCompleted(int score)
+	{
+		m_completed.increment();
+	}
+
+	/**
+	 * Gets the number of successful calls to an operation
+	 * @param operation The operation
+	 * @return The number of calls
+	 */
+	public long getCalls(Operation operation)
+	{
+		return m_calls[operation.ordinal()].sum();
+	}
+
+	/**
+	 * Gets the durations of the successful calls to an operation
+	 * @param operation The operation
+	 * @return The histogram of the durations, in nanoseconds
+	 */
+	public LatencyHistogram getLatencies(Operation operation)
+	{
+		return m_latencies[operation.ordinal()];
+	}
+
+	/**
+	 * Gets the number of failures of each kind
+	 * @return A map from the operation and the message of the exception,
+	 * with its numbers replaced by {@code #}, to the number of failures
+	 */
+	public Map<String, Long> getFailures()
+	{
+		Map<String, Long> failures = new TreeMap<String, Long>();
+		for (Map.Entry<String, LongAdder> e : m_failures.entrySet())
+		{
+			failures.put(e.getKey(), e.getValue().sum());
+		}
+		return failures;
+	}
+
+	/**
+	 * Gets the number of games completed
+	 * @return The number of games
+	 */
+	public long getGamesCompleted()
+	{
+		return m_completed.sum();
+	}
+
+	/**
+	 * Discards everything recorded so far
+	 */
+	public void reset()
+	{
+		for (int i = 0; i < m_calls.length; i++)
+		{
+			m_calls[i].reset();
+			m_latencies[i].reset();
+		}
+		m_failures.clear();
+		m_completed.reset();
+	}
+
+	/**
+	 * Gets the kind of an exception, that is, its message without the
+	 * numbers it contains, so that "Frame #11 does not exist" and "Frame #12
+	 * does not exist" are counted together
+	 * @param e The exception
+	 * @return The kind
+	 */
+	protected static String kindOf(BowlingException e)
+	{
+		String message = e.getMessage();
+		if (message == null)
+		{
+			return e.getClass().getSimpleName();
+		}
+		StringBuilder kind = new StringBuilder(message.length());
+		for (int i = 0; i < message.length(); i++)
+		{
+			char c = message.charAt(i);
+			if (c >= '0' && c <= '9')
+			{
+				if (kind.length() == 0 || kind.charAt(kind.length() - 1) != '#')
+				{
+					kind.append('#');
+				}
+				continue;
+			}
+			kind.append(c);
+		}
+		return kind.toString();
+	}
+}
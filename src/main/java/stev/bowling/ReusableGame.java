@@ -0,0 +1,46 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+/**
+ * A {@link Game} that can be emptied and played again, the way
+ * {@link Frame#reset()} empties a frame.
+ */
+public class ReusableGame extends Game
+{
+	/**
+	 * Creates an empty game
+	 */
+	public ReusableGame()
+	{
+		super();
+	}
+
+	/**
+	 * Removes all the frames of the game. The frames themselves are left
+	 * as they are.
+	 * @return This game
+	 */
+	public ReusableGame reset()
+	{
+		// Clearing keeps the capacity of the list for the next game
+		m_frames.clear();
+		return this;
+	}
+}
@@ -0,0 +1,934 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * An append-only log of the rolls of many games, from which any game can be
+ * rebuilt as it was at any point of the log.
+ * <p>
+ * The log is a directory. The file {@value #LOG_FILE} starts with an
+ * 8-byte header, the magic number {@link #MAGIC} and the format
+ * {@link #VERSION}, followed by one {@value #RECORD_SIZE}-byte record per
+ * roll: the game id (8 bytes), the time of the roll in milliseconds since
+ * the epoch (8 bytes), the frame, the roll number in the frame and the pins
+ * (1 byte each), and a byte set to 0. All values are big-endian. A record
+ * is only written if the roll is accepted by a {@link LiveGame} holding the
+ * game, so the log only contains valid games. Game ids must not be reused.
+ * <p>
+ * Records are numbered from 1 in the order they are appended. Appending
+ * only copies the record to a buffer; {@link #sync(long)} makes the
+ * records durable. When many threads call it at once, one of them writes
+ * and forces all the buffered records while the others wait for it, so
+ * that a single disk flush commits the rolls of many games.
+ * <p>
+ * Every {@link #DEFAULT_SNAPSHOT_INTERVAL} records (or another interval
+ * given to the constructor), the state of the games in progress, and of
+ * the games finished since the previous snapshot, is written to a snapshot
+ * file named after the number of records it covers. Rebuilding a game
+ * reads one snapshot and at most one interval of records after it, through
+ * the same checks as {@link LiveGame#roll(int)}.
+ */
+public class RollLog implements Closeable
+{
+	/**
+	 * The first four bytes of the log file
+	 */
+	public static final int MAGIC = 0x42574C47;
+
+	/**
+	 * The first four bytes of a snapshot file
+	 */
+	public static final int SNAPSHOT_MAGIC = 0x42574C53;
+
+	/**
+	 * The version of the file formats
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * The size of the header of the log file, in bytes
+	 */
+	public static final int HEADER_SIZE = 8;
+
+	/**
+	 * The size of a record, in bytes
+	 */
+	public static final int RECORD_SIZE = 20;
+
+	/**
+	 * The size of the header of a snapshot file, in bytes: the magic
+	 * number, the version, the number of records covered and the number of
+	 * games
+	 */
+	public static final int SNAPSHOT_HEADER_SIZE = 20;
+
+	/**
+	 * The size of a game in a snapshot file, in bytes: the game id, the
+	 * number of rolls, the 21 possible rolls and two bytes set to 0. Games
+	 * are sorted by id.
+	 */
+	public static final int SNAPSHOT_ENTRY_SIZE = 32;
+
+	/**
+	 * The default number of records between two snapshots
+	 */
+	public static final int DEFAULT_SNAPSHOT_INTERVAL = 1 << 16;
+
+	/**
+	 * The name of the log file in the directory
+	 */
+	public static final String LOG_FILE = "rolls.log";
+
+	/**
+	 * The beginning of the name of snapshot files
+	 */
+	protected static final String SNAPSHOT_PREFIX = "snapshot-";
+
+	/**
+	 * The end of the name of snapshot files
+	 */
+	protected static final String SNAPSHOT_SUFFIX = ".bin";
+
+	/**
+	 * The number of records buffered before they are written to the file
+	 */
+	protected static final int BUFFERED_RECORDS = 4096;
+
+	/**
+	 * The directory of the log
+	 */
+	protected final Path m_directory;
+
+	/**
+	 * The channel reading and writing the log file
+	 */
+	protected final FileChannel m_channel;
+
+	/**
+	 * The number of records between two snapshots
+	 */
+	protected final int m_snapshotInterval;
+
+	/**
+	 * The games in progress, and the games finished since the last
+	 * snapshot, by id
+	 */
+	protected final Map<Long, LiveGame> m_games = new HashMap<Long, LiveGame>();
+
+	/**
+	 * The number of records covered by each snapshot
+	 */
+	protected final TreeSet<Long> m_snapshots = new TreeSet<Long>();
+
+	/**
+	 * The records appended but not written to the file yet
+	 */
+	protected ByteBuffer m_pending;
+
+	/**
+	 * The second buffer, used while the first one is being written, or
+	 * {@code null} while it is
+	 */
+	protected ByteBuffer m_spare;
+
+	/**
+	 * The number of records before the first one in {@link #m_pending}
+	 */
+	protected long m_pendingFirst;
+
+	/**
+	 * The number of records appended
+	 */
+	protected long m_appended;
+
+	/**
+	 * The number of records written and forced to the disk
+	 */
+	protected long m_durable;
+
+	/**
+	 * Whether a thread is writing and forcing records
+	 */
+	protected boolean m_syncing = false;
+
+	/**
+	 * The time of the last record
+	 */
+	protected long m_lastTime = 0;
+
+	/**
+	 * The error that made the log unusable, if any
+	 */
+	protected IOException m_failure = null;
+
+	/**
+	 * Opens a log with the default snapshot interval, creating it if it
+	 * does not exist
+	 * @param directory The directory of the log
+	 * @throws IOException If the log cannot be opened or is not valid
+	 */
+	public RollLog(Path directory) throws IOException
+	{
+		this(directory, DEFAULT_SNAPSHOT_INTERVAL);
+	}
+
+	/**
+	 * Opens a log, creating it if it does not exist. A record cut short by
+	 * a crash at the end of the file is removed, as well as the records
+	 * after a gap a crash left since the last snapshot, and the games in
+	 * progress are rebuilt from the last snapshot.
+	 * @param directory The directory of the log
+	 * @param snapshot_interval The number of records between two snapshots
+	 * @throws IOException If the log cannot be opened or is not valid
+	 */
+	public RollLog(Path directory, int snapshot_interval) throws IOException
+	{
+		super();
+		m_directory = directory;
+		m_snapshotInterval = snapshot_interval;
+		m_pending = ByteBuffer.allocate(BUFFERED_RECORDS * RECORD_SIZE);
+		m_spare = ByteBuffer.allocate(BUFFERED_RECORDS * RECORD_SIZE);
+		Files.createDirectories(directory);
+		m_channel = FileChannel.open(directory.resolve(LOG_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.READ);
+		try
+		{
+			recover();
+		}
+		catch (IOException | BowlingException e)
+		{
+			m_channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Appends a roll to the log
+	 * @param game The id of the game
+	 * @param pins The number of pins knocked down
+	 * @return The number of the record
+	 * @throws BowlingException If the roll is not possible in the game
+	 * @throws IOException If the log cannot be written
+	 */
+	public synchronized long append(long game, int pins) throws BowlingException, IOException
+	{
+		checkUsable();
+		LiveGame g = m_games.get(game);
+		boolean started = g == null;
+		if (started)
+		{
+			g = new LiveGame();
+		}
+		int frame = g.getFrame();
+		int roll = g.getRoll();
+		Validation.check(g.tryRoll(pins));
+		if (started)
+		{
+			m_games.put(game, g);
+		}
+		if (!m_pending.hasRemaining())
+		{
+			writePending();
+		}
+		m_lastTime = Math.max(m_lastTime, System.currentTimeMillis());
+		m_pending.putLong(game).putLong(m_lastTime).put((byte) frame).put((byte) roll).put((byte) pins).put((byte) 0);
+		m_appended++;
+		if (m_appended % m_snapshotInterval == 0)
+		{
+			writeSnapshot();
+		}
+		return m_appended;
+	}
+
+	/**
+	 * Appends a roll to the log and waits until it is durable
+	 * @param game The id of the game
+	 * @param pins The number of pins knocked down
+	 * @return The number of the record
+	 * @throws BowlingException If the roll is not possible in the game
+	 * @throws IOException If the log cannot be written
+	 */
+	public long appendAndSync(long game, int pins) throws BowlingException, IOException
+	{
+		long record = append(game, pins);
+		sync(record);
+		return record;
+	}
+
+	/**
+	 * Waits until records are written and forced to the disk
+	 * @param record The number of the last record to make durable
+	 * @throws IOException If the records cannot be written
+	 */
+	public void sync(long record) throws IOException
+	{
+		ByteBuffer batch;
+		long first;
+		long last;
+		synchronized (this)
+		{
+			while (m_syncing && m_durable < record)
+			{
+				try
+				{
+					wait();
+				}
+				catch (InterruptedException e)
+				{
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException("Interrupted while waiting for the log");
+				}
+			}
+			if (m_durable >= record)
+			{
+				return;
+			}
+			checkUsable();
+			// Appends go to the other buffer while this one is written
+			m_syncing = true;
+			batch = m_pending;
+			first = m_pendingFirst;
+			last = m_appended;
+			m_pending = m_spare;
+			m_spare = null;
+			m_pendingFirst = last;
+		}
+		boolean done = false;
+		try
+		{
+			batch.flip();
+			write(batch, first);
+			m_channel.force(false);
+			done = true;
+		}
+		catch (IOException e)
+		{
+			fail(e);
+			throw e;
+		}
+		finally
+		{
+			batch.clear();
+			synchronized (this)
+			{
+				m_spare = batch;
+				m_syncing = false;
+				if (done)
+				{
+					m_durable = Math.max(m_durable, last);
+				}
+				notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of records in the log
+	 * @return The number of records
+	 */
+	public synchronized long size()
+	{
+		return m_appended;
+	}
+
+	/**
+	 * Rebuilds a game as it was after a number of records
+	 * @param game The id of the game
+	 * @param record The number of records to take into account
+	 * @return The game
+	 * @throws BowlingException If the game has no roll in these records
+	 * @throws IOException If the log cannot be read
+	 */
+	public LiveGame replay(long game, long record) throws BowlingException, IOException
+	{
+		record = Math.min(record, size());
+		sync(record);
+		Long start = floorSnapshot(record);
+		long from = start == null ? 0 : start;
+		LiveGame g = start == null ? null : readSnapshot(start, game);
+		boolean found = g != null;
+		if (g == null)
+		{
+			g = new LiveGame();
+		}
+		found |= replay(from, record, game, g);
+		if (found)
+		{
+			return g;
+		}
+		// The game may have ended before the snapshot that was read
+		for (Long older = start == null ? null : lowerSnapshot(start); older != null; older = lowerSnapshot(older))
+		{
+			g = readSnapshot(older, game);
+			if (g != null)
+			{
+				return g;
+			}
+		}
+		throw new BowlingException("Game " + game + " has no roll in the first " + record + " records");
+	}
+
+	/**
+	 * Rebuilds a game as it was at some time
+	 * @param game The id of the game
+	 * @param time The time, in milliseconds since the epoch
+	 * @return The game
+	 * @throws BowlingException If the game had no roll at that time
+	 * @throws IOException If the log cannot be read
+	 */
+	public LiveGame replayAt(long game, long time) throws BowlingException, IOException
+	{
+		long size = size();
+		sync(size);
+		// Records are appended with non-decreasing times
+		long low = 0;
+		long high = size;
+		ByteBuffer b = ByteBuffer.allocate(8);
+		while (low < high)
+		{
+			long middle = (low + high) >>> 1;
+			b.clear();
+			read(b, HEADER_SIZE + middle * RECORD_SIZE + 8);
+			if (b.getLong(0) <= time)
+			{
+				low = middle + 1;
+			}
+			else
+			{
+				high = middle;
+			}
+		}
+		return replay(game, low);
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		try
+		{
+			sync(size());
+		}
+		finally
+		{
+			m_channel.close();
+		}
+	}
+
+	/**
+	 * Gets the last snapshot covering at most a number of records
+	 * @param record The number of records
+	 * @return The number of records covered by the snapshot, or
+	 * {@code null} if there is none
+	 */
+	protected synchronized Long floorSnapshot(long record)
+	{
+		return m_snapshots.floor(record);
+	}
+
+	/**
+	 * Gets the snapshot before another one
+	 * @param covered The number of records covered by the other snapshot
+	 * @return The number of records covered by the snapshot, or
+	 * {@code null} if there is none
+	 */
+	protected synchronized Long lowerSnapshot(long covered)
+	{
+		return m_snapshots.lower(covered);
+	}
+
+	/**
+	 * Reads the log when it is opened, and rebuilds the games in progress
+	 * @throws IOException If the log is not valid
+	 */
+	protected void recover() throws IOException
+	{
+		if (m_channel.size() == 0)
+		{
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			header.putInt(MAGIC).putInt(VERSION).flip();
+			writeFully(header, 0);
+		}
+		else
+		{
+			checkHeader(m_channel, MAGIC, "log");
+		}
+		long records = (m_channel.size() - HEADER_SIZE) / RECORD_SIZE;
+		m_channel.truncate(HEADER_SIZE + records * RECORD_SIZE);
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(m_directory, SNAPSHOT_PREFIX + "*" + SNAPSHOT_SUFFIX))
+		{
+			for (Path p : files)
+			{
+				String name = p.getFileName().toString();
+				m_snapshots.add(Long.parseLong(name.substring(SNAPSHOT_PREFIX.length(), name.length() - SNAPSHOT_SUFFIX.length())));
+			}
+		}
+		// Records that were not forced may reach the disk out of order, so a
+		// crash can leave zeros before the last records written; the search
+		// starts one snapshot early in case the log was written without
+		// forcing the records before each snapshot
+		Long last = m_snapshots.floor(records);
+		Long previous = last == null ? null : m_snapshots.lower(last);
+		long end = findHole(previous == null ? 0 : previous, records);
+		if (end < records)
+		{
+			records = end;
+			m_channel.truncate(HEADER_SIZE + records * RECORD_SIZE);
+		}
+		// A snapshot covering records that were lost is out of date
+		SortedSet<Long> lost = m_snapshots.tailSet(records, false);
+		for (Long covered : lost)
+		{
+			Files.deleteIfExists(snapshotFile(covered));
+		}
+		lost.clear();
+		long from = m_snapshots.isEmpty() ? 0 : m_snapshots.last();
+		if (!m_snapshots.isEmpty())
+		{
+			readSnapshot(from, m_games);
+		}
+		replay(from, records, null, null);
+		m_appended = records;
+		m_durable = records;
+		m_pendingFirst = records;
+		if (records > 0)
+		{
+			ByteBuffer b = ByteBuffer.allocate(8);
+			read(b, HEADER_SIZE + (records - 1) * RECORD_SIZE + 8);
+			m_lastTime = b.getLong(0);
+		}
+	}
+
+	/**
+	 * Finds the first record filled with zeros, which was never written;
+	 * a valid record has a frame number of at least 1
+	 * @param from The number of records to skip
+	 * @param to The number of the last record to read
+	 * @return The number of records before the first one filled with zeros,
+	 * or {@code to} if there is none
+	 * @throws IOException If the log cannot be read
+	 */
+	protected long findHole(long from, long to) throws IOException
+	{
+		ByteBuffer b = ByteBuffer.allocate(BUFFERED_RECORDS * RECORD_SIZE);
+		for (long r = from; r < to; r += BUFFERED_RECORDS)
+		{
+			int count = (int) Math.min(BUFFERED_RECORDS, to - r);
+			b.clear().limit(count * RECORD_SIZE);
+			read(b, HEADER_SIZE + r * RECORD_SIZE);
+			for (int i = 0; i < count; i++)
+			{
+				if (b.get(i * RECORD_SIZE + 16) == 0)
+				{
+					return r + i;
+				}
+			}
+		}
+		return to;
+	}
+
+	/**
+	 * Plays the rolls of records of the log
+	 * @param from The number of records to skip
+	 * @param to The number of the last record to read
+	 * @param game The id of the game whose rolls are played, or {@code null}
+	 * to play the rolls of all games in {@link #m_games}
+	 * @param g The game receiving the rolls, if {@code game} is not
+	 * {@code null}
+	 * @return Whether a roll of the game was found
+	 * @throws IOException If the log cannot be read or is not valid
+	 */
+	protected boolean replay(long from, long to, Long game, LiveGame g) throws IOException
+	{
+		ByteBuffer b = ByteBuffer.allocate(BUFFERED_RECORDS * RECORD_SIZE);
+		boolean found = false;
+		for (long r = from; r < to; r += BUFFERED_RECORDS)
+		{
+			int count = (int) Math.min(BUFFERED_RECORDS, to - r);
+			b.clear().limit(count * RECORD_SIZE);
+			read(b, HEADER_SIZE + r * RECORD_SIZE);
+			for (int i = 0; i < count; i++)
+			{
+				int p = i * RECORD_SIZE;
+				long id = b.getLong(p);
+				LiveGame target = g;
+				if (game == null)
+				{
+					target = m_games.get(id);
+					if (target == null)
+					{
+						target = new LiveGame();
+						m_games.put(id, target);
+					}
+				}
+				else if (id != game)
+				{
+					continue;
+				}
+				found = true;
+				if (b.get(p + 16) != target.getFrame() || b.get(p + 17) != target.getRoll()
+						|| target.tryRoll(b.get(p + 18)) != Validation.OK)
+				{
+					throw new IOException("Record " + (r + i + 1) + " does not follow game " + id);
+				}
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Writes the records buffered in {@link #m_pending}, without forcing
+	 * them to the disk. If {@link #sync(long)} is writing the records
+	 * before them, waits until it is done. Must be called while holding the
+	 * lock of the log.
+	 * @throws IOException If the records cannot be written
+	 */
+	protected void writePending() throws IOException
+	{
+		// Writing past a batch that sync() has not written yet would leave a
+		// gap in the file if the process stopped in between
+		while (m_syncing)
+		{
+			try
+			{
+				wait();
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted while waiting for the log");
+			}
+		}
+		checkUsable();
+		if (m_pending.position() == 0)
+		{
+			// The buffer was taken by sync() while waiting
+			return;
+		}
+		m_pending.flip();
+		int count = m_pending.remaining() / RECORD_SIZE;
+		try
+		{
+			write(m_pending, m_pendingFirst);
+		}
+		catch (IOException e)
+		{
+			fail(e);
+			throw e;
+		}
+		m_pending.clear();
+		m_pendingFirst += count;
+	}
+
+	/**
+	 * Writes the state of the games in progress and of the games finished
+	 * since the previous snapshot, and forgets the finished ones. The
+	 * records the snapshot covers are first written and forced to the disk.
+	 * @throws IOException If the snapshot cannot be written
+	 */
+	protected void writeSnapshot() throws IOException
+	{
+		// The snapshot must not cover records that a crash could still lose
+		writePending();
+		try
+		{
+			m_channel.force(false);
+		}
+		catch (IOException e)
+		{
+			fail(e);
+			throw e;
+		}
+		m_durable = m_appended;
+		long[] ids = new long[m_games.size()];
+		int n = 0;
+		for (Long id : m_games.keySet())
+		{
+			ids[n++] = id;
+		}
+		Arrays.sort(ids);
+		ByteBuffer b = ByteBuffer.allocate(SNAPSHOT_HEADER_SIZE + ids.length * SNAPSHOT_ENTRY_SIZE);
+		b.putInt(SNAPSHOT_MAGIC).putInt(VERSION).putLong(m_appended).putInt(ids.length);
+		int[] rolls = new int[RollScorer.MAX_ROLLS];
+		for (long id : ids)
+		{
+			LiveGame g = m_games.get(id);
+			int length = g.toRolls(rolls, 0);
+			b.putLong(id).put((byte) length);
+			for (int i = 0; i < RollScorer.MAX_ROLLS; i++)
+			{
+				b.put((byte) (i < length ? rolls[i] : 0));
+			}
+			b.put((byte) 0).put((byte) 0);
+			if (g.isOver())
+			{
+				m_games.remove(id);
+			}
+		}
+		b.flip();
+		Path file = snapshotFile(m_appended);
+		Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+		try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING))
+		{
+			while (b.hasRemaining())
+			{
+				out.write(b);
+			}
+			out.force(false);
+		}
+		Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		m_snapshots.add(m_appended);
+	}
+
+	/**
+	 * Reads a game from a snapshot
+	 * @param covered The number of records covered by the snapshot
+	 * @param game The id of the game
+	 * @return The game, or {@code null} if the snapshot does not contain it
+	 * @throws IOException If the snapshot cannot be read
+	 */
+	protected LiveGame readSnapshot(long covered, long game) throws IOException
+	{
+		try (FileChannel in = FileChannel.open(snapshotFile(covered), StandardOpenOption.READ))
+		{
+			int count = checkSnapshot(in);
+			ByteBuffer b = ByteBuffer.allocate(SNAPSHOT_ENTRY_SIZE);
+			int low = 0;
+			int high = count - 1;
+			while (low <= high)
+			{
+				int middle = (low + high) >>> 1;
+				b.clear();
+				readFully(in, b, SNAPSHOT_HEADER_SIZE + (long) middle * SNAPSHOT_ENTRY_SIZE);
+				long id = b.getLong(0);
+				if (id < game)
+				{
+					low = middle + 1;
+				}
+				else if (id > game)
+				{
+					high = middle - 1;
+				}
+				else
+				{
+					return toGame(b);
+				}
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Reads all the games of a snapshot that are still in progress
+	 * @param covered The number of records covered by the snapshot
+	 * @param games The map receiving the games
+	 * @throws IOException If the snapshot cannot be read
+	 */
+	protected void readSnapshot(long covered, Map<Long, LiveGame> games) throws IOException
+	{
+		try (FileChannel in = FileChannel.open(snapshotFile(covered), StandardOpenOption.READ))
+		{
+			int count = checkSnapshot(in);
+			ByteBuffer b = ByteBuffer.allocate(count * SNAPSHOT_ENTRY_SIZE);
+			readFully(in, b, SNAPSHOT_HEADER_SIZE);
+			for (int i = 0; i < count; i++)
+			{
+				b.position(i * SNAPSHOT_ENTRY_SIZE);
+				LiveGame g = toGame(b.slice());
+				if (!g.isOver())
+				{
+					games.put(b.getLong(i * SNAPSHOT_ENTRY_SIZE), g);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Rebuilds a game from its entry in a snapshot
+	 * @param entry A buffer whose first bytes hold the entry
+	 * @return The game
+	 * @throws IOException If the entry is not valid
+	 */
+	protected static LiveGame toGame(ByteBuffer entry) throws IOException
+	{
+		LiveGame g = new LiveGame();
+		int length = entry.get(8);
+		for (int i = 0; i < length; i++)
+		{
+			if (g.tryRoll(entry.get(9 + i)) != Validation.OK)
+			{
+				throw new IOException("Invalid game " + entry.getLong(0) + " in snapshot");
+			}
+		}
+		return g;
+	}
+
+	/**
+	 * Checks the header of a snapshot
+	 * @param in The channel reading the snapshot
+	 * @return The number of games in the snapshot
+	 * @throws IOException If the file is not a valid snapshot
+	 */
+	protected static int checkSnapshot(FileChannel in) throws IOException
+	{
+		checkHeader(in, SNAPSHOT_MAGIC, "snapshot");
+		ByteBuffer b = ByteBuffer.allocate(4);
+		readFully(in, b, SNAPSHOT_HEADER_SIZE - 4);
+		int count = b.getInt(0);
+		if (in.size() != SNAPSHOT_HEADER_SIZE + (long) count * SNAPSHOT_ENTRY_SIZE)
+		{
+			throw new IOException("The snapshot is truncated");
+		}
+		return count;
+	}
+
+	/**
+	 * Checks the magic number and the version at the beginning of a file
+	 * @param in The channel reading the file
+	 * @param magic The expected magic number
+	 * @param kind The kind of file, for the error message
+	 * @throws IOException If the file does not start with this header
+	 */
+	protected static void checkHeader(FileChannel in, int magic, String kind) throws IOException
+	{
+		ByteBuffer header = ByteBuffer.allocate(8);
+		readFully(in, header, 0);
+		if (header.getInt(0) != magic)
+		{
+			throw new IOException("The file is not a roll " + kind);
+		}
+		int version = header.getInt(4);
+		if (version != VERSION)
+		{
+			throw new IOException("Unsupported " + kind + " version " + version);
+		}
+	}
+
+	/**
+	 * Gets the path of a snapshot
+	 * @param covered The number of records covered by the snapshot
+	 * @return The path
+	 */
+	protected Path snapshotFile(long covered)
+	{
+		return m_directory.resolve(String.format("%s%016d%s", SNAPSHOT_PREFIX, covered, SNAPSHOT_SUFFIX));
+	}
+
+	/**
+	 * Writes records at their place in the log file
+	 * @param b The buffer holding the records
+	 * @param first The number of records before the first one in the
+	 * buffer
+	 * @throws IOException If the records cannot be written
+	 */
+	protected void write(ByteBuffer b, long first) throws IOException
+	{
+		writeFully(b, HEADER_SIZE + first * RECORD_SIZE);
+	}
+
+	/**
+	 * Writes the content of a buffer to the log file
+	 * @param b The buffer
+	 * @param position The position of the first byte in the file
+	 * @throws IOException If the bytes cannot be written
+	 */
+	protected void writeFully(ByteBuffer b, long position) throws IOException
+	{
+		while (b.hasRemaining())
+		{
+			position += m_channel.write(b, position);
+		}
+	}
+
+	/**
+	 * Reads bytes of the log file until a buffer is full
+	 * @param b The buffer
+	 * @param position The position of the first byte in the file
+	 * @throws IOException If the bytes cannot be read
+	 */
+	protected void read(ByteBuffer b, long position) throws IOException
+	{
+		readFully(m_channel, b, position);
+	}
+
+	/**
+	 * Reads bytes of a file until a buffer is full
+	 * @param in The channel reading the file
+	 * @param b The buffer
+	 * @param position The position of the first byte in the file
+	 * @throws IOException If the file ends before the buffer is full
+	 */
+	protected static void readFully(FileChannel in, ByteBuffer b, long position) throws IOException
+	{
+		while (b.hasRemaining())
+		{
+			int read = in.read(b, position);
+			if (read < 0)
+			{
+				throw new IOException("Unexpected end of file");
+			}
+			position += read;
+		}
+	}
+
+	/**
+	 * Checks that no write has failed
+	 * @throws IOException If a write has failed
+	 */
+	protected void checkUsable() throws IOException
+	{
+		if (m_failure != null)
+		{
+			throw new IOException("The log cannot be written anymore", m_failure);
+		}
+		if (!m_channel.isOpen())
+		{
+			throw new IOException("The log is closed");
+		}
+	}
+
+	/**
+	 * Makes the log unusable after a failed write, since the file may now
+	 * have a gap
+	 * @param e The error
+	 */
+	protected synchronized void fail(IOException e)
+	{
+		if (m_failure == null)
+		{
+			m_failure = e;
+		}
+	}
+}
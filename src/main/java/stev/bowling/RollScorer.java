@@ -0,0 +1,376 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+/**
+ * Computes the score of a game directly from the sequence of its rolls,
+ * without creating any {@link Game} or {@link Frame}.
+ * <p>
+ * The rolls are given in the order they were played: a strike in frames
+ * 1 to 9 takes a single position, every other frame of the first nine takes
+ * two, and frame 10 takes two, or three if its first two rolls knock down
+ * all ten pins. A game therefore has at most 21 rolls.
+ * <p>
+ * The totals are the same as those of {@link Game#getCumulativeScore(int)}:
+ * <ul>
+ * <li>a spare gets the next roll as a bonus;</li>
+ * <li>a strike gets the next roll as a bonus and, unless that roll is
+ * itself a strike, the one after it;</li>
+ * <li>frame 10 counts its own pins plus its third roll, if any, with no
+ * further bonus.</li>
+ * </ul>
+ * As in {@link LastFrame}, frame 10 only has a third roll when its first
+ * two rolls knock down exactly 10 pins: after a spare or a strike followed
+ * by a gutter.
+ * <p>
+ * The validation is deliberately stricter than that of the frames: a roll
+ * must knock down 0 to 10 pins, and the first two rolls of every frame,
+ * frame 10 included, at most 10 pins. {@link NormalFrame} and
+ * {@link LastFrame} accept pins outside that range, and {@link LastFrame}
+ * accepts, for instance, a strike followed by 5 in frame 10, which
+ * {@link Game} scores 14 since the missing third roll counts as -1; this
+ * class rejects such a frame.
+ */
+public class RollScorer
+{
+	/**
+	 * The maximum number of rolls in a game
+	 */
+	public static final int MAX_ROLLS = 21;
+
+	/**
+	 * The number of frames in a game
+	 */
+	public static final int FRAMES = 10;
+
+	/**
+	 * The value given to the total of a frame that is not known yet
+	 */
+	public static final int PENDING = -1;
+
+	private RollScorer()
+	{
+		super();
+	}
+
+	/**
+	 * Computes the cumulative score of each frame of a game
+	 * @param rolls An array containing the rolls of the game
+	 * @param offset The position of the first roll in the array
+	 * @param length The number of rolls in the game
+	 * @param totals An array receiving the cumulative score of the ten
+	 * frames; the score of a frame that is not complete, or still waits for
+	 * a bonus roll, is {@link #PENDING}
+	 * @param totals_offset The position of the first frame in
+	 * {@code totals}
+	 * @return The number of frames whose score is known
+	 * @throws BowlingException If the rolls do not form a valid game
+	 */
+	public static int score(int[] rolls, int offset, int length, int[] totals, int totals_offset) throws BowlingException
+	{
+		int end = offset + length;
+		int p = offset;
+		int total = 0;
+		int frame = 0;
+		for (; frame < FRAMES && p < end; frame++)
+		{
+			int first = checkPins(rolls[p]);
+			if (p + 1 >= end)
+			{
+				break;
+			}
+			if (frame == FRAMES - 1)
+			{
+				int second = checkFrame(first, rolls[p + 1]);
+				if (first + second < 10)
+				{
+					total += first + second;
+					p += 2;
+				}
+				else if (p + 2 < end)
+				{
+					total += 10 + checkPins(rolls[p + 2]);
+					p += 3;
+				}
+				else
+				{
+					break;
+				}
+			}
+			else if (first == 10)
+			{
+				int next = checkPins(rolls[p + 1]);
+				if (next == 10)
+				{
+					total += 20;
+				}
+				else if (p + 2 < end)
+				{
+					total += 10 + next + checkPins(rolls[p + 2]);
+				}
+				else
+				{
+					break;
+				}
+				p++;
+			}
+			else
+			{
+				int second = checkFrame(first, rolls[p + 1]);
+				if (first + second < 10)
+				{
+					total += first + second;
+				}
+				else if (p + 2 < end)
+				{
+					total += 10 + checkPins(rolls[p + 2]);
+				}
+				else
+				{
+					break;
+				}
+				p += 2;
+			}
+			totals[totals_offset + frame] = total;
+		}
+		if (frame == FRAMES && p < end)
+		{
+			throw new BowlingException("There are " + (end - p) + " rolls after frame #10");
+		}
+		for (int i = frame; i < FRAMES; i++)
+		{
+			totals[totals_offset + i] = PENDING;
+		}
+		return frame;
+	}
+
+	/**
+	 * Computes the cumulative score of each frame of a game
+	 * @param rolls An array containing the rolls of the game
+	 * @param offset The position of the first roll in the array
+	 * @param length The number of rolls in the game
+	 * @param totals An array receiving the cumulative score of the ten
+	 * frames; the score of a frame that is not complete, or still waits for
+	 * a bonus roll, is {@link #PENDING}
+	 * @param totals_offset The position of the first frame in
+	 * {@code totals}
+	 * @return The number of frames whose score is known
+	 * @throws BowlingException If the rolls do not form a valid game
+	 */
+	public static int score(byte[] rolls, int offset, int length, int[] totals, int totals_offset) throws BowlingException
+	{
+		int end = offset + length;
+		int p = offset;
+		int total = 0;
+		int frame = 0;
+		for (; frame < FRAMES && p < end; frame++)
+		{
+			int first = checkPins(rolls[p]);
+			if (p + 1 >= end)
+			{
+				break;
+			}
+			if (frame == FRAMES - 1)
+			{
+				int second = checkFrame(first, rolls[p + 1]);
+				if (first + second < 10)
+				{
+					total += first + second;
+					p += 2;
+				}
+				else if (p + 2 < end)
+				{
+					total += 10 + checkPins(rolls[p + 2]);
+					p += 3;
+				}
+				else
+				{
+					break;
+				}
+			}
+			else if (first == 10)
+			{
+				int next = checkPins(rolls[p + 1]);
+				if (next == 10)
+				{
+					total += 20;
+				}
+				else if (p + 2 < end)
+				{
+					total += 10 + next + checkPins(rolls[p + 2]);
+				}
+				else
+				{
+					break;
+				}
+				p++;
+			}
+			else
+			{
+				int second = checkFrame(first, rolls[p + 1]);
+				if (first + second < 10)
+				{
+					total += first + second;
+				}
+				else if (p + 2 < end)
+				{
+					total += 10 + checkPins(rolls[p + 2]);
+				}
+				else
+				{
+					break;
+				}
+				p += 2;
+			}
+			totals[totals_offset + frame] = total;
+		}
+		if (frame == FRAMES && p < end)
+		{
+			throw new BowlingException("There are " + (end - p) + " rolls after frame #10");
+		}
+		for (int i = frame; i < FRAMES; i++)
+		{
+			totals[totals_offset + i] = PENDING;
+		}
+		return frame;
+	}
+
+	/**
+	 * Computes the final score of a complete game
+	 * @param rolls An array containing the rolls of the game
+	 * @param offset The position of the first roll in the array
+	 * @param length The number of rolls in the game
+	 * @param scratch An array of at least 10 elements used to hold the
+	 * frame totals
+	 * @return The score of the game, or {@link #PENDING} if the game is not
+	 * complete
+	 * @throws BowlingException If the rolls do not form a valid game
+	 */
+	public static int finalScore(int[] rolls, int offset, int length, int[] scratch) throws BowlingException
+	{
+		score(rolls, offset, length, scratch, 0);
+		return scratch[FRAMES - 1];
+	}
+
+	/**
+	 * Writes the rolls of a game in the format expected by
+	 * {@link #score(int[], int, int, int[], int)}. The rolls are copied up
+	 * to the first one that has not been played.
+	 * @param g The game
+	 * @param rolls The array receiving the rolls
+	 * @param offset The position of the first roll in the array
+	 * @return The number of rolls written
+	 */
+	public static int toRolls(Game g, int[] rolls, int offset)
+	{
+		int p = offset;
+		int frames = Math.min(FRAMES, g.m_frames.size());
+		for (int i = 0; i < frames; i++)
+		{
+			int[] scores = g.m_frames.get(i).m_scores;
+			int count = 2;
+			if (i < FRAMES - 1 && scores[0] == 10)
+			{
+				count = 1;
+			}
+			else if (i == FRAMES - 1 && scores[0] + scores[1] == 10)
+			{
+				count = 3;
+			}
+			for (int j = 0; j < count; j++)
+			{
+				if (scores[j] < 0)
+				{
+					return p - offset;
+				}
+				rolls[p++] = scores[j];
+			}
+		}
+		return p - offset;
+	}
+
+	/**
+	 * Builds a {@link Game} out of a sequence of rolls
+	 * @param rolls An array containing the rolls of the game
+	 * @param offset The position of the first roll in the array
+	 * @param length The number of rolls in the game
+	 * @return The game
+	 * @throws BowlingException If the rolls do not form a valid game
+	 */
+	public static Game toGame(int[] rolls, int offset, int length) throws BowlingException
+	{
+		Game g = new Game();
+		int end = offset + length;
+		int p = offset;
+		for (int frame = 1; frame <= FRAMES && p < end; frame++)
+		{
+			if (frame == FRAMES)
+			{
+				LastFrame f = new LastFrame(frame);
+				for (int roll = 1; roll <= 3 && p < end; roll++)
+				{
+					f.setPinsDown(roll, rolls[p++]);
+				}
+				g.addFrame(f);
+			}
+			else
+			{
+				NormalFrame f = new NormalFrame(frame).setPinsDown(1, rolls[p++]);
+				if (rolls[p - 1] != 10 && p < end)
+				{
+					f.setPinsDown(2, rolls[p++]);
+				}
+				g.addFrame(f);
+			}
+		}
+		return g;
+	}
+
+	/**
+	 * Checks that a number of pins is possible for a single roll
+	 * @param pins The number of pins
+	 * @return The number of pins
+	 * @throws BowlingException If the number of pins is not between 0 and 10
+	 */
+	protected static int checkPins(int pins) throws BowlingException
+	{
+		if (pins < 0 || pins > 10)
+		{
+			throw new BowlingException("Invalid number of pins: " + pins);
+		}
+		return pins;
+	}
+
+	/**
+	 * Checks the second roll of a frame. Unlike {@link LastFrame}, this
+	 * check also applies to frame 10.
+	 * @param first The pins of the first roll
+	 * @param second The pins of the second roll
+	 * @return The pins of the second roll
+	 * @throws BowlingException If the two rolls knock down more than 10 pins
+	 */
+	protected static int checkFrame(int first, int second) throws BowlingException
+	{
+		if (checkPins(second) + first > 10)
+		{
+			throw new BowlingException("The total score exceeds 10");
+		}
+		return second;
+	}
+}
@@ -0,0 +1,150 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+import java.util.Arrays;
+
+/**
+ * Counts the number of games giving each final score.
+ */
+public class ScoreHistogram
+{
+	/**
+	 * The number of games for each score, from 0 to
+	 * {@link GameSpace#MAX_SCORE}
+	 */
+	protected final long[] m_counts = new long[GameSpace.MAX_SCORE + 1];
+
+	/**
+	 * The total number of games
+	 */
+	protected long m_games = 0;
+
+	/**
+	 * Creates an empty histogram
+	 */
+	public ScoreHistogram()
+	{
+		super();
+	}
+
+	/**
+	 * Counts a game
+	 * @param score The final score of the game
+	 * @throws BowlingException If the score is not possible
+	 */
+	public void add(int score) throws BowlingException
+	{
+		if (score < 0 || score > GameSpace.MAX_SCORE)
+		{
+			throw new BowlingException("Invalid score: " + score);
+		}
+		m_counts[score]++;
+		m_games++;
+	}
+
+	/**
+	 * Adds the games of another histogram to this one
+	 * @param h The other histogram
+	 * @return This histogram
+	 */
+	public ScoreHistogram merge(ScoreHistogram h)
+	{
+		for (int s = 0; s < m_counts.length; s++)
+		{
+			m_counts[s] += h.m_counts[s];
+		}
+		m_games += h.m_games;
+		return this;
+	}
+
+	/**
+	 * Gets the number of games giving a score
+	 * @param score The score
+	 * @return The number of games
+	 */
+	public long getCount(int score)
+	{
+		return score < 0 || score >= m_counts.length ? 0 : m_counts[score];
+	}
+
+	/**
+	 * Gets the total number of games
+	 * @return The number of games
+	 */
+	public long getGames()
+	{
+		return m_games;
+	}
+
+	/**
+	 * Gets the average score of the games
+	 * @return The average, or 0 if there are no games
+	 */
+	public double getMean()
+	{
+		if (m_games == 0)
+		{
+			return 0;
+		}
+		double sum = 0;
+		for (int s = 0; s < m_counts.length; s++)
+		{
+			sum += (double) s * m_counts[s];
+		}
+		return sum / m_games;
+	}
+
+	/**
+	 * Gets the lowest score such that a proportion of the games score at
+	 * most this much
+	 * @param percentile The percentage of games, from 0 to 100
+	 * @return The score, or 0 if there are no games
+	 */
+	public int getPercentile(double percentile)
+	{
+		long rank = (long) Math.ceil(m_games * percentile / 100);
+		long seen = 0;
+		for (int s = 0; s < m_counts.length; s++)
+		{
+			seen += m_counts[s];
+			if (seen >= rank && seen > 0)
+			{
+				return s;
+			}
+		}
+		return 0;
+	}
+
+	@Override
+	public boolean equals(Object o)
+	{
+		if (!(o instanceof ScoreHistogram))
+		{
+			return false;
+		}
+		return Arrays.equals(m_counts, ((ScoreHistogram) o).m_counts);
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return Arrays.hashCode(m_counts);
+	}
+}
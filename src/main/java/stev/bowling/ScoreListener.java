@@ -0,0 +1,35 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+/**
+ * Receives the score of a frame as soon as it is final, that is, once the
+ * frame and all its bonus rolls have been played.
+ */
+public interface ScoreListener
+{
+	/**
+	 * Called when the score of a frame becomes final. Frames are always
+	 * notified in order.
+	 * @param frame The frame number, starting at 1
+	 * @param score The points earned by this frame alone, bonus included
+	 * @param cumulative The cumulative score of the game at this frame
+	 */
+	public void frameScored(int frame, int score, int cumulative);
+}
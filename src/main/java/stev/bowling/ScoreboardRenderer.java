@@ -0,0 +1,390 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+
+/**
+ * Writes the scoreboard of a {@link Game}, exactly as returned by
+ * {@link Game#toString()}, into an {@link Appendable} or a
+ * {@link ByteBuffer}.
+ * <p>
+ * The board is first written into a buffer owned by the renderer, and the
+ * two header lines, which never change, are copied from precomputed arrays.
+ * Frames are written from their pins rather than through their
+ * {@code toString()} method, taking the strike and the spare of a
+ * {@link TrackedFrame} from its summary, and scores are formatted digit by
+ * digit, so that rendering a board creates no object. A renderer is not thread-safe;
+ * use one per thread.
+ */
+public class ScoreboardRenderer
+{
+	/**
+	 * The first two lines of every scoreboard
+	 */
+	protected static final char[] HEADER;
+
+	/**
+	 * The first two lines of every scoreboard, as ASCII bytes
+	 */
+	protected static final byte[] HEADER_BYTES;
+
+	static
+	{
+		StringBuilder header = new StringBuilder("|");
+		for (int i = 1; i <= 10; i++)
+		{
+			header.append('#').append(i).append(i <= 9 ? "  |" : " |");
+		}
+		header.append("\n|");
+		for (int i = 1; i <= 10; i++)
+		{
+			header.append("----+");
+		}
+		header.append('\n');
+		HEADER = header.toString().toCharArray();
+		HEADER_BYTES = new byte[HEADER.length];
+		for (int i = 0; i < HEADER.length; i++)
+		{
+			HEADER_BYTES[i] = (byte) HEADER[i];
+		}
+	}
+
+	/**
+	 * The board being written
+	 */
+	protected char[] m_chars = new char[256];
+
+	/**
+	 * A view of {@link #m_chars} passed to {@link Appendable}s
+	 */
+	protected CharBuffer m_view = CharBuffer.wrap(m_chars);
+
+	/**
+	 * The number of characters written in {@link #m_chars}
+	 */
+	protected int m_length;
+
+	/**
+	 * Writes the scoreboard of a game into the buffer of this renderer
+	 * @param g The game
+	 * @return The number of characters of the board
+	 */
+	public int render(Game g)
+	{
+		m_length = 0;
+		System.arraycopy(HEADER, 0, m_chars, 0, HEADER.length);
+		m_length = HEADER.length;
+		int size = g.m_frames.size();
+		put('|');
+		for (int i = 0; i < 10; i++)
+		{
+			if (i >= size)
+			{
+				put("    |");
+				continue;
+			}
+			Frame f = g.m_frames.get(i);
+			put(i < 9 ? "  " : " ");
+			int[] scores = f.m_scores;
+			boolean strike;
+			boolean spare;
+			if (f instanceof TrackedFrame)
+			{
+				FrameSummary summary = ((TrackedFrame) f).getSummary();
+				strike = summary.isStrike();
+				spare = summary.isSpare();
+			}
+			else
+			{
+				strike = scores[0] == 10;
+				spare = !strike && scores[0] >= 0 && scores[1] >= 0 && scores[0] + scores[1] == 10;
+			}
+			if (f instanceof LastFrame)
+			{
+				putLastFrame(scores, strike, spare);
+			}
+			else
+			{
+				putNormalFrame(scores, strike, spare);
+			}
+			put('|');
+		}
+		put("\n|");
+		for (int i = 1; i <= 10; i++)
+		{
+			if (i > size)
+			{
+				put("    |");
+				continue;
+			}
+			putScore(g.getCumulativeScore(i));
+			put('|');
+		}
+		return m_length;
+	}
+
+	/**
+	 * Writes the scoreboard of a game
+	 * @param g The game
+	 * @param out The object receiving the board
+	 * @param <A> The type of the object receiving the board
+	 * @return The object receiving the board
+	 * @throws IOException If the board cannot be written
+	 */
+	public <A extends Appendable> A renderTo(Game g, A out) throws IOException
+	{
+		int length = render(g);
+		m_view.clear();
+		out.append(m_view, 0, length);
+		return out;
+	}
+
+	/**
+	 * Writes the scoreboard of a game as ASCII bytes
+	 * @param g The game
+	 * @param out The buffer receiving the board
+	 * @return The buffer receiving the board
+	 * @throws java.nio.BufferOverflowException If the buffer does not have
+	 * enough room for the board
+	 */
+	public ByteBuffer renderTo(Game g, ByteBuffer out)
+	{
+		int length = render(g);
+		out.put(HEADER_BYTES);
+		for (int i = HEADER.length; i < length; i++)
+		{
+			out.put((byte) m_chars[i]);
+		}
+		return out;
+	}
+
+	/**
+	 * Writes a frame of type {@link NormalFrame}, the same way as
+	 * {@link NormalFrame#toString()}
+	 * @param scores The pins of the frame
+	 * @param strike Whether the first roll is a strike
+	 * @param spare Whether the first two rolls are a spare
+	 */
+	protected void putNormalFrame(int[] scores, boolean strike, boolean spare)
+	{
+		int first = scores[0];
+		int second = scores[1];
+		if (first < 0)
+		{
+			put("  ");
+			return;
+		}
+		if (strike)
+		{
+			put("X ");
+			return;
+		}
+		putPins(first);
+		if (second == 10)
+		{
+			put('X');
+		}
+		else if (second == 0)
+		{
+			put('-');
+		}
+		else if (second < 0)
+		{
+			put(' ');
+		}
+		else if (spare)
+		{
+			put('/');
+		}
+		else
+		{
+			putInt(second);
+		}
+	}
+
+	/**
+	 * Writes a frame of type {@link LastFrame}, the same way as
+	 * {@link LastFrame#toString()}
+	 * @param scores The pins of the frame
+	 * @param strike Whether the first roll is a strike
+	 * @param spare Whether the first two rolls are a spare
+	 */
+	protected void putLastFrame(int[] scores, boolean strike, boolean spare)
+	{
+		int first = scores[0];
+		int second = scores[1];
+		if (first < 0)
+		{
+			put("   ");
+			return;
+		}
+		if (strike)
+		{
+			put('X');
+		}
+		else
+		{
+			putPins(first);
+		}
+		if (second == 10)
+		{
+			put('X');
+		}
+		else if (second == 0)
+		{
+			put('-');
+		}
+		else if (second < 0)
+		{
+			put("  ");
+			return;
+		}
+		else if (spare)
+		{
+			put('/');
+		}
+		else
+		{
+			putInt(second);
+		}
+		// A third roll follows a spare or a strike and a gutter
+		if (spare || strike && second == 0)
+		{
+			int third = scores[2];
+			if (third == 0)
+			{
+				put('-');
+			}
+			else if (third == 10)
+			{
+				put('X');
+			}
+			else if (third < 0)
+			{
+				put(' ');
+			}
+			else
+			{
+				putInt(third);
+			}
+		}
+	}
+
+	/**
+	 * Writes the pins of a roll that is not a strike
+	 * @param pins The pins
+	 */
+	protected void putPins(int pins)
+	{
+		if (pins == 0)
+		{
+			put('-');
+		}
+		else
+		{
+			putInt(pins);
+		}
+	}
+
+	/**
+	 * Writes a cumulative score, padded to four characters the same way as
+	 * {@link Game#padScore(int)}
+	 * @param score The score
+	 */
+	protected void putScore(int score)
+	{
+		if (score < 0)
+		{
+			put("    ");
+			return;
+		}
+		int start = m_length;
+		putInt(score);
+		for (int i = m_length - start; i < 4; i++)
+		{
+			put(' ');
+		}
+	}
+
+	/**
+	 * Writes an integer in decimal
+	 * @param value The integer
+	 */
+	protected void putInt(int value)
+	{
+		if (value < 0)
+		{
+			put('-');
+			value = -value;
+		}
+		int digits = 1;
+		for (int v = value; v >= 10; v /= 10)
+		{
+			digits++;
+		}
+		ensureCapacity(digits);
+		for (int i = m_length + digits - 1; i >= m_length; i--)
+		{
+			m_chars[i] = (char) ('0' + value % 10);
+			value /= 10;
+		}
+		m_length += digits;
+	}
+
+	/**
+	 * Writes a character
+	 * @param c The character
+	 */
+	protected void put(char c)
+	{
+		ensureCapacity(1);
+		m_chars[m_length++] = c;
+	}
+
+	/**
+	 * Writes a string
+	 * @param s The string
+	 */
+	protected void put(String s)
+	{
+		int length = s.length();
+		ensureCapacity(length);
+		s.getChars(0, length, m_chars, m_length);
+		m_length += length;
+	}
+
+	/**
+	 * Makes room for more characters in the buffer. The buffer only grows
+	 * for frames holding impossible numbers of pins.
+	 * @param extra The number of characters to add
+	 */
+	protected void ensureCapacity(int extra)
+	{
+		if (m_length + extra > m_chars.length)
+		{
+			char[] chars = new char[Math.max(m_chars.length * 2, m_length + extra)];
+			System.arraycopy(m_chars, 0, chars, 0, m_length);
+			m_chars = chars;
+			m_view = CharBuffer.wrap(m_chars);
+		}
+	}
+}
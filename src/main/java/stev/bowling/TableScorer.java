@@ -0,0 +1,394 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+/**
+ * Computes the cumulative scores of a {@link Game} by looking up the points
+ * of each frame in precomputed tables.
+ * <p>
+ * Each frame is first reduced to a small state code: one of the 66 shapes
+ * of a complete frame (numbered as in {@link GameCodec}), a frame with only
+ * its first roll, or an empty frame; frame 10 has its own set of states.
+ * Since {@link Game#getCumulativeScore(int)} takes the bonus of a frame
+ * from the next frame only (a strike followed by a strike gets no further
+ * bonus), the points of a frame depend on its state and on the state of
+ * the next frame, or on the absence of one. These points are computed once
+ * for every pair of states, so scoring a game takes one table lookup and
+ * one addition per frame, with no branch on strikes or spares and no call
+ * to the frames.
+ * <p>
+ * The totals are the same as those of {@link Game#getCumulativeScore(int)},
+ * for complete and incomplete games. A frame whose pins break the rules of
+ * {@link RollScorer} has no state; the scores of a game containing one are
+ * asked to the game itself.
+ */
+public class TableScorer
+{
+	/**
+	 * The state of a frame 1 to 9 where only the first roll has been
+	 * played is this value plus the pins of that roll
+	 */
+	protected static final int NORMAL_FIRST_ONLY = GameCodec.NORMAL_SHAPES;
+
+	/**
+	 * The state of an empty frame 1 to 9
+	 */
+	protected static final int NORMAL_EMPTY = NORMAL_FIRST_ONLY + 10;
+
+	/**
+	 * The number of states of frames 1 to 9
+	 */
+	protected static final int NORMAL_STATES = NORMAL_EMPTY + 1;
+
+	/**
+	 * The state of a frame 10 where only the first roll has been played is
+	 * this value plus the pins of that roll
+	 */
+	protected static final int LAST_FIRST_ONLY = GameCodec.LAST_SHAPES;
+
+	/**
+	 * The state of a frame 10 whose first two rolls knock down 10 pins and
+	 * whose third roll has not been played is this value plus the pins of
+	 * its first roll
+	 */
+	protected static final int LAST_WAITING = LAST_FIRST_ONLY + 11;
+
+	/**
+	 * The state of an empty frame 10
+	 */
+	protected static final int LAST_EMPTY = LAST_WAITING + 11;
+
+	/**
+	 * The number of states of frame 10
+	 */
+	protected static final int LAST_STATES = LAST_EMPTY + 1;
+
+	/**
+	 * The value in the tables for a frame whose score is not known yet
+	 */
+	protected static final int UNKNOWN = Integer.MIN_VALUE;
+
+	/**
+	 * The points of a frame 1 to 8, at index
+	 * {@code state * (NORMAL_STATES + 1) + next}, where {@code next} is the
+	 * state of the next frame, or {@link #NORMAL_STATES} if there is none
+	 */
+	protected static final int[] s_normalNext = new int[NORMAL_STATES * (NORMAL_STATES + 1)];
+
+	/**
+	 * The points of frame 9, at index {@code state * (LAST_STATES + 1) + next},
+	 * where {@code next} is the state of frame 10, or {@link #LAST_STATES} if
+	 * there is none
+	 */
+	protected static final int[] s_normalLast = new int[NORMAL_STATES * (LAST_STATES + 1)];
+
+	/**
+	 * The points of frame 10 for each of its states
+	 */
+	protected static final int[] s_last = new int[LAST_STATES];
+
+	static
+	{
+		int[] pins = new int[2];
+		int[] next = new int[3];
+		for (int state = 0; state < NORMAL_STATES; state++)
+		{
+			normalPins(state, pins);
+			for (int n = 0; n < NORMAL_STATES; n++)
+			{
+				normalPins(n, next);
+				s_normalNext[state * (NORMAL_STATES + 1) + n] = points(pins, next);
+			}
+			s_normalNext[state * (NORMAL_STATES + 1) + NORMAL_STATES] = points(pins, null);
+			for (int n = 0; n < LAST_STATES; n++)
+			{
+				lastPins(n, next);
+				s_normalLast[state * (LAST_STATES + 1) + n] = points(pins, next);
+			}
+			s_normalLast[state * (LAST_STATES + 1) + LAST_STATES] = points(pins, null);
+		}
+		for (int state = 0; state < LAST_STATES; state++)
+		{
+			lastPins(state, next);
+			int first = next[0];
+			int second = next[1];
+			int third = next[2];
+			if (first == 10)
+			{
+				s_last[state] = 10 + second + third;
+			}
+			else if (first + second == 10)
+			{
+				s_last[state] = 10 + third;
+			}
+			else
+			{
+				s_last[state] = first + second;
+			}
+		}
+	}
+
+	private TableScorer()
+	{
+		super();
+	}
+
+	/**
+	 * Computes the cumulative score of each frame of a game
+	 * @param g The game
+	 * @param totals An array receiving the cumulative score of each frame,
+	 * as returned by {@link Game#getCumulativeScore(int)}
+	 * @param offset The position of the first frame in {@code totals}
+	 * @return The number of frames written, which is the number of frames
+	 * in the game, up to 10
+	 */
+	public static int score(Game g, int[] totals, int offset)
+	{
+		int size = Math.min(g.m_frames.size(), RollScorer.FRAMES);
+		// The states are written where the totals go, and replaced by them
+		for (int i = 0; i < size; i++)
+		{
+			int[] scores = g.m_frames.get(i).m_scores;
+			int state = i == RollScorer.FRAMES - 1 ? lastState(scores) : normalState(scores);
+			totals[offset + i] = state;
+			if (state < 0)
+			{
+				for (int j = 0; j < size; j++)
+				{
+					totals[offset + j] = g.getCumulativeScore(j + 1);
+				}
+				return size;
+			}
+		}
+		return score(totals, offset, size, totals, offset);
+	}
+
+	/**
+	 * Computes the cumulative score of each frame from the frame states
+	 * @param states The state of each frame
+	 * @param size The number of frames
+	 * @param totals An array receiving the cumulative score of each frame
+	 * @param offset The position of the first frame in {@code totals}
+	 * @return The number of frames written
+	 */
+	public static int score(int[] states, int size, int[] totals, int offset)
+	{
+		return score(states, 0, size, totals, offset);
+	}
+
+	/**
+	 * Computes the cumulative score of each frame from the frame states.
+	 * The states and the totals may be the same part of an array, since the
+	 * total of a frame is written after the states it depends on are read.
+	 * @param states The state of each frame
+	 * @param states_offset The position of the state of the first frame
+	 * @param size The number of frames
+	 * @param totals An array receiving the cumulative score of each frame
+	 * @param offset The position of the first frame in {@code totals}
+	 * @return The number of frames written
+	 */
+	protected static int score(int[] states, int states_offset, int size, int[] totals, int offset)
+	{
+		int total = 0;
+		for (int i = 0; i < size; i++)
+		{
+			int points;
+			if (i < RollScorer.FRAMES - 2)
+			{
+				points = s_normalNext[states[states_offset + i] * (NORMAL_STATES + 1) + (i + 1 < size ? states[states_offset + i + 1] : NORMAL_STATES)];
+			}
+			else if (i == RollScorer.FRAMES - 2)
+			{
+				points = s_normalLast[states[states_offset + i] * (LAST_STATES + 1) + (i + 1 < size ? states[states_offset + i + 1] : LAST_STATES)];
+			}
+			else
+			{
+				points = s_last[states[states_offset + i]];
+			}
+			if (points == UNKNOWN)
+			{
+				// Once a frame waits for a bonus, so do all the frames after it
+				for (; i < size; i++)
+				{
+					totals[offset + i] = RollScorer.PENDING;
+				}
+				return size;
+			}
+			total += points;
+			totals[offset + i] = total;
+		}
+		return size;
+	}
+
+	/**
+	 * Gets the state of a frame 1 to 9
+	 * @param scores The pins of the frame, -1 for a roll not played
+	 * @return The state, or -1 if the pins break the rules
+	 */
+	public static int normalState(int[] scores)
+	{
+		int first = scores[0];
+		int second = scores[1];
+		if (first < 0)
+		{
+			return second < 0 ? NORMAL_EMPTY : -1;
+		}
+		if (first > 10 || second > 10 || first + second > 10)
+		{
+			return -1;
+		}
+		if (second < 0)
+		{
+			return first < 10 ? NORMAL_FIRST_ONLY + first : -1;
+		}
+		return GameCodec.s_shapeIndex[first * 11 + second];
+	}
+
+	/**
+	 * Gets the state of frame 10
+	 * @param scores The pins of the frame, -1 for a roll not played
+	 * @return The state, or -1 if the pins break the rules
+	 */
+	public static int lastState(int[] scores)
+	{
+		int first = scores[0];
+		int second = scores[1];
+		int third = scores[2];
+		if (first < 0)
+		{
+			return second < 0 && third < 0 ? LAST_EMPTY : -1;
+		}
+		if (first > 10 || second > 10 || third > 10 || first + second > 10)
+		{
+			return -1;
+		}
+		if (second < 0)
+		{
+			return third < 0 ? LAST_FIRST_ONLY + first : -1;
+		}
+		if (first + second < 10)
+		{
+			return third < 0 ? GameCodec.s_shapeIndex[first * 11 + second] - first : -1;
+		}
+		if (third < 0)
+		{
+			return LAST_WAITING + first;
+		}
+		return GameCodec.OPEN_SHAPES + first * 11 + third;
+	}
+
+	/**
+	 * Computes the points of a frame 1 to 9, following the same rules as
+	 * {@link Game#getCumulativeScore(int)}
+	 * @param pins The pins of the frame
+	 * @param next The pins of the next frame, or {@code null} if there is
+	 * none
+	 * @return The points, or {@link #UNKNOWN} if they are not known yet
+	 */
+	protected static int points(int[] pins, int[] next)
+	{
+		int first = pins[0];
+		int count = first < 0 ? 0 : first + pins[1];
+		if (count < 10)
+		{
+			return count;
+		}
+		if (next == null)
+		{
+			return UNKNOWN;
+		}
+		int bonus = next[0];
+		if (first == 10 && bonus != 10)
+		{
+			if (next[1] < 0)
+			{
+				return UNKNOWN;
+			}
+			return 10 + bonus + next[1];
+		}
+		return 10 + bonus;
+	}
+
+	/**
+	 * Gets the pins of a state of frames 1 to 9
+	 * @param state The state
+	 * @param pins An array receiving the pins of the first two rolls, -1
+	 * for a roll not played
+	 */
+	protected static void normalPins(int state, int[] pins)
+	{
+		if (state < GameCodec.NORMAL_SHAPES)
+		{
+			pins[0] = GameCodec.s_shapeFirst[state];
+			pins[1] = GameCodec.s_shapeSecond[state];
+		}
+		else if (state < NORMAL_EMPTY)
+		{
+			pins[0] = state - NORMAL_FIRST_ONLY;
+			pins[1] = -1;
+		}
+		else
+		{
+			pins[0] = -1;
+			pins[1] = -1;
+		}
+	}
+
+	/**
+	 * Gets the pins of a state of frame 10
+	 * @param state The state
+	 * @param pins An array receiving the pins of the three rolls, -1 for a
+	 * roll not played
+	 */
+	protected static void lastPins(int state, int[] pins)
+	{
+		pins[0] = -1;
+		pins[1] = -1;
+		pins[2] = -1;
+		if (state < GameCodec.OPEN_SHAPES)
+		{
+			// Open shapes are numbered like the shapes of frames 1 to 9,
+			// less the one spare of each first roll before them
+			int first = 0;
+			while (state >= 10 - first)
+			{
+				state -= 10 - first;
+				first++;
+			}
+			pins[0] = first;
+			pins[1] = state;
+		}
+		else if (state < GameCodec.LAST_SHAPES)
+		{
+			state -= GameCodec.OPEN_SHAPES;
+			pins[0] = state / 11;
+			pins[1] = 10 - pins[0];
+			pins[2] = state % 11;
+		}
+		else if (state < LAST_WAITING)
+		{
+			pins[0] = state - LAST_FIRST_ONLY;
+		}
+		else if (state < LAST_EMPTY)
+		{
+			pins[0] = state - LAST_WAITING;
+			pins[1] = 10 - pins[0];
+		}
+	}
+}
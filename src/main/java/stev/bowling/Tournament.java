@@ -0,0 +1,417 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * A session where each bowler plays a series of games, with a leaderboard
+ * kept up to date as the rolls come in.
+ * <p>
+ * Each bowler plays one {@link LiveGame} at a time. Every time the score
+ * of a frame becomes final, the standing of the bowler is replaced in a
+ * skip list sorted by total, which takes O(log n) for n bowlers; the
+ * leaderboard is never sorted again as a whole. The total of a bowler is
+ * the sum of the final frame scores of the series so far, plus a fixed
+ * handicap for each game started.
+ * <p>
+ * Different bowlers can be updated and the leaderboard read from different
+ * threads at the same time; the rolls of a single bowler are entered one
+ * at a time.
+ */
+public class Tournament
+{
+	/**
+	 * The default number of games in a series
+	 */
+	public static final int SERIES_GAMES = 3;
+
+	/**
+	 * The order of the leaderboard: highest total first, then highest
+	 * scratch total, then name
+	 */
+	protected static final Comparator<Standing> RANKING = new Comparator<Standing>()
+	{
+		@Override
+		public int compare(Standing s1, Standing s2)
+		{
+			if (s1.m_total != s2.m_total)
+			{
+				return s1.m_total > s2.m_total ? -1 : 1;
+			}
+			if (s1.m_scratch != s2.m_scratch)
+			{
+				return s1.m_scratch > s2.m_scratch ? -1 : 1;
+			}
+			return s1.m_name.compareTo(s2.m_name);
+		}
+	};
+
+	/**
+	 * The number of games in a series
+	 */
+	protected final int m_seriesGames;
+
+	/**
+	 * The bowlers, by name
+	 */
+	protected final ConcurrentHashMap<String, Bowler> m_bowlers = new ConcurrentHashMap<String, Bowler>();
+
+	/**
+	 * The current standing of every bowler, in the order of the leaderboard
+	 */
+	protected final ConcurrentSkipListSet<Standing> m_leaderboard = new ConcurrentSkipListSet<Standing>(RANKING);
+
+	/**
+	 * Creates a tournament where each bowler plays a series of
+	 * {@link #SERIES_GAMES} games
+	 */
+	public Tournament()
+	{
+		this(SERIES_GAMES);
+	}
+
+	/**
+	 * Creates a tournament
+	 * @param series_games The number of games in a series
+	 */
+	public Tournament(int series_games)
+	{
+		super();
+		m_seriesGames = series_games;
+	}
+
+	/**
+	 * Registers a bowler
+	 * @param name The name of the bowler
+	 * @param handicap The pins added to the score of each game of the bowler
+	 * @return This tournament
+	 * @throws BowlingException If a bowler with the same name is already
+	 * registered
+	 */
+	public Tournament addBowler(String name, int handicap) throws BowlingException
+	{
+		Bowler b = new Bowler(name, handicap);
+		if (m_bowlers.putIfAbsent(name, b) != null)
+		{
+			throw new BowlingException("Bowler " + name + " is already registered");
+		}
+		m_leaderboard.add(b.m_standing);
+		return this;
+	}
+
+	/**
+	 * Plays the next roll of a bowler. The first roll after the end of a
+	 * game starts the next game of the series.
+	 * @param name The name of the bowler
+	 * @param pins The number of pins knocked down
+	 * @return This tournament
+	 * @throws BowlingException If there is no such bowler, if the series of
+	 * the bowler is over, or if the roll is not possible
+	 */
+	public Tournament roll(String name, int pins) throws BowlingException
+	{
+		Bowler b = getBowler(name);
+		synchronized (b)
+		{
+			b.roll(pins);
+		}
+		return this;
+	}
+
+	/**
+	 * Gets the current standing of a bowler
+	 * @param name The name of the bowler
+	 * @return The standing
+	 * @throws BowlingException If there is no such bowler
+	 */
+	public Standing getStanding(String name) throws BowlingException
+	{
+		return getBowler(name).m_standing;
+	}
+
+	/**
+	 * Gets the first bowlers of the leaderboard
+	 * @param n The maximum number of bowlers
+	 * @return The standings of the bowlers, best first
+	 */
+	public List<Standing> top(int n)
+	{
+		List<Standing> top = new ArrayList<Standing>(Math.min(n, m_bowlers.size()));
+		for (Standing s : m_leaderboard)
+		{
+			if (top.size() >= n)
+			{
+				break;
+			}
+			// An update may briefly leave the old standing in the list
+			if (m_bowlers.get(s.m_name).m_standing == s)
+			{
+				top.add(s);
+			}
+		}
+		return top;
+	}
+
+	/**
+	 * Gets the number of bowlers
+	 * @return The number of bowlers
+	 */
+	public int size()
+	{
+		return m_bowlers.size();
+	}
+
+	/**
+	 * Gets a bowler by name
+	 * @param name The name of the bowler
+	 * @return The bowler
+	 * @throws BowlingException If there is no such bowler
+	 */
+	protected Bowler getBowler(String name) throws BowlingException
+	{
+		Bowler b = m_bowlers.get(name);
+		if (b == null)
+		{
+			throw new BowlingException("There is no bowler named " + name);
+		}
+		return b;
+	}
+
+	/**
+	 * The position of a bowler at some point of the tournament. A standing
+	 * never changes; a new one replaces it when the score of the bowler
+	 * changes.
+	 */
+	public static class Standing
+	{
+		/**
+		 * The name of the bowler
+		 */
+		protected final String m_name;
+
+		/**
+		 * The score of the series so far, without handicap
+		 */
+		protected final int m_scratch;
+
+		/**
+		 * The handicap of the games started so far
+		 */
+		protected final int m_handicap;
+
+		/**
+		 * The score of the series so far, with handicap
+		 */
+		protected final int m_total;
+
+		/**
+		 * The number of games completed
+		 */
+		protected final int m_games;
+
+		/**
+		 * Creates a standing
+		 * @param name The name of the bowler
+		 * @param scratch The score without handicap
+		 * @param handicap The handicap
+		 * @param games The number of games completed
+		 */
+		protected Standing(String name, int scratch, int handicap, int games)
+		{
+			super();
+			m_name = name;
+			m_scratch = scratch;
+			m_handicap = handicap;
+			m_total = scratch + handicap;
+			m_games = games;
+		}
+
+		/**
+		 * Gets the name of the bowler
+		 * @return The name
+		 */
+		public String getName()
+		{
+			return m_name;
+		}
+
+		/**
+		 * Gets the score of the series so far, without handicap
+		 * @return The score
+		 */
+		public int getScratch()
+		{
+			return m_scratch;
+		}
+
+		/**
+		 * Gets the handicap of the games started so far
+		 * @return The handicap
+		 */
+		public int getHandicap()
+		{
+			return m_handicap;
+		}
+
+		/**
+		 * Gets the score of the series so far, with handicap
+		 * @return The score
+		 */
+		public int getTotal()
+		{
+			return m_total;
+		}
+
+		/**
+		 * Gets the number of games completed
+		 * @return The number of games
+		 */
+		public int getGamesCompleted()
+		{
+			return m_games;
+		}
+
+		@Override
+		public String toString()
+		{
+			return m_name + " " + m_total + " (" + m_scratch + " + " + m_handicap + ", " + m_games + " games)";
+		}
+	}
+
+	/**
+	 * A bowler and the game being played
+	 */
+	protected class Bowler implements ScoreListener
+	{
+		/**
+		 * The name of the bowler
+		 */
+		protected final String m_name;
+
+		/**
+		 * The pins added to the score of each game
+		 */
+		protected final int m_handicapPerGame;
+
+		/**
+		 * The game being played
+		 */
+		protected final LiveGame m_game = new LiveGame();
+
+		/**
+		 * The score of the games completed
+		 */
+		protected int m_finished = 0;
+
+		/**
+		 * The number of games started
+		 */
+		protected int m_started = 0;
+
+		/**
+		 * The number of games completed
+		 */
+		protected int m_completed = 0;
+
+		/**
+		 * The standing of the bowler in the leaderboard
+		 */
+		protected volatile Standing m_standing;
+
+		/**
+		 * Creates a bowler
+		 * @param name The name of the bowler
+		 * @param handicap The pins added to the score of each game
+		 */
+		protected Bowler(String name, int handicap)
+		{
+			super();
+			m_name = name;
+			m_handicapPerGame = handicap;
+			m_standing = new Standing(name, 0, 0, 0);
+			m_game.setListener(this);
+		}
+
+		/**
+		 * Plays the next roll of the bowler
+		 * @param pins The number of pins knocked down
+		 * @throws BowlingException If the series is over or the roll is not
+		 * possible
+		 */
+		protected void roll(int pins) throws BowlingException
+		{
+			boolean starting = m_game.getRollCount() == 0 || m_game.isOver();
+			if (starting && m_started == m_seriesGames)
+			{
+				throw new BowlingException("The series of " + m_name + " is over");
+			}
+			if (m_game.isOver())
+			{
+				m_game.reset();
+			}
+			m_game.roll(pins);
+			if (starting)
+			{
+				m_started++;
+				publish();
+			}
+			if (m_game.isOver())
+			{
+				m_finished += m_game.getCumulativeScore(RollScorer.FRAMES);
+				m_completed++;
+				publish();
+			}
+		}
+
+		@Override
+		public void frameScored(int frame, int score, int cumulative)
+		{
+			if (frame < RollScorer.FRAMES)
+			{
+				publish();
+			}
+		}
+
+		/**
+		 * Replaces the standing of the bowler in the leaderboard
+		 */
+		protected void publish()
+		{
+			int current = m_game.isOver() ? 0 : m_game.getScoredFrames() == 0 ? 0 : m_game.getCumulativeScore(m_game.getScoredFrames());
+			Standing old = m_standing;
+			Standing s = new Standing(m_name, m_finished + current, m_started * m_handicapPerGame, m_completed);
+			if (RANKING.compare(old, s) == 0)
+			{
+				m_standing = s;
+				m_leaderboard.remove(old);
+				m_leaderboard.add(s);
+				return;
+			}
+			// Add first, so that the bowler never disappears from the list
+			m_leaderboard.add(s);
+			m_standing = s;
+			m_leaderboard.remove(old);
+		}
+	}
+}
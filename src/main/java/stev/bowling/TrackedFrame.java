@@ -0,0 +1,49 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+/**
+ * A frame that keeps a {@link FrameSummary} of its pins, and tells its
+ * listeners when they change.
+ * <p>
+ * The summary is computed the first time it is asked for after a change,
+ * and reused until the next call to {@link Frame#setPinsDown(int, int)} or
+ * {@link Frame#reset()}. {@link Frame#countPinsDown()} and
+ * {@link Frame#countRolls()} are answered from it.
+ */
+public interface TrackedFrame
+{
+	/**
+	 * Gets the summary of the pins of the frame
+	 * @return The summary, which is only valid until the frame changes
+	 */
+	public FrameSummary getSummary();
+
+	/**
+	 * Adds a listener told of every change to the frame
+	 * @param listener The listener
+	 */
+	public void addListener(FrameListener listener);
+
+	/**
+	 * Removes a listener
+	 * @param listener The listener
+	 */
+	public void removeListener(FrameListener listener);
+}
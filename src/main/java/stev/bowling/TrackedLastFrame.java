@@ -0,0 +1,96 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+/**
+ * A {@link LastFrame} that keeps a summary of its pins and tells its
+ * listeners when they change (see {@link TrackedFrame}).
+ */
+public class TrackedLastFrame extends LastFrame implements TrackedFrame
+{
+	/**
+	 * The summary of the pins, and the listeners of the frame; it is
+	 * {@code null} while the constructor of {@link Frame} resets the frame
+	 */
+	protected final FrameSummary m_summary;
+
+	/**
+	 * Creates a frame 10
+	 */
+	public TrackedLastFrame()
+	{
+		super(RollScorer.FRAMES);
+		m_summary = new FrameSummary();
+	}
+
+	@Override
+	public FrameSummary getSummary()
+	{
+		return m_summary.update(this);
+	}
+
+	@Override
+	public void addListener(FrameListener listener)
+	{
+		m_summary.addListener(listener);
+	}
+
+	@Override
+	public void removeListener(FrameListener listener)
+	{
+		m_summary.removeListener(listener);
+	}
+
+	@Override
+	public int countPinsDown()
+	{
+		return m_summary.update(this).getPinsDown();
+	}
+
+	@Override
+	public int countRolls()
+	{
+		return m_summary.update(this).getRolls();
+	}
+
+	@Override
+	public LastFrame setPinsDown(int roll, int pins) throws BowlingException
+	{
+		try
+		{
+			return super.setPinsDown(roll, pins);
+		}
+		finally
+		{
+			// The frame may keep a value even when it throws
+			m_summary.invalidate(this);
+		}
+	}
+
+	@Override
+	public Frame reset()
+	{
+		super.reset();
+		if (m_summary != null)
+		{
+			m_summary.invalidate(this);
+		}
+		return this;
+	}
+}
@@ -0,0 +1,254 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+/**
+ * Checks and applies changes to frames and games without throwing
+ * exceptions.
+ * <p>
+ * Each method returns a status code: {@link #OK} if the change is valid
+ * (and, for the {@code try} methods, has been applied), or a code telling
+ * what is wrong with it. A change that is rejected leaves the frame or the
+ * game as it was. Callers that still want an exception can pass the code
+ * to {@link #check(int)}, which throws a preallocated
+ * {@link ValidationException}.
+ * <p>
+ * The checks are those of {@link NormalFrame}, {@link LastFrame} and
+ * {@link Game}, plus those of {@link RollScorer}: a roll knocks down 0 to
+ * 10 pins, and the first two rolls of a frame knock down at most 10 pins.
+ * A change accepted here is therefore always accepted by the frame or the
+ * game.
+ */
+public class Validation
+{
+	/**
+	 * The change is valid
+	 */
+	public static final int OK = 0;
+
+	/**
+	 * A roll knocks down less than 0 or more than 10 pins
+	 */
+	public static final int INVALID_PINS = 1;
+
+	/**
+	 * The two rolls of a frame knock down more than 10 pins
+	 */
+	public static final int TOO_MANY_PINS = 2;
+
+	/**
+	 * The roll number does not exist in the frame
+	 */
+	public static final int NO_SUCH_ROLL = 3;
+
+	/**
+	 * The roll has already been entered
+	 */
+	public static final int ROLL_ALREADY_ENTERED = 4;
+
+	/**
+	 * The previous roll of the frame has not been entered
+	 */
+	public static final int PREVIOUS_ROLL_MISSING = 5;
+
+	/**
+	 * The first two rolls of frame 10 do not allow a third roll
+	 */
+	public static final int NO_THIRD_ROLL = 6;
+
+	/**
+	 * The frame number does not exist, or the game already has all its
+	 * frames
+	 */
+	public static final int NO_SUCH_FRAME = 7;
+
+	/**
+	 * The frame is not of the type expected at its position in the game
+	 */
+	public static final int WRONG_FRAME_TYPE = 8;
+
+	/**
+	 * The frame cannot be modified (see {@link Frames})
+	 */
+	public static final int IMMUTABLE_FRAME = 9;
+
+	/**
+	 * All the rolls of the game have been played
+	 */
+	public static final int GAME_OVER = 10;
+
+	/**
+	 * The description of each status code
+	 */
+	protected static final String[] MESSAGES = {
+			"OK",
+			"Invalid number of pins",
+			"The total score exceeds 10",
+			"There is no such roll",
+			"Score already entered for roll",
+			"You must first enter the score for the previous roll",
+			"No third roll is allowed",
+			"There is no such frame",
+			"The frame is not of the right type for its position",
+			"This frame cannot be modified",
+			"The game is over"
+	};
+
+	private Validation()
+	{
+		super();
+	}
+
+	/**
+	 * Checks whether a roll can be entered in a frame
+	 * @param f The frame
+	 * @param roll The roll number in the frame, starting at 1
+	 * @param pins The number of pins knocked down
+	 * @return The status code
+	 */
+	public static int checkSetPinsDown(Frame f, int roll, int pins)
+	{
+		if (f instanceof Frames.ImmutableNormalFrame || f instanceof Frames.ImmutableLastFrame)
+		{
+			return IMMUTABLE_FRAME;
+		}
+		if (pins < 0 || pins > 10)
+		{
+			return INVALID_PINS;
+		}
+		int[] scores = f.m_scores;
+		boolean last = f instanceof LastFrame;
+		if (roll < 1 || roll > (last ? 3 : 2))
+		{
+			return NO_SUCH_ROLL;
+		}
+		// NormalFrame records a strike without looking at the other roll
+		if (!last && roll == 1 && pins == 10)
+		{
+			return OK;
+		}
+		if (roll == 1 && scores[1] >= 0 && scores[1] + pins > 10)
+		{
+			return TOO_MANY_PINS;
+		}
+		if (roll == 2 && scores[0] >= 0 && scores[0] + pins > 10)
+		{
+			return TOO_MANY_PINS;
+		}
+		if (roll == 3 && scores[0] + scores[1] != 10)
+		{
+			return NO_THIRD_ROLL;
+		}
+		if (scores[roll - 1] >= 0)
+		{
+			return ROLL_ALREADY_ENTERED;
+		}
+		if (roll > 1 && scores[roll - 2] < 0)
+		{
+			return PREVIOUS_ROLL_MISSING;
+		}
+		return OK;
+	}
+
+	/**
+	 * Enters a roll in a frame, if it is valid
+	 * @param f The frame
+	 * @param roll The roll number in the frame, starting at 1
+	 * @param pins The number of pins knocked down
+	 * @return The status code
+	 */
+	public static int trySetPinsDown(Frame f, int roll, int pins)
+	{
+		int status = checkSetPinsDown(f, roll, pins);
+		if (status == OK)
+		{
+			f.setPinsDown(roll, pins);
+		}
+		return status;
+	}
+
+	/**
+	 * Checks whether a frame can be added at the end of a game
+	 * @param g The game
+	 * @param f The frame
+	 * @return The status code
+	 */
+	public static int checkAddFrame(Game g, Frame f)
+	{
+		int size = g.m_frames.size();
+		if (size >= RollScorer.FRAMES)
+		{
+			return NO_SUCH_FRAME;
+		}
+		if (size == RollScorer.FRAMES - 1 ? !(f instanceof LastFrame) : !(f instanceof NormalFrame))
+		{
+			return WRONG_FRAME_TYPE;
+		}
+		return OK;
+	}
+
+	/**
+	 * Adds a frame at the end of a game, if it is valid
+	 * @param g The game
+	 * @param f The frame
+	 * @return The status code
+	 */
+	public static int tryAddFrame(Game g, Frame f)
+	{
+		int status = checkAddFrame(g, f);
+		if (status == OK)
+		{
+			g.addFrame(f);
+		}
+		return status;
+	}
+
+	/**
+	 * Checks whether a frame number exists
+	 * @param frame The frame number
+	 * @return The status code
+	 */
+	public static int checkFrameNumber(int frame)
+	{
+		return frame < 1 || frame > RollScorer.FRAMES ? NO_SUCH_FRAME : OK;
+	}
+
+	/**
+	 * Throws the exception of a status code
+	 * @param status The status code
+	 * @throws ValidationException If the status code is not {@link #OK}
+	 */
+	public static void check(int status) throws ValidationException
+	{
+		if (status != OK)
+		{
+			throw ValidationException.of(status);
+		}
+	}
+
+	/**
+	 * Gets the description of a status code
+	 * @param status The status code
+	 * @return The description
+	 */
+	public static String getMessage(int status)
+	{
+		return MESSAGES[status];
+	}
+}
@@ -0,0 +1,84 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+/**
+ * Exception thrown for a status code of {@link Validation}.
+ * <p>
+ * There is a single instance for each status code, created in advance and
+ * without a stack trace, so throwing it costs no more than a jump. Its
+ * message therefore says what is wrong, but not where.
+ */
+public class ValidationException extends BowlingException
+{
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The instance for each status code
+	 */
+	protected static final ValidationException[] s_instances = new ValidationException[Validation.MESSAGES.length];
+
+	static
+	{
+		for (int status = 1; status < s_instances.length; status++)
+		{
+			s_instances[status] = new ValidationException(status);
+		}
+	}
+
+	/**
+	 * The status code
+	 */
+	protected final int m_status;
+
+	/**
+	 * Creates a new exception
+	 * @param status The status code
+	 */
+	protected ValidationException(int status)
+	{
+		super(Validation.MESSAGES[status]);
+		m_status = status;
+	}
+
+	/**
+	 * Gets the exception for a status code
+	 * @param status The status code, other than {@link Validation#OK}
+	 * @return The exception
+	 */
+	public static ValidationException of(int status)
+	{
+		return s_instances[status];
+	}
+
+	/**
+	 * Gets the status code of this exception
+	 * @return The status code
+	 */
+	public int getStatus()
+	{
+		return m_status;
+	}
+
+	@Override
+	public synchronized Throwable fillInStackTrace()
+	{
+		return this;
+	}
+}
@@ -0,0 +1,107 @@
+package stev.bowling;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the CachedGame class, with plain frames that do not notify
+ * the game when they change
+ */
+class CachedGameTest {
+
+    /**
+     * Change a frame after its total has been looked up
+     * Expecting the totals of a Game made of the same frames, and a cache
+     * miss only for the first lookup after each change
+     */
+    @Test
+    void testChangeAfterLookup() {
+        NormalFrame f1 = new NormalFrame(1);
+        NormalFrame f2 = new NormalFrame(2);
+        NormalFrame f3 = new NormalFrame(3);
+        CachedGame g = new CachedGame();
+        g.addFrame(f1).addFrame(f2).addFrame(f3);
+        Game reference = new Game();
+        reference.addFrame(f1).addFrame(f2).addFrame(f3);
+        f1.setPinsDown(1, 3).setPinsDown(2, 4);
+        f2.setPinsDown(1, 5).setPinsDown(2, 2);
+        f3.setPinsDown(1, 1).setPinsDown(2, 1);
+        assertEquals(16, g.getCumulativeScore(3));
+        assertEquals(7, g.getCumulativeScore(1));
+        assertEquals(14, g.getCumulativeScore(2));
+        assertEquals(1, g.getCacheMisses());
+        assertEquals(2, g.getCacheHits());
+        f2.reset();
+        f2.setPinsDown(1, 5).setPinsDown(2, 5);
+        assertEquals(18, g.getCumulativeScore(2));
+        assertEquals(20, g.getCumulativeScore(3));
+        assertEquals(2, g.getCacheMisses());
+        assertEquals(3, g.getCacheHits());
+        f3.reset();
+        assertEquals(reference.getCumulativeScore(2), g.getCumulativeScore(2));
+        assertEquals(reference.getCumulativeScore(3), g.getCumulativeScore(3));
+        assertEquals(3, g.getCacheMisses());
+        assertEquals(4, g.getCacheHits());
+    }
+
+    /**
+     * Make random calls to setPinsDown and reset on the frames of a game,
+     * and look up random totals in between
+     * Expecting the same totals, or the same exceptions, as a Game made of
+     * the same frames
+     */
+    @Test
+    void testSameAsGame() {
+        Random random = new Random(1L);
+        for (int n = 0; n < 2000; n++) {
+            Game reference = new Game();
+            CachedGame g = new CachedGame();
+            int size = 1 + random.nextInt(10);
+            Frame[] frames = new Frame[size];
+            for (int i = 0; i < size; i++) {
+                frames[i] = i == 9 ? new LastFrame(10) : new NormalFrame(i + 1);
+                reference.addFrame(frames[i]);
+                g.addFrame(frames[i]);
+            }
+            for (int step = 0; step < 40; step++) {
+                Frame f = frames[random.nextInt(size)];
+                if (random.nextInt(10) == 0) {
+                    f.reset();
+                } else {
+                    int roll = 1 + random.nextInt(3);
+                    int pins = random.nextInt(11);
+                    try {
+                        f.setPinsDown(roll, pins);
+                    } catch (BowlingException e) {
+                        // Same frame in both games, nothing to compare
+                    }
+                }
+                int frame = 1 + random.nextInt(size);
+                assertEquals(score(reference, frame), score(g, frame));
+            }
+            for (int frame = 1; frame <= size; frame++) {
+                assertEquals(score(reference, frame), score(g, frame));
+            }
+            assertEquals(reference.toString(), g.toString());
+            assertEquals(2 * size + 40, g.getCacheHits() + g.getCacheMisses());
+        }
+    }
+
+    /**
+     * Gets the cumulative score of a frame, or the message of the
+     * exception thrown while computing it
+     * @param g Game The game
+     * @param frame int The frame number
+     * @return The score, or the exception message
+     */
+    private static String score(Game g, int frame) {
+        try {
+            return Integer.toString(g.getCumulativeScore(frame));
+        } catch (BowlingException e) {
+            return e.getMessage();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package stev.bowling;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the ConcurrentGame class
+ */
+class ConcurrentGameTest {
+
+    /**
+     * Enter random games roll by roll, in a ConcurrentGame and in a Game
+     * Expecting the same score for every frame after every roll
+     */
+    @Test
+    void testSameScoresAsGame() {
+        Random random = new Random(9L);
+        for (int i = 0; i < 200; i++) {
+            ConcurrentGame concurrent = new ConcurrentGame();
+            Game g = new Game();
+            for (int frame = 1; frame <= 10; frame++) {
+                assertEquals(frame, concurrent.addFrame());
+                Frame f = frame == 10 ? new LastFrame(frame) : new NormalFrame(frame);
+                g.addFrame(f);
+                int first = random.nextInt(3) == 0 ? 10 : random.nextInt(11);
+                int second = random.nextInt(11 - (frame < 10 && first == 10 ? 10 : first));
+                int[] pins = {first, second, random.nextInt(11)};
+                int rolls = frame < 10 ? (first == 10 ? 1 : 2) : (first + second == 10 ? 3 : 2);
+                for (int roll = 1; roll <= rolls; roll++) {
+                    concurrent.setPinsDown(frame, roll, pins[roll - 1]);
+                    f.setPinsDown(roll, pins[roll - 1]);
+                    for (int n = 1; n <= frame; n++) {
+                        assertEquals(g.getCumulativeScore(n), concurrent.getCumulativeScore(n));
+                    }
+                }
+            }
+            assertEquals(g.toString(), concurrent.toString());
+        }
+    }
+
+    /**
+     * Enter a roll the frame rejects
+     * Expecting the same BowlingException as the frame, and the game unchanged
+     */
+    @Test
+    void testRejectedRoll() {
+        ConcurrentGame concurrent = new ConcurrentGame();
+        concurrent.addFrame();
+        concurrent.setPinsDown(1, 1, 6);
+        ConcurrentGame.Snapshot before = concurrent.snapshot();
+        BowlingException e = assertThrows(BowlingException.class, () -> concurrent.setPinsDown(1, 2, 5));
+        assertEquals("The total score exceeds 10", e.getMessage());
+        assertThrows(BowlingException.class, () -> concurrent.setPinsDown(1, 1, 3));
+        assertThrows(BowlingException.class, () -> concurrent.setPinsDown(2, 1, 3));
+        assertSame(before, concurrent.snapshot());
+    }
+
+    /**
+     * Enter a second roll before the first
+     * Expecting BowlingException and the second roll not recorded
+     */
+    @Test
+    void testRollOutOfOrder() {
+        ConcurrentGame concurrent = new ConcurrentGame();
+        concurrent.addFrame();
+        assertThrows(BowlingException.class, () -> concurrent.setPinsDown(1, 2, 3));
+        assertEquals(-1, concurrent.snapshot().getPinsDown(1, 2));
+    }
+
+    /**
+     * Write every frame from its own thread while other threads read snapshots
+     * Expecting every snapshot to have the scores of its own pins, and the
+     * final game to have every roll
+     */
+    @Test
+    void testConcurrentWriters() throws InterruptedException {
+        ConcurrentGame concurrent = new ConcurrentGame();
+        for (int frame = 1; frame <= 10; frame++) {
+            concurrent.addFrame();
+        }
+        AtomicBoolean done = new AtomicBoolean(false);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] readers = new Thread[4];
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = new Thread(() -> {
+                try {
+                    while (!done.get()) {
+                        ConcurrentGame.Snapshot s = concurrent.snapshot();
+                        Game g = s.toGame();
+                        for (int n = 1; n <= 10; n++) {
+                            assertEquals(g.getCumulativeScore(n), s.getCumulativeScore(n));
+                        }
+                    }
+                } catch (Throwable t) {
+                    failure.set(t);
+                }
+            });
+            readers[i].start();
+        }
+        Thread[] writers = new Thread[10];
+        for (int i = 0; i < writers.length; i++) {
+            final int frame = i + 1;
+            writers[i] = new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    concurrent.resetFrame(frame);
+                    concurrent.setPinsDown(frame, 1, 5);
+                    concurrent.setPinsDown(frame, 2, 5);
+                    if (frame == 10) {
+                        concurrent.setPinsDown(frame, 3, 5);
+                    }
+                }
+            });
+            writers[i].start();
+        }
+        for (Thread t : writers) {
+            t.join();
+        }
+        done.set(true);
+        for (Thread t : readers) {
+            t.join();
+        }
+        assertNull(failure.get());
+        assertEquals(150, concurrent.getCumulativeScore(10));
+    }
+}
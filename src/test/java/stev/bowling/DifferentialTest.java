@@ -0,0 +1,687 @@
+package stev.bowling;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks every scorer, parser and encoder of the project against the
+ * reference given by Game, NormalFrame and LastFrame, on random legal and
+ * illegal sequences of rolls. The fast paths working on many games at once,
+ * GameBatchScorer, GameColumns and the game archive, are checked on all the
+ * legal sequences of a batch of PropertyRunner together.
+ * <p>
+ * The fast paths validate rolls with the rules of RollScorer, which are
+ * deliberately stricter than those of the frames. The known divergences,
+ * where the frames accept a roll that every fast path rejects, are:
+ * <ul>
+ * <li>a roll knocking down less than 0 or more than 10 pins;</li>
+ * <li>the first two rolls of frame 10 knocking down more than 10 pins.</li>
+ * </ul>
+ */
+class DifferentialTest {
+
+    /**
+     * The number of cases of each run, unless set by the system property
+     * of PropertyRunner
+     */
+    private static final int CASES = 400_000;
+
+    /**
+     * Check complete legal games
+     * Expecting every fast path to accept them with the scores of Game
+     */
+    @Test
+    void testLegalGames() {
+        new PropertyRunner(23L, CASES).forAll(PropertyRunner::legalGame, DifferentialTest::checkAll,
+                DifferentialTest::checkBatch);
+    }
+
+    /**
+     * Check the first rolls of legal games
+     * Expecting every fast path to accept them with the scores of Game
+     */
+    @Test
+    void testLegalPrefixes() {
+        new PropertyRunner(230L, CASES).forAll(PropertyRunner::legalPrefix, DifferentialTest::checkAll,
+                DifferentialTest::checkBatch);
+    }
+
+    /**
+     * Check sequences with a roll changed or rolls added
+     * Expecting every fast path to reject the same sequences as the
+     * reference, at the same roll, which is either the first roll the
+     * frames reject or the first known divergence
+     */
+    @Test
+    void testMutatedGames() {
+        new PropertyRunner(2300L, CASES).forAll(PropertyRunner::mutatedGame, DifferentialTest::checkAll,
+                DifferentialTest::checkBatch);
+    }
+
+    /**
+     * Check sequences with one of the known divergences
+     * Expecting the frames to accept every roll, and every fast path to
+     * reject the sequence at the divergence
+     */
+    @Test
+    void testKnownDivergences() throws Exception {
+        int[][] sequences = {
+            {11},
+            {-1},
+            {3, -1},
+            {5, 3, 11},
+            {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 10, 5},
+            {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 6, 7},
+            {10, 10, 10, 10, 10, 10, 10, 10, 10, 10, 10},
+        };
+        int[] divergences = {0, 0, 1, 2, 19, 19, 10};
+        for (int i = 0; i < sequences.length; i++) {
+            int[] rolls = sequences[i];
+            Reference ref = new Reference(rolls, rolls.length);
+            String name = Arrays.toString(rolls);
+            assertEquals(-1, ref.illegalAt, name);
+            assertEquals(divergences[i], ref.strictAt, name);
+            checkAll(rolls, rolls.length);
+        }
+    }
+
+    /**
+     * Check a property that breaks on any sequence with a strike
+     * Expecting the failure to be reported with the sequence reduced to a
+     * single strike
+     */
+    @Test
+    void testShrinking() {
+        PropertyRunner runner = new PropertyRunner(23L, 100);
+        AssertionError e = assertThrows(AssertionError.class, () -> runner.forAll(PropertyRunner::legalGame,
+                (rolls, length) -> {
+                    for (int i = 0; i < length; i++) {
+                        assertNotEquals(10, rolls[i]);
+                    }
+                }));
+        assertTrue(e.getMessage().contains("reduced to [10]"), e.getMessage());
+    }
+
+    /**
+     * Compare all the fast paths with the reference on a sequence
+     *
+     * @param rolls int[] The rolls
+     * @param length int The number of rolls
+     * @throws Exception If a fast path disagrees with the reference
+     */
+    static void checkAll(int[] rolls, int length) throws Exception {
+        Reference ref = new Reference(rolls, length);
+        checkRollScorer(ref, rolls, length);
+        checkLiveGame(ref, rolls, length);
+        checkValidation(ref, rolls, length);
+        checkNotation(ref, rolls, length);
+        checkGameSpace(ref, rolls, length);
+        checkCodec(ref, rolls, length);
+        if (ref.rejectedAt() >= 0) {
+            if (ref.illegalAt < 0) {
+                // CachedGame follows Game even outside the rules of RollScorer
+                CachedGame cached = new CachedGame();
+                for (Frame f : ref.game.m_frames) {
+                    cached.addFrame(f);
+                }
+                for (int i = 1; i <= cached.m_frames.size(); i++) {
+                    assertEquals(ref.game.getCumulativeScore(i), cached.getCumulativeScore(i), "CachedGame");
+                }
+                assertEquals(ref.game.toString(), cached.toString(), "CachedGame");
+            }
+            return;
+        }
+        // The games below are built from legal rolls only
+        int[] expected = new int[ref.game.m_frames.size()];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = ref.game.getCumulativeScore(i + 1);
+        }
+        int[] totals = new int[RollScorer.FRAMES];
+        assertEquals(expected.length, TableScorer.score(ref.game, totals, 0));
+        assertArrayEquals(expected, Arrays.copyOf(totals, expected.length), "TableScorer");
+        PackedGame packed = new PackedGame();
+        CachedGame cached = new CachedGame();
+        CachedGame tracked = new CachedGame();
+        ConcurrentGame concurrent = new ConcurrentGame();
+        for (Frame f : ref.game.m_frames) {
+            packed.addFrame(f);
+            cached.addFrame(f);
+            Frame t = f instanceof LastFrame ? new TrackedLastFrame() : new TrackedNormalFrame(f.getFrameNumber());
+            tracked.addFrame(t);
+            concurrent.addFrame();
+            for (int r = 1; r <= played(f); r++) {
+                if (r == 2 && f instanceof NormalFrame && f.getPinsDown(1) == 10) {
+                    // The frame set this roll itself
+                    break;
+                }
+                t.setPinsDown(r, f.getPinsDown(r));
+                concurrent.setPinsDown(f.getFrameNumber(), r, f.getPinsDown(r));
+                // Score the game between rolls, so that the cache must follow
+                tracked.getCumulativeScore(tracked.m_frames.size());
+            }
+        }
+        checkGame("PackedGame", expected, ref, packed);
+        checkGame("CachedGame", expected, ref, cached);
+        checkGame("CachedGame with tracked frames", expected, ref, tracked);
+        checkGame("ConcurrentGame", expected, ref, concurrent.snapshot().toGame());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], concurrent.getCumulativeScore(i + 1), "ConcurrentGame");
+        }
+        GamePool pool = GamePool.get();
+        ReusableGame pooled = pool.toGame(rolls, 0, length);
+        checkGame("GamePool", expected, ref, pooled);
+        pool.release(pooled);
+        assertEquals(ref.board(), new ScoreboardRenderer().renderTo(ref.game, new StringBuilder()).toString(),
+                "ScoreboardRenderer");
+        if (ref.complete) {
+            checkGame("Frames", expected, ref, Frames.toGame(rolls, 0, length));
+        }
+    }
+
+    /**
+     * Compare the fast paths working on many games at once with the
+     * reference, on the legal sequences of a batch: GameBatchScorer on all
+     * of them, GameColumns and an archive written by GameArchiveWriter and
+     * read back by GameArchiveReader on the complete games
+     *
+     * @param rolls int[][] The rolls of each sequence
+     * @param lengths int[] The number of rolls of each sequence
+     * @param count int The number of sequences
+     * @throws Exception If a fast path disagrees with the reference
+     */
+    static void checkBatch(int[][] rolls, int[] lengths, int count) throws Exception {
+        List<Reference> legal = new ArrayList<>();
+        List<int[]> legalRolls = new ArrayList<>();
+        List<Game> games = new ArrayList<>();
+        int size = 0;
+        for (int n = 0; n < count; n++) {
+            Reference ref = new Reference(rolls[n], lengths[n]);
+            if (ref.rejectedAt() < 0) {
+                legal.add(ref);
+                legalRolls.add(Arrays.copyOf(rolls[n], lengths[n]));
+                games.add(ref.game);
+                size += lengths[n];
+            }
+        }
+        int[] packed = new int[size];
+        byte[] bytes = new byte[size];
+        int[] offsets = new int[legal.size() + 1];
+        for (int g = 0; g < legal.size(); g++) {
+            int[] game = legalRolls.get(g);
+            System.arraycopy(game, 0, packed, offsets[g], game.length);
+            for (int i = 0; i < game.length; i++) {
+                bytes[offsets[g] + i] = (byte) game[i];
+            }
+            offsets[g + 1] = offsets[g] + game.length;
+        }
+        GameBatchScorer scorer = new GameBatchScorer();
+        checkColumns("GameBatchScorer", legal, scorer.scoreAll(packed, offsets));
+        checkColumns("GameBatchScorer with bytes", legal, scorer.scoreAll(bytes, offsets));
+        checkColumns("GameBatchScorer with games", legal, scorer.scoreAll(games));
+        GameColumns columns = new GameColumns(6, ForkJoinPool.commonPool());
+        Path file = Files.createTempFile("differential", ".bin");
+        try {
+            try (GameArchiveWriter writer = new GameArchiveWriter(file)) {
+                for (int g = 0; g < legal.size(); g++) {
+                    if (legal.get(g).complete) {
+                        int[] game = legalRolls.get(g);
+                        long row = columns.add(g % 3, game, 0, game.length);
+                        checkColumns(legal.get(g), columns, row);
+                        writer.write(game, 0, game.length);
+                    }
+                }
+            }
+            checkArchive(legal, legalRolls, file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Compare the scores of a batch, organized by columns as by
+     * GameBatchScorer, with those of the references
+     */
+    private static void checkColumns(String name, List<Reference> legal, int[] columns) {
+        assertEquals(legal.size() * RollScorer.FRAMES, columns.length, name);
+        int[] totals = new int[RollScorer.FRAMES];
+        for (int g = 0; g < legal.size(); g++) {
+            for (int i = 0; i < RollScorer.FRAMES; i++) {
+                totals[i] = GameBatchScorer.getCumulativeScore(columns, g, i + 1);
+            }
+            legal.get(g).checkTotals(name + ", game " + g, totals);
+        }
+    }
+
+    /**
+     * Compare a complete game stored in GameColumns with the reference
+     */
+    private static void checkColumns(Reference ref, GameColumns columns, long row) {
+        for (int i = 0; i < RollScorer.FRAMES; i++) {
+            Frame f = ref.game.m_frames.get(i);
+            assertEquals(ref.totals[i], columns.getCumulativeScore(row, i + 1), "GameColumns, frame " + (i + 1));
+            for (int r = 1; r <= f.m_scores.length; r++) {
+                assertEquals(f.m_scores[r - 1], columns.getPinsDown(row, i + 1, r),
+                        "GameColumns, frame " + (i + 1) + ", roll " + r);
+            }
+        }
+    }
+
+    /**
+     * Read back an archive of the complete games of a batch with
+     * GameArchiveReader, by position and by a scan
+     */
+    private static void checkArchive(List<Reference> legal, List<int[]> legalRolls, Path file) throws IOException {
+        List<int[]> complete = new ArrayList<>();
+        List<Reference> references = new ArrayList<>();
+        for (int g = 0; g < legal.size(); g++) {
+            if (legal.get(g).complete) {
+                complete.add(legalRolls.get(g));
+                references.add(legal.get(g));
+            }
+        }
+        try (GameArchiveReader reader = new GameArchiveReader(file)) {
+            assertEquals(complete.size(), reader.size(), "GameArchiveReader");
+            int[] totals = new int[RollScorer.FRAMES];
+            int[] scratch = new int[RollScorer.MAX_ROLLS];
+            for (int g = 0; g < complete.size(); g++) {
+                int[] game = complete.get(g);
+                assertEquals(GameCodec.encode(game, 0, game.length), reader.getCode(g), "GameArchiveReader");
+                Reference ref = references.get(g);
+                assertEquals(ref.totals[RollScorer.FRAMES - 1], reader.score(g, totals, scratch), "GameArchiveReader");
+                ref.checkTotals("GameArchiveReader", totals);
+            }
+            AtomicLong visited = new AtomicLong();
+            reader.scan((index, game, length, scanned) -> {
+                assertEquals(visited.getAndIncrement(), index, "GameArchiveReader.scan");
+                assertArrayEquals(complete.get((int) index), Arrays.copyOf(game, length), "GameArchiveReader.scan");
+                references.get((int) index).checkTotals("GameArchiveReader.scan", scanned);
+            });
+            assertEquals(complete.size(), visited.get(), "GameArchiveReader.scan");
+        }
+    }
+
+    /**
+     * Compare RollScorer with the reference, for rolls in an array of
+     * integers and of bytes
+     */
+    private static void checkRollScorer(Reference ref, int[] rolls, int length) {
+        int[] totals = new int[RollScorer.FRAMES];
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) rolls[i];
+        }
+        if (ref.rejectedAt() >= 0) {
+            assertThrows(BowlingException.class, () -> RollScorer.score(rolls, 0, length, totals, 0), "RollScorer");
+            assertThrows(BowlingException.class, () -> RollScorer.score(bytes, 0, length, totals, 0), "RollScorer");
+            return;
+        }
+        assertEquals(ref.known, RollScorer.score(rolls, 0, length, totals, 0), "RollScorer");
+        ref.checkTotals("RollScorer", totals);
+        assertEquals(ref.known, RollScorer.score(bytes, 0, length, totals, 0), "RollScorer");
+        ref.checkTotals("RollScorer", totals);
+        int[] copy = new int[RollScorer.MAX_ROLLS];
+        assertEquals(length, RollScorer.toRolls(ref.game, copy, 0), "RollScorer.toRolls");
+        assertArrayEquals(Arrays.copyOf(rolls, length), Arrays.copyOf(copy, length), "RollScorer.toRolls");
+    }
+
+    /**
+     * Compare LiveGame with the reference, playing the rolls one at a time
+     */
+    private static void checkLiveGame(Reference ref, int[] rolls, int length) {
+        LiveGame live = new LiveGame();
+        for (int i = 0; i < length; i++) {
+            int status = live.tryRoll(rolls[i]);
+            if (i == ref.rejectedAt()) {
+                assertNotEquals(Validation.OK, status, "LiveGame accepted roll " + i);
+                assertEquals(i, live.getRollCount(), "LiveGame");
+                break;
+            }
+            assertEquals(Validation.OK, status, "LiveGame rejected roll " + i);
+        }
+        if (ref.rejectedAt() >= 0) {
+            return;
+        }
+        assertEquals(ref.known, live.getScoredFrames(), "LiveGame");
+        assertEquals(ref.complete, live.isOver(), "LiveGame");
+        int[] totals = new int[RollScorer.FRAMES];
+        for (int i = 0; i < RollScorer.FRAMES; i++) {
+            totals[i] = live.getCumulativeScore(i + 1);
+        }
+        ref.checkTotals("LiveGame", totals);
+        int[] copy = new int[RollScorer.MAX_ROLLS];
+        assertEquals(length, live.toRolls(copy, 0), "LiveGame");
+        assertArrayEquals(Arrays.copyOf(rolls, length), Arrays.copyOf(copy, length), "LiveGame");
+        assertEquals(ref.board(), live.toGame().toString(), "LiveGame");
+    }
+
+    /**
+     * Build the game with the try methods of Validation
+     * Expecting the first rejected roll to be the one of the reference
+     */
+    private static void checkValidation(Reference ref, int[] rolls, int length) {
+        Game g = new Game();
+        int p = 0;
+        int status = Validation.OK;
+        for (int frame = 1; p < length && status == Validation.OK; frame++) {
+            // A frame cannot be created with a number above 10; any frame
+            // added to a complete game must be rejected
+            Frame f = frame == RollScorer.FRAMES ? new LastFrame(frame) : new NormalFrame(Math.min(frame, RollScorer.FRAMES - 1));
+            status = Validation.tryAddFrame(g, f);
+            for (int roll = 1; status == Validation.OK && p < length && roll <= (frame == RollScorer.FRAMES ? 3 : 2); roll++) {
+                if (roll == 2 && frame < RollScorer.FRAMES && f.getPinsDown(1) == 10) {
+                    break;
+                }
+                if (roll == 3 && f.getPinsDown(1) + f.getPinsDown(2) != 10) {
+                    break;
+                }
+                status = Validation.trySetPinsDown(f, roll, rolls[p]);
+                if (status == Validation.OK) {
+                    p++;
+                }
+            }
+        }
+        if (ref.rejectedAt() >= 0) {
+            assertNotEquals(Validation.OK, status, "Validation");
+            assertEquals(ref.rejectedAt(), p, "Validation");
+        } else {
+            assertEquals(Validation.OK, status, "Validation");
+            assertEquals(ref.board(), g.toString(), "Validation");
+        }
+    }
+
+    /**
+     * Write the rolls in the notation of the frames and read them back
+     * with NotationParser
+     */
+    private static void checkNotation(Reference ref, int[] rolls, int length) {
+        String text = Reference.toNotation(rolls, length);
+        int[] parsed = new int[PropertyRunner.MAX_LENGTH];
+        NotationParser parser = new NotationParser();
+        if (ref.rejectedAt() >= 0) {
+            assertThrows(NotationException.class, () -> parser.parse(text, parsed, 0), "NotationParser: " + text);
+            return;
+        }
+        assertEquals(length, parser.parse(text, parsed, 0), "NotationParser: " + text);
+        assertArrayEquals(Arrays.copyOf(rolls, length), Arrays.copyOf(parsed, length), "NotationParser: " + text);
+    }
+
+    /**
+     * Compare the bounds of GameSpace with the scores of the game, and of
+     * the game finished with gutters
+     */
+    private static void checkGameSpace(Reference ref, int[] rolls, int length) {
+        if (ref.rejectedAt() >= 0) {
+            assertThrows(BowlingException.class, () -> GameSpace.countCompletions(rolls, 0, length), "GameSpace");
+            return;
+        }
+        int min = GameSpace.getMinFinalScore(rolls, 0, length);
+        int max = GameSpace.getMaxFinalScore(rolls, 0, length);
+        long completions = GameSpace.countCompletions(rolls, 0, length);
+        if (ref.complete) {
+            int score = ref.game.getCumulativeScore(RollScorer.FRAMES);
+            assertEquals(score, min, "GameSpace");
+            assertEquals(score, max, "GameSpace");
+            assertEquals(1, completions, "GameSpace");
+            return;
+        }
+        LiveGame live = new LiveGame();
+        for (int i = 0; i < length; i++) {
+            live.roll(rolls[i]);
+        }
+        while (!live.isOver()) {
+            live.roll(0);
+        }
+        int gutters = live.getCumulativeScore(RollScorer.FRAMES);
+        assertTrue(min <= gutters && gutters <= max, "GameSpace: " + gutters + " outside " + min + ".." + max);
+        assertTrue(completions > 1, "GameSpace");
+    }
+
+    /**
+     * Encode and decode complete games with GameCodec
+     */
+    private static void checkCodec(Reference ref, int[] rolls, int length) {
+        if (!ref.complete || ref.rejectedAt() >= 0) {
+            assertThrows(BowlingException.class, () -> GameCodec.encode(rolls, 0, length), "GameCodec");
+            return;
+        }
+        long code = GameCodec.encode(rolls, 0, length);
+        assertEquals(code, GameCodec.encode(ref.game), "GameCodec");
+        int[] decoded = new int[RollScorer.MAX_ROLLS];
+        assertEquals(length, GameCodec.decode(code, decoded, 0), "GameCodec");
+        assertArrayEquals(Arrays.copyOf(rolls, length), Arrays.copyOf(decoded, length), "GameCodec");
+    }
+
+    /**
+     * Compare a game built by a fast path with the reference game
+     */
+    private static void checkGame(String name, int[] expected, Reference ref, Game g) {
+        assertEquals(expected.length, g.m_frames.size(), name);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], g.getCumulativeScore(i + 1), name + ", frame " + (i + 1));
+        }
+        assertEquals(ref.board(), g.toString(), name);
+    }
+
+    /**
+     * Counts the rolls played in a frame; unlike Frame#countRolls, rolls
+     * knocking down no pins are counted
+     *
+     * @param f Frame The frame
+     * @return int The number of rolls
+     */
+    static int played(Frame f) {
+        int count = 0;
+        while (count < f.m_scores.length && f.m_scores[count] >= 0) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * The reference interpretation of a sequence of rolls: the rolls are
+     * entered one at a time in NormalFrame and LastFrame objects added to
+     * a Game, as a player would, and the frames decide whether each roll
+     * is legal. The rolls they accept but the rules of RollScorer reject
+     * are recorded separately, as known divergences.
+     */
+    static class Reference {
+
+        /**
+         * The game made of the rolls accepted by the frames
+         */
+        final Game game = new Game();
+
+        /**
+         * The position of the first roll rejected by the frames, or of the
+         * first roll after the end of the game, or -1
+         */
+        int illegalAt = -1;
+
+        /**
+         * The position of the first roll accepted by the frames that is a
+         * known divergence, or -1
+         */
+        int strictAt = -1;
+
+        /**
+         * The number of frames, counted from the first, whose score is
+         * final
+         */
+        int known = 0;
+
+        /**
+         * Whether the rolls form a complete game
+         */
+        boolean complete = false;
+
+        /**
+         * The scores of the game, by RollScorer#PENDING for frames not
+         * known
+         */
+        final int[] totals = new int[RollScorer.FRAMES];
+
+        /**
+         * The scoreboard of the game, computed once since Game rescores
+         * every frame for each of its lines
+         */
+        private String board;
+
+        /**
+         * Interprets a sequence
+         *
+         * @param rolls int[] The rolls
+         * @param length int The number of rolls
+         */
+        Reference(int[] rolls, int length) {
+            int p = 0;
+            for (int frame = 1; frame <= RollScorer.FRAMES && p < length && this.illegalAt < 0; frame++) {
+                boolean last = frame == RollScorer.FRAMES;
+                Frame f = last ? new LastFrame(frame) : new NormalFrame(frame);
+                this.game.addFrame(f);
+                int first = 0;
+                for (int roll = 1; roll <= (last ? 3 : 2) && p < length; roll++) {
+                    if (roll == 2 && !last && f.getPinsDown(1) == 10) {
+                        break;
+                    }
+                    if (roll == 3 && f.getPinsDown(1) + f.getPinsDown(2) != 10) {
+                        break;
+                    }
+                    int pins = rolls[p];
+                    try {
+                        f.setPinsDown(roll, pins);
+                    } catch (BowlingException e) {
+                        this.illegalAt = p;
+                        break;
+                    }
+                    if (this.strictAt < 0 && isDivergence(roll, first, pins)) {
+                        this.strictAt = p;
+                    }
+                    first = pins;
+                    p++;
+                }
+                this.complete = last && played(f) == (f.getPinsDown(1) + f.getPinsDown(2) == 10 ? 3 : 2);
+            }
+            if (this.illegalAt < 0 && p < length) {
+                // Rolls after the end of the game
+                this.illegalAt = p;
+            }
+            if (rejectedAt() >= 0) {
+                return;
+            }
+            Arrays.fill(this.totals, RollScorer.PENDING);
+            int start = 0;
+            for (int i = 0; i < this.game.m_frames.size(); i++) {
+                Frame f = this.game.m_frames.get(i);
+                int first = f.getPinsDown(1);
+                int needed = i == RollScorer.FRAMES - 1 ? (first + f.getPinsDown(2) == 10 ? 3 : 2)
+                        : first == 10 ? (start + 1 < length && rolls[start + 1] == 10 ? 2 : 3)
+                        : first + f.getPinsDown(2) == 10 ? 3 : 2;
+                if (start + needed > length) {
+                    break;
+                }
+                this.totals[i] = this.game.getCumulativeScore(i + 1);
+                this.known++;
+                start += i < RollScorer.FRAMES - 1 && first == 10 ? 1 : 2;
+            }
+        }
+
+        /**
+         * Gets the scoreboard of the game, computing it on the first call
+         *
+         * @return String The scoreboard
+         */
+        String board() {
+            if (this.board == null) {
+                this.board = this.game.toString();
+            }
+            return this.board;
+        }
+
+        /**
+         * Gets the position where every fast path must reject the sequence
+         *
+         * @return int The position of the first roll that is illegal or a
+         * known divergence, or -1
+         */
+        int rejectedAt() {
+            if (this.illegalAt < 0 || this.strictAt < 0) {
+                return Math.max(this.illegalAt, this.strictAt);
+            }
+            return Math.min(this.illegalAt, this.strictAt);
+        }
+
+        /**
+         * Tells whether a roll accepted by a frame is one of the known
+         * divergences, rejected by the rules of RollScorer. In frames 1 to
+         * 9, the frame already rejects two rolls above 10 pins.
+         *
+         * @param roll int The roll number in the frame
+         * @param first int The pins of the first roll of the frame
+         * @param pins int The pins of the roll
+         * @return boolean Whether the fast paths reject the roll
+         */
+        static boolean isDivergence(int roll, int first, int pins) {
+            return pins < 0 || pins > 10 || (roll == 2 && first + pins > 10);
+        }
+
+        /**
+         * Compares totals, with RollScorer#PENDING for the frames not
+         * known, with those of the reference
+         *
+         * @param name String The name of the fast path
+         * @param totals int[] The totals
+         */
+        void checkTotals(String name, int[] totals) {
+            assertArrayEquals(this.totals, totals, name);
+        }
+
+        /**
+         * Writes a sequence in the notation of the frames, with a question
+         * mark for a roll that cannot be written
+         *
+         * @param rolls int[] The rolls
+         * @param length int The number of rolls
+         * @return String The text
+         */
+        static String toNotation(int[] rolls, int length) {
+            StringBuilder out = new StringBuilder();
+            int frame = 1;
+            int roll = 1;
+            int previous = 0;
+            for (int i = 0; i < length; i++) {
+                int pins = rolls[i];
+                if (pins < 0 || pins > 10) {
+                    out.append('?');
+                } else if (roll == 2 && previous != 10 && previous + pins == 10) {
+                    out.append('/');
+                } else if (pins == 10) {
+                    out.append('X');
+                } else if (pins == 0) {
+                    out.append('-');
+                } else {
+                    out.append((char) ('0' + pins));
+                }
+                boolean ends = frame < RollScorer.FRAMES ? roll == 2 || pins == 10 : false;
+                if (ends) {
+                    out.append(' ');
+                    frame++;
+                    roll = 1;
+                } else {
+                    roll++;
+                }
+                previous = pins;
+            }
+            return out.toString();
+        }
+    }
+}
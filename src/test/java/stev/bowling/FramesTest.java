@@ -0,0 +1,91 @@
+package stev.bowling;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the Frames class
+ */
+class FramesTest {
+
+    /**
+     * Ask twice for the same shape
+     * Expecting the same instance, with the pins of the shape
+     */
+    @Test
+    void testSharedInstances() {
+        NormalFrame spare = Frames.of(3, 7, 3);
+        assertSame(spare, Frames.of(3, 7, 3));
+        assertNotSame(spare, Frames.of(4, 7, 3));
+        assertEquals(3, spare.getFrameNumber());
+        assertEquals(7, spare.getPinsDown(1));
+        assertEquals(3, spare.getPinsDown(2));
+        assertSame(Frames.strike(5), Frames.of(5, 10, 0));
+        assertSame(Frames.last(10, 0, 10), Frames.last(10, 0, 10));
+        assertEquals("X-X", Frames.last(10, 0, 10).toString());
+    }
+
+    /**
+     * Try to modify a shared frame
+     * Expecting BowlingException and the frame unchanged
+     */
+    @Test
+    void testImmutable() {
+        NormalFrame open = Frames.of(1, 4, 5);
+        assertThrows(BowlingException.class, () -> open.setPinsDown(1, 2));
+        assertThrows(BowlingException.class, () -> open.reset());
+        LastFrame last = Frames.last(3, 7, 2);
+        assertThrows(BowlingException.class, () -> last.setPinsDown(3, 5));
+        assertEquals(4, open.getPinsDown(1));
+        assertEquals(2, last.getPinsDown(3));
+    }
+
+    /**
+     * Ask for shapes that are not complete frames
+     * Expecting BowlingException
+     */
+    @Test
+    void testInvalidShapes() {
+        assertThrows(BowlingException.class, () -> Frames.of(2, 7, 4));
+        assertThrows(BowlingException.class, () -> Frames.of(10, 7, 2));
+        assertThrows(BowlingException.class, () -> Frames.of(0, 7, 2));
+        assertThrows(BowlingException.class, () -> Frames.last(3, 4, 5));
+        assertThrows(BowlingException.class, () -> Frames.last(3, 7, -1));
+    }
+
+    /**
+     * Build random games from shared frames, and intern the frames of a Game
+     * Expecting the same scores and rendering as Game, and interned frames
+     * shared between games
+     */
+    @Test
+    void testSameAsGame() {
+        Random random = new Random(10L);
+        int[] rolls = new int[RollScorer.MAX_ROLLS];
+        for (int i = 0; i < 500; i++) {
+            int length = RollScorerTest.randomGame(random, rolls);
+            Game expected = RollScorer.toGame(rolls, 0, length);
+            Game shared = Frames.toGame(rolls, 0, length);
+            assertEquals(expected.toString(), shared.toString());
+            for (int frame = 1; frame <= 10; frame++) {
+                assertEquals(expected.getCumulativeScore(frame), shared.getCumulativeScore(frame));
+                assertSame(shared.m_frames.get(frame - 1), Frames.intern(expected.m_frames.get(frame - 1)));
+            }
+        }
+    }
+
+    /**
+     * Intern a frame that is not complete
+     * Expecting the frame itself
+     */
+    @Test
+    void testInternIncomplete() {
+        NormalFrame f = new NormalFrame(2).setPinsDown(1, 7);
+        assertSame(f, Frames.intern(f));
+        LastFrame last = new LastFrame(10).setPinsDown(1, 10).setPinsDown(2, 0);
+        assertSame(last, Frames.intern(last));
+    }
+}
@@ -0,0 +1,118 @@
+package stev.bowling;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the GameBatchScorer class
+ */
+class GameBatchScorerTest {
+
+    /**
+     * Score enough games to split the work, as packed rolls and as Game instances
+     * Expecting the totals of Game for every frame of every game
+     */
+    @Test
+    void testScoreAllAgainstGame() {
+        final int count = 10000;
+        Random random = new Random(1L);
+        int[] offsets = new int[count + 1];
+        int[] rolls = new int[count * RollScorer.MAX_ROLLS];
+        List<Game> games = new ArrayList<>();
+        int p = 0;
+        for (int g = 0; g < count; g++) {
+            offsets[g] = p;
+            int[] game = new int[RollScorer.MAX_ROLLS];
+            int length = RollScorerTest.randomGame(random, game);
+            System.arraycopy(game, 0, rolls, p, length);
+            games.add(RollScorer.toGame(game, 0, length));
+            p += length;
+        }
+        offsets[count] = p;
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        GameBatchScorer scorer = new GameBatchScorer(pool);
+        int[] fromRolls = scorer.scoreAll(rolls, offsets);
+        int[] fromGames = scorer.scoreAll(games);
+        pool.shutdown();
+
+        assertArrayEquals(fromRolls, fromGames);
+        for (int g = 0; g < count; g += 97) {
+            for (int frame = 1; frame <= 10; frame++) {
+                assertEquals(games.get(g).getCumulativeScore(frame),
+                        GameBatchScorer.getCumulativeScore(fromRolls, g, frame));
+            }
+        }
+    }
+
+    /**
+     * Score the same games stored as integers and as bytes
+     * Expecting the same totals
+     */
+    @Test
+    void testBytes() {
+        final int count = 10000;
+        Random random = new Random(3L);
+        int[] offsets = new int[count + 1];
+        int[] rolls = new int[count * RollScorer.MAX_ROLLS];
+        int p = 0;
+        for (int g = 0; g < count; g++) {
+            offsets[g] = p;
+            int[] game = new int[RollScorer.MAX_ROLLS];
+            int length = RollScorerTest.randomGame(random, game);
+            System.arraycopy(game, 0, rolls, p, length);
+            p += length;
+        }
+        offsets[count] = p;
+        byte[] bytes = new byte[p];
+        for (int i = 0; i < p; i++) {
+            bytes[i] = (byte) rolls[i];
+        }
+        GameBatchScorer scorer = new GameBatchScorer();
+        assertArrayEquals(scorer.scoreAll(rolls, offsets), scorer.scoreAll(bytes, offsets));
+    }
+
+    /**
+     * Score a game whose second frame only has its first roll
+     * Expecting the score of Game for the first frame, and PENDING where
+     * Game counts the missing roll as -1
+     */
+    @Test
+    void testIncompleteGame() {
+        Game g = new Game();
+        g.addFrame(new NormalFrame(1).setPinsDown(1, 3).setPinsDown(2, 4));
+        g.addFrame(new NormalFrame(2).setPinsDown(1, 2));
+        List<Game> games = new ArrayList<>();
+        games.add(g);
+        int[] columns = new GameBatchScorer().scoreAll(games);
+        assertEquals(7, GameBatchScorer.getCumulativeScore(columns, 0, 1));
+        assertEquals(8, g.getCumulativeScore(2));
+        for (int frame = 2; frame <= 10; frame++) {
+            assertEquals(RollScorer.PENDING, GameBatchScorer.getCumulativeScore(columns, 0, frame));
+        }
+    }
+
+    /**
+     * Score a game whose frame 10 is a strike followed by 5, which
+     * LastFrame accepts
+     * Expecting BowlingException
+     */
+    @Test
+    void testRejectedByRollScorer() {
+        Game g = new Game();
+        for (int i = 1; i <= 9; i++) {
+            g.addFrame(new NormalFrame(i).setPinsDown(1, 0).setPinsDown(2, 0));
+        }
+        g.addFrame(new LastFrame(10).setPinsDown(1, 10).setPinsDown(2, 5));
+        assertEquals(14, g.getCumulativeScore(10));
+        List<Game> games = new ArrayList<>();
+        games.add(g);
+        assertThrows(BowlingException.class, () -> new GameBatchScorer().scoreAll(games));
+    }
+}
@@ -0,0 +1,100 @@
+package stev.bowling;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for the GameCodec class and the game archive
+ */
+class GameCodecTest {
+
+    /**
+     * Encode and decode random games
+     * Expecting the same rolls after decoding
+     */
+    @Test
+    void testRoundTrip() {
+        Random random = new Random(6L);
+        int[] rolls = new int[RollScorer.MAX_ROLLS];
+        int[] decoded = new int[RollScorer.MAX_ROLLS + 3];
+        for (int n = 0; n < 100000; n++) {
+            int length = RollScorerTest.randomGame(random, rolls);
+            long code = GameCodec.encode(rolls, 0, length);
+            assertTrue(code >= 0);
+            assertEquals(length, GameCodec.decode(code, decoded, 3));
+            assertArrayEquals(Arrays.copyOf(rolls, length), Arrays.copyOfRange(decoded, 3, 3 + length));
+        }
+    }
+
+    /**
+     * Encode the largest and the smallest games
+     * Expecting codes at both ends of the range
+     */
+    @Test
+    void testExtremeGames() {
+        assertEquals(0, GameCodec.encode(new int[20], 0, 20));
+        int[] strikes = {10, 10, 10, 10, 10, 10, 10, 10, 10, 10, 0, 10};
+        long code = GameCodec.encode(strikes, 0, strikes.length);
+        assertTrue(code > 0);
+        int[] decoded = new int[RollScorer.MAX_ROLLS];
+        assertEquals(12, GameCodec.decode(code, decoded, 0));
+        assertArrayEquals(strikes, Arrays.copyOf(decoded, 12));
+    }
+
+    /**
+     * Encode a game that is not over
+     * Expecting BowlingException
+     */
+    @Test
+    void testIncompleteGame() {
+        assertThrows(BowlingException.class, () -> GameCodec.encode(new int[19], 0, 19),
+                "No exception thrown while encoding a game without a tenth frame");
+    }
+
+    /**
+     * Write random games to an archive, append more in a second writer, then scan it
+     * Expecting every game and its score back in order
+     */
+    @Test
+    void testArchive(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("games.bwl");
+        Random random = new Random(7L);
+        int[][] games = new int[20000][];
+        int[] finals = new int[games.length];
+        int[] totals = new int[10];
+        for (int i = 0; i < games.length; i++) {
+            int[] rolls = new int[RollScorer.MAX_ROLLS];
+            int length = RollScorerTest.randomGame(random, rolls);
+            games[i] = Arrays.copyOf(rolls, length);
+            RollScorer.score(rolls, 0, length, totals, 0);
+            finals[i] = totals[9];
+        }
+        try (GameArchiveWriter writer = new GameArchiveWriter(file)) {
+            for (int i = 0; i < 15000; i++) {
+                writer.write(games[i], 0, games[i].length);
+            }
+        }
+        try (GameArchiveWriter writer = new GameArchiveWriter(file)) {
+            for (int i = 15000; i < games.length; i++) {
+                writer.write(RollScorer.toGame(games[i], 0, games[i].length));
+            }
+        }
+        try (GameArchiveReader reader = new GameArchiveReader(file)) {
+            assertEquals(games.length, reader.size());
+            assertEquals(finals[123], reader.score(123, totals, new int[RollScorer.MAX_ROLLS]));
+            long[] seen = new long[1];
+            reader.scan((index, rolls, length, scores) -> {
+                assertEquals(seen[0]++, index);
+                assertArrayEquals(games[(int) index], Arrays.copyOf(rolls, length));
+                assertEquals(finals[(int) index], scores[9]);
+            });
+            assertEquals(games.length, seen[0]);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package stev.bowling;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the GameColumns class
+ */
+class GameColumnsTest {
+
+    /**
+     * Store random games of a few bowlers, over many small chunks
+     * Expecting the same pins, scores and statistics as computed from the
+     * frames of Game
+     */
+    @Test
+    void testAgainstGame() {
+        int bowlers = 5;
+        GameColumns columns = new GameColumns(6, new ForkJoinPool(4));
+        Random random = new Random(22L);
+        int[] rolls = new int[RollScorer.MAX_ROLLS];
+        long[] strikes = new long[RollScorer.FRAMES];
+        long[] spares = new long[RollScorer.FRAMES];
+        long[] chances = new long[RollScorer.FRAMES];
+        ScoreHistogram all = new ScoreHistogram();
+        ScoreHistogram second = new ScoreHistogram();
+        double[] sums = new double[bowlers];
+        int[] counts = new int[bowlers];
+        int games = 1000;
+        for (int n = 0; n < games; n++) {
+            int length = RollScorerTest.randomGame(random, rolls);
+            int bowler = random.nextInt(bowlers + 1);
+            assertEquals(n, columns.add(bowler, rolls, 0, length));
+            Game g = RollScorer.toGame(rolls, 0, length);
+            for (int i = 0; i < RollScorer.FRAMES; i++) {
+                Frame f = g.m_frames.get(i);
+                for (int r = 1; r <= f.m_scores.length; r++) {
+                    assertEquals(f.getPinsDown(r), columns.getPinsDown(n, i + 1, r));
+                }
+                assertEquals(g.getCumulativeScore(i + 1), columns.getCumulativeScore(n, i + 1));
+                if (f.getPinsDown(1) == 10) {
+                    strikes[i]++;
+                } else {
+                    chances[i]++;
+                    if (f.getPinsDown(1) + f.getPinsDown(2) == 10) {
+                        spares[i]++;
+                    }
+                }
+            }
+            int score = g.getCumulativeScore(RollScorer.FRAMES);
+            all.add(score);
+            if (bowler == 2) {
+                second.add(score);
+            }
+            if (bowler < bowlers) {
+                sums[bowler] += score;
+                counts[bowler]++;
+            }
+            assertEquals(bowler, columns.getBowler(n));
+        }
+        assertEquals(games, columns.size());
+        GameColumns.FrameStatistics stats = columns.getFrameStatistics();
+        long allSpares = 0;
+        long allChances = 0;
+        for (int i = 0; i < RollScorer.FRAMES; i++) {
+            assertEquals(strikes[i], stats.getStrikes(i + 1));
+            assertEquals(spares[i], stats.getSpares(i + 1));
+            assertEquals((double) strikes[i] / games, stats.getStrikeRate(i + 1), 1e-12);
+            assertEquals((double) spares[i] / chances[i], stats.getSpareConversionRate(i + 1), 1e-12);
+            allSpares += spares[i];
+            allChances += chances[i];
+        }
+        assertEquals((double) allSpares / allChances, stats.getSpareConversionRate(), 1e-12);
+        assertEquals(all, columns.getScores(GameColumns.ALL_BOWLERS));
+        assertEquals(second, columns.getScores(2));
+        double[] means = columns.getMeanScores(bowlers);
+        for (int b = 0; b < bowlers; b++) {
+            assertEquals(sums[b] / counts[b], means[b], 1e-9);
+        }
+    }
+
+    /**
+     * Query an empty store, and add games that are not complete or not
+     * valid
+     * Expecting empty results, then BowlingException
+     */
+    @Test
+    void testEmptyAndInvalid() {
+        GameColumns columns = new GameColumns();
+        assertEquals(0, columns.getScores(GameColumns.ALL_BOWLERS).getGames());
+        assertTrue(Double.isNaN(columns.getFrameStatistics().getStrikeRate(1)));
+        assertTrue(Double.isNaN(columns.getMeanScores(1)[0]));
+        assertThrows(BowlingException.class, () -> columns.add(0, new int[]{10, 10, 10}, 0, 3));
+        assertThrows(BowlingException.class, () -> columns.add(0, new int[]{6, 5}, 0, 2));
+        assertThrows(BowlingException.class, () -> columns.add(-1, new int[12], 0, 12));
+        assertEquals(0, columns.size());
+        assertThrows(IndexOutOfBoundsException.class, () -> columns.getBowler(0));
+    }
+}
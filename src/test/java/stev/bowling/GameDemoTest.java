@@ -0,0 +1,152 @@
+package stev.bowling;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for the command line program of GameDemo
+ */
+class GameDemoTest {
+
+    /**
+     * The game written in notation in the tests
+     */
+    private static final String GAME = "X 7/ 9- X -8 8/ -6 X X X-8";
+
+    /**
+     * Score text from the standard input, with invalid, empty and
+     * incomplete lines and Windows line ends
+     * Expecting one score per valid game, an error per invalid line, and
+     * exit status 1
+     */
+    @Test
+    void testScores() {
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        String out = run(GAME + "\nX 78\r\n\n" + GAME + "\r\n9/ 5", err, 1);
+        assertEquals("148\n148\n-\n", out);
+        assertEquals("-:2:4: The total score exceeds 10\n", err.toString().replace("\r", ""));
+    }
+
+    /**
+     * Write the totals and the board of a game
+     * Expecting the totals of RollScorer and the board of Game
+     */
+    @Test
+    void testTotalsAndBoards() {
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        assertEquals("20 39 48 66 74 84 90 110 130 148\n15 - - - - - - - - -\n",
+                run(GAME + "\n9/ 5\n", err, 0, "--totals"));
+        Game g = new NotationParser().parseGame(GAME);
+        assertEquals(g.toString() + "\n", run(GAME, err, 0, "--boards", "-"));
+        assertEquals("", err.toString());
+    }
+
+    /**
+     * Score many random games through buffers smaller than a few lines
+     * Expecting the same scores as RollScorer, and an error for a line
+     * longer than the buffer
+     */
+    @Test
+    void testSmallBuffer() throws Exception {
+        Random random = new Random(25L);
+        int[] rolls = new int[RollScorer.MAX_ROLLS];
+        StringBuilder in = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        for (int n = 0; n < 500; n++) {
+            int length = RollScorerTest.randomGame(random, rolls);
+            Game g = RollScorer.toGame(rolls, 0, length);
+            for (Frame f : g.m_frames) {
+                in.append(f.toString().trim()).append(' ');
+            }
+            in.append('\n');
+            expected.append(RollScorer.finalScore(rolls, 0, length, new int[RollScorer.FRAMES])).append('\n');
+        }
+        in.append("X X X X X X X X X X X X X X X X X X X X X X X X X\n").append(GAME).append('\n');
+        expected.append("148\n");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        GameDemo demo = new GameDemo(GameDemo.SCORES, 40, out, new PrintStream(err, true));
+        demo.process("games", Channels.newChannel(new ByteArrayInputStream(in.toString().getBytes(StandardCharsets.US_ASCII))));
+        demo.flush();
+        assertEquals(expected.toString(), out.toString());
+        assertEquals(1, demo.getInvalidGames());
+        assertTrue(err.toString().startsWith("games:501: Line too long"));
+    }
+
+    /**
+     * Score an archive and a text file given as arguments
+     * Expecting the games of both, in order
+     */
+    @Test
+    void testArchive(@TempDir Path dir) throws Exception {
+        Path archive = dir.resolve("games.bwl");
+        int[] rolls = new int[RollScorer.MAX_ROLLS];
+        int length = new NotationParser().parse(GAME, rolls, 0);
+        try (GameArchiveWriter writer = new GameArchiveWriter(archive)) {
+            writer.write(rolls, 0, length);
+            writer.write(new int[20], 0, 20);
+        }
+        Path text = dir.resolve("games.txt");
+        Files.write(text, "9/ 5\n".getBytes(StandardCharsets.US_ASCII));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        int status = GameDemo.run(new String[]{archive.toString(), text.toString()},
+                new ByteArrayInputStream(new byte[0]), out, new PrintStream(err, true));
+        assertEquals(GameDemo.EXIT_OK, status, err.toString());
+        assertEquals("148\n0\n-\n", out.toString());
+    }
+
+    /**
+     * Score a text file followed by a file that does not exist
+     * Expecting the games of the first file to be written before the error
+     */
+    @Test
+    void testMissingFile(@TempDir Path dir) throws Exception {
+        Path text = dir.resolve("games.txt");
+        Files.write(text, (GAME + "\n").getBytes(StandardCharsets.US_ASCII));
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        String out = run("", err, GameDemo.EXIT_ERROR, text.toString(), dir.resolve("missing.txt").toString());
+        assertEquals("148\n", out);
+        assertTrue(err.toString().contains("missing.txt"), err.toString());
+    }
+
+    /**
+     * Run with --help, an unknown option and a missing file
+     * Expecting exit status 0, then 2 twice
+     */
+    @Test
+    void testArguments() {
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        assertTrue(run("", err, GameDemo.EXIT_OK, "--help").startsWith("Usage:"));
+        run("", err, GameDemo.EXIT_ERROR, "--csv");
+        assertTrue(err.toString().startsWith("Unknown option --csv"));
+        run("", err, GameDemo.EXIT_ERROR, "no-such-file");
+    }
+
+    /**
+     * Run the program
+     *
+     * @param in String The standard input
+     * @param err ByteArrayOutputStream The stream receiving the errors
+     * @param status int The expected exit status
+     * @param args String... The arguments
+     * @return String The standard output
+     */
+    private static String run(String in, ByteArrayOutputStream err, int status, String... args) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(status, GameDemo.run(args, new ByteArrayInputStream(in.getBytes(StandardCharsets.US_ASCII)), out,
+                new PrintStream(err, true)));
+        return out.toString();
+    }
+}
@@ -0,0 +1,106 @@
+package stev.bowling;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the GamePool and ReusableGame classes
+ */
+class GamePoolTest {
+
+    /**
+     * Build, score and release many random games with the same pool
+     * Expecting the same scores as Game, and the same game handed out
+     * again after its release
+     */
+    @Test
+    void testReuse() {
+        GamePool pool = new GamePool(2, false);
+        Random random = new Random(17L);
+        int[] rolls = new int[RollScorer.MAX_ROLLS];
+        ReusableGame first = null;
+        for (int n = 0; n < 1000; n++) {
+            int length = RollScorerTest.randomGame(random, rolls);
+            ReusableGame g = pool.toGame(rolls, 0, length);
+            if (first == null) {
+                first = g;
+            }
+            assertSame(first, g);
+            Game expected = RollScorer.toGame(rolls, 0, length);
+            assertEquals(expected.toString(), g.toString());
+            assertEquals(expected.getCumulativeScore(10), g.getCumulativeScore(10));
+            pool.release(g);
+            assertEquals(1, pool.getAvailableGames());
+        }
+    }
+
+    /**
+     * Release more games than the capacity of the pool
+     * Expecting the pool to keep only as many games as its capacity
+     */
+    @Test
+    void testBounded() {
+        GamePool pool = new GamePool(3, false);
+        ReusableGame[] games = new ReusableGame[5];
+        for (int i = 0; i < games.length; i++) {
+            games[i] = pool.acquireGame();
+        }
+        for (ReusableGame g : games) {
+            pool.release(g);
+        }
+        assertEquals(3, pool.getAvailableGames());
+        pool.release(new ReusableGame());
+        assertEquals(3, pool.getAvailableGames());
+    }
+
+    /**
+     * Use a game and a frame after their release, in debug mode
+     * Expecting BowlingException
+     */
+    @Test
+    void testUseAfterRelease() {
+        GamePool pool = new GamePool(4, true);
+        ReusableGame g = pool.toGame(new int[]{3, 4, 10, 5}, 0, 4);
+        Frame f = g.m_frames.get(1);
+        pool.release(g);
+        assertThrows(BowlingException.class, () -> g.getCumulativeScore(1));
+        assertThrows(BowlingException.class, () -> g.addFrame(new NormalFrame(1)));
+        assertThrows(BowlingException.class, () -> f.setPinsDown(1, 10));
+        assertThrows(BowlingException.class, () -> pool.release(g), "The game was released twice");
+        assertThrows(BowlingException.class, () -> pool.release(f), "The frame was released twice");
+        ReusableGame again = pool.acquireGame();
+        assertSame(g, again);
+        again.addFrame(pool.acquireNormalFrame(1));
+        assertEquals(1, again.m_frames.size());
+    }
+
+    /**
+     * Build a game out of invalid rolls
+     * Expecting BowlingException, and the game and its frames back in the
+     * pool
+     */
+    @Test
+    void testInvalidRolls() {
+        GamePool pool = new GamePool(4, false);
+        assertThrows(BowlingException.class, () -> pool.toGame(new int[]{3, 4, 6, 5}, 0, 4));
+        assertEquals(1, pool.getAvailableGames());
+        assertThrows(BowlingException.class, () -> pool.acquireNormalFrame(10));
+    }
+
+    /**
+     * Reset a ReusableGame and play it again
+     * Expecting the scores of the second game only
+     */
+    @Test
+    void testResetGame() {
+        ReusableGame g = new ReusableGame();
+        g.addFrame(new NormalFrame(1).setPinsDown(1, 10));
+        g.reset();
+        assertEquals(0, g.m_frames.size());
+        g.addFrame(new NormalFrame(1).setPinsDown(1, 2).setPinsDown(2, 3));
+        assertEquals(5, g.getCumulativeScore(1));
+    }
+}
@@ -0,0 +1,95 @@
+package stev.bowling;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the GameSimulator class
+ */
+class GameSimulatorTest {
+
+    /**
+     * Simulate the same games with pools of different sizes
+     * Expecting the same histogram for the same seed, and a different one
+     * for another seed
+     */
+    @Test
+    void testReproducible() {
+        BowlerModel model = new ProfileBowler(0.3, 0.5);
+        ForkJoinPool one = new ForkJoinPool(1);
+        ForkJoinPool four = new ForkJoinPool(4);
+        try {
+            ScoreHistogram h1 = new GameSimulator(one).simulate(model, 200000, 42);
+            ScoreHistogram h4 = new GameSimulator(four).simulate(model, 200000, 42);
+            assertEquals(200000, h1.getGames());
+            assertEquals(h1, h4);
+            assertNotEquals(h1, new GameSimulator(four).simulate(model, 200000, 43));
+        } finally {
+            one.shutdown();
+            four.shutdown();
+        }
+    }
+
+    /**
+     * Simulate a bowler who always strikes, and one who always converts
+     * spares and never strikes
+     * Expecting only the best score, and scores between 100 and 190
+     * averaging 145
+     */
+    @Test
+    void testProfiles() {
+        GameSimulator simulator = new GameSimulator();
+        ScoreHistogram perfect = simulator.simulate(new ProfileBowler(1, 0), 1000, 1);
+        int best = GameSpace.getMaxFinalScore(new int[0], 0, 0);
+        assertEquals(1000, perfect.getCount(best));
+        // Ten spares, each followed by a uniform roll between 0 and 9
+        ScoreHistogram spares = simulator.simulate(new ProfileBowler(0, 1), 200000, 2);
+        assertEquals(145, spares.getMean(), 0.2);
+        assertTrue(spares.getPercentile(0) >= 100);
+        assertTrue(spares.getPercentile(100) <= 190);
+        assertEquals(0, spares.getCount(99) + spares.getCount(191));
+    }
+
+    /**
+     * Generate random games and score them with Game
+     * Expecting the games to be accepted by the frames, with the same
+     * score
+     */
+    @Test
+    void testLegalGames() {
+        SplittableRandom random = new SplittableRandom(19L);
+        BowlerModel model = new ProfileBowler(0.4, 0.4);
+        int[] rolls = new int[RollScorer.MAX_ROLLS];
+        int[] totals = new int[RollScorer.FRAMES];
+        for (int n = 0; n < 10000; n++) {
+            int length = GameSimulator.play(model, random, rolls);
+            Game g = RollScorer.toGame(rolls, 0, length);
+            assertEquals(g.getCumulativeScore(10), RollScorer.finalScore(rolls, 0, length, totals));
+        }
+    }
+
+    /**
+     * Simulate a model giving impossible rolls
+     * Expecting BowlingException
+     */
+    @Test
+    void testInvalidModel() {
+        BowlerModel model = new BowlerModel() {
+            @Override
+            public int firstRoll(int frame, SplittableRandom random) {
+                return 6;
+            }
+
+            @Override
+            public int secondRoll(int frame, int first, SplittableRandom random) {
+                return 5;
+            }
+        };
+        assertThrows(BowlingException.class, () -> new GameSimulator().simulate(model, 10, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ProfileBowler(1.5, 0));
+    }
+}
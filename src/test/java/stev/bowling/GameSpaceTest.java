@@ -0,0 +1,122 @@
+package stev.bowling;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the GameSpace class, comparing its tables with the games
+ * themselves
+ */
+class GameSpaceTest {
+
+    /**
+     * Get the distribution of all the games
+     * Expecting 66^9 * 176 games, scores between 0 and 200 (a strike
+     * followed by a strike takes no further bonus in Game), and a single
+     * game scoring 0
+     */
+    @Test
+    void testAllGames() {
+        long[] counts = GameSpace.getDistribution();
+        long total = 0;
+        for (long c : counts) {
+            total += c;
+        }
+        long expected = 176;
+        for (int i = 0; i < 9; i++) {
+            expected *= 66;
+        }
+        assertEquals(expected, total);
+        assertEquals(expected, GameSpace.countCompletions(new int[0], 0, 0));
+        assertEquals(1, counts[0]);
+        assertEquals(0, GameSpace.getMinFinalScore(new int[0], 0, 0));
+        int max = GameSpace.getMaxFinalScore(new int[0], 0, 0);
+        assertTrue(counts[max] > 0);
+        for (int s = max + 1; s < counts.length; s++) {
+            assertEquals(0, counts[s]);
+        }
+        int[] best = {10, 10, 10, 10, 10, 10, 10, 10, 10, 10, 0, 10};
+        assertEquals(RollScorer.toGame(best, 0, best.length).getCumulativeScore(10), max);
+    }
+
+    /**
+     * Enumerate every way of finishing random partial games with at most
+     * two frames left, scoring each of them with Game
+     * Expecting the same counts, minimum and maximum as the tables
+     */
+    @Test
+    void testAgainstEnumeration() {
+        Random random = new Random(16L);
+        int[] rolls = new int[RollScorer.MAX_ROLLS];
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int n = 0; n < 30; n++) {
+                int length = RollScorerTest.randomGame(random, rolls);
+                int cut = length - 1 - random.nextInt(Math.min(length, 5));
+                long[] expected = GameSpace.getDistribution(rolls, 0, cut);
+                AtomicLongArray counts = new AtomicLongArray(GameSpace.MAX_SCORE + 1);
+                GameSpace.enumerate(rolls, 0, cut, (r, l, score) -> {
+                    assertEquals(RollScorer.toGame(r, 0, l).getCumulativeScore(10), score);
+                    counts.incrementAndGet(score);
+                }, pool);
+                int min = Integer.MAX_VALUE;
+                int max = Integer.MIN_VALUE;
+                for (int s = 0; s < expected.length; s++) {
+                    assertEquals(expected[s], counts.get(s), "Wrong count for score " + s);
+                    if (expected[s] > 0) {
+                        min = Math.min(min, s);
+                        max = Math.max(max, s);
+                    }
+                }
+                assertEquals(min, GameSpace.getMinFinalScore(rolls, 0, cut));
+                assertEquals(max, GameSpace.getMaxFinalScore(rolls, 0, cut));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Cut random complete games at every roll
+     * Expecting the final score of the game to stay between the minimum
+     * and the maximum, both equal to it once the game is over
+     */
+    @Test
+    void testBounds() {
+        Random random = new Random(160L);
+        int[] rolls = new int[RollScorer.MAX_ROLLS];
+        for (int n = 0; n < 1000; n++) {
+            int length = RollScorerTest.randomGame(random, rolls);
+            int score = RollScorer.toGame(rolls, 0, length).getCumulativeScore(10);
+            int previous_min = 0;
+            int previous_max = Integer.MAX_VALUE;
+            for (int cut = 0; cut <= length; cut++) {
+                int min = GameSpace.getMinFinalScore(rolls, 0, cut);
+                int max = GameSpace.getMaxFinalScore(rolls, 0, cut);
+                assertTrue(min <= score && score <= max);
+                assertTrue(min >= previous_min && max <= previous_max);
+                previous_min = min;
+                previous_max = max;
+            }
+            assertEquals(score, previous_min);
+            assertEquals(score, previous_max);
+            assertEquals(1, GameSpace.countCompletions(rolls, 0, length));
+        }
+    }
+
+    /**
+     * Get the tables of invalid rolls
+     * Expecting BowlingException
+     */
+    @Test
+    void testInvalidRolls() {
+        assertThrows(BowlingException.class, () -> GameSpace.getMaxFinalScore(new int[]{6, 5}, 0, 2));
+        assertThrows(BowlingException.class, () -> GameSpace.getMaxFinalScore(new int[]{11}, 0, 1));
+        assertThrows(BowlingException.class, () -> GameSpace.getMaxFinalScore(new int[21], 0, 21));
+    }
+}
@@ -0,0 +1,127 @@
+package stev.bowling;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+
+import org.junit.jupiter.api.Test;
+
+import stev.bowling.MetricsSink.Operation;
+
+/**
+ * Tests for the InstrumentedGame class and the metrics it reports
+ */
+class InstrumentedGameTest {
+
+    /**
+     * Play a complete game through an InstrumentedGame
+     * Expecting one call per operation, the game completed once, and the
+     * same scores as Game
+     */
+    @Test
+    void testCountsCalls() {
+        RecordingMetricsSink sink = new RecordingMetricsSink();
+        InstrumentedGame g = new InstrumentedGame(sink);
+        for (int i = 1; i <= 9; i++) {
+            g.addFrame(new NormalFrame(i));
+            g.setPinsDown(i, 1, 10);
+        }
+        g.addFrame(new LastFrame(10));
+        g.setPinsDown(10, 1, 3).setPinsDown(10, 2, 7);
+        assertEquals(0, sink.getGamesCompleted());
+        g.setPinsDown(10, 3, 4);
+        assertEquals(1, sink.getGamesCompleted());
+        assertEquals(10, sink.getCalls(Operation.ADD_FRAME));
+        assertEquals(12, sink.getCalls(Operation.SET_PINS_DOWN));
+        assertEquals(0, sink.getCalls(Operation.GET_CUMULATIVE_SCORE));
+        Game reference = RollScorer.toGame(new int[]{10, 10, 10, 10, 10, 10, 10, 10, 10, 3, 7, 4}, 0, 12);
+        assertEquals(reference.toString(), g.toString());
+        assertEquals(1, sink.getCalls(Operation.TO_STRING));
+        assertEquals(0, sink.getCalls(Operation.GET_CUMULATIVE_SCORE));
+        assertEquals(reference.getCumulativeScore(10), g.getCumulativeScore(10));
+        assertEquals(1, sink.getCalls(Operation.GET_CUMULATIVE_SCORE));
+        assertEquals(1, sink.getLatencies(Operation.GET_CUMULATIVE_SCORE).getCount());
+    }
+
+    /**
+     * Make calls that throw BowlingException
+     * Expecting the exceptions to be rethrown and counted by kind
+     */
+    @Test
+    void testCountsFailures() {
+        RecordingMetricsSink sink = new RecordingMetricsSink();
+        InstrumentedGame g = new InstrumentedGame(sink);
+        g.addFrame(new NormalFrame(1));
+        g.setPinsDown(1, 1, 6);
+        assertThrows(BowlingException.class, () -> g.setPinsDown(1, 2, 5));
+        assertThrows(BowlingException.class, () -> g.getCumulativeScore(4));
+        assertThrows(BowlingException.class, () -> g.getCumulativeScore(7));
+        assertThrows(BowlingException.class, () -> g.addFrame(new LastFrame(2)));
+        Map<String, Long> failures = sink.getFailures();
+        assertEquals(1L, failures.get("SET_PINS_DOWN: The total score exceeds #"));
+        assertEquals(2L, failures.get("GET_CUMULATIVE_SCORE: Frame # does not exist in this game"));
+        assertEquals(3, failures.size());
+        assertEquals(1, sink.getCalls(Operation.SET_PINS_DOWN));
+    }
+
+    /**
+     * Use an InstrumentedGame without a sink
+     * Expecting the same behaviour as Game
+     */
+    @Test
+    void testNoSink() {
+        InstrumentedGame g = new InstrumentedGame();
+        g.addFrame(new NormalFrame(1));
+        g.setPinsDown(1, 1, 4).setPinsDown(1, 2, 3);
+        assertEquals(7, g.getCumulativeScore(1));
+        assertThrows(BowlingException.class, () -> g.setPinsDown(2, 1, 3));
+    }
+
+    /**
+     * Record values of different magnitudes in a LatencyHistogram
+     * Expecting percentiles within the precision of the buckets
+     */
+    @Test
+    void testHistogram() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (long v = 1; v <= 1000; v++) {
+            h.record(v * 1000);
+        }
+        assertEquals(1000, h.getCount());
+        assertEquals(1000000, h.getMax());
+        assertEquals(500000, h.getValueAtPercentile(50), 500000 * 0.04);
+        assertEquals(990000, h.getValueAtPercentile(99), 990000 * 0.04);
+        assertEquals(1000000, h.getValueAtPercentile(100));
+        for (long v = 0; v < 100000; v += 7) {
+            long bucket = LatencyHistogram.bucketOf(v);
+            assertTrue(LatencyHistogram.highestValueOf((int) bucket) >= v);
+            assertTrue(bucket == 0 || LatencyHistogram.highestValueOf((int) bucket - 1) < v);
+        }
+        assertTrue(LatencyHistogram.bucketOf(Long.MAX_VALUE) < LatencyHistogram.BUCKETS);
+    }
+
+    /**
+     * Register a sink as an MBean and read its attributes
+     * Expecting the values of the sink
+     */
+    @Test
+    void testJmx() throws Exception {
+        RecordingMetricsSink sink = new RecordingMetricsSink();
+        sink.gameCompleted(300);
+        sink.called(Operation.TO_STRING, 1200);
+        ObjectName name = MetricsJmx.register(sink, "test");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            assertEquals(1L, server.getAttribute(name, "GamesCompleted"));
+            TabularData calls = (TabularData) server.getAttribute(name, "Calls");
+            assertEquals(1L, calls.get(new Object[]{"TO_STRING"}).get("value"));
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+}
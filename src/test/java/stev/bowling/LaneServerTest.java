@@ -0,0 +1,127 @@
+package stev.bowling;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the LaneServer class
+ */
+class LaneServerTest {
+
+    /**
+     * Play two random games on each of many lanes, with rolls of the lanes
+     * interleaved
+     * Expecting the last update of each game to hold its final score and
+     * scoreboard, fewer batches and fewer updates than rolls, and a latency
+     * for every roll
+     */
+    @Test
+    void testPublishesGames() {
+        int lanes = 50;
+        Random random = new Random(21L);
+        int[][][] rolls = new int[lanes][2][RollScorer.MAX_ROLLS];
+        int[][] lengths = new int[lanes][2];
+        int total = 0;
+        for (int l = 0; l < lanes; l++) {
+            for (int g = 0; g < 2; g++) {
+                lengths[l][g] = RollScorerTest.randomGame(random, rolls[l][g]);
+                total += lengths[l][g];
+            }
+        }
+        List<List<LaneUpdate>> batches = new ArrayList<>();
+        LaneServer server = new LaneServer(batch -> batches.add(new ArrayList<>(batch)), 5);
+        int[] game = new int[lanes];
+        int[] next = new int[lanes];
+        for (int n = 0; n < total; n++) {
+            int l;
+            do {
+                l = random.nextInt(lanes);
+            } while (game[l] == 2);
+            server.submit(l, rolls[l][game[l]][next[l]++]);
+            if (next[l] == lengths[l][game[l]]) {
+                game[l]++;
+                next[l] = 0;
+            }
+        }
+        server.close();
+        assertEquals(total, server.getRolls());
+        assertEquals(total, server.getLatencies().getCount());
+        assertEquals(server.getBatches(), batches.size());
+        assertTrue(batches.size() < total);
+        assertTrue(server.getUpdates() < server.getRolls());
+        Map<Integer, LaneUpdate[]> last = new HashMap<>();
+        for (List<LaneUpdate> batch : batches) {
+            for (LaneUpdate u : batch) {
+                last.computeIfAbsent(u.getLane(), k -> new LaneUpdate[2])[u.getGame() - 1] = u;
+            }
+        }
+        for (int l = 0; l < lanes; l++) {
+            for (int g = 0; g < 2; g++) {
+                LaneUpdate u = last.get(l)[g];
+                Game expected = RollScorer.toGame(rolls[l][g], 0, lengths[l][g]);
+                assertTrue(u.isOver());
+                assertEquals(lengths[l][g], u.getRollCount());
+                assertEquals(expected.getCumulativeScore(10), u.getScore());
+                assertEquals(expected.toString(), u.getBoard());
+            }
+        }
+    }
+
+    /**
+     * Play three games on a lane before the first batch
+     * Expecting a single batch with the final update of each game, in
+     * order
+     */
+    @Test
+    void testGamesEndingInOneBatch() {
+        int[] rolls = {10, 10, 10, 10, 10, 10, 10, 10, 10, 10, 0, 10};
+        Game expected = RollScorer.toGame(rolls, 0, rolls.length);
+        List<List<LaneUpdate>> batches = new ArrayList<>();
+        LaneServer server = new LaneServer(batch -> batches.add(new ArrayList<>(batch)), 60000);
+        for (int g = 0; g < 3; g++) {
+            for (int pins : rolls) {
+                server.submit(1, pins);
+            }
+        }
+        server.close();
+        assertEquals(3 * rolls.length, server.getRolls());
+        assertEquals(1, batches.size());
+        List<LaneUpdate> batch = batches.get(0);
+        assertEquals(3, batch.size());
+        for (int g = 0; g < 3; g++) {
+            LaneUpdate u = batch.get(g);
+            assertEquals(g + 1, u.getGame());
+            assertTrue(u.isOver());
+            assertEquals(expected.getCumulativeScore(10), u.getScore());
+            assertEquals(expected.toString(), u.getBoard());
+        }
+    }
+
+    /**
+     * Submit a roll that is not possible, then submit to a closed server
+     * Expecting the roll to be rejected and not published, then
+     * BowlingException
+     */
+    @Test
+    void testRejectedRoll() {
+        List<LaneUpdate> updates = new ArrayList<>();
+        LaneServer server = new LaneServer(updates::addAll, 5);
+        server.submit(3, 7);
+        server.submit(3, 5);
+        server.submit(3, 2);
+        server.close();
+        assertEquals(2, server.getRolls());
+        assertEquals(1, server.getRejected());
+        LaneUpdate u = updates.get(updates.size() - 1);
+        assertEquals(9, u.getScore());
+        assertEquals(2, u.getRollCount());
+        assertThrows(BowlingException.class, () -> server.submit(3, 1));
+    }
+}
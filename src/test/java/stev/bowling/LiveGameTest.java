@@ -0,0 +1,98 @@
+package stev.bowling;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the LiveGame class
+ */
+class LiveGameTest {
+
+    private LiveGame game;
+    private int[] notified;
+    private int lastNotified;
+
+    /**
+     * Initialize a LiveGame recording the frames it notifies
+     */
+    @BeforeEach
+    void setUp() {
+        this.notified = new int[10];
+        this.lastNotified = 0;
+        this.game = new LiveGame().setListener((frame, score, cumulative) -> {
+            assertEquals(this.lastNotified + 1, frame, "Frames are not notified in order");
+            this.notified[frame - 1] = cumulative;
+            this.lastNotified = frame;
+        });
+    }
+
+    /**
+     * Play a strike and check that its score waits for the next two rolls
+     * Expecting the strike to be notified only after the second bonus roll
+     */
+    @Test
+    void testStrikeWaitsForBonus() {
+        this.game.roll(10).roll(3);
+        assertEquals(0, this.lastNotified);
+        assertEquals(16, this.game.getProvisionalScore());
+        this.game.roll(4);
+        assertEquals(2, this.lastNotified);
+        assertEquals(17, this.game.getCumulativeScore(1));
+        assertEquals(24, this.game.getCumulativeScore(2));
+    }
+
+    /**
+     * Play a second roll that knocks down more pins than were left
+     * Expecting BowlingException and the game unchanged
+     */
+    @Test
+    void testTooManyPins() {
+        this.game.roll(6);
+        assertThrows(BowlingException.class, () -> this.game.roll(5),
+                "No exception thrown while knocking down 11 pins in a frame");
+        assertEquals(1, this.game.getRollCount());
+    }
+
+    /**
+     * Play a roll after the end of the game
+     * Expecting BowlingException
+     */
+    @Test
+    void testRollAfterGameOver() {
+        for (int i = 0; i < 20; i++) {
+            this.game.roll(0);
+        }
+        assertTrue(this.game.isOver());
+        assertThrows(BowlingException.class, () -> this.game.roll(0),
+                "No exception thrown while playing a 21st roll after an open tenth frame");
+    }
+
+    /**
+     * Play random games one roll at a time
+     * Expecting the same totals as RollScorer after every roll
+     */
+    @Test
+    void testAgainstRollScorer() {
+        Random random = new Random(3L);
+        int[] rolls = new int[RollScorer.MAX_ROLLS];
+        int[] totals = new int[10];
+        for (int n = 0; n < 5000; n++) {
+            setUp();
+            int length = RollScorerTest.randomGame(random, rolls);
+            for (int i = 0; i < length; i++) {
+                this.game.roll(rolls[i]);
+                int known = RollScorer.score(rolls, 0, i + 1, totals, 0);
+                assertEquals(known, this.lastNotified);
+                for (int frame = 1; frame <= 10; frame++) {
+                    assertEquals(totals[frame - 1], this.game.getCumulativeScore(frame));
+                }
+            }
+            assertTrue(this.game.isOver());
+            assertArrayEquals(totals, this.notified);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package stev.bowling;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the NotationParser class
+ */
+class NotationParserTest {
+
+    private final NotationParser parser = new NotationParser();
+
+    /**
+     * Read a game with strikes, spares and gutters
+     * Expecting the rolls of the game and the same score as Game
+     */
+    @Test
+    void testParseGame() {
+        int[] rolls = new int[RollScorer.MAX_ROLLS];
+        int length = this.parser.parse("X 7/ 9- X -8 8/ -6 X X X-8", rolls, 0);
+        assertArrayEquals(new int[]{10, 7, 3, 9, 0, 10, 0, 8, 8, 2, 0, 6, 10, 10, 10, 0, 8},
+                Arrays.copyOf(rolls, length));
+        Game g = this.parser.parseGame("X7/9-X-88/-6XXX-8");
+        assertEquals(RollScorer.toGame(rolls, 0, length).getCumulativeScore(10), g.getCumulativeScore(10));
+    }
+
+    /**
+     * Read a spare as the first roll of a frame
+     * Expecting NotationException at the position of the spare
+     */
+    @Test
+    void testMisplacedSpare() {
+        NotationException e = assertThrows(NotationException.class,
+                () -> this.parser.parse("X 7/ /3", new int[RollScorer.MAX_ROLLS], 0));
+        assertEquals(5, e.getPosition());
+    }
+
+    /**
+     * Read a frame knocking down more than 10 pins, and a tenth frame X81
+     * Expecting NotationException at the position of the faulty roll
+     */
+    @Test
+    void testTooManyPins() {
+        NotationException e = assertThrows(NotationException.class,
+                () -> this.parser.parse("X 78", new int[RollScorer.MAX_ROLLS], 0));
+        assertEquals(3, e.getPosition());
+        e = assertThrows(NotationException.class,
+                () -> this.parser.parse("X X X X X X X X X X81", new int[RollScorer.MAX_ROLLS], 0));
+        assertEquals(19, e.getPosition());
+    }
+
+    /**
+     * Read a roll after the end of the game, and an unknown character
+     * Expecting NotationException
+     */
+    @Test
+    void testInvalidInput() {
+        assertThrows(NotationException.class,
+                () -> this.parser.parse("-- -- -- -- -- -- -- -- -- -- 1", new int[RollScorer.MAX_ROLLS], 0));
+        assertThrows(NotationException.class,
+                () -> this.parser.parse("X 7/ 9?", new int[RollScorer.MAX_ROLLS], 0));
+    }
+
+    /**
+     * Write random games in notation, one per line, and read them back from a ByteBuffer
+     * Expecting the original rolls for every line
+     */
+    @Test
+    void testByteBufferLines() {
+        Random random = new Random(8L);
+        int[][] games = new int[500][];
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < games.length; i++) {
+            int[] rolls = new int[RollScorer.MAX_ROLLS];
+            games[i] = Arrays.copyOf(rolls, RollScorerTest.randomGame(random, rolls));
+            text.append(notation(games[i])).append(i % 2 == 0 ? "\n" : "\r\n");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.US_ASCII));
+        int[] rolls = new int[RollScorer.MAX_ROLLS];
+        for (int[] game : games) {
+            int length = this.parser.parse(buffer, rolls, 0);
+            assertArrayEquals(game, Arrays.copyOf(rolls, length));
+        }
+        assertEquals(-1, this.parser.parse(buffer, rolls, 0));
+    }
+
+    /**
+     * Read lines from a ByteBuffer where the first line is not a valid game
+     * Expecting NotationException, with the buffer moved to the next line,
+     * and then the game of that line
+     */
+    @Test
+    void testByteBufferInvalidLine() {
+        ByteBuffer buffer = ByteBuffer.wrap("X 7/ 9? 42\n9/ 5\n".getBytes(StandardCharsets.US_ASCII));
+        int[] rolls = new int[RollScorer.MAX_ROLLS];
+        assertThrows(NotationException.class, () -> this.parser.parse(buffer, rolls, 0));
+        assertEquals(11, buffer.position());
+        assertEquals(3, this.parser.parse(buffer, rolls, 0));
+        assertArrayEquals(new int[]{9, 1, 5}, Arrays.copyOf(rolls, 3));
+        assertEquals(-1, this.parser.parse(buffer, rolls, 0));
+    }
+
+    /**
+     * Write a game in bowling notation
+     *
+     * @param rolls int[] The rolls of the game
+     * @return String The game in bowling notation
+     */
+    static String notation(int[] rolls) {
+        StringBuilder out = new StringBuilder();
+        int frame = 1;
+        int roll = 1;
+        int first = 0;
+        for (int pins : rolls) {
+            if (roll == 2 && first + pins == 10 && first < 10) {
+                out.append('/');
+            } else {
+                out.append(pins == 10 ? "X" : pins == 0 ? "-" : String.valueOf(pins));
+            }
+            if (roll == 1) {
+                first = pins;
+            }
+            if (frame < 10 && (roll == 2 || pins == 10)) {
+                out.append(' ');
+                frame++;
+                roll = 1;
+            } else {
+                roll++;
+            }
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,143 @@
+package stev.bowling;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the PackedGame class, comparing it with a Game receiving the
+ * same calls
+ */
+class PackedGameTest {
+
+    /**
+     * Build random games, complete or cut at a random roll, by adding
+     * frames that already hold their pins
+     * Expecting the same scores and scoreboard as Game
+     */
+    @Test
+    void testAgainstGame() throws Exception {
+        Random random = new Random(18L);
+        int[] rolls = new int[RollScorer.MAX_ROLLS];
+        ScoreboardRenderer renderer = new ScoreboardRenderer();
+        for (int n = 0; n < 5000; n++) {
+            int length = RollScorerTest.randomGame(random, rolls);
+            if (random.nextBoolean()) {
+                length = random.nextInt(length + 1);
+            }
+            Game g = RollScorer.toGame(rolls, 0, length);
+            PackedGame p = new PackedGame();
+            for (Frame f : g.m_frames) {
+                p.addFrame(f);
+            }
+            assertEquals(g.m_frames.size(), p.m_frames.size());
+            for (int i = 1; i <= g.m_frames.size(); i++) {
+                assertEquals(g.getCumulativeScore(i), p.getCumulativeScore(i), "Wrong total at frame " + i);
+            }
+            assertEquals(g.toString(), p.toString());
+            assertEquals(g.toString(), renderer.renderTo(p, new StringBuilder()).toString());
+        }
+    }
+
+    /**
+     * Make the same random calls, valid or not, on a Game and on a
+     * PackedGame, entering the rolls through the frames of m_frames
+     * Expecting the same exceptions, pins and scores
+     */
+    @Test
+    void testRandomCalls() {
+        Random random = new Random(180L);
+        for (int n = 0; n < 2000; n++) {
+            Game g = new Game();
+            PackedGame p = new PackedGame();
+            List<Frame> frames = new ArrayList<>();
+            for (int step = 0; step < 40; step++) {
+                int size = frames.size();
+                if (size < 10 && random.nextInt(4) == 0) {
+                    Frame f = size == 9 ? new LastFrame(10) : new NormalFrame(size + 1);
+                    frames.add(f);
+                    g.addFrame(f);
+                    p.addFrame(size == 9 ? new LastFrame(10) : new NormalFrame(size + 1));
+                    continue;
+                }
+                if (size == 0) {
+                    continue;
+                }
+                int index = random.nextInt(size);
+                int roll = random.nextInt(4);
+                int pins = random.nextInt(13) - 1;
+                Frame view = p.m_frames.get(index);
+                boolean expected = throwsException(() -> frames.get(index).setPinsDown(roll, pins));
+                assertEquals(expected, throwsException(() -> view.setPinsDown(roll, pins)));
+                for (int i = 0; i < size; i++) {
+                    Frame f = frames.get(i);
+                    Frame v = p.m_frames.get(i);
+                    for (int r = 1; r <= f.m_scores.length; r++) {
+                        assertEquals(f.getPinsDown(r), v.getPinsDown(r));
+                    }
+                    assertEquals(f.countRolls(), v.countRolls());
+                    assertEquals(f.countPinsDown(), v.countPinsDown());
+                    assertEquals(g.getCumulativeScore(i + 1), p.getCumulativeScore(i + 1));
+                }
+            }
+            assertEquals(g.toString(), p.toString());
+        }
+    }
+
+    /**
+     * Enter rolls with setPinsDown on the game, then reset it
+     * Expecting the scores of the rolls, then an empty game
+     */
+    @Test
+    void testSetPinsDownAndReset() {
+        PackedGame p = new PackedGame();
+        p.addFrame(new NormalFrame(1)).addFrame(new NormalFrame(2));
+        p.setPinsDown(1, 1, 10).setPinsDown(2, 1, 3).setPinsDown(2, 2, 4);
+        assertEquals(17, p.getCumulativeScore(1));
+        assertEquals(24, p.getCumulativeScore(2));
+        assertEquals(4, p.getPinsDown(2, 2));
+        assertThrows(BowlingException.class, () -> p.setPinsDown(2, 2, 1));
+        assertThrows(BowlingException.class, () -> p.setPinsDown(3, 1, 1));
+        p.reset();
+        assertEquals(0, p.m_frames.size());
+        assertThrows(BowlingException.class, () -> p.getCumulativeScore(1));
+        p.addFrame(new NormalFrame(1).setPinsDown(1, 2).setPinsDown(2, 0));
+        assertEquals(2, p.getCumulativeScore(1));
+    }
+
+    /**
+     * Add frames of the wrong type, and an eleventh frame
+     * Expecting BowlingException
+     */
+    @Test
+    void testAddFrame() {
+        PackedGame p = new PackedGame();
+        assertThrows(BowlingException.class, () -> p.addFrame(new LastFrame(1)));
+        assertThrows(BowlingException.class, () -> p.addFrame(null));
+        for (int i = 1; i <= 9; i++) {
+            p.addFrame(new NormalFrame(i));
+        }
+        assertThrows(BowlingException.class, () -> p.addFrame(new NormalFrame(10)));
+        p.addFrame(new LastFrame(10));
+        assertThrows(BowlingException.class, () -> p.addFrame(new NormalFrame(1)));
+    }
+
+    /**
+     * Run an action
+     *
+     * @param action Runnable The action
+     * @return boolean Whether the action threw a BowlingException
+     */
+    private static boolean throwsException(Runnable action) {
+        try {
+            action.run();
+            return false;
+        } catch (BowlingException e) {
+            return true;
+        }
+    }
+}
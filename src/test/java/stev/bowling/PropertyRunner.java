@@ -0,0 +1,316 @@
+package stev.bowling;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Checks a property on a large number of random sequences of rolls, in
+ * parallel, and reduces the first sequence that breaks it to a smaller one
+ * that still does.
+ * <p>
+ * Case <i>n</i> is generated from a random source seeded with the seed of
+ * the run and <i>n</i>, so a failure can be replayed alone. The number of
+ * cases of each run is taken from the system property
+ * {@value #CASES_PROPERTY}, when it is set.
+ */
+class PropertyRunner {
+
+    /**
+     * The name of the system property giving the number of cases of a run
+     */
+    static final String CASES_PROPERTY = "stev.bowling.cases";
+
+    /**
+     * The number of cases generated by the same task
+     */
+    static final int BATCH = 1024;
+
+    /**
+     * The maximum number of rolls in a generated sequence, including the
+     * rolls that make it illegal
+     */
+    static final int MAX_LENGTH = RollScorer.MAX_ROLLS + 2;
+
+    /**
+     * Fills an array with a random sequence of rolls
+     */
+    interface Generator {
+
+        /**
+         * Generates a sequence
+         *
+         * @param random SplittableRandom The source of randomness
+         * @param rolls int[] The array receiving the rolls, of
+         * {@link #MAX_LENGTH} elements
+         * @return int The number of rolls
+         */
+        int generate(SplittableRandom random, int[] rolls);
+    }
+
+    /**
+     * A property of a sequence of rolls
+     */
+    interface Property {
+
+        /**
+         * Checks the property
+         *
+         * @param rolls int[] The rolls; the array must not be modified
+         * @param length int The number of rolls
+         * @throws Throwable If the property does not hold
+         */
+        void check(int[] rolls, int length) throws Throwable;
+    }
+
+    /**
+     * A property of all the sequences generated by the same task, for the
+     * checks that are too costly to run on each sequence alone
+     */
+    interface BatchProperty {
+
+        /**
+         * Checks the property
+         *
+         * @param rolls int[][] The rolls of each sequence; the arrays must
+         * not be modified
+         * @param lengths int[] The number of rolls of each sequence
+         * @param count int The number of sequences
+         * @throws Throwable If the property does not hold
+         */
+        void check(int[][] rolls, int[] lengths, int count) throws Throwable;
+    }
+
+    /**
+     * The seed of the run
+     */
+    private final long seed;
+
+    /**
+     * The number of cases of the run
+     */
+    private final int cases;
+
+    /**
+     * Creates a runner
+     *
+     * @param seed long The seed of the run
+     * @param cases int The number of cases, unless the system property
+     * {@value #CASES_PROPERTY} says otherwise
+     */
+    PropertyRunner(long seed, int cases) {
+        this.seed = seed;
+        this.cases = Integer.getInteger(CASES_PROPERTY, cases);
+    }
+
+    /**
+     * Checks a property on every case of the run, and fails with the
+     * smallest sequence found that breaks it
+     *
+     * @param generator Generator The generator of the cases
+     * @param property Property The property
+     * @return int The number of cases checked
+     */
+    int forAll(Generator generator, Property property) {
+        return forAll(generator, property, null);
+    }
+
+    /**
+     * Checks a property on every case of the run, and another on all the
+     * cases of each task, and fails with the smallest sequence found that
+     * breaks either of them. When the property of a batch breaks, it is
+     * checked on each case of the batch alone to find the failing case.
+     *
+     * @param generator Generator The generator of the cases
+     * @param property Property The property of each case
+     * @param batchProperty BatchProperty The property of each batch, or
+     * {@code null}
+     * @return int The number of cases checked
+     */
+    int forAll(Generator generator, Property property, BatchProperty batchProperty) {
+        // What a failing case is shrunk against: both properties, the batch
+        // being the case alone
+        Property combined = batchProperty == null ? property : (rolls, length) -> {
+            property.check(rolls, length);
+            batchProperty.check(new int[][]{rolls}, new int[]{length}, 1);
+        };
+        // The lowest failing case, so that the result does not depend on
+        // the order in which the threads run
+        AtomicLong failed = new AtomicLong(Long.MAX_VALUE);
+        IntStream.range(0, (this.cases + BATCH - 1) / BATCH).parallel().forEach(batch -> {
+            int[][] rolls = new int[BATCH][MAX_LENGTH];
+            int[] lengths = new int[BATCH];
+            int start = batch * BATCH;
+            int end = Math.min(this.cases, start + BATCH);
+            for (int n = start; n < end && n < failed.get(); n++) {
+                lengths[n - start] = generator.generate(random(n), rolls[n - start]);
+                if (!holds(property, rolls[n - start], lengths[n - start])) {
+                    failed.accumulateAndGet(n, Math::min);
+                }
+            }
+            if (batchProperty == null || start >= failed.get()) {
+                return;
+            }
+            try {
+                batchProperty.check(rolls, lengths, end - start);
+            } catch (Throwable t) {
+                boolean found = false;
+                for (int n = start; n < end && n < failed.get(); n++) {
+                    if (!holds(combined, rolls[n - start], lengths[n - start])) {
+                        failed.accumulateAndGet(n, Math::min);
+                        found = true;
+                    }
+                }
+                if (!found && start < failed.get()) {
+                    fail("Cases " + start + " to " + (end - 1) + " of the run with seed " + this.seed
+                            + " fail together but not alone: " + t, t);
+                }
+            }
+        });
+        if (failed.get() != Long.MAX_VALUE) {
+            int n = (int) failed.get();
+            int[] rolls = new int[MAX_LENGTH];
+            int length = generator.generate(random(n), rolls);
+            int[] original = Arrays.copyOf(rolls, length);
+            int[] smallest = shrink(combined, original);
+            Throwable cause = failure(combined, smallest, smallest.length);
+            fail("Case " + n + " of the run with seed " + this.seed + " fails for the rolls "
+                    + Arrays.toString(original) + ", reduced to " + Arrays.toString(smallest)
+                    + ": " + cause, cause);
+        }
+        return this.cases;
+    }
+
+    /**
+     * Gets the source of randomness of a case
+     *
+     * @param n int The case
+     * @return SplittableRandom The source
+     */
+    SplittableRandom random(int n) {
+        return new SplittableRandom(this.seed * 0x9E3779B97F4A7C15L + n);
+    }
+
+    /**
+     * Reduces a sequence breaking a property, by removing rolls and
+     * lowering the pins of rolls for as long as the property still breaks
+     *
+     * @param property Property The property
+     * @param rolls int[] The sequence
+     * @return int[] The smallest sequence found
+     */
+    static int[] shrink(Property property, int[] rolls) {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int i = rolls.length - 1; i >= 0; i--) {
+                int[] smaller = new int[rolls.length - 1];
+                System.arraycopy(rolls, 0, smaller, 0, i);
+                System.arraycopy(rolls, i + 1, smaller, i, smaller.length - i);
+                if (!holds(property, smaller, smaller.length)) {
+                    rolls = smaller;
+                    changed = true;
+                }
+            }
+            for (int i = 0; i < rolls.length; i++) {
+                int[] lower = rolls.clone();
+                lower[i] = rolls[i] > 0 ? rolls[i] - 1 : rolls[i] + 1;
+                if (Math.abs(lower[i]) < Math.abs(rolls[i]) && !holds(property, lower, lower.length)) {
+                    rolls = lower;
+                    changed = true;
+                }
+            }
+        }
+        return rolls;
+    }
+
+    /**
+     * Checks a property on a sequence
+     *
+     * @param property Property The property
+     * @param rolls int[] The rolls
+     * @param length int The number of rolls
+     * @return boolean Whether the property holds
+     */
+    static boolean holds(Property property, int[] rolls, int length) {
+        return failure(property, rolls, length) == null;
+    }
+
+    /**
+     * Checks a property on a sequence
+     *
+     * @param property Property The property
+     * @param rolls int[] The rolls
+     * @param length int The number of rolls
+     * @return Throwable Why the property does not hold, or {@code null}
+     */
+    static Throwable failure(Property property, int[] rolls, int length) {
+        try {
+            property.check(rolls, length);
+            return null;
+        } catch (Throwable t) {
+            return t;
+        }
+    }
+
+    /**
+     * Generates the rolls of a complete, legal game, with the generator of
+     * RollScorerTest
+     *
+     * @param random SplittableRandom The source of randomness
+     * @param rolls int[] The array receiving the rolls
+     * @return int The number of rolls
+     */
+    static int legalGame(SplittableRandom random, int[] rolls) {
+        return RollScorerTest.randomGame(random::nextInt, rolls);
+    }
+
+    /**
+     * Generates the first rolls of a legal game, possibly all of them
+     *
+     * @param random SplittableRandom The source of randomness
+     * @param rolls int[] The array receiving the rolls
+     * @return int The number of rolls
+     */
+    static int legalPrefix(SplittableRandom random, int[] rolls) {
+        return random.nextInt(legalGame(random, rolls) + 1);
+    }
+
+    /**
+     * Generates a sequence that is usually not legal: the first rolls of a
+     * legal game with one roll changed, or with rolls added at its end
+     *
+     * @param random SplittableRandom The source of randomness
+     * @param rolls int[] The array receiving the rolls
+     * @return int The number of rolls
+     */
+    static int mutatedGame(SplittableRandom random, int[] rolls) {
+        int length = random.nextInt(2) == 0 ? legalGame(random, rolls) : legalPrefix(random, rolls);
+        if (length == 0 || random.nextInt(4) == 0) {
+            int extra = 1 + random.nextInt(MAX_LENGTH - length == 1 ? 1 : 2);
+            for (int i = 0; i < extra && length < MAX_LENGTH; i++) {
+                rolls[length++] = random.nextInt(11);
+            }
+            return length;
+        }
+        int i = random.nextInt(length);
+        switch (random.nextInt(4)) {
+        case 0:
+            rolls[i] = -1 - random.nextInt(2);
+            break;
+        case 1:
+            rolls[i] = 11 + random.nextInt(2);
+            break;
+        case 2:
+            rolls[i] = i == 0 ? 10 : Math.min(10, 11 - rolls[i - 1]);
+            break;
+        default:
+            rolls[i] = random.nextInt(11);
+            break;
+        }
+        return length;
+    }
+}
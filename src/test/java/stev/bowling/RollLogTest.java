@@ -0,0 +1,231 @@
+package stev.bowling;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for the RollLog class
+ */
+class RollLogTest {
+
+    /**
+     * Interleave the rolls of many random games in a log with frequent
+     * snapshots, then rebuild games at random points, before and after
+     * reopening the log
+     * Expecting each game to hold exactly its rolls up to that point
+     */
+    @Test
+    void testReplay(@TempDir Path dir) throws Exception {
+        Random random = new Random(20L);
+        int games = 60;
+        int[][] rolls = new int[games][RollScorer.MAX_ROLLS];
+        int[] lengths = new int[games];
+        int[] played = new int[games];
+        for (int g = 0; g < games; g++) {
+            lengths[g] = RollScorerTest.randomGame(random, rolls[g]);
+        }
+        // The game and the number of rolls of that game after each record
+        List<int[]> history = new ArrayList<>();
+        RollLog log = new RollLog(dir, 50);
+        int total = 0;
+        for (int g = 0; g < games; g++) {
+            total += lengths[g];
+        }
+        for (int n = 0; n < total; n++) {
+            if (n == total / 2) {
+                log.close();
+                log = new RollLog(dir, 50);
+                assertEquals(n, log.size());
+            }
+            int g;
+            do {
+                g = random.nextInt(games);
+            } while (played[g] == lengths[g]);
+            assertEquals(n + 1, log.append(g, rolls[g][played[g]++]));
+            history.add(new int[]{g, played[g]});
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            assertTrue(files.filter(p -> p.getFileName().toString().startsWith("snapshot-")).count() >= total / 50);
+        }
+        for (int reopen = 0; reopen < 2; reopen++) {
+            for (int n = 0; n < 400; n++) {
+                int record = 1 + random.nextInt(total);
+                int g = history.get(record - 1)[0];
+                int expected = 0;
+                for (int i = 0; i < record; i++) {
+                    if (history.get(i)[0] == g) {
+                        expected = history.get(i)[1];
+                    }
+                }
+                LiveGame replayed = log.replay(g, record);
+                int[] actual = new int[RollScorer.MAX_ROLLS];
+                assertEquals(expected, replayed.toRolls(actual, 0), "Wrong number of rolls for game " + g);
+                for (int i = 0; i < expected; i++) {
+                    assertEquals(rolls[g][i], actual[i]);
+                }
+            }
+            LiveGame last = log.replayAt(history.get(total - 1)[0], Long.MAX_VALUE);
+            assertTrue(last.isOver());
+            log.close();
+            log = new RollLog(dir, 50);
+            assertEquals(total, log.size());
+        }
+        log.close();
+    }
+
+    /**
+     * Append rolls that are not possible
+     * Expecting BowlingException, and nothing written
+     */
+    @Test
+    void testInvalidRolls(@TempDir Path dir) throws Exception {
+        try (RollLog log = new RollLog(dir)) {
+            log.append(7, 6);
+            assertThrows(BowlingException.class, () -> log.append(7, 5));
+            assertThrows(BowlingException.class, () -> log.append(8, 11));
+            assertEquals(1, log.size());
+            assertThrows(BowlingException.class, () -> log.replay(8, 1));
+            assertThrows(BowlingException.class, () -> log.replayAt(7, 0));
+        }
+    }
+
+    /**
+     * Append and sync rolls from many threads at once, each one playing
+     * its own games
+     * Expecting every game complete and valid after reopening the log
+     */
+    @Test
+    void testGroupCommit(@TempDir Path dir) throws Exception {
+        int threads = 8;
+        int games = 20;
+        RollLog log = new RollLog(dir, 1000);
+        List<Thread> workers = new ArrayList<>();
+        List<Throwable> errors = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            Thread w = new Thread(() -> {
+                Random random = new Random(id);
+                int[] rolls = new int[RollScorer.MAX_ROLLS];
+                try {
+                    for (int g = 0; g < games; g++) {
+                        int length = RollScorerTest.randomGame(random, rolls);
+                        for (int i = 0; i < length; i++) {
+                            log.appendAndSync(id * 1000L + g, rolls[i]);
+                        }
+                    }
+                } catch (Throwable e) {
+                    synchronized (errors) {
+                        errors.add(e);
+                    }
+                }
+            });
+            workers.add(w);
+            w.start();
+        }
+        for (Thread w : workers) {
+            w.join();
+        }
+        assertTrue(errors.isEmpty(), errors.toString());
+        long size = log.size();
+        log.close();
+        try (RollLog reopened = new RollLog(dir, 1000)) {
+            assertEquals(size, reopened.size());
+            for (int t = 0; t < threads; t++) {
+                for (int g = 0; g < games; g++) {
+                    assertTrue(reopened.replay(t * 1000L + g, size).isOver());
+                }
+            }
+        }
+    }
+
+    /**
+     * Reopen a log whose last record was cut short
+     * Expecting the partial record to be dropped
+     */
+    @Test
+    void testPartialRecord(@TempDir Path dir) throws Exception {
+        try (RollLog log = new RollLog(dir)) {
+            log.append(1, 3);
+            log.append(1, 4);
+        }
+        try (FileChannel c = FileChannel.open(dir.resolve(RollLog.LOG_FILE), StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            c.write(ByteBuffer.wrap(new byte[7]));
+        }
+        try (RollLog log = new RollLog(dir)) {
+            assertEquals(2, log.size());
+            log.append(1, 10);
+            assertEquals(3, log.replay(1, 3).getRollCount());
+        }
+    }
+
+    /**
+     * Reopen a log with a gap of zeros before its last records, as left by
+     * a crash when the last records reached the disk first
+     * Expecting the log to end before the gap
+     */
+    @Test
+    void testGap(@TempDir Path dir) throws Exception {
+        try (RollLog log = new RollLog(dir)) {
+            log.append(1, 3);
+            log.append(1, 4);
+            log.append(2, 5);
+            log.append(2, 2);
+        }
+        Path file = dir.resolve(RollLog.LOG_FILE);
+        try (FileChannel c = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            c.write(ByteBuffer.wrap(new byte[RollLog.RECORD_SIZE]), RollLog.HEADER_SIZE + 2 * RollLog.RECORD_SIZE);
+        }
+        try (RollLog log = new RollLog(dir)) {
+            assertEquals(2, log.size());
+            assertEquals(RollLog.HEADER_SIZE + 2 * RollLog.RECORD_SIZE, Files.size(file));
+            assertThrows(BowlingException.class, () -> log.replay(2, 2));
+            log.append(2, 6);
+            assertEquals(1, log.replay(2, 3).getRollCount());
+            assertEquals(2, log.replay(1, 3).getRollCount());
+        }
+    }
+
+    /**
+     * Append rolls to a log with a snapshot every 4 records, without
+     * syncing, then reopen it with a gap of zeros between two snapshots
+     * Expecting every record covered by a snapshot to be in the file
+     * already, then the log to end before the gap, without the snapshot
+     * that covers it
+     */
+    @Test
+    void testGapBeforeSnapshot(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve(RollLog.LOG_FILE);
+        try (RollLog log = new RollLog(dir, 4)) {
+            for (int i = 0; i < 10; i++) {
+                log.append(1, 1);
+                if (log.size() % 4 == 0) {
+                    assertEquals(RollLog.HEADER_SIZE + log.size() * RollLog.RECORD_SIZE, Files.size(file));
+                }
+            }
+        }
+        assertTrue(Files.exists(dir.resolve("snapshot-0000000000000008.bin")));
+        try (FileChannel c = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            c.write(ByteBuffer.wrap(new byte[RollLog.RECORD_SIZE]), RollLog.HEADER_SIZE + 5 * RollLog.RECORD_SIZE);
+        }
+        try (RollLog log = new RollLog(dir, 4)) {
+            assertEquals(5, log.size());
+            assertFalse(Files.exists(dir.resolve("snapshot-0000000000000008.bin")));
+            assertEquals(5, log.replay(1, 5).getRollCount());
+            log.append(1, 2);
+            assertEquals(6, log.replay(1, 6).getRollCount());
+        }
+    }
+}
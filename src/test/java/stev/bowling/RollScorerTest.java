@@ -0,0 +1,143 @@
+package stev.bowling;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import java.util.function.IntUnaryOperator;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the RollScorer class, comparing its totals with the ones
+ * computed by Game on the same rolls
+ */
+class RollScorerTest {
+
+    /**
+     * Score a game of open frames
+     * Expecting the sum of the pins at each frame
+     */
+    @Test
+    void testOpenGame() {
+        int[] rolls = {3, 6, 5, 0, 1, 7, 2, 2, 0, 0, 0, 6, 4, 4, 2, 1, 8, 1, 1, 2};
+        int[] totals = new int[10];
+        assertEquals(10, RollScorer.score(rolls, 0, rolls.length, totals, 0));
+        assertArrayEquals(new int[]{9, 14, 22, 26, 26, 32, 40, 43, 52, 55}, totals);
+    }
+
+    /**
+     * Score the game of GameDemo, read from a byte array at an offset
+     * Expecting the same totals as Game
+     */
+    @Test
+    void testDemoGameFromBytes() {
+        byte[] rolls = {99, 3, 6, 10, 5, 0, 1, 9, 10, 0, 0, 0, 6, 10, 2, 8, 1, 9, 3, 99};
+        int[] totals = new int[12];
+        assertEquals(10, RollScorer.score(rolls, 1, rolls.length - 2, totals, 2));
+        Game g = RollScorer.toGame(new int[]{3, 6, 10, 5, 0, 1, 9, 10, 0, 0, 0, 6, 10, 2, 8, 1, 9, 3}, 0, 18);
+        for (int i = 1; i <= 10; i++) {
+            assertEquals(g.getCumulativeScore(i), totals[i + 1], "Wrong total at frame " + i);
+        }
+    }
+
+    /**
+     * Score a game whose last frame still waits for its third roll
+     * Expecting the last frame and the strike before it to be pending
+     */
+    @Test
+    void testPendingFrames() {
+        int[] rolls = {1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 10, 4, 6};
+        int[] totals = new int[10];
+        assertEquals(9, RollScorer.score(rolls, 0, rolls.length, totals, 0));
+        assertEquals(36, totals[8]);
+        assertEquals(RollScorer.PENDING, totals[9]);
+    }
+
+    /**
+     * Score rolls where a frame knocks down more than 10 pins
+     * Expecting BowlingException
+     */
+    @Test
+    void testTooManyPins() {
+        int[] rolls = {3, 6, 7, 5};
+        assertThrows(BowlingException.class, () -> RollScorer.score(rolls, 0, rolls.length, new int[10], 0),
+                "No exception thrown while scoring a frame with more than 10 pins");
+    }
+
+    /**
+     * Score rolls that go past the tenth frame
+     * Expecting BowlingException
+     */
+    @Test
+    void testRollsAfterLastFrame() {
+        int[] rolls = new int[21];
+        assertThrows(BowlingException.class, () -> RollScorer.score(rolls, 0, rolls.length, new int[10], 0),
+                "No exception thrown while scoring a game with a 21st roll after an open tenth frame");
+    }
+
+    /**
+     * Score random games, complete or cut at a random roll, with both
+     * RollScorer and Game
+     * Expecting the same total for every frame whose score is known
+     */
+    @Test
+    void testAgainstGame() {
+        Random random = new Random(20200519L);
+        int[] rolls = new int[RollScorer.MAX_ROLLS];
+        int[] packed = new int[RollScorer.MAX_ROLLS];
+        int[] totals = new int[10];
+        for (int n = 0; n < 20000; n++) {
+            int length = randomGame(random, rolls);
+            if (random.nextBoolean()) {
+                length = random.nextInt(length + 1);
+            }
+            Game g = RollScorer.toGame(rolls, 0, length);
+            assertEquals(length, RollScorer.toRolls(g, packed, 0));
+            int known = RollScorer.score(packed, 0, length, totals, 0);
+            for (int i = 1; i <= known; i++) {
+                assertEquals(g.getCumulativeScore(i), totals[i - 1], "Wrong total at frame " + i);
+            }
+            for (int i = known; i < 10; i++) {
+                assertEquals(RollScorer.PENDING, totals[i]);
+            }
+        }
+    }
+
+    /**
+     * Fill an array with the rolls of a random complete game
+     *
+     * @param random Random The source of randomness
+     * @param rolls int[] The array receiving the rolls
+     * @return int The number of rolls
+     */
+    static int randomGame(Random random, int[] rolls) {
+        return randomGame(random::nextInt, rolls);
+    }
+
+    /**
+     * Fill an array with the rolls of a random complete game, taking the
+     * random numbers from any source; this is the generator of legal games
+     * of all the tests
+     *
+     * @param random IntUnaryOperator Gives a random integer from 0 to its
+     * argument, excluded
+     * @param rolls int[] The array receiving the rolls
+     * @return int The number of rolls
+     */
+    static int randomGame(IntUnaryOperator random, int[] rolls) {
+        int p = 0;
+        for (int frame = 1; frame <= 10; frame++) {
+            int first = random.applyAsInt(3) == 0 ? 10 : random.applyAsInt(11);
+            rolls[p++] = first;
+            if (first == 10 && frame < 10) {
+                continue;
+            }
+            int second = random.applyAsInt(4) == 0 ? 10 - first : random.applyAsInt(11 - first);
+            rolls[p++] = second;
+            if (frame == 10 && first + second == 10) {
+                rolls[p++] = random.applyAsInt(11);
+            }
+        }
+        return p;
+    }
+}
@@ -0,0 +1,84 @@
+package stev.bowling;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the ScoreboardRenderer class
+ */
+class ScoreboardRendererTest {
+
+    private final ScoreboardRenderer renderer = new ScoreboardRenderer();
+
+    /**
+     * Render random complete games and every partial game leading to them
+     * Expecting the same text as Game.toString, as characters and as bytes
+     */
+    @Test
+    void testRandomGames() throws IOException {
+        Random random = new Random(8L);
+        int[] rolls = new int[RollScorer.MAX_ROLLS];
+        StringBuilder out = new StringBuilder();
+        ByteBuffer bytes = ByteBuffer.allocate(512);
+        for (int i = 0; i < 200; i++) {
+            int length = RollScorerTest.randomGame(random, rolls);
+            for (int n = 0; n <= length; n++) {
+                Game g = RollScorer.toGame(rolls, 0, n);
+                String expected = g.toString();
+                out.setLength(0);
+                assertEquals(expected, this.renderer.renderTo(g, out).toString());
+                bytes.clear();
+                this.renderer.renderTo(g, bytes).flip();
+                assertEquals(expected, StandardCharsets.US_ASCII.decode(bytes).toString());
+            }
+        }
+    }
+
+    /**
+     * Render games with empty frames and frames with a single roll
+     * Expecting the same text as Game.toString
+     */
+    @Test
+    void testIncompleteFrames() throws IOException {
+        Game g = new Game();
+        assertEquals(g.toString(), this.renderer.renderTo(g, new StringBuilder()).toString());
+        NormalFrame first = new NormalFrame(1);
+        g.addFrame(first);
+        assertEquals(g.toString(), this.renderer.renderTo(g, new StringBuilder()).toString());
+        first.setPinsDown(1, 7);
+        assertEquals(g.toString(), this.renderer.renderTo(g, new StringBuilder()).toString());
+        for (int i = 2; i <= 9; i++) {
+            g.addFrame(new NormalFrame(i).setPinsDown(1, 10));
+        }
+        LastFrame last = new LastFrame(10);
+        g.addFrame(last);
+        assertEquals(g.toString(), this.renderer.renderTo(g, new StringBuilder()).toString());
+        last.setPinsDown(1, 4);
+        assertEquals(g.toString(), this.renderer.renderTo(g, new StringBuilder()).toString());
+        last.setPinsDown(2, 6);
+        assertEquals(g.toString(), this.renderer.renderTo(g, new StringBuilder()).toString());
+        last.setPinsDown(3, 10);
+        assertEquals(g.toString(), this.renderer.renderTo(g, new StringBuilder()).toString());
+    }
+
+    /**
+     * Render a game whose scores are kept by CachedGame
+     * Expecting the same text as Game.toString
+     */
+    @Test
+    void testCachedGame() throws IOException {
+        int[] rolls = {10, 7, 3, 9, 0, 10, 0, 8, 8, 2, 0, 6, 10, 10, 10, 0, 8};
+        Game g = RollScorer.toGame(rolls, 0, rolls.length);
+        CachedGame cached = new CachedGame();
+        for (int i = 0; i < 10; i++) {
+            cached.addFrame(g.m_frames.get(i));
+        }
+        assertEquals(g.toString(), this.renderer.renderTo(cached, new StringBuilder()).toString());
+    }
+}
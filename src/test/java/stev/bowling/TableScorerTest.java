@@ -0,0 +1,83 @@
+package stev.bowling;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the TableScorer class
+ */
+class TableScorerTest {
+
+    /**
+     * Score random games after every roll, including frames with a single roll
+     * Expecting the same totals as Game for every frame
+     */
+    @Test
+    void testSameAsGame() {
+        Random random = new Random(12L);
+        int[] rolls = new int[RollScorer.MAX_ROLLS];
+        int[] totals = new int[RollScorer.FRAMES];
+        for (int i = 0; i < 2000; i++) {
+            int length = RollScorerTest.randomGame(random, rolls);
+            for (int n = 0; n <= length; n++) {
+                Game g = RollScorer.toGame(rolls, 0, n);
+                int size = TableScorer.score(g, totals, 0);
+                assertEquals(g.m_frames.size(), size);
+                for (int frame = 1; frame <= size; frame++) {
+                    assertEquals(g.getCumulativeScore(frame), totals[frame - 1]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Score every pair of frame states in frames 8 and 9, and 9 and 10
+     * Expecting the same totals as Game
+     */
+    @Test
+    void testAllStatePairs() {
+        int[] totals = new int[RollScorer.FRAMES];
+        for (int state = 0; state < TableScorer.NORMAL_STATES; state++) {
+            for (int next = 0; next < TableScorer.LAST_STATES; next++) {
+                Game g = new Game();
+                for (int i = 1; i <= 8; i++) {
+                    g.addFrame(new NormalFrame(i).setPinsDown(1, 3).setPinsDown(2, 4));
+                }
+                NormalFrame ninth = new NormalFrame(9);
+                TableScorer.normalPins(state, ninth.m_scores);
+                LastFrame tenth = new LastFrame(10);
+                TableScorer.lastPins(next, tenth.m_scores);
+                g.addFrame(ninth).addFrame(tenth);
+                assertEquals(state, TableScorer.normalState(ninth.m_scores));
+                assertEquals(next, TableScorer.lastState(tenth.m_scores));
+                TableScorer.score(g, totals, 0);
+                for (int frame = 1; frame <= 10; frame++) {
+                    assertEquals(g.getCumulativeScore(frame), totals[frame - 1]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Score a game whose frame 10 breaks the rules of RollScorer
+     * Expecting the totals of the game itself
+     */
+    @Test
+    void testFallback() {
+        Game g = new Game();
+        for (int i = 1; i <= 9; i++) {
+            g.addFrame(new NormalFrame(i).setPinsDown(1, 10));
+        }
+        LastFrame last = new LastFrame(10).setPinsDown(1, 10).setPinsDown(2, 10);
+        g.addFrame(last);
+        assertEquals(-1, TableScorer.lastState(last.m_scores));
+        int[] totals = new int[RollScorer.FRAMES];
+        TableScorer.score(g, totals, 0);
+        for (int frame = 1; frame <= 10; frame++) {
+            assertEquals(g.getCumulativeScore(frame), totals[frame - 1]);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package stev.bowling;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the Tournament class
+ */
+class TournamentTest {
+
+    /**
+     * Play a frame for two bowlers, one of them with a handicap
+     * Expecting the leaderboard to follow the final frame scores and handicaps
+     */
+    @Test
+    void testLeaderboard() {
+        Tournament t = new Tournament().addBowler("Ann", 0).addBowler("Bob", 20);
+        t.roll("Ann", 7).roll("Ann", 2);
+        assertEquals(9, t.getStanding("Ann").getTotal());
+        t.roll("Bob", 10);
+        // The strike is not final yet, only the handicap counts
+        assertEquals(20, t.getStanding("Bob").getTotal());
+        assertEquals("Bob", t.top(1).get(0).getName());
+        t.roll("Ann", 9).roll("Ann", 1).roll("Ann", 10);
+        assertEquals("Ann", t.top(2).get(0).getName());
+        t.roll("Bob", 3).roll("Bob", 4);
+        assertEquals(24 + 20, t.getStanding("Bob").getTotal());
+        assertEquals(9 + 20, t.getStanding("Ann").getTotal());
+        assertEquals("Bob", t.top(2).get(0).getName());
+        assertEquals(2, t.top(5).size());
+    }
+
+    /**
+     * Play three complete random games for many bowlers
+     * Expecting every series total to be the sum of the scores of Game, and
+     * the leaderboard sorted by total
+     */
+    @Test
+    void testSeries() {
+        Random random = new Random(15L);
+        Tournament t = new Tournament();
+        int[] expected = new int[50];
+        int[] rolls = new int[RollScorer.MAX_ROLLS];
+        for (int b = 0; b < expected.length; b++) {
+            t.addBowler("B" + b, b % 7);
+        }
+        for (int game = 0; game < Tournament.SERIES_GAMES; game++) {
+            for (int b = 0; b < expected.length; b++) {
+                int length = RollScorerTest.randomGame(random, rolls);
+                for (int i = 0; i < length; i++) {
+                    t.roll("B" + b, rolls[i]);
+                }
+                expected[b] += RollScorer.toGame(rolls, 0, length).getCumulativeScore(10) + b % 7;
+            }
+        }
+        for (int b = 0; b < expected.length; b++) {
+            Tournament.Standing s = t.getStanding("B" + b);
+            assertEquals(expected[b], s.getTotal());
+            assertEquals(3, s.getGamesCompleted());
+            assertEquals(3 * (b % 7), s.getHandicap());
+        }
+        List<Tournament.Standing> top = t.top(expected.length);
+        assertEquals(expected.length, top.size());
+        List<Tournament.Standing> sorted = new ArrayList<>(top);
+        sorted.sort(Comparator.comparingInt(Tournament.Standing::getTotal).reversed());
+        for (int i = 0; i < top.size(); i++) {
+            assertEquals(sorted.get(i).getTotal(), top.get(i).getTotal());
+        }
+        assertThrows(BowlingException.class, () -> t.roll("B0", 5), "A fourth game was started");
+    }
+
+    /**
+     * Register the same bowler twice, and roll for an unknown bowler
+     * Expecting BowlingException
+     */
+    @Test
+    void testUnknownBowler() {
+        Tournament t = new Tournament().addBowler("Ann", 0);
+        assertThrows(BowlingException.class, () -> t.addBowler("Ann", 5));
+        assertThrows(BowlingException.class, () -> t.roll("Bob", 5));
+    }
+}
@@ -0,0 +1,165 @@
+package stev.bowling;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the TrackedNormalFrame, TrackedLastFrame and FrameSummary
+ * classes, and for CachedGame listening to tracked frames
+ */
+class TrackedFrameTest {
+
+    /**
+     * Make the same random calls, valid or not, on tracked and plain
+     * frames
+     * Expecting the same exceptions, pin counts and roll counts, and a
+     * summary matching the pins
+     */
+    @Test
+    void testSameAsFrames() {
+        Random random = new Random(24L);
+        for (int n = 0; n < 20000; n++) {
+            boolean last = random.nextBoolean();
+            Frame plain = last ? new LastFrame(10) : new NormalFrame(3);
+            Frame tracked = last ? new TrackedLastFrame() : new TrackedNormalFrame(3);
+            for (int step = 0; step < 5; step++) {
+                int roll = random.nextInt(4);
+                int pins = random.nextInt(13) - 1;
+                if (random.nextInt(8) == 0) {
+                    plain.reset();
+                    tracked.reset();
+                } else {
+                    boolean expected = throwsException(() -> plain.setPinsDown(roll, pins));
+                    assertEquals(expected, throwsException(() -> tracked.setPinsDown(roll, pins)));
+                }
+                assertEquals(plain.countPinsDown(), tracked.countPinsDown());
+                assertEquals(plain.countRolls(), tracked.countRolls());
+                assertEquals(plain.toString(), tracked.toString());
+                FrameSummary s = ((TrackedFrame) tracked).getSummary();
+                int first = plain.getPinsDown(1);
+                int second = plain.getPinsDown(2);
+                boolean spare = first != 10 && first >= 0 && second >= 0 && first + second == 10;
+                assertEquals(first == 10, s.isStrike());
+                assertEquals(spare, s.isSpare());
+                assertEquals(last ? 0 : first == 10 ? 2 : spare ? 1 : 0, s.getBonusRolls());
+            }
+        }
+    }
+
+    /**
+     * Add and remove a listener of a frame, and change the frame
+     * Expecting one notice per change while the listener is registered
+     */
+    @Test
+    void testListeners() {
+        TrackedNormalFrame f = new TrackedNormalFrame(1);
+        List<Frame> changes = new ArrayList<>();
+        FrameListener listener = changes::add;
+        f.addListener(listener);
+        f.setPinsDown(1, 3);
+        assertThrows(BowlingException.class, () -> f.setPinsDown(2, 8));
+        f.reset();
+        assertEquals(3, changes.size());
+        assertSame(f, changes.get(0));
+        f.removeListener(listener);
+        f.setPinsDown(1, 10);
+        assertEquals(3, changes.size());
+        assertTrue(f.getSummary().isStrike());
+    }
+
+    /**
+     * Change the tracked frames of a CachedGame between lookups
+     * Expecting the same scores and scoreboard as Game, with the totals
+     * before the changed frame kept in the cache
+     */
+    @Test
+    void testCachedGame() throws Exception {
+        Random random = new Random(240L);
+        int[] rolls = new int[RollScorer.MAX_ROLLS];
+        ScoreboardRenderer renderer = new ScoreboardRenderer();
+        for (int n = 0; n < 2000; n++) {
+            CachedGame cached = new CachedGame();
+            Game plain = new Game();
+            for (int i = 1; i <= 10; i++) {
+                Frame f = i == 10 ? new TrackedLastFrame() : new TrackedNormalFrame(i);
+                cached.addFrame(f);
+                plain.addFrame(f);
+            }
+            int length = RollScorerTest.randomGame(random, rolls);
+            Game g = RollScorer.toGame(rolls, 0, length);
+            for (int i = 0; i < 10; i++) {
+                Frame source = g.m_frames.get(i);
+                Frame f = cached.m_frames.get(i);
+                for (int r = 1; r <= source.m_scores.length && source.getPinsDown(r) >= 0; r++) {
+                    if (r == 2 && i < 9 && source.getPinsDown(1) == 10) {
+                        break;
+                    }
+                    f.setPinsDown(r, source.getPinsDown(r));
+                    int frame = 1 + random.nextInt(10);
+                    assertEquals(plain.getCumulativeScore(frame), cached.getCumulativeScore(frame));
+                    assertEquals(plain.toString(), renderer.renderTo(cached, new StringBuilder()).toString());
+                }
+            }
+            assertEquals(plain.toString(), cached.toString());
+            long misses = cached.getCacheMisses();
+            cached.m_frames.get(9).reset();
+            assertEquals(plain.getCumulativeScore(8), cached.getCumulativeScore(8));
+            assertEquals(misses, cached.getCacheMisses());
+            assertEquals(plain.getCumulativeScore(10), cached.getCumulativeScore(10));
+        }
+    }
+
+    /**
+     * Detach the tracked frames of a CachedGame, then change them, and add
+     * one of them to another game
+     * Expecting the frames to have no listener left, and the same scores
+     * as Game in both games
+     */
+    @Test
+    void testDetachFrames() {
+        CachedGame cached = new CachedGame();
+        Game plain = new Game();
+        TrackedNormalFrame first = new TrackedNormalFrame(1);
+        TrackedNormalFrame second = new TrackedNormalFrame(2);
+        cached.addFrame(first).addFrame(second);
+        plain.addFrame(first).addFrame(second);
+        first.setPinsDown(1, 10);
+        second.setPinsDown(1, 4).setPinsDown(2, 3);
+        assertEquals(1, first.getSummary().m_listeners.length);
+        assertEquals(24, cached.getCumulativeScore(2));
+        cached.detachFrames();
+        assertEquals(0, first.getSummary().m_listeners.length);
+        assertEquals(0, second.getSummary().m_listeners.length);
+        second.reset();
+        second.setPinsDown(1, 5).setPinsDown(2, 5);
+        assertEquals(plain.getCumulativeScore(1), cached.getCumulativeScore(1));
+        assertEquals(plain.getCumulativeScore(2), cached.getCumulativeScore(2));
+        CachedGame other = new CachedGame();
+        other.addFrame(first);
+        assertEquals(1, first.getSummary().m_listeners.length);
+        first.reset();
+        first.setPinsDown(1, 2);
+        assertEquals(plain.getCumulativeScore(1), other.getCumulativeScore(1));
+        assertEquals(plain.getCumulativeScore(1), cached.getCumulativeScore(1));
+    }
+
+    /**
+     * Run an action
+     *
+     * @param action Runnable The action
+     * @return boolean Whether the action threw a BowlingException
+     */
+    private static boolean throwsException(Runnable action) {
+        try {
+            action.run();
+            return false;
+        } catch (BowlingException e) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package stev.bowling;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the Validation class
+ */
+class ValidationTest {
+
+    /**
+     * Try every roll in every state of a frame
+     * Expecting OK exactly when the frame accepts the roll, and the frame
+     * unchanged when it is rejected
+     */
+    @Test
+    void testAgreesWithFrames() {
+        for (int tenth = 0; tenth <= 1; tenth++) {
+            int rolls = tenth == 1 ? 3 : 2;
+            for (int a = -1; a <= 10; a++) {
+                for (int b = -1; b <= 10; b++) {
+                    for (int roll = 0; roll <= rolls + 1; roll++) {
+                        for (int pins = -1; pins <= 11; pins++) {
+                            Frame f = tenth == 1 ? new LastFrame(10) : new NormalFrame(1);
+                            f.m_scores[0] = a;
+                            f.m_scores[1] = b;
+                            int[] before = f.m_scores.clone();
+                            int status = Validation.trySetPinsDown(f, roll, pins);
+                            if (status != Validation.OK) {
+                                assertArrayEquals(before, f.m_scores);
+                                continue;
+                            }
+                            // The frame itself must accept the same roll
+                            Frame copy = tenth == 1 ? new LastFrame(10) : new NormalFrame(1);
+                            copy.m_scores[0] = a;
+                            copy.m_scores[1] = b;
+                            copy.setPinsDown(roll, pins);
+                            assertArrayEquals(copy.m_scores, f.m_scores);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Try the rolls the frames are expected to reject
+     * Expecting the matching status codes
+     */
+    @Test
+    void testStatusCodes() {
+        NormalFrame f = new NormalFrame(1);
+        assertEquals(Validation.INVALID_PINS, Validation.trySetPinsDown(f, 1, 11));
+        assertEquals(Validation.NO_SUCH_ROLL, Validation.trySetPinsDown(f, 3, 1));
+        assertEquals(Validation.PREVIOUS_ROLL_MISSING, Validation.trySetPinsDown(f, 2, 1));
+        assertEquals(Validation.OK, Validation.trySetPinsDown(f, 1, 6));
+        assertEquals(Validation.TOO_MANY_PINS, Validation.trySetPinsDown(f, 2, 5));
+        assertEquals(Validation.ROLL_ALREADY_ENTERED, Validation.trySetPinsDown(f, 1, 3));
+        LastFrame last = new LastFrame(10).setPinsDown(1, 3).setPinsDown(2, 4);
+        assertEquals(Validation.NO_THIRD_ROLL, Validation.trySetPinsDown(last, 3, 1));
+        assertEquals(Validation.IMMUTABLE_FRAME, Validation.trySetPinsDown(Frames.of(1, 3, 4), 1, 3));
+    }
+
+    /**
+     * Add frames of the right and wrong types to a game
+     * Expecting the same frames accepted as Game.addFrame
+     */
+    @Test
+    void testTryAddFrame() {
+        Game g = new Game();
+        assertEquals(Validation.WRONG_FRAME_TYPE, Validation.tryAddFrame(g, new LastFrame(10)));
+        for (int i = 1; i <= 9; i++) {
+            assertEquals(Validation.OK, Validation.tryAddFrame(g, new NormalFrame(i)));
+        }
+        assertEquals(Validation.WRONG_FRAME_TYPE, Validation.tryAddFrame(g, new NormalFrame(10)));
+        assertEquals(9, g.m_frames.size());
+        assertEquals(Validation.OK, Validation.tryAddFrame(g, new LastFrame(10)));
+        assertEquals(Validation.NO_SUCH_FRAME, Validation.tryAddFrame(g, new NormalFrame(10)));
+        assertEquals(10, g.m_frames.size());
+    }
+
+    /**
+     * Play rolls in a LiveGame without exceptions
+     * Expecting the status codes and the rejected rolls not played
+     */
+    @Test
+    void testTryRoll() {
+        LiveGame game = new LiveGame();
+        assertEquals(Validation.INVALID_PINS, game.tryRoll(-1));
+        assertEquals(Validation.OK, game.tryRoll(6));
+        assertEquals(Validation.TOO_MANY_PINS, game.tryRoll(5));
+        assertEquals(1, game.getRollCount());
+        for (int i = 0; i < 10; i++) {
+            game.tryRoll(i == 0 ? 4 : 10);
+        }
+        game.tryRoll(0);
+        game.tryRoll(10);
+        assertTrue(game.isOver());
+        assertEquals(Validation.GAME_OVER, game.tryRoll(1));
+    }
+
+    /**
+     * Throw the exception of a status code twice
+     * Expecting the same instance, with its status code and no stack trace
+     */
+    @Test
+    void testPreallocatedException() {
+        ValidationException first = assertThrows(ValidationException.class,
+                () -> Validation.check(Validation.TOO_MANY_PINS));
+        ValidationException second = assertThrows(ValidationException.class,
+                () -> Validation.check(Validation.TOO_MANY_PINS));
+        assertSame(first, second);
+        assertEquals(Validation.TOO_MANY_PINS, first.getStatus());
+        assertEquals("The total score exceeds 10", first.getMessage());
+        assertEquals(0, first.getStackTrace().length);
+        Validation.check(Validation.OK);
+    }
+}
@@ -0,0 +1,37 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+/**
+ * Computes the cumulative scores of the games stored in
+ * {@link FrameColumns}. The totals are the same as those of
+ * {@link Game#getCumulativeScore(int)}.
+ */
+public interface ColumnScorer
+{
+	/**
+	 * Computes the cumulative score of every frame of every game
+	 * @param columns The games
+	 * @param totals An array receiving the totals, frame by frame: the total
+	 * of frame {@code f} (starting at 1) of game {@code g} is at index
+	 * {@code (f - 1) * n + g}, where {@code n} is the number of games, as in
+	 * {@link GameBatchScorer}
+	 */
+	public void score(FrameColumns columns, int[] totals);
+}
@@ -0,0 +1,77 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+import java.util.Random;
+
+/**
+ * Measures the throughput of the scalar and vector backends of
+ * {@link ColumnScorer} on random games.
+ */
+public class ColumnScorerDemo
+{
+	/**
+	 * The main method of the program
+	 * @param args Command line arguments: the number of games to score
+	 * (optional, 2,000,000 by default) and the number of times each
+	 * measurement is repeated (optional, 10 by default)
+	 */
+	public static void main(String[] args)
+	{
+		int games = args.length > 0 ? Integer.parseInt(args[0]) : 2000000;
+		int repetitions = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+		int[] offsets = new int[games + 1];
+		int[] rolls = GameBatchDemo.randomGames(new Random(0), offsets);
+		FrameColumns columns = FrameColumns.of(rolls, offsets);
+		int[] totals = new int[RollScorer.FRAMES * games];
+		System.out.println("Scoring " + games + " games");
+		measure("scalar", new ScalarColumnScorer(), columns, totals, repetitions);
+		ColumnScorer best = ColumnScorers.create();
+		if (best instanceof VectorColumnScorer)
+		{
+			measure("vector", best, columns, totals, repetitions);
+		}
+		else
+		{
+			System.out.println("vector: not available, start the JVM with the jdk.incubator.vector module");
+		}
+	}
+
+	/**
+	 * Measures the throughput of a backend and prints it
+	 * @param name The name of the backend
+	 * @param scorer The backend
+	 * @param columns The games
+	 * @param totals The array receiving the totals
+	 * @param repetitions The number of times the measurement is repeated
+	 */
+	protected static void measure(String name, ColumnScorer scorer, FrameColumns columns, int[] totals, int repetitions)
+	{
+		// The first run lets the JIT compile the scoring loop
+		scorer.score(columns, totals);
+		long best = Long.MAX_VALUE;
+		for (int i = 0; i < repetitions; i++)
+		{
+			long start = System.nanoTime();
+			scorer.score(columns, totals);
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		System.out.printf("%s: %,15.0f games/s%n", name, columns.size() * 1e9 / best);
+	}
+}
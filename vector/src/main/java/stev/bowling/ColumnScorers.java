@@ -0,0 +1,78 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+/**
+ * Chooses the backend used to score {@link FrameColumns}.
+ */
+public class ColumnScorers
+{
+	/**
+	 * The name of the system property that disables the vector backend when
+	 * set to {@code false}
+	 */
+	public static final String VECTOR_PROPERTY = "stev.bowling.vector";
+
+	/**
+	 * The name of the module of the Vector API
+	 */
+	protected static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+	private ColumnScorers()
+	{
+		super();
+	}
+
+	/**
+	 * Creates the fastest backend available: {@link VectorColumnScorer} if
+	 * the Vector API is present and not disabled, and
+	 * {@link ScalarColumnScorer} otherwise
+	 * @return The backend
+	 */
+	public static ColumnScorer create()
+	{
+		if (isVectorAvailable())
+		{
+			try
+			{
+				// Loaded by name, so that this class links without the module
+				return (ColumnScorer) Class.forName("stev.bowling.VectorColumnScorer").getDeclaredConstructor().newInstance();
+			}
+			catch (ReflectiveOperationException | LinkageError e)
+			{
+				// Fall back to the scalar backend
+			}
+		}
+		return new ScalarColumnScorer();
+	}
+
+	/**
+	 * Determines whether the vector backend can be used
+	 * @return {@code true} if the Vector API is present and the vector
+	 * backend is not disabled
+	 */
+	public static boolean isVectorAvailable()
+	{
+		if ("false".equals(System.getProperty(VECTOR_PROPERTY)))
+		{
+			return false;
+		}
+		return ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent();
+	}
+}
@@ -0,0 +1,137 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+/**
+ * The pins of many complete games, stored frame by frame with one column
+ * per roll: the first roll of frame {@code f} (starting at 0) of game
+ * {@code g} is at index {@code f * n + g} of {@link #m_first}, where
+ * {@code n} is the number of games. The rolls of the same frame of
+ * consecutive games are therefore next to each other, which lets a
+ * {@link ColumnScorer} process several games with the same instruction.
+ * <p>
+ * As in {@link NormalFrame}, a strike in frames 1 to 9 has 0 as its second
+ * roll; frame 10 has 0 as its third roll when it has none.
+ */
+public class FrameColumns
+{
+	/**
+	 * The number of games
+	 */
+	protected final int m_games;
+
+	/**
+	 * The first roll of each frame of each game
+	 */
+	protected final int[] m_first;
+
+	/**
+	 * The second roll of each frame of each game
+	 */
+	protected final int[] m_second;
+
+	/**
+	 * The third roll of frame 10 of each game
+	 */
+	protected final int[] m_third;
+
+	/**
+	 * Creates empty columns
+	 * @param games The number of games
+	 */
+	public FrameColumns(int games)
+	{
+		super();
+		m_games = games;
+		m_first = new int[RollScorer.FRAMES * games];
+		m_second = new int[RollScorer.FRAMES * games];
+		m_third = new int[games];
+	}
+
+	/**
+	 * Creates the columns of games stored one after the other, in the format
+	 * of {@link RollScorer}
+	 * @param rolls The rolls of all the games
+	 * @param offsets The position of the first roll of each game, plus the
+	 * position after the last game
+	 * @return The columns
+	 * @throws BowlingException If a game is not complete or not valid
+	 */
+	public static FrameColumns of(int[] rolls, int[] offsets) throws BowlingException
+	{
+		FrameColumns columns = new FrameColumns(offsets.length - 1);
+		for (int g = 0; g < columns.m_games; g++)
+		{
+			columns.set(g, rolls, offsets[g], offsets[g + 1] - offsets[g]);
+		}
+		return columns;
+	}
+
+	/**
+	 * Sets the rolls of a game
+	 * @param game The index of the game
+	 * @param rolls An array containing the rolls of a complete game, in the
+	 * format of {@link RollScorer}
+	 * @param offset The position of the first roll in the array
+	 * @param length The number of rolls in the game
+	 * @throws BowlingException If the rolls do not form a complete, valid
+	 * game
+	 */
+	public void set(int game, int[] rolls, int offset, int length) throws BowlingException
+	{
+		int end = offset + length;
+		int p = offset;
+		for (int frame = 0; frame < RollScorer.FRAMES; frame++)
+		{
+			GameCodec.checkRemaining(p, end, 1);
+			int first = RollScorer.checkPins(rolls[p++]);
+			int second = 0;
+			if (first < 10 || frame == RollScorer.FRAMES - 1)
+			{
+				GameCodec.checkRemaining(p, end, 1);
+				second = RollScorer.checkFrame(first, rolls[p++]);
+			}
+			m_first[frame * m_games + game] = first;
+			m_second[frame * m_games + game] = second;
+			if (frame == RollScorer.FRAMES - 1)
+			{
+				int third = 0;
+				if (first + second == 10)
+				{
+					GameCodec.checkRemaining(p, end, 1);
+					third = RollScorer.checkPins(rolls[p++]);
+				}
+				m_third[game] = third;
+			}
+		}
+		if (p != end)
+		{
+			throw new BowlingException("There are " + (end - p) + " rolls after frame #10");
+		}
+	}
+
+	/**
+	 * Gets the number of games
+	 * @return The number of games
+	 */
+	public int size()
+	{
+		return m_games;
+	}
+}
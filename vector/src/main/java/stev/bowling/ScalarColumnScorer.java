@@ -0,0 +1,73 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+/**
+ * Scores {@link FrameColumns} one game at a time. This is the backend used
+ * when the Vector API is not available.
+ */
+public class ScalarColumnScorer implements ColumnScorer
+{
+	@Override
+	public void score(FrameColumns columns, int[] totals)
+	{
+		score(columns, totals, 0, columns.m_games);
+	}
+
+	/**
+	 * Computes the cumulative score of every frame of a range of games
+	 * @param columns The games
+	 * @param totals An array receiving the totals
+	 * @param from The first game of the range
+	 * @param to The game after the last game of the range
+	 */
+	protected void score(FrameColumns columns, int[] totals, int from, int to)
+	{
+		int n = columns.m_games;
+		int[] first = columns.m_first;
+		int[] second = columns.m_second;
+		// Frame by frame, so that the columns are read in order
+		for (int f = 0; f < RollScorer.FRAMES - 1; f++)
+		{
+			for (int g = from; g < to; g++)
+			{
+				int i = f * n + g;
+				int a = first[i];
+				int b = second[i];
+				int c = first[i + n];
+				int points = a + b;
+				if (a == 10)
+				{
+					// A strike followed by a strike takes no further bonus
+					points += c == 10 ? c : c + second[i + n];
+				}
+				else if (a + b == 10)
+				{
+					points += c;
+				}
+				totals[i] = (f == 0 ? 0 : totals[i - n]) + points;
+			}
+		}
+		for (int g = from; g < to; g++)
+		{
+			int i = (RollScorer.FRAMES - 1) * n + g;
+			totals[i] = totals[i - n] + first[i] + second[i] + columns.m_third[g];
+		}
+	}
+}
@@ -0,0 +1,76 @@
+/*
+    A simple bowling score calculator
+
+    Copyright (C) 2020 Sylvain Hallé
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package stev.bowling;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Scores {@link FrameColumns} with the Vector API, one lane per game. The
+ * strike and spare branches of the scalar backend become lane masks, so
+ * that all the games of a vector follow the same instructions. The games
+ * left over after the last full vector are scored by
+ * {@link ScalarColumnScorer}.
+ * <p>
+ * This class needs the {@code jdk.incubator.vector} module; use
+ * {@link ColumnScorers#create()} to get it only when the module is present.
+ */
+public class VectorColumnScorer extends ScalarColumnScorer
+{
+	/**
+	 * The shape of the vectors, as wide as the hardware allows
+	 */
+	protected static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+	@Override
+	public void score(FrameColumns columns, int[] totals)
+	{
+		int n = columns.m_games;
+		int[] first = columns.m_first;
+		int[] second = columns.m_second;
+		int bound = SPECIES.loopBound(n);
+		IntVector zero = IntVector.zero(SPECIES);
+		for (int g = 0; g < bound; g += SPECIES.length())
+		{
+			IntVector total = zero;
+			IntVector a = IntVector.fromArray(SPECIES, first, g);
+			IntVector b = IntVector.fromArray(SPECIES, second, g);
+			for (int f = 0; f < RollScorer.FRAMES - 1; f++)
+			{
+				int i = f * n + g;
+				IntVector c = IntVector.fromArray(SPECIES, first, i + n);
+				IntVector d = IntVector.fromArray(SPECIES, second, i + n);
+				IntVector pins = a.add(b);
+				VectorMask<Integer> strike = a.eq(10);
+				VectorMask<Integer> mark = pins.eq(10);
+				// A strike followed by a strike takes no further bonus
+				VectorMask<Integer> twoBonus = strike.and(c.compare(VectorOperators.NE, 10));
+				total = total.add(pins).add(zero.blend(c, mark)).add(zero.blend(d, twoBonus));
+				total.intoArray(totals, i);
+				a = c;
+				b = d;
+			}
+			int i = (RollScorer.FRAMES - 1) * n + g;
+			total.add(a).add(b).add(IntVector.fromArray(SPECIES, columns.m_third, g)).intoArray(totals, i);
+		}
+		score(columns, totals, bound, n);
+	}
+}
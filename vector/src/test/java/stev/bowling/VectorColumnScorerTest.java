@@ -0,0 +1,97 @@
+package stev.bowling;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the ColumnScorer backends
+ */
+class VectorColumnScorerTest {
+
+    /**
+     * Score random games with both backends, with a number of games that is
+     * not a multiple of the vector length
+     * Expecting the totals of Game for every frame of every game
+     */
+    @Test
+    void testSameAsGame() {
+        final int count = 1003;
+        Random random = new Random(13L);
+        int[] offsets = new int[count + 1];
+        int[] rolls = new int[count * RollScorer.MAX_ROLLS];
+        Game[] games = new Game[count];
+        int[] game = new int[RollScorer.MAX_ROLLS];
+        int p = 0;
+        for (int g = 0; g < count; g++) {
+            offsets[g] = p;
+            int length = RollScorerTest.randomGame(random, game);
+            System.arraycopy(game, 0, rolls, p, length);
+            games[g] = RollScorer.toGame(game, 0, length);
+            p += length;
+        }
+        offsets[count] = p;
+        FrameColumns columns = FrameColumns.of(rolls, offsets);
+        int[] scalar = new int[RollScorer.FRAMES * count];
+        int[] vector = new int[RollScorer.FRAMES * count];
+        new ScalarColumnScorer().score(columns, scalar);
+        new VectorColumnScorer().score(columns, vector);
+        for (int g = 0; g < count; g++) {
+            for (int frame = 1; frame <= 10; frame++) {
+                int expected = games[g].getCumulativeScore(frame);
+                assertEquals(expected, GameBatchScorer.getCumulativeScore(scalar, g, frame));
+                assertEquals(expected, GameBatchScorer.getCumulativeScore(vector, g, frame));
+            }
+        }
+    }
+
+    /**
+     * Score games made of strikes, spares and gutters only
+     * Expecting the totals of Game, including a strike followed by a strike
+     */
+    @Test
+    void testSpecialGames() {
+        int[][] games = {
+                {10, 10, 10, 10, 10, 10, 10, 10, 10, 10, 0, 10},
+                {5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5},
+                {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0},
+                {10, 0, 10, 10, 3, 4, 10, 5, 5, 10, 10, 10, 10, 0, 0}
+        };
+        int[] offsets = new int[games.length + 1];
+        int[] rolls = new int[games.length * RollScorer.MAX_ROLLS];
+        for (int g = 0; g < games.length; g++) {
+            System.arraycopy(games[g], 0, rolls, offsets[g], games[g].length);
+            offsets[g + 1] = offsets[g] + games[g].length;
+        }
+        FrameColumns columns = FrameColumns.of(rolls, offsets);
+        int[] totals = new int[RollScorer.FRAMES * games.length];
+        ColumnScorers.create().score(columns, totals);
+        for (int g = 0; g < games.length; g++) {
+            Game expected = RollScorer.toGame(games[g], 0, games[g].length);
+            for (int frame = 1; frame <= 10; frame++) {
+                assertEquals(expected.getCumulativeScore(frame), GameBatchScorer.getCumulativeScore(totals, g, frame));
+            }
+        }
+    }
+
+    /**
+     * Create the best backend with the incubator module present
+     * Expecting the vector backend
+     */
+    @Test
+    void testCreate() {
+        assertTrue(ColumnScorers.isVectorAvailable());
+        assertTrue(ColumnScorers.create() instanceof VectorColumnScorer);
+    }
+
+    /**
+     * Read a game that is not complete
+     * Expecting BowlingException
+     */
+    @Test
+    void testIncompleteGame() {
+        assertThrows(BowlingException.class, () -> FrameColumns.of(new int[]{10, 10, 3}, new int[]{0, 3}));
+    }
+}